@@ -2,6 +2,8 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.7"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
+    id("org.graalvm.buildtools.native") version "0.10.6" apply false
     kotlin("jvm")
 }
 
@@ -11,7 +13,7 @@ description = "bank_rest"
 
 java {
     toolchain {
-        languageVersion = JavaLanguageVersion.of(17)
+        languageVersion = JavaLanguageVersion.of(21)
     }
 }
 
@@ -21,6 +23,24 @@ configurations {
     }
 }
 
+// Тесты и бенчмарки, которым нужен настоящий PostgreSQL (Testcontainers).
+// Без Docker они пропускаются, в обычный `test` не входят.
+sourceSets {
+    create("integrationTest") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+val integrationTestImplementation: Configuration by configurations.getting {
+    extendsFrom(configurations.implementation.get(), configurations.testImplementation.get())
+}
+val integrationTestRuntimeOnly: Configuration by configurations.getting {
+    extendsFrom(configurations.runtimeOnly.get(), configurations.testRuntimeOnly.get())
+}
+configurations["integrationTestCompileOnly"].extendsFrom(configurations.compileOnly.get())
+configurations["integrationTestAnnotationProcessor"].extendsFrom(configurations.annotationProcessor.get())
+
 repositories {
     mavenCentral()
 }
@@ -29,9 +49,16 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-web")
+    implementation("org.springframework.boot:spring-boot-starter-aop")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("com.fasterxml.jackson.module:jackson-module-blackbird")
     implementation("org.liquibase:liquibase-core")
+    implementation("org.springframework:spring-r2dbc")
+    implementation("org.postgresql:r2dbc-postgresql")
+    implementation("io.r2dbc:r2dbc-pool")
     compileOnly("org.projectlombok:lombok")
-    runtimeOnly("org.postgresql:postgresql")
+    implementation("org.postgresql:postgresql")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     annotationProcessor("org.projectlombok:lombok")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.security:spring-security-test")
@@ -48,8 +75,60 @@ dependencies {
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.8.13")
 
     testImplementation("io.mockk:mockk:1.13.9")
+
+    // Integration tests
+    integrationTestImplementation("org.testcontainers:junit-jupiter")
+    integrationTestImplementation("org.testcontainers:postgresql")
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// Микробенчмарки горячих компонентов: gradle jmh (-Pjmh.includes=CardEncryption для одного класса).
+// Параметры прогрева/замеров зафиксированы аннотациями в самих бенчмарках.
+jmh {
+    jmhVersion = "1.37"
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    failOnError = true
+    (findProperty("jmh.includes") as String?)?.let { includes = listOf(it) }
+}
+
+val integrationTest by tasks.registering(Test::class) {
+    description = "Runs tests against a real PostgreSQL started via Testcontainers."
+    group = "verification"
+    testClassesDirs = sourceSets["integrationTest"].output.classesDirs
+    classpath = sourceSets["integrationTest"].runtimeClasspath
+    shouldRunAfter(tasks.test)
+    // Пробрасываем параметры бенчмарков вида -Dbenchmark.rows=500000
+    systemProperties(System.getProperties().filterKeys { it.toString().startsWith("benchmark.") }
+        .mapKeys { it.key.toString() })
+    testLogging {
+        showStandardStreams = true
+    }
+}
+
+// Сборка с Spring AOT: gradle bootJar -Paot. Запуск: java -Dspring.aot.enabled=true -jar ...
+// Условные бины (@ConditionalOnProperty и т.п.) при этом вычисляются на этапе сборки.
+if (providers.gradleProperty("aot").isPresent) {
+    apply(plugin = "org.springframework.boot.aot")
+}
+
+// Нативный образ GraalVM: gradle nativeCompile -Pnative (нужен GraalVM 21 в GRAALVM_HOME/JAVA_HOME).
+// Плагин сам включает Spring AOT; подсказки для рефлексии — в NativeRuntimeHints.
+if (providers.gradleProperty("native").isPresent) {
+    apply(plugin = "org.graalvm.buildtools.native")
+    configure<org.graalvm.buildtools.gradle.dsl.GraalVMExtension> {
+        toolchainDetection = false
+        binaries.named("main") {
+            imageName = "bank_rest"
+            buildArgs.add("-H:+ReportExceptionStackTraces")
+        }
+    }
+}
+
+// Нужен только исполняемый jar, plain-jar мешает COPY в Dockerfile
+tasks.named<Jar>("jar") {
+    enabled = false
+}
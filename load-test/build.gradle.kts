@@ -0,0 +1,53 @@
+plugins {
+    java
+}
+
+// Нагрузочные сценарии Gatling. Вынесены в отдельный подпроект, чтобы BOM Spring Boot
+// из корневого проекта не переопределял версии Netty/Jackson, на которых работает Gatling.
+// Запуск вместе с приложением и PostgreSQL: ./load-test/run.sh <SimulationClass>
+
+val gatlingVersion = "3.13.5"
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(17)
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+val gatling: SourceSet by sourceSets.creating
+
+dependencies {
+    "gatlingImplementation"("io.gatling.highcharts:gatling-charts-highcharts:$gatlingVersion")
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
+}
+
+// ./gradlew :load-test:gatlingRun -Psimulation=TransferSimulation -Dloadtest.rate=200
+tasks.register<JavaExec>("gatlingRun") {
+    group = "verification"
+    description = "Runs a Gatling simulation against a running application"
+
+    classpath = gatling.runtimeClasspath
+    mainClass = "io.gatling.app.Gatling"
+    jvmArgs("-Xmx1g")
+
+    val simulation = providers.gradleProperty("simulation").orElse("CardBrowsingSimulation")
+    val resultsDir = layout.buildDirectory.dir("reports/gatling")
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(
+            "--simulation", "com.bortnik.bank_rest.loadtest." + simulation.get(),
+            "--results-folder", resultsDir.get().asFile.absolutePath
+        )
+    })
+
+    // Параметры сценариев пробрасываются как -Dloadtest.*, см. LoadTestConfig
+    systemProperties(System.getProperties()
+        .filterKeys { it.toString().startsWith("loadtest.") }
+        .mapKeys { it.key.toString() })
+}
@@ -0,0 +1,17 @@
+#!/usr/bin/env sh
+# Прогоняет один и тот же сценарий на платформенных и на виртуальных потоках.
+# Отчёты Gatling обоих прогонов сохраняются в load-test/build/reports/gatling.
+#
+#   ./load-test/compare-threads.sh [SimulationClass] [-Dloadtest.rate=300 ...]
+set -eu
+
+cd "$(dirname "$0")/.."
+
+SIMULATION="${1:-CardBrowsingSimulation}"
+[ "$#" -gt 0 ] && shift
+
+for mode in false true; do
+    echo "=== $SIMULATION, VIRTUAL_THREADS_ENABLED=$mode ==="
+    # Провал assertions в одном из режимов не должен прерывать сравнение
+    VIRTUAL_THREADS_ENABLED="$mode" ./load-test/run.sh "$SIMULATION" "$@" || true
+done
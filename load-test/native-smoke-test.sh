@@ -0,0 +1,80 @@
+#!/usr/bin/env sh
+# Smoke-тест нативного образа: собирает бинарник, запускает его против PostgreSQL из docker-compose.yaml
+# и проходит основные сценарии API. Печатает время до первого запроса и RSS процесса.
+#
+#   ./load-test/native-smoke-test.sh            # сборка + проверка
+#   SKIP_BUILD=1 ./load-test/native-smoke-test.sh
+set -eu
+
+cd "$(dirname "$0")/.."
+
+ENV_FILE=".env"
+[ -f "$ENV_FILE" ] || ENV_FILE=".env.example"
+set -a
+. "./$ENV_FILE"
+set +a
+
+BINARY="build/native/nativeCompile/bank_rest"
+BASE_URL="http://localhost:8080"
+LOG="build/native-smoke-test.log"
+
+if [ -z "${SKIP_BUILD:-}" ]; then
+    ./gradlew nativeCompile -Pnative
+fi
+
+docker compose up -d --wait postgres
+
+now_ms() {
+    date +%s%3N
+}
+
+started=$(now_ms)
+SPRING_DATASOURCE_URL="jdbc:postgresql://localhost:5432/${POSTGRES_DB:-bank}" \
+APP_R2DBC_URL="r2dbc:postgresql://localhost:5432/${POSTGRES_DB:-bank}" \
+    "$BINARY" > "$LOG" 2>&1 &
+APP_PID=$!
+trap 'kill "$APP_PID" 2>/dev/null || true' EXIT INT TERM
+
+until curl -fs "$BASE_URL/health" > /dev/null 2>&1; do
+    kill -0 "$APP_PID" 2>/dev/null || { echo "Native binary exited, see $LOG" >&2; exit 1; }
+    sleep 0.02
+done
+echo "First request after $(( $(now_ms) - started )) ms"
+
+BODY="build/native-smoke-test.body"
+
+# Проверяет HTTP-статус запроса, тело ответа сохраняется в $BODY
+call() {
+    expected="$1"; shift
+    status=$(curl -s -o "$BODY" -w '%{http_code}' -H 'Content-Type: application/json' "$@")
+    if [ "$status" != "$expected" ]; then
+        echo "FAILED: $* -> $status (expected $expected): $(cat "$BODY")" >&2
+        exit 1
+    fi
+}
+
+json_field() {
+    sed -n "s/.*\"$1\":\"\([^\"]*\)\".*/\1/p" "$BODY"
+}
+
+USERNAME="smoke-$(date +%s)"
+call 200 -X POST "$BASE_URL/api/auth/register" -d "{\"username\":\"$USERNAME\",\"password\":\"smoke-password\"}"
+USER_TOKEN=$(json_field token)
+call 200 -H "Authorization: Bearer $USER_TOKEN" "$BASE_URL/api/users/who-am-i"
+USER_ID=$(json_field id)
+
+call 200 -X POST "$BASE_URL/api/auth/login" -d "{\"username\":\"$ADMIN_USERNAME\",\"password\":\"$ADMIN_PASSWORD\"}"
+ADMIN_TOKEN=$(json_field token)
+call 201 -X POST -H "Authorization: Bearer $ADMIN_TOKEN" "$BASE_URL/api/admin/cards?userId=$USER_ID"
+CARD_ID=$(json_field id)
+call 200 -X POST -H "Authorization: Bearer $ADMIN_TOKEN" "$BASE_URL/api/admin/cards/$CARD_ID/top-up" -d '{"amount":100}'
+
+call 200 -H "Authorization: Bearer $USER_TOKEN" "$BASE_URL/api/cards/my"
+call 200 -H "Authorization: Bearer $USER_TOKEN" "$BASE_URL/api/cards/$CARD_ID"
+call 200 -H "Authorization: Bearer $USER_TOKEN" "$BASE_URL/api/reactive/cards/my"
+call 200 "$BASE_URL/v3/api-docs"
+call 200 "$BASE_URL/actuator/health"
+
+echo "RSS: $(grep VmRSS "/proc/$APP_PID/status" | awk '{print $2, $3}')"
+grep -m 1 "Started BankRestApplication" "$LOG" || true
+echo "Native smoke test passed"
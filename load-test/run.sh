@@ -0,0 +1,65 @@
+#!/usr/bin/env sh
+# Поднимает PostgreSQL и приложение, прогоняет сценарий Gatling и останавливает приложение.
+#
+#   ./load-test/run.sh [SimulationClass] [-Dloadtest.rate=200 ...]
+#
+# Если приложение уже запущено, укажите его адрес: LOADTEST_BASE_URL=http://host:8080 ./load-test/run.sh
+# и запустите его с app.fraud.enabled=false.
+#
+# Оценка мошенничества отключена: сотни переводов в минуту с одних карт превышают
+# app.fraud.transfer-threshold, и сценарий мерил бы ответы 429, а не переводы.
+# Включить её для прогона: APP_FRAUD_ENABLED=true ./load-test/run.sh ...
+set -eu
+
+cd "$(dirname "$0")/.."
+
+SIMULATION="${1:-CardBrowsingSimulation}"
+[ "$#" -gt 0 ] && shift
+
+ENV_FILE=".env"
+[ -f "$ENV_FILE" ] || ENV_FILE=".env.example"
+set -a
+. "./$ENV_FILE"
+set +a
+
+BASE_URL="${LOADTEST_BASE_URL:-}"
+APP_PID=""
+
+stop_app() {
+    if [ -n "$APP_PID" ]; then
+        kill "$APP_PID" 2>/dev/null || true
+        wait "$APP_PID" 2>/dev/null || true
+    fi
+}
+trap stop_app EXIT INT TERM
+
+if [ -z "$BASE_URL" ]; then
+    BASE_URL="http://localhost:8080"
+
+    docker compose up -d --wait postgres
+    ./gradlew -q bootJar
+    JAR="$(ls build/libs/*.jar | grep -v -- '-plain.jar' | head -n 1)"
+
+    SPRING_DATASOURCE_URL="jdbc:postgresql://localhost:5432/${POSTGRES_DB:-bank}" \
+    APP_FRAUD_ENABLED="${APP_FRAUD_ENABLED:-false}" \
+        java ${JAVA_OPTS:-} -jar "$JAR" > build/load-test-app.log 2>&1 &
+    APP_PID=$!
+
+    echo "Waiting for application on $BASE_URL (log: build/load-test-app.log)"
+    attempts=0
+    until curl -fs "$BASE_URL/health" > /dev/null; do
+        attempts=$((attempts + 1))
+        if [ "$attempts" -ge 120 ] || ! kill -0 "$APP_PID" 2>/dev/null; then
+            echo "Application did not start" >&2
+            exit 1
+        fi
+        sleep 1
+    done
+fi
+
+./gradlew :load-test:gatlingRun \
+    -Psimulation="$SIMULATION" \
+    -Dloadtest.baseUrl="$BASE_URL" \
+    -Dloadtest.adminUsername="${ADMIN_USERNAME:-admin}" \
+    -Dloadtest.adminPassword="${ADMIN_PASSWORD:-admin123}" \
+    "$@"
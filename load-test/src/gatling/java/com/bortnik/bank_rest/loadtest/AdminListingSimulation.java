@@ -0,0 +1,46 @@
+package com.bortnik.bank_rest.loadtest;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Постраничный просмотр всех карт администратором, страницы по 20 и 100 элементов.
+ */
+public class AdminListingSimulation extends Simulation {
+
+    private static final int PAGES = 10;
+
+    private final String adminToken = seedAndLogin();
+
+    private static String seedAndLogin() {
+        LoadTestSeeder.seed(LoadTestConfig.USER_PREFIX, LoadTestConfig.USERS, 2);
+        return LoadTestSeeder.adminToken();
+    }
+
+    private final ScenarioBuilder listing = scenario("Admin listing")
+            .feed(Stream.generate(() -> Map.<String, Object>of(
+                    "page", ThreadLocalRandom.current().nextInt(PAGES),
+                    "size", ThreadLocalRandom.current().nextBoolean() ? 20 : 100
+            )).iterator())
+            .exec(http("GET /api/admin/cards")
+                    .get("/api/admin/cards?page=#{page}&size=#{size}")
+                    .header("Authorization", "Bearer " + adminToken)
+                    .check(status().is(200)));
+
+    {
+        setUp(listing.injectOpen(
+                rampUsersPerSec(1).to(LoadTestConfig.RATE).during(LoadTestConfig.RAMP),
+                constantUsersPerSec(LoadTestConfig.RATE).during(LoadTestConfig.DURATION)
+        ))
+                .protocols(LoadTestConfig.httpProtocol())
+                .assertions(global().failedRequests().percent().lt(1.0));
+    }
+}
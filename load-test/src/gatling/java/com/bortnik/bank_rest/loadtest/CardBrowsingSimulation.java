@@ -0,0 +1,43 @@
+package com.bortnik.bank_rest.loadtest;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+
+import java.time.Duration;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Просмотр карт мобильным клиентом: список своих карт и карточка по ID.
+ */
+public class CardBrowsingSimulation extends Simulation {
+
+    public CardBrowsingSimulation() {
+        this("/api/cards");
+    }
+
+    protected CardBrowsingSimulation(final String cardsPath) {
+        final ScenarioBuilder browsing = scenario("Card browsing " + cardsPath)
+                .feed(listFeeder(LoadTestSeeder.seed(LoadTestConfig.USER_PREFIX, LoadTestConfig.USERS, 2).stream()
+                        .map(LoadTestSeeder.SeededUser::toFeederRecord)
+                        .toList()).random())
+                .exec(http("GET " + cardsPath + "/my")
+                        .get(cardsPath + "/my?page=0&size=20")
+                        .header("Authorization", "Bearer #{token}")
+                        .check(status().is(200)))
+                .pause(Duration.ofMillis(100))
+                .exec(http("GET " + cardsPath + "/{cardId}")
+                        .get(cardsPath + "/#{card0}")
+                        .header("Authorization", "Bearer #{token}")
+                        .check(status().is(200)));
+
+        setUp(browsing.injectOpen(
+                rampUsersPerSec(1).to(LoadTestConfig.RATE).during(LoadTestConfig.RAMP),
+                constantUsersPerSec(LoadTestConfig.RATE).during(LoadTestConfig.DURATION)
+        ))
+                .protocols(LoadTestConfig.httpProtocol())
+                .assertions(global().failedRequests().percent().lt(1.0));
+    }
+}
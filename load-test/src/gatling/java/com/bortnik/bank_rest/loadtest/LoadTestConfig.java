@@ -0,0 +1,37 @@
+package com.bortnik.bank_rest.loadtest;
+
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.time.Duration;
+
+import static io.gatling.javaapi.http.HttpDsl.http;
+
+/**
+ * Параметры нагрузочных сценариев. Задаются системными свойствами {@code -Dloadtest.*}.
+ */
+public final class LoadTestConfig {
+
+    public static final String BASE_URL = System.getProperty("loadtest.baseUrl", "http://localhost:8080");
+    public static final String ADMIN_USERNAME = System.getProperty("loadtest.adminUsername", "admin");
+    public static final String ADMIN_PASSWORD = System.getProperty("loadtest.adminPassword", "admin123");
+
+    // Сколько пользователей с картами создаётся перед запуском сценария
+    public static final int USERS = Integer.getInteger("loadtest.users", 200);
+    // Целевая интенсивность: новых виртуальных пользователей в секунду
+    public static final int RATE = Integer.getInteger("loadtest.rate", 100);
+    public static final Duration RAMP = Duration.ofSeconds(Integer.getInteger("loadtest.rampSeconds", 30));
+    public static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.durationSeconds", 120));
+
+    public static final String USER_PREFIX = System.getProperty("loadtest.userPrefix", "loadtest-user-");
+    public static final String USER_PASSWORD = "loadtest-password";
+
+    private LoadTestConfig() {
+    }
+
+    public static HttpProtocolBuilder httpProtocol() {
+        return http.baseUrl(BASE_URL)
+                .acceptHeader("application/json")
+                .contentTypeHeader("application/json")
+                .userAgentHeader("bank-rest-load-test");
+    }
+}
@@ -0,0 +1,147 @@
+package com.bortnik.bank_rest.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Подготовка данных через публичный API: регистрирует пользователей, выпускает им карты
+ * от имени администратора и пополняет баланс. Повторный запуск переиспользует уже созданных пользователей и карты.
+ */
+public final class LoadTestSeeder {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    private static final String INITIAL_BALANCE = "1000000";
+    private static final int SEED_THREADS = 16;
+
+    public record SeededUser(String username, String password, String token, UUID id, List<UUID> cardIds) {
+
+        public Map<String, Object> toFeederRecord() {
+            final Map<String, Object> record = new HashMap<>();
+            record.put("username", username);
+            record.put("password", password);
+            record.put("token", token);
+            record.put("userId", id.toString());
+            for (int i = 0; i < cardIds.size(); i++) {
+                record.put("card" + i, cardIds.get(i).toString());
+            }
+            return record;
+        }
+    }
+
+    private LoadTestSeeder() {
+    }
+
+    /**
+     * Создаёт (или находит) пользователей с именами {@code prefix0..prefixN-1}, у каждого не меньше {@code cardsPerUser} карт.
+     */
+    public static List<SeededUser> seed(final String prefix, final int users, final int cardsPerUser) {
+        final String adminToken = adminToken();
+        final ExecutorService executor = Executors.newFixedThreadPool(SEED_THREADS);
+        try {
+            final List<Future<SeededUser>> futures = IntStream.range(0, users)
+                    .mapToObj(i -> executor.submit(() ->
+                            seedUser(prefix + i, LoadTestConfig.USER_PASSWORD, cardsPerUser, adminToken)))
+                    .toList();
+            final List<SeededUser> seeded = new ArrayList<>(users);
+            for (Future<SeededUser> future : futures) {
+                seeded.add(future.get());
+            }
+            System.out.printf("Seeded %d users with %d cards each%n", seeded.size(), cardsPerUser);
+            return seeded;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to seed load test data", e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static String adminToken() {
+        return login(LoadTestConfig.ADMIN_USERNAME, LoadTestConfig.ADMIN_PASSWORD);
+    }
+
+    private static SeededUser seedUser(
+            final String username,
+            final String password,
+            final int cardsPerUser,
+            final String adminToken
+    ) throws IOException, InterruptedException {
+        final String credentials = MAPPER.writeValueAsString(Map.of("username", username, "password", password));
+        final HttpResponse<String> registered = send(post("/api/auth/register", credentials, null));
+        final String token = registered.statusCode() == 200
+                ? data(registered).get("token").asText()
+                : login(username, password);
+
+        final UUID userId = UUID.fromString(data(send(get("/api/users/who-am-i", token))).get("id").asText());
+
+        final List<UUID> cardIds = new ArrayList<>();
+        data(send(get("/api/cards/my?size=100", token))).get("content")
+                .forEach(card -> cardIds.add(UUID.fromString(card.get("id").asText())));
+
+        while (cardIds.size() < cardsPerUser) {
+            final UUID cardId = UUID.fromString(
+                    data(send(post("/api/admin/cards?userId=" + userId, "", adminToken))).get("id").asText());
+            send(post("/api/admin/cards/" + cardId + "/top-up", "{\"amount\":" + INITIAL_BALANCE + "}", adminToken));
+            cardIds.add(cardId);
+        }
+
+        return new SeededUser(username, password, token, userId, List.copyOf(cardIds.subList(0, cardsPerUser)));
+    }
+
+    private static String login(final String username, final String password) {
+        try {
+            final String credentials = MAPPER.writeValueAsString(Map.of("username", username, "password", password));
+            return data(send(post("/api/auth/login", credentials, null))).get("token").asText();
+        } catch (IOException | InterruptedException e) {
+            throw new IllegalStateException("Login failed for " + username, e);
+        }
+    }
+
+    private static HttpRequest get(final String path, final String token) {
+        return request(path, token).GET().build();
+    }
+
+    private static HttpRequest post(final String path, final String body, final String token) {
+        return request(path, token).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static HttpRequest.Builder request(final String path, final String token) {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(LoadTestConfig.BASE_URL + path))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static HttpResponse<String> send(final HttpRequest request) throws IOException, InterruptedException {
+        final HttpResponse<String> response = CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 500) {
+            throw new IllegalStateException(request.uri() + " -> " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private static JsonNode data(final HttpResponse<String> response) throws IOException {
+        final JsonNode body = MAPPER.readTree(response.body());
+        if (!body.path("success").asBoolean(false)) {
+            throw new IllegalStateException(response.uri() + " -> " + response.statusCode() + ": " + response.body());
+        }
+        return body.get("responseData");
+    }
+}
@@ -0,0 +1,32 @@
+package com.bortnik.bank_rest.loadtest;
+
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Шторм логинов: каждый виртуальный пользователь выполняет один вход (BCrypt + выпуск JWT).
+ */
+public class LoginStormSimulation extends Simulation {
+
+    private final ScenarioBuilder loginStorm = scenario("Login storm")
+            .feed(listFeeder(LoadTestSeeder.seed(LoadTestConfig.USER_PREFIX, LoadTestConfig.USERS, 0).stream()
+                    .map(LoadTestSeeder.SeededUser::toFeederRecord)
+                    .toList()).circular())
+            .exec(http("POST /api/auth/login")
+                    .post("/api/auth/login")
+                    .body(StringBody("{\"username\":\"#{username}\",\"password\":\"#{password}\"}"))
+                    .check(status().is(200)));
+
+    {
+        setUp(loginStorm.injectOpen(
+                rampUsersPerSec(1).to(LoadTestConfig.RATE).during(LoadTestConfig.RAMP),
+                constantUsersPerSec(LoadTestConfig.RATE).during(LoadTestConfig.DURATION)
+        ))
+                .protocols(LoadTestConfig.httpProtocol())
+                .assertions(global().failedRequests().percent().lt(1.0));
+    }
+}
@@ -0,0 +1,12 @@
+package com.bortnik.bank_rest.loadtest;
+
+/**
+ * Тот же сценарий, что {@link CardBrowsingSimulation}, на реактивных эндпоинтах {@code /api/reactive/cards}.
+ * Для сравнения запускайте оба сценария с одинаковыми {@code loadtest.rate} и {@code loadtest.users}.
+ */
+public class ReactiveCardBrowsingSimulation extends CardBrowsingSimulation {
+
+    public ReactiveCardBrowsingSimulation() {
+        super("/api/reactive/cards");
+    }
+}
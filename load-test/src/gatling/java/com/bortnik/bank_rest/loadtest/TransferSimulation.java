@@ -0,0 +1,74 @@
+package com.bortnik.bank_rest.loadtest;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Переводы между своими картами в двух режимах одновременно:
+ * <ul>
+ *     <li>uncontended — у каждого виртуального пользователя свой владелец карт, блокировки строк почти не пересекаются;</li>
+ *     <li>contended — все виртуальные пользователи переводят между двумя картами одного владельца.</li>
+ * </ul>
+ * Направление перевода выбирается случайно, чтобы балансы не истощались.
+ * Рассчитан на приложение с {@code app.fraud.enabled=false} (так его запускает {@code run.sh}):
+ * иначе частые переводы с одних карт получают 429 и сценарий не проходит проверку на ошибки.
+ */
+public class TransferSimulation extends Simulation {
+
+    private static final String HOT_USER_PREFIX = LoadTestConfig.USER_PREFIX + "hot-";
+
+    private final List<Map<String, Object>> users = LoadTestSeeder
+            .seed(LoadTestConfig.USER_PREFIX, LoadTestConfig.USERS, 2).stream()
+            .map(LoadTestSeeder.SeededUser::toFeederRecord)
+            .toList();
+
+    private final List<Map<String, Object>> hotUser = LoadTestSeeder
+            .seed(HOT_USER_PREFIX, 1, 2).stream()
+            .map(LoadTestSeeder.SeededUser::toFeederRecord)
+            .toList();
+
+    private static ChainBuilder transfer(final String requestName) {
+        return exec(session -> {
+            final boolean forward = ThreadLocalRandom.current().nextBoolean();
+            return session
+                    .set("fromCardId", session.getString(forward ? "card0" : "card1"))
+                    .set("toCardId", session.getString(forward ? "card1" : "card0"));
+        }).exec(http(requestName)
+                .post("/api/cards/transfer")
+                .header("Authorization", "Bearer #{token}")
+                .body(StringBody("{\"fromCardId\":\"#{fromCardId}\",\"toCardId\":\"#{toCardId}\",\"amount\":1.00}"))
+                .check(status().is(200)));
+    }
+
+    private final ScenarioBuilder uncontended = scenario("Transfer uncontended")
+            .feed(listFeeder(users).circular())
+            .exec(transfer("POST /api/cards/transfer (uncontended)"));
+
+    private final ScenarioBuilder contended = scenario("Transfer contended")
+            .feed(listFeeder(hotUser).circular())
+            .exec(transfer("POST /api/cards/transfer (contended)"));
+
+    {
+        setUp(
+                uncontended.injectOpen(
+                        rampUsersPerSec(1).to(LoadTestConfig.RATE).during(LoadTestConfig.RAMP),
+                        constantUsersPerSec(LoadTestConfig.RATE).during(LoadTestConfig.DURATION)
+                ),
+                contended.injectOpen(
+                        rampUsersPerSec(1).to(LoadTestConfig.RATE).during(LoadTestConfig.RAMP),
+                        constantUsersPerSec(LoadTestConfig.RATE).during(LoadTestConfig.DURATION)
+                )
+        )
+                .protocols(LoadTestConfig.httpProtocol())
+                .assertions(global().failedRequests().percent().lt(1.0));
+    }
+}
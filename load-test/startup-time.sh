@@ -0,0 +1,49 @@
+#!/usr/bin/env sh
+# Время до первого успешного запроса и RSS после старта для одного или нескольких образов.
+#
+#   docker build -t bank-rest:jit . && docker build --target aot -t bank-rest:aot .
+#   ./load-test/startup-time.sh bank-rest:jit bank-rest:aot
+#
+# Использует сеть хоста (Linux) и PostgreSQL из docker-compose.yaml.
+set -eu
+
+cd "$(dirname "$0")/.."
+
+[ "$#" -gt 0 ] || { echo "Usage: $0 <image> [<image> ...]" >&2; exit 1; }
+
+ENV_FILE=".env"
+[ -f "$ENV_FILE" ] || ENV_FILE=".env.example"
+set -a
+. "./$ENV_FILE"
+set +a
+
+RUNS="${RUNS:-3}"
+PORT="${PORT:-8080}"
+
+docker compose up -d --wait postgres
+
+now_ms() {
+    date +%s%3N
+}
+
+printf "%-30s %5s %12s %10s\n" "image" "run" "first req ms" "rss"
+for image in "$@"; do
+    run=1
+    while [ "$run" -le "$RUNS" ]; do
+        started=$(now_ms)
+        container=$(docker run -d --rm --network host --env-file "$ENV_FILE" \
+            -e SPRING_DATASOURCE_URL="jdbc:postgresql://localhost:5432/${POSTGRES_DB:-bank}" \
+            -e APP_R2DBC_URL="r2dbc:postgresql://localhost:5432/${POSTGRES_DB:-bank}" \
+            -e SERVER_PORT="$PORT" \
+            "$image")
+        until curl -fs "http://localhost:$PORT/health" > /dev/null 2>&1; do
+            docker inspect "$container" > /dev/null 2>&1 || { echo "$image exited before first request" >&2; exit 1; }
+            sleep 0.05
+        done
+        elapsed=$(( $(now_ms) - started ))
+        rss=$(docker stats --no-stream --format '{{.MemUsage}}' "$container" | cut -d/ -f1)
+        printf "%-30s %5d %12d %10s\n" "$image" "$run" "$elapsed" "$rss"
+        docker stop "$container" > /dev/null
+        run=$((run + 1))
+    done
+done
@@ -4,3 +4,5 @@ pluginManagement {
     }
 }
 rootProject.name = "bank_rest"
+
+include("load-test")
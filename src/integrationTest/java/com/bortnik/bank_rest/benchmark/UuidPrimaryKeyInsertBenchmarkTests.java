@@ -0,0 +1,130 @@
+package com.bortnik.bank_rest.benchmark;
+
+import com.bortnik.bank_rest.util.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Вставка большого числа строк в таблицу со схемой, повторяющей {@code cards},
+ * с первичным ключом из случайных UUIDv4 и из упорядоченных по времени UUIDv7.
+ * Сравнивает пропускную способность вставки и размер индексов.
+ * <p>
+ * Запуск: {@code gradle integrationTest --tests '*UuidPrimaryKeyInsertBenchmarkTests' -Dbenchmark.rows=1000000}
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class UuidPrimaryKeyInsertBenchmarkTests {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int BATCH_SIZE = 1_000;
+    private static final int USERS = 10_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:18");
+
+    @Test
+    void uuidV7_producesSmallerPrimaryKeyIndexThanRandomUuid() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                postgres.getJdbcUrl() + "&reWriteBatchedInserts=true",
+                postgres.getUsername(),
+                postgres.getPassword()
+        )) {
+            final UUID[] userIds = new UUID[USERS];
+            for (int i = 0; i < USERS; i++) {
+                userIds[i] = UUID.randomUUID();
+            }
+
+            final Result random = run(connection, "cards_random", UUID::randomUUID, userIds);
+            final Result v7 = run(connection, "cards_v7", UuidV7Generator::generate, userIds);
+
+            System.out.printf("%n%-10s %12s %14s %16s %18s%n",
+                    "strategy", "rows", "rows/sec", "pkey size (KB)", "user_id idx (KB)");
+            random.print("uuid v4");
+            v7.print("uuid v7");
+
+            assertTrue(v7.primaryKeyBytes < random.primaryKeyBytes,
+                    "UUIDv7 primary key index should be more compact than the random UUID one");
+        }
+    }
+
+    private Result run(
+            final Connection connection,
+            final String table,
+            final Supplier<UUID> idSupplier,
+            final UUID[] userIds
+    ) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE %1$s
+                    (
+                        id               UUID PRIMARY KEY,
+                        user_id          UUID           NOT NULL,
+                        card_number      VARCHAR(500)   NOT NULL,
+                        last_four_digits VARCHAR(4)     NOT NULL,
+                        status           VARCHAR(20)    NOT NULL,
+                        expiration_date  DATE           NOT NULL,
+                        balance          DECIMAL(19, 4) NOT NULL,
+                        created_at       TIMESTAMP DEFAULT NOW() NOT NULL
+                    );
+                    CREATE INDEX idx_%1$s_user_id ON %1$s (user_id);
+                    """.formatted(table));
+        }
+
+        connection.setAutoCommit(false);
+        final long started = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO %s (id, user_id, card_number, last_four_digits, status, expiration_date, balance)
+                VALUES (?, ?, ?, '1234', 'ACTIVE', CURRENT_DATE + 1825, 0)
+                """.formatted(table))) {
+            for (int i = 1; i <= ROWS; i++) {
+                insert.setObject(1, idSupplier.get());
+                insert.setObject(2, userIds[i % userIds.length]);
+                insert.setString(3, "encrypted-card-number-" + i);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        final long elapsedNanos = System.nanoTime() - started;
+        connection.setAutoCommit(true);
+
+        return new Result(
+                ROWS * 1_000_000_000.0 / elapsedNanos,
+                relationSize(connection, table + "_pkey"),
+                relationSize(connection, "idx_" + table + "_user_id")
+        );
+    }
+
+    private long relationSize(final Connection connection, final String relation) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_relation_size(?::regclass)")) {
+            statement.setString(1, relation);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private record Result(double rowsPerSecond, long primaryKeyBytes, long userIdIndexBytes) {
+        void print(final String strategy) {
+            System.out.printf("%-10s %12d %14.0f %16d %18d%n",
+                    strategy, ROWS, rowsPerSecond, primaryKeyBytes / 1024, userIdIndexBytes / 1024);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.bortnik.bank_rest.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Два «узла» с собственными кэшами на одной БД: инвалидация на одном узле
+ * доходит до другого через {@code pg_notify}.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class CacheInvalidationBusIntegrationTests {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:18");
+
+    private final LocalCache<String> senderCache = new LocalCache<>(CacheNames.USERS, Duration.ofMinutes(1), 100);
+    private final LocalCache<String> receiverCache = new LocalCache<>(CacheNames.USERS, Duration.ofMinutes(1), 100);
+    private CacheInvalidationListener listener;
+
+    private CacheInvalidationBus bus(LocalCache<String> cache) {
+        CacheInvalidationBus bus = new CacheInvalidationBus(
+                List.of(cache),
+                new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()),
+                new ObjectMapper(),
+                new SimpleMeterRegistry());
+        setField(bus, "enabled", true);
+        setField(bus, "maxPendingKeys", 10_000);
+        return bus;
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (listener != null) {
+            listener.stop();
+        }
+    }
+
+    @Test
+    void invalidation_reachesOtherNode() throws Exception {
+        CacheInvalidationBus sender = bus(senderCache);
+        CacheInvalidationBus receiver = bus(receiverCache);
+
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(postgres.getJdbcUrl());
+        properties.setUsername(postgres.getUsername());
+        properties.setPassword(postgres.getPassword());
+        listener = new CacheInvalidationListener(receiver, properties);
+        setField(listener, "pollTimeout", Duration.ofMillis(100));
+        setField(listener, "reconnectDelay", Duration.ofMillis(100));
+        // Слушатель очищает кэш после подписки: по исчезновению записи видно, что он подписался
+        receiverCache.get("probe", () -> "probe");
+        listener.start();
+        awaitEmpty(receiverCache);
+
+        receiverCache.get("user-1", () -> "cached");
+        receiverCache.get("user-2", () -> "cached");
+        sender.invalidate(CacheNames.USERS, "user-1");
+        sender.flush();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (receiverCache.size() != 1 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, receiverCache.size());
+        assertEquals("cached", receiverCache.get("user-2", () -> "reloaded"));
+    }
+
+    private void awaitEmpty(LocalCache<?> cache) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (cache.size() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, cache.size());
+    }
+}
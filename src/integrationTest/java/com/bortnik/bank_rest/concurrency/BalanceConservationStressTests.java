@@ -0,0 +1,182 @@
+package com.bortnik.bank_rest.concurrency;
+
+import com.bortnik.bank_rest.dto.card.CardTransactionDTO;
+import com.bortnik.bank_rest.entity.Card;
+import com.bortnik.bank_rest.entity.Role;
+import com.bortnik.bank_rest.entity.User;
+import com.bortnik.bank_rest.exception.card.InsufficientFunds;
+import com.bortnik.bank_rest.repository.CardRepository;
+import com.bortnik.bank_rest.repository.UserRepository;
+import com.bortnik.bank_rest.service.card.AdminCardService;
+import com.bortnik.bank_rest.service.card.UserCardService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Стресс-тест сервисов карт на настоящей БД: тысячи случайных переводов и пополнений
+ * выполняются параллельно на небольшом числе карт, чтобы транзакции постоянно конкурировали за одни строки.
+ * После прогона сумма балансов должна совпасть с начальной суммой плюс успешные пополнения,
+ * а отрицательных балансов быть не должно.
+ * <p>
+ * Запуск: {@code gradle integrationTest --tests '*BalanceConservationStressTests' -Dbenchmark.operations=20000}
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.security.jwt.secret=s29sGMx+VE3sGWO3VELLsK/ZJRzBimocYwXLvrnSaLQ=",
+        "card.encryption.key=lpQgjumIoHHYgU60pUmMIzbQAPO+IAJ/NTMzedg091Y=",
+        "app.admin.username=admin",
+        "app.admin.password=admin123",
+        "app.datasource.pools.user.maximum-pool-size=40",
+        "app.datasource.pools.admin.maximum-pool-size=40",
+        "app.concurrency-limit.enabled=false",
+        "app.fraud.enabled=false"
+})
+public class BalanceConservationStressTests {
+
+    private static final int OPERATIONS = Integer.getInteger("benchmark.operations", 5_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final int USERS = 4;
+    private static final int CARDS_PER_USER = 3;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1_000);
+    private static final int TOP_UP_PERCENT = 20;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:18");
+
+    @DynamicPropertySource
+    static void datasource(final DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.r2dbc.url", () -> "r2dbc:postgresql://%s:%d/%s".formatted(
+                postgres.getHost(), postgres.getFirstMappedPort(), postgres.getDatabaseName()));
+        registry.add("app.r2dbc.username", postgres::getUsername);
+        registry.add("app.r2dbc.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private UserCardService userCardService;
+
+    @Autowired
+    private AdminCardService adminCardService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Test
+    void concurrentTransfersAndTopUps_conserveMoney() throws Exception {
+        final Map<UUID, List<UUID>> cardsByUser = seed();
+        final List<UUID> userIds = List.copyOf(cardsByUser.keySet());
+        final BigDecimal initialTotal = totalBalance();
+
+        // Суммы в целых единицах, поэтому ожидаемый итог можно копить в long
+        final AtomicLong toppedUp = new AtomicLong();
+        final AtomicInteger transfers = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final Map<String, Throwable> unexpected = new ConcurrentHashMap<>();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final long started = System.nanoTime();
+        try {
+            final List<Future<?>> futures = new ArrayList<>(OPERATIONS);
+            for (int i = 0; i < OPERATIONS; i++) {
+                futures.add(executor.submit(() -> {
+                    final ThreadLocalRandom random = ThreadLocalRandom.current();
+                    final UUID userId = userIds.get(random.nextInt(userIds.size()));
+                    final List<UUID> cards = cardsByUser.get(userId);
+                    try {
+                        if (random.nextInt(100) < TOP_UP_PERCENT) {
+                            final long amount = random.nextLong(1, 50);
+                            adminCardService.topUpCardBalance(
+                                    cards.get(random.nextInt(cards.size())), BigDecimal.valueOf(amount));
+                            toppedUp.addAndGet(amount);
+                        } else {
+                            final int from = random.nextInt(cards.size());
+                            final int to = (from + 1 + random.nextInt(cards.size() - 1)) % cards.size();
+                            userCardService.internalTransfer(CardTransactionDTO.builder()
+                                    .fromCardId(cards.get(from))
+                                    .toCardId(cards.get(to))
+                                    .amount(BigDecimal.valueOf(random.nextLong(1, 300)))
+                                    .build(), userId);
+                            transfers.incrementAndGet();
+                        }
+                    } catch (InsufficientFunds e) {
+                        rejected.incrementAndGet();
+                    } catch (Exception e) {
+                        unexpected.putIfAbsent(e.getClass().getName(), e);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+        final double elapsedSeconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        System.out.printf("%nops=%d threads=%d cards=%d elapsed=%.2fs throughput=%.0f ops/s "
+                        + "(transfers=%d, top-ups total=%d, rejected for insufficient funds=%d)%n",
+                OPERATIONS, THREADS, USERS * CARDS_PER_USER, elapsedSeconds, OPERATIONS / elapsedSeconds,
+                transfers.get(), toppedUp.get(), rejected.get());
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+
+        final List<Card> cards = cardRepository.findAll();
+        cards.forEach(card -> assertTrue(card.getBalance().signum() >= 0,
+                () -> "Negative balance on card " + card.getId() + ": " + card.getBalance()));
+        assertEquals(0, initialTotal.add(BigDecimal.valueOf(toppedUp.get())).compareTo(totalBalance()),
+                "Total balance must equal the initial total plus successful top-ups");
+    }
+
+    private Map<UUID, List<UUID>> seed() {
+        final Map<UUID, List<UUID>> cardsByUser = new ConcurrentHashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            final User user = userRepository.save(User.builder()
+                    .username("stress-user-" + i)
+                    .password("not-used")
+                    .role(Role.USER)
+                    .build());
+            final List<UUID> cards = new ArrayList<>();
+            for (int j = 0; j < CARDS_PER_USER; j++) {
+                final UUID cardId = adminCardService.createCardForUser(user.getId()).getId();
+                adminCardService.topUpCardBalance(cardId, INITIAL_BALANCE);
+                cards.add(cardId);
+            }
+            cardsByUser.put(user.getId(), cards);
+        }
+        return cardsByUser;
+    }
+
+    private BigDecimal totalBalance() {
+        return cardRepository.findAll().stream()
+                .map(Card::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,168 @@
+package com.bortnik.bank_rest.concurrency;
+
+import com.bortnik.bank_rest.dto.card.CardHoldDTO;
+import com.bortnik.bank_rest.dto.card.CardHoldRequest;
+import com.bortnik.bank_rest.entity.Card;
+import com.bortnik.bank_rest.entity.Role;
+import com.bortnik.bank_rest.entity.User;
+import com.bortnik.bank_rest.exception.card.InsufficientFunds;
+import com.bortnik.bank_rest.repository.CardHoldRepository;
+import com.bortnik.bank_rest.repository.CardRepository;
+import com.bortnik.bank_rest.repository.UserRepository;
+import com.bortnik.bank_rest.service.card.AdminCardService;
+import com.bortnik.bank_rest.service.card.CardHoldService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Параллельные удержания одной карты на настоящей БД: сумма успешных удержаний не должна превысить баланс,
+ * {@code held_amount} должен совпасть с ней, а после списания, отмены и истечения удержаний
+ * баланс уменьшается ровно на списанные суммы.
+ * <p>
+ * Запуск: {@code gradle integrationTest --tests '*CardHoldConcurrencyTests' -Dbenchmark.operations=5000}
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.security.jwt.secret=s29sGMx+VE3sGWO3VELLsK/ZJRzBimocYwXLvrnSaLQ=",
+        "card.encryption.key=lpQgjumIoHHYgU60pUmMIzbQAPO+IAJ/NTMzedg091Y=",
+        "app.admin.username=admin",
+        "app.admin.password=admin123",
+        "app.datasource.pools.user.maximum-pool-size=40",
+        "app.concurrency-limit.enabled=false",
+        "app.fraud.enabled=false"
+})
+public class CardHoldConcurrencyTests {
+
+    private static final int OPERATIONS = Integer.getInteger("benchmark.operations", 1_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(10_000);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:18");
+
+    @DynamicPropertySource
+    static void datasource(final DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.r2dbc.url", () -> "r2dbc:postgresql://%s:%d/%s".formatted(
+                postgres.getHost(), postgres.getFirstMappedPort(), postgres.getDatabaseName()));
+        registry.add("app.r2dbc.username", postgres::getUsername);
+        registry.add("app.r2dbc.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private CardHoldService cardHoldService;
+
+    @Autowired
+    private AdminCardService adminCardService;
+
+    @Autowired
+    private CardHoldRepository cardHoldRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Test
+    void concurrentHoldsOnOneCard_neverExceedBalance() throws Exception {
+        final UUID cardId = seedCard();
+
+        final ConcurrentLinkedQueue<CardHoldDTO> holds = new ConcurrentLinkedQueue<>();
+        final AtomicInteger rejected = new AtomicInteger();
+        final Map<String, Throwable> unexpected = new ConcurrentHashMap<>();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final long started = System.nanoTime();
+        try {
+            final List<Future<?>> futures = new ArrayList<>(OPERATIONS);
+            for (int i = 0; i < OPERATIONS; i++) {
+                futures.add(executor.submit(() -> {
+                    final long amount = ThreadLocalRandom.current().nextLong(1, 50);
+                    try {
+                        holds.add(cardHoldService.createHold(cardId, new CardHoldRequest(BigDecimal.valueOf(amount), null)));
+                    } catch (InsufficientFunds e) {
+                        rejected.incrementAndGet();
+                    } catch (Exception e) {
+                        unexpected.putIfAbsent(e.getClass().getName(), e);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+        final double elapsedSeconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        System.out.printf("%nholds=%d threads=%d elapsed=%.2fs throughput=%.0f holds/s (rejected=%d)%n",
+                OPERATIONS, THREADS, elapsedSeconds, OPERATIONS / elapsedSeconds, rejected.get());
+
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+
+        final BigDecimal held = holds.stream().map(CardHoldDTO::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        Card card = cardRepository.findById(cardId).orElseThrow();
+        assertEquals(0, held.compareTo(card.getHeldAmount()), "Held amount must equal the sum of successful holds");
+        assertTrue(card.getAvailableBalance().signum() >= 0);
+
+        // Треть удержаний списывается, треть отменяется, остальные истекают
+        BigDecimal captured = BigDecimal.ZERO;
+        int index = 0;
+        for (CardHoldDTO hold : holds) {
+            if (index % 3 == 0) {
+                cardHoldService.captureHold(cardId, hold.getId(), null);
+                captured = captured.add(hold.getAmount());
+            } else if (index % 3 == 1) {
+                cardHoldService.releaseHold(cardId, hold.getId());
+            }
+            index++;
+        }
+        final LocalDateTime afterExpiry = LocalDateTime.now().plusDays(8);
+        while (cardHoldRepository.expireHoldsBatch(100, afterExpiry).size() == 100) {
+            // Пачки по 100, пока истёкшие удержания не кончатся
+        }
+
+        card = cardRepository.findById(cardId).orElseThrow();
+        assertEquals(0, card.getHeldAmount().signum());
+        assertEquals(0, INITIAL_BALANCE.subtract(captured).compareTo(card.getBalance()),
+                "Balance must decrease exactly by captured amounts");
+    }
+
+    private UUID seedCard() {
+        final User user = userRepository.save(User.builder()
+                .username("hold-user")
+                .password("not-used")
+                .role(Role.USER)
+                .build());
+        final UUID cardId = adminCardService.createCardForUser(user.getId()).getId();
+        adminCardService.topUpCardBalance(cardId, INITIAL_BALANCE);
+        return cardId;
+    }
+}
@@ -0,0 +1,197 @@
+package com.bortnik.bank_rest.sharding;
+
+import com.bortnik.bank_rest.config.datasource.ShardContext;
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.dto.card.CardTransactionDTO;
+import com.bortnik.bank_rest.dto.user.UserCreateDTO;
+import com.bortnik.bank_rest.dto.user.UserDTO;
+import com.bortnik.bank_rest.entity.Role;
+import com.bortnik.bank_rest.exception.user.UserAlreadyExists;
+import com.bortnik.bank_rest.service.UserService;
+import com.bortnik.bank_rest.service.card.AdminCardService;
+import com.bortnik.bank_rest.service.card.UserCardService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Шардирование на настоящих БД: три базы в одном контейнере PostgreSQL играют роль шардов.
+ * Проверяется, что пользователи и их карты живут на шарде из хеша ID пользователя,
+ * операции по ID находят нужный шард, а страницы администратора собираются со всех шардов.
+ * <p>
+ * Запуск: {@code gradle integrationTest --tests '*ShardedStorageTests'}
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.security.jwt.secret=s29sGMx+VE3sGWO3VELLsK/ZJRzBimocYwXLvrnSaLQ=",
+        "card.encryption.key=lpQgjumIoHHYgU60pUmMIzbQAPO+IAJ/NTMzedg091Y=",
+        "app.admin.username=admin",
+        "app.admin.password=admin123"
+})
+public class ShardedStorageTests {
+
+    private static final List<String> SHARD_DATABASES = List.of("bank_shard_1", "bank_shard_2");
+    private static final int USERS = 9;
+
+    // Поставщик свойства может вызываться несколько раз, базы создаются один раз
+    private static String shardUrls;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:18");
+
+    @DynamicPropertySource
+    static void datasource(final DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.sharding.shard-urls", ShardedStorageTests::createShardDatabases);
+        registry.add("app.r2dbc.url", () -> "r2dbc:postgresql://%s:%d/%s".formatted(
+                postgres.getHost(), postgres.getFirstMappedPort(), postgres.getDatabaseName()));
+        registry.add("app.r2dbc.username", postgres::getUsername);
+        registry.add("app.r2dbc.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AdminCardService adminCardService;
+
+    @Autowired
+    private UserCardService userCardService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Test
+    void usersAndCardsAreSpreadAcrossShards() throws SQLException {
+        assertEquals(3, ShardContext.shardCount());
+
+        final List<UserDTO> users = new ArrayList<>();
+        final List<UUID> cardIds = new ArrayList<>();
+        IntStream.range(0, USERS).forEach(i -> {
+            final UserDTO user = userService.createUser(UserCreateDTO.builder()
+                    .username("shard-user-" + i)
+                    .password("not-used")
+                    .role(Role.USER)
+                    .build());
+            users.add(user);
+            cardIds.add(adminCardService.createCardForUser(user.getId()).getId());
+            cardIds.add(adminCardService.createCardForUser(user.getId()).getId());
+        });
+
+        final Set<Integer> usedShards = new HashSet<>();
+        for (UserDTO user : users) {
+            final int shard = ShardContext.shardOf(user.getId());
+            usedShards.add(shard);
+            assertEquals(1, count(shard, "SELECT count(*) FROM users WHERE id = '" + user.getId() + "'"));
+            assertEquals(2, count(shard, "SELECT count(*) FROM cards WHERE user_id = '" + user.getId() + "'"));
+        }
+        assertEquals(Set.of(0, 1, 2), usedShards);
+
+        final UserDTO user = users.get(USERS - 1);
+        final List<UUID> userCards = cardIds.subList(cardIds.size() - 2, cardIds.size());
+        adminCardService.topUpCardBalance(userCards.get(0), BigDecimal.valueOf(100));
+        userCardService.internalTransfer(CardTransactionDTO.builder()
+                .fromCardId(userCards.get(0))
+                .toCardId(userCards.get(1))
+                .amount(BigDecimal.valueOf(40))
+                .build(), user.getId());
+        assertEquals(0, BigDecimal.valueOf(60).compareTo(adminCardService.getCardById(userCards.get(0)).getBalance()));
+        assertEquals(0, BigDecimal.valueOf(40).compareTo(
+                userCardService.getUserCardById(user.getId(), userCards.get(1)).getBalance()));
+
+        assertEquals("shard-user-4", userDetailsService.loadUserByUsername("shard-user-4").getUsername());
+        assertThrows(UserAlreadyExists.class, () -> userService.createUser(UserCreateDTO.builder()
+                .username("shard-user-4")
+                .password("not-used")
+                .role(Role.USER)
+                .build()));
+    }
+
+    @Test
+    void adminPagesAreMergedAcrossShards() {
+        IntStream.range(0, 6).forEach(i -> {
+            final UserDTO user = userService.createUser(UserCreateDTO.builder()
+                    .username("page-user-" + i)
+                    .password("not-used")
+                    .role(Role.USER)
+                    .build());
+            adminCardService.createCardForUser(user.getId());
+        });
+
+        final Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
+        final Page<CardDTO> all = adminCardService.getAllCards(PageRequest.of(0, 1_000, sort));
+        final List<CardDTO> pages = new ArrayList<>();
+        for (int page = 0; page * 4 < all.getTotalElements(); page++) {
+            final Page<CardDTO> next = adminCardService.getAllCards(PageRequest.of(page, 4, sort));
+            assertEquals(all.getTotalElements(), next.getTotalElements());
+            pages.addAll(next.getContent());
+        }
+
+        assertEquals(all.getContent().stream().map(CardDTO::getId).toList(), pages.stream().map(CardDTO::getId).toList());
+        final List<CardDTO> sorted = all.getContent().stream()
+                .sorted(Comparator.comparing(CardDTO::getCreatedAt).reversed())
+                .toList();
+        assertEquals(sorted.stream().map(CardDTO::getCreatedAt).toList(),
+                all.getContent().stream().map(CardDTO::getCreatedAt).toList());
+    }
+
+    private static synchronized String createShardDatabases() {
+        if (shardUrls != null) {
+            return shardUrls;
+        }
+        final List<String> urls = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            for (String database : SHARD_DATABASES) {
+                statement.execute("CREATE DATABASE " + database);
+                urls.add(shardUrl(database));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        shardUrls = String.join(",", urls);
+        return shardUrls;
+    }
+
+    private static String shardUrl(final String database) {
+        return "jdbc:postgresql://%s:%d/%s".formatted(postgres.getHost(), postgres.getFirstMappedPort(), database);
+    }
+
+    private static long count(final int shard, final String sql) throws SQLException {
+        final String url = shard == 0 ? postgres.getJdbcUrl() : shardUrl(SHARD_DATABASES.get(shard - 1));
+        try (Connection connection = DriverManager.getConnection(url, postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
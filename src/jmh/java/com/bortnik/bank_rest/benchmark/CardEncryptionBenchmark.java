@@ -0,0 +1,38 @@
+package com.bortnik.bank_rest.benchmark;
+
+import com.bortnik.bank_rest.security.card_encryption.CardEncryptionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class CardEncryptionBenchmark {
+
+    private static final String CARD_NUMBER = "1234567812345678";
+
+    private CardEncryptionService encryptionService;
+    private String encrypted;
+
+    @Setup
+    public void setUp() {
+        String key = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+        encryptionService = new CardEncryptionService(key);
+        encrypted = encryptionService.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryptionService.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return encryptionService.decrypt(encrypted);
+    }
+}
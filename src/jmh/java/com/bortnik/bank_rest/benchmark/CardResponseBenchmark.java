@@ -0,0 +1,108 @@
+package com.bortnik.bank_rest.benchmark;
+
+import com.bortnik.bank_rest.config.JacksonConfig;
+import com.bortnik.bank_rest.dto.ApiResponse;
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.entity.Card;
+import com.bortnik.bank_rest.entity.CardStatus;
+import com.bortnik.bank_rest.util.UuidV7Generator;
+import com.bortnik.bank_rest.util.mappers.CardMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Путь ответа со списком карт: маппинг сущностей в {@link CardDTO}
+ * и сериализация {@code ApiResponse<Page<CardDTO>>}.
+ * <p>
+ * {@code mapper=tuned} — ObjectMapper приложения ({@link JacksonConfig}: Blackbird, сериализатор CardDTO,
+ * компактная страница), {@code mapper=plain} — ObjectMapper только с JavaTimeModule для сравнения.
+ * Аллокации на операцию — {@code gc.alloc.rate.norm} из профайлера gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class CardResponseBenchmark {
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    @Param({"tuned", "plain"})
+    private String mapper;
+
+    private ObjectMapper objectMapper;
+    private List<Card> cards;
+    private ApiResponse<Page<CardDTO>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = "tuned".equals(mapper)
+                ? new JacksonConfig().objectMapper()
+                : new ObjectMapper()
+                        .registerModule(new JavaTimeModule())
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        final UUID userId = UUID.randomUUID();
+        cards = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            cards.add(Card.builder()
+                    .id(UuidV7Generator.generate())
+                    .userId(userId)
+                    .cardNumber("encrypted-card-number-" + i)
+                    .lastFourDigits(String.format("%04d", i % 10_000))
+                    .status(CardStatus.ACTIVE)
+                    .expirationDate(LocalDate.now().plusYears(5))
+                    .balance(BigDecimal.valueOf(i * 100L, 2))
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+
+        response = ApiResponse.<Page<CardDTO>>builder()
+                .responseData(toPage())
+                .build();
+    }
+
+    private Page<CardDTO> toPage() {
+        return new PageImpl<>(cards, PageRequest.of(0, pageSize), 10_000)
+                .map(CardMapper::toCardDTO);
+    }
+
+    @Benchmark
+    public void toCardDTO(final Blackhole blackhole) {
+        for (Card card : cards) {
+            blackhole.consume(CardMapper.toCardDTO(card));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(
+                ApiResponse.<Page<CardDTO>>builder()
+                        .responseData(toPage())
+                        .build()
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package com.bortnik.bank_rest.benchmark;
+
+import com.bortnik.bank_rest.fraud.FraudScoringService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена проверки перевода на подозрительную частоту при конкурентных вызовах по многим пользователям.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@Threads(4)
+public class FraudScoringBenchmark {
+
+    private static final int USERS = 100_000;
+
+    private FraudScoringService fraudScoringService;
+    private UUID[] users;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        fraudScoringService = new FraudScoringService(4, 16_384, new SimpleMeterRegistry());
+        setField("enabled", true);
+        // Порог недостижим: измеряется проверка, а не отказ
+        setField("transferThreshold", Double.MAX_VALUE);
+        setField("accessErrorThreshold", Double.MAX_VALUE);
+        users = new UUID[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = UUID.randomUUID();
+        }
+    }
+
+    private void setField(final String name, final Object value) throws ReflectiveOperationException {
+        final Field field = FraudScoringService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(fraudScoringService, value);
+    }
+
+    @Benchmark
+    public void checkTransfer() {
+        fraudScoringService.checkTransfer(users[ThreadLocalRandom.current().nextInt(USERS)]);
+    }
+}
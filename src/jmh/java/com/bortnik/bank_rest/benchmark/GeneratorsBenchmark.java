@@ -0,0 +1,32 @@
+package com.bortnik.bank_rest.benchmark;
+
+import com.bortnik.bank_rest.util.SimpleCardNumberGenerator;
+import com.bortnik.bank_rest.util.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class GeneratorsBenchmark {
+
+    @Benchmark
+    public String cardNumber() {
+        return SimpleCardNumberGenerator.generate();
+    }
+
+    @Benchmark
+    public UUID uuidV7() {
+        return UuidV7Generator.generate();
+    }
+
+    @Benchmark
+    public UUID uuidRandom() {
+        return UUID.randomUUID();
+    }
+}
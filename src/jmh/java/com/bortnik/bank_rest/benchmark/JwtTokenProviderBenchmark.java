@@ -0,0 +1,52 @@
+package com.bortnik.bank_rest.benchmark;
+
+import com.bortnik.bank_rest.security.jwt.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JwtTokenProviderBenchmark {
+
+    private static final String USERNAME = "benchmark-user";
+    private static final List<String> ROLES = List.of("ROLE_USER");
+
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        setField(jwtTokenProvider, "jwtToken", "a2V5X2Zvcl9qd3RfZW5jb2RpbmdfdGhhdF9oYXNfMzJfYnl0ZXM=");
+        setField(jwtTokenProvider, "expiration", 3600000L);
+        jwtTokenProvider.init();
+        token = jwtTokenProvider.generateToken(USERNAME, ROLES);
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken(USERNAME, ROLES);
+    }
+
+    // parseClaims закрытый, getUsernameFromToken — тонкая обёртка над ним, которую вызывает фильтр на каждом запросе
+    @Benchmark
+    public String parseClaims() {
+        return jwtTokenProvider.getUsernameFromToken(token);
+    }
+}
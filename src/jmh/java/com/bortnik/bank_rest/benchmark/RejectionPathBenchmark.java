@@ -0,0 +1,78 @@
+package com.bortnik.bank_rest.benchmark;
+
+import com.bortnik.bank_rest.exception.card.CardNotFound;
+import com.bortnik.bank_rest.metrics.BankMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Путь отказа «карта не найдена»: исключение бросается на глубине стека, типичной для запроса
+ * через Tomcat, фильтры Spring Security и прокси сервисов, ловится наверху, учитывается в метриках,
+ * и из него берётся сообщение для ответа, как в {@code ExceptionsHandler}.
+ * <p>
+ * {@code stackTraceException} — прежний вариант: наследник RuntimeException со стеком и конкатенацией сообщения.
+ * {@code businessException} — {@link CardNotFound} без стека и с ленивым сообщением.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class RejectionPathBenchmark {
+
+    @Param({"30", "150"})
+    private int stackDepth;
+
+    private BankMetrics bankMetrics;
+    private UUID cardId;
+
+    static class StackTraceCardNotFound extends RuntimeException {
+        StackTraceCardNotFound(final String message) {
+            super(message);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        bankMetrics = new BankMetrics(new SimpleMeterRegistry());
+        cardId = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public String stackTraceException() {
+        try {
+            throwAt(stackDepth, false);
+            return null;
+        } catch (RuntimeException e) {
+            bankMetrics.recordRejection(e, HttpStatus.NOT_FOUND);
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String businessException() {
+        try {
+            throwAt(stackDepth, true);
+            return null;
+        } catch (RuntimeException e) {
+            bankMetrics.recordRejection(e, HttpStatus.NOT_FOUND);
+            return e.getMessage();
+        }
+    }
+
+    private void throwAt(final int depth, final boolean stackless) {
+        if (depth > 0) {
+            throwAt(depth - 1, stackless);
+            return;
+        }
+        if (stackless) {
+            throw new CardNotFound("Card with id {} not found", cardId);
+        }
+        throw new StackTraceCardNotFound("Card with id " + cardId + " not found");
+    }
+}
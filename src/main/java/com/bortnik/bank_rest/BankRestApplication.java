@@ -1,11 +1,17 @@
 package com.bortnik.bank_rest;
 
+import com.bortnik.bank_rest.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @EnableScheduling
-@SpringBootApplication
+// Бин ConnectionFactory отключил бы JDBC DataSource, на котором работают JPA и Liquibase.
+// Реактивный доступ к БД настраивается вручную в R2dbcConfig.
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class BankRestApplication {
 
     public static void main(String[] args) {
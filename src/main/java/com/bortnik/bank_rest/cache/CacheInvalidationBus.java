@@ -0,0 +1,257 @@
+package com.bortnik.bank_rest.cache;
+
+import com.bortnik.bank_rest.config.datasource.DataSourcePool;
+import com.bortnik.bank_rest.config.datasource.PoolType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Инвалидация {@link LocalCache} на всех узлах кластера через PostgreSQL {@code NOTIFY}.
+ * <p>
+ * {@link #invalidate} удаляет запись на этом узле после коммита текущей транзакции (или сразу, если её нет)
+ * и ставит ключ в очередь рассылки. Раз в {@code app.cache.invalidation.flush-interval} очередь
+ * отправляется через {@code pg_notify}: повторяющиеся ключи схлопываются, ключи пачки укладываются
+ * в минимальное число уведомлений до {@value #MAX_PAYLOAD_BYTES} байт. Если очередь переполнена
+ * ({@code app.cache.invalidation.max-pending-keys}), вместо ключей рассылается полная очистка кэшей.
+ * Уведомления принимает {@link CacheInvalidationListener}.
+ * <p>
+ * Доставка не гарантирована: уведомление теряется, если узел в этот момент переподключается
+ * к БД, поэтому у кэшей есть время жизни, а слушатель после переподключения очищает кэши.
+ * <p>
+ * Метрики: {@code bank.cache.invalidations.sent} (ключи), {@code bank.cache.notifications.sent},
+ * {@code bank.cache.notifications.received}, {@code bank.cache.size} (тег {@code cache}).
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+
+    public static final String CHANNEL = "bank_cache_invalidation";
+
+    // Лимит PostgreSQL на payload NOTIFY — 8000 байт, оставляем запас на служебные поля
+    static final int MAX_PAYLOAD_BYTES = 7_000;
+
+    private final Map<String, LocalCache<?>> caches;
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    private final Map<String, Set<String>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingKeys = new AtomicInteger();
+    private final AtomicBoolean pendingClear = new AtomicBoolean();
+
+    private final Counter keysSent;
+    private final Counter notificationsSent;
+    private final Counter notificationsReceived;
+
+    @Value("${app.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.invalidation.max-pending-keys:10000}")
+    private int maxPendingKeys;
+
+    public CacheInvalidationBus(
+            final List<LocalCache<?>> caches,
+            final DataSource dataSource,
+            final ObjectMapper objectMapper,
+            final MeterRegistry meterRegistry
+    ) {
+        this.caches = caches.stream().collect(Collectors.toUnmodifiableMap(LocalCache::name, Function.identity()));
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.keysSent = Counter.builder("bank.cache.invalidations.sent")
+                .description("Cache keys sent to other nodes for invalidation")
+                .register(meterRegistry);
+        this.notificationsSent = Counter.builder("bank.cache.notifications.sent")
+                .description("Cache invalidation notifications sent")
+                .register(meterRegistry);
+        this.notificationsReceived = Counter.builder("bank.cache.notifications.received")
+                .description("Cache invalidation notifications received from other nodes")
+                .register(meterRegistry);
+        caches.forEach(cache -> Gauge.builder("bank.cache.size", cache, LocalCache::size)
+                .description("Entries in the local cache")
+                .tag("cache", cache.name())
+                .register(meterRegistry));
+    }
+
+    /**
+     * Удаляет запись из кэша на всех узлах после коммита текущей транзакции.
+     * Если транзакция откатится, кэш не трогается.
+     * @param cache имя кэша
+     * @param key ключ
+     */
+    public void invalidate(final String cache, final Object key) {
+        final String cacheKey = String.valueOf(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow(cache, cacheKey);
+                }
+            });
+        } else {
+            invalidateNow(cache, cacheKey);
+        }
+    }
+
+    /**
+     * Отправляет накопленные ключи другим узлам.
+     */
+    @DataSourcePool(PoolType.NOTIFY)
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.flush-interval:PT0.1S}")
+    public void flush() {
+        final List<String> payloads = drain();
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (String payload : payloads) {
+                statement.setString(1, CHANNEL);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+            notificationsSent.increment(payloads.size());
+            log.debug("Cache invalidation sent: {} notifications", payloads.size());
+        } catch (SQLException e) {
+            // Ключи не возвращаются в очередь: записи на других узлах истекут по времени жизни
+            log.warn("Failed to send cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Применяет уведомление, полученное от другого узла.
+     * @param payload содержимое уведомления
+     */
+    void apply(final String payload) {
+        final JsonNode notification;
+        try {
+            notification = objectMapper.readTree(payload);
+        } catch (Exception e) {
+            log.warn("Malformed cache invalidation ignored: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(notification.path("node").asText())) {
+            return;
+        }
+
+        notificationsReceived.increment();
+        if (notification.path("clear").asBoolean()) {
+            clearAll();
+            return;
+        }
+        notification.path("keys").properties().forEach(cacheKeys -> {
+            final LocalCache<?> cache = caches.get(cacheKeys.getKey());
+            if (cache != null) {
+                cacheKeys.getValue().forEach(key -> cache.evict(key.asText()));
+            }
+        });
+    }
+
+    /**
+     * Очищает все кэши этого узла.
+     */
+    void clearAll() {
+        caches.values().forEach(LocalCache::clear);
+    }
+
+    private void invalidateNow(final String cache, final String key) {
+        final LocalCache<?> local = caches.get(cache);
+        if (local != null) {
+            local.evict(key);
+        }
+        if (!enabled) {
+            return;
+        }
+        if (pendingKeys.get() >= maxPendingKeys) {
+            pendingClear.set(true);
+            return;
+        }
+        if (pending.computeIfAbsent(cache, name -> ConcurrentHashMap.newKeySet()).add(key)) {
+            pendingKeys.incrementAndGet();
+        }
+    }
+
+    // Забирает очередь и раскладывает ключи по уведомлениям не больше MAX_PAYLOAD_BYTES
+    List<String> drain() {
+        final List<String> payloads = new ArrayList<>();
+        if (pendingClear.getAndSet(false)) {
+            pending.clear();
+            pendingKeys.set(0);
+            final ObjectNode notification = objectMapper.createObjectNode();
+            notification.put("node", nodeId);
+            notification.put("clear", true);
+            payloads.add(notification.toString());
+            return payloads;
+        }
+
+        ObjectNode notification = notification();
+        int size = 0;
+        int keys = 0;
+        for (Map.Entry<String, Set<String>> cacheKeys : pending.entrySet()) {
+            final Set<String> queued = cacheKeys.getValue();
+            for (String key : queued) {
+                if (!queued.remove(key)) {
+                    continue;
+                }
+                pendingKeys.decrementAndGet();
+
+                // Ключ, имя кэша в кавычках и разделители
+                final int keySize = key.getBytes(StandardCharsets.UTF_8).length + cacheKeys.getKey().length() + 8;
+                if (keys > 0 && size + keySize > MAX_PAYLOAD_BYTES) {
+                    payloads.add(notification.toString());
+                    notification = notification();
+                    size = 0;
+                    keys = 0;
+                }
+                final ObjectNode keysNode = (ObjectNode) notification.get("keys");
+                final ArrayNode cacheArray = keysNode.has(cacheKeys.getKey())
+                        ? (ArrayNode) keysNode.get(cacheKeys.getKey())
+                        : keysNode.putArray(cacheKeys.getKey());
+                cacheArray.add(key);
+                size += keySize;
+                keys++;
+                keysSent.increment();
+            }
+        }
+        if (keys > 0) {
+            payloads.add(notification.toString());
+        }
+        return payloads;
+    }
+
+    private ObjectNode notification() {
+        final ObjectNode notification = objectMapper.createObjectNode();
+        notification.put("node", nodeId);
+        notification.putObject("keys");
+        return notification;
+    }
+}
@@ -0,0 +1,104 @@
+package com.bortnik.bank_rest.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Принимает уведомления {@link CacheInvalidationBus} на выделенном соединении с БД (шард 0).
+ * <p>
+ * {@code LISTEN} держит соединение всё время работы узла, поэтому оно открывается напрямую,
+ * а не берётся из пулов HikariCP. При обрыве соединение открывается заново через
+ * {@code app.cache.invalidation.reconnect-delay}, и все кэши узла очищаются:
+ * уведомления, пришедшие без подписки, потеряны.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationListener {
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final DataSourceProperties dataSourceProperties;
+
+    @Value("${app.cache.invalidation.poll-timeout:PT5S}")
+    private Duration pollTimeout;
+
+    @Value("${app.cache.invalidation.reconnect-delay:PT5S}")
+    private Duration reconnectDelay;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    /**
+     * Запускает поток слушателя после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform()
+                .name("cache-invalidation-listener")
+                .daemon()
+                .start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        final Thread listener = thread;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CacheInvalidationBus.CHANNEL);
+                }
+                // Пока подписки не было, уведомления могли пройти мимо
+                cacheInvalidationBus.clearAll();
+                log.info("Listening for cache invalidations on channel {}", CacheInvalidationBus.CHANNEL);
+
+                final PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    final PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            cacheInvalidationBus.apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener disconnected, reconnecting in {}: {}", reconnectDelay, e.getMessage());
+                cacheInvalidationBus.clearAll();
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.bortnik.bank_rest.cache;
+
+/**
+ * Имена локальных кэшей, по ним адресуются уведомления {@link CacheInvalidationBus}.
+ */
+public final class CacheNames {
+
+    // UserDTO по ID пользователя
+    public static final String USERS = "users";
+    // Данные аутентификации по имени пользователя
+    public static final String USER_DETAILS = "user-details";
+    // CardDTO по ID карты (просмотр администратором)
+    public static final String CARDS = "cards";
+    // Действующие лимиты переводов по ID карты
+    public static final String CARD_LIMITS = "card-limits";
+
+    private CacheNames() {
+    }
+}
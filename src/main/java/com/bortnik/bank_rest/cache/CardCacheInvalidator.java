@@ -0,0 +1,26 @@
+package com.bortnik.bank_rest.cache;
+
+import com.bortnik.bank_rest.event.CardEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Удаляет из кэшей всех узлов карты, изменённые переводом, пополнением, блокировкой или активацией.
+ * Событие публикуется внутри транзакции изменения, удаление выполняется после её коммита.
+ * Истечение срока карт выполняется SQL-запросом без событий приложения, такие записи устаревают по времени жизни.
+ */
+@Component
+@RequiredArgsConstructor
+public class CardCacheInvalidator {
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @EventListener
+    public void onCardEvent(final CardEvent event) {
+        cacheInvalidationBus.invalidate(CacheNames.CARDS, event.getCardId());
+        if (event.getRelatedCardId() != null) {
+            cacheInvalidationBus.invalidate(CacheNames.CARDS, event.getRelatedCardId());
+        }
+    }
+}
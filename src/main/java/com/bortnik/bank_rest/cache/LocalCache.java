@@ -0,0 +1,106 @@
+package com.bortnik.bank_rest.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Небольшой кэш в памяти узла с ограничением по времени жизни и числу записей.
+ * <p>
+ * Записи удаляются по истечении {@code ttl} и по сигналу {@link CacheInvalidationBus}, когда данные
+ * изменились на этом или другом узле. Ключ записи — {@code String.valueOf(key)}, так же ключ передаётся
+ * в уведомлениях об инвалидации. Если во время загрузки пришла инвалидация, загруженное значение
+ * отдаётся вызывающему, но не кэшируется: оно могло быть прочитано до изменения.
+ * Значения общие для всех вызовов, поэтому должны быть неизменяемыми.
+ *
+ * @param <V> тип значения
+ */
+public final class LocalCache<V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final String name;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    // Растёт при каждой инвалидации; загрузка, пересёкшаяся с инвалидацией, не кэшируется
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public LocalCache(final String name, final Duration ttl, final int maxSize) {
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return имя кэша, по нему адресуются уведомления об инвалидации
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Возвращает значение из кэша или загружает его.
+     * @param key ключ
+     * @param loader загрузка, выполняется в текущем потоке; исключения не кэшируются
+     * @return значение
+     */
+    public V get(final Object key, final Supplier<V> loader) {
+        final String cacheKey = String.valueOf(key);
+        final Entry<V> entry = entries.get(cacheKey);
+        if (entry != null && entry.expiresAt() - System.nanoTime() > 0) {
+            return entry.value();
+        }
+
+        final long generation = invalidations.get();
+        final V value = loader.get();
+        if (value != null && generation == invalidations.get()) {
+            if (entries.size() >= maxSize) {
+                evictExpiredOrAny();
+            }
+            entries.put(cacheKey, new Entry<>(value, System.nanoTime() + ttlNanos));
+            // Инвалидация между проверкой и записью: запись могла устареть
+            if (generation != invalidations.get()) {
+                entries.remove(cacheKey);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Удаляет запись.
+     * @param key ключ в виде строки
+     */
+    public void evict(final String key) {
+        invalidations.incrementAndGet();
+        entries.remove(key);
+    }
+
+    /**
+     * Удаляет все записи.
+     */
+    public void clear() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * @return число записей, включая ещё не удалённые просроченные
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictExpiredOrAny() {
+        final long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+        final Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.bortnik.bank_rest.config;
 
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
 import com.bortnik.bank_rest.entity.Role;
 import com.bortnik.bank_rest.entity.User;
 import com.bortnik.bank_rest.repository.UserRepository;
@@ -18,6 +19,7 @@ public class AdminInitializer {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ShardRouter shardRouter;
 
     @Value("${app.admin.username}")
     private String adminUsername;
@@ -28,7 +30,7 @@ public class AdminInitializer {
     @Bean
     public CommandLineRunner initAdmin() {
         return args -> {
-            if (userRepository.existsByUsername(adminUsername)) {
+            if (shardRouter.findFirst(() -> userRepository.findByUsername(adminUsername)).isPresent()) {
                 log.info("Admin user already exists");
             } else {
                 userRepository.save(
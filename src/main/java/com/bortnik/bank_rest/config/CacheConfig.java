@@ -0,0 +1,48 @@
+package com.bortnik.bank_rest.config;
+
+import com.bortnik.bank_rest.cache.CacheNames;
+import com.bortnik.bank_rest.cache.LocalCache;
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.dto.card.CardLimitDTO;
+import com.bortnik.bank_rest.dto.user.UserDTO;
+import com.bortnik.bank_rest.security.services.UserDetailsImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Локальные кэши узла. Изменения на любом узле удаляют записи на всех узлах
+ * через {@link com.bortnik.bank_rest.cache.CacheInvalidationBus}, время жизни ограничивает
+ * устаревание, если уведомление потерялось.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Value("${app.cache.max-size:10000}")
+    private int maxSize;
+
+    @Bean
+    public LocalCache<UserDTO> userCache(@Value("${app.cache.users.ttl:PT5M}") final Duration ttl) {
+        return new LocalCache<>(CacheNames.USERS, ttl, maxSize);
+    }
+
+    // Читается при каждом запросе с JWT, при шардировании — со всех шардов
+    @Bean
+    public LocalCache<UserDetailsImpl> userDetailsCache(@Value("${app.cache.user-details.ttl:PT5M}") final Duration ttl) {
+        return new LocalCache<>(CacheNames.USER_DETAILS, ttl, maxSize);
+    }
+
+    // Баланс меняется часто, поэтому время жизни короткое
+    @Bean
+    public LocalCache<CardDTO> cardCache(@Value("${app.cache.cards.ttl:PT30S}") final Duration ttl) {
+        return new LocalCache<>(CacheNames.CARDS, ttl, maxSize);
+    }
+
+    // Читается в каждом переводе
+    @Bean
+    public LocalCache<CardLimitDTO> cardLimitCache(@Value("${app.cache.card-limits.ttl:PT5M}") final Duration ttl) {
+        return new LocalCache<>(CacheNames.CARD_LIMITS, ttl, maxSize);
+    }
+}
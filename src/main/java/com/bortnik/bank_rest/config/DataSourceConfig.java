@@ -0,0 +1,153 @@
+package com.bortnik.bank_rest.config;
+
+import com.bortnik.bank_rest.config.datasource.PoolRoutingDataSource;
+import com.bortnik.bank_rest.config.datasource.PoolType;
+import com.bortnik.bank_rest.config.datasource.ShardContext;
+import com.bortnik.bank_rest.config.datasource.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Отдельные пулы HikariCP для пользовательского, административного и фонового трафика и для рассылки
+ * уведомлений, чтобы тяжёлая выборка администратора или ночная задача не забирали соединения у переводов.
+ * Подключение к БД общее ({@code spring.datasource.*}), размер и таймаут ожидания у каждого пула свои.
+ * Метрики пулов — {@code hikaricp_connections_*} с тегом {@code pool}.
+ * <p>
+ * Если заданы {@code app.sharding.shard-urls}, пользователи и их карты распределяются по нескольким БД:
+ * шард 0 — {@code spring.datasource.url}, остальные — перечисленные URL с теми же учётными данными.
+ * У каждого шарда свои пулы, схема дополнительных шардов обновляется Liquibase при старте.
+ *
+ * @see com.bortnik.bank_rest.config.datasource.DataSourcePool
+ * @see com.bortnik.bank_rest.config.datasource.ShardKey
+ */
+@Configuration
+@Slf4j
+public class DataSourceConfig {
+
+    @Value("${app.datasource.pools.user.maximum-pool-size:10}")
+    private int userPoolSize;
+
+    @Value("${app.datasource.pools.user.connection-timeout:PT2S}")
+    private Duration userConnectionTimeout;
+
+    @Value("${app.datasource.pools.admin.maximum-pool-size:3}")
+    private int adminPoolSize;
+
+    @Value("${app.datasource.pools.admin.connection-timeout:PT5S}")
+    private Duration adminConnectionTimeout;
+
+    @Value("${app.datasource.pools.batch.maximum-pool-size:3}")
+    private int batchPoolSize;
+
+    @Value("${app.datasource.pools.batch.connection-timeout:PT30S}")
+    private Duration batchConnectionTimeout;
+
+    @Value("${app.datasource.pools.notify.maximum-pool-size:2}")
+    private int notifyPoolSize;
+
+    @Value("${app.datasource.pools.notify.connection-timeout:PT1S}")
+    private Duration notifyConnectionTimeout;
+
+    @Value("${app.sharding.shard-urls:}")
+    private String shardUrls;
+
+    @Value("${spring.liquibase.change-log:classpath:/db/changelog/db.changelog-master.yaml}")
+    private String changeLog;
+
+    @Value("${spring.liquibase.enabled:true}")
+    private boolean liquibaseEnabled;
+
+    @Bean
+    public DataSource dataSource(final DataSourceProperties properties, final MeterRegistry meterRegistry) {
+        final String[] urls = StringUtils.tokenizeToStringArray(shardUrls, ",");
+        ShardContext.configure(1 + urls.length);
+        final PoolRoutingDataSource primary = shard(properties, meterRegistry, properties.determineUrl(), 0);
+        if (urls.length == 0) {
+            return primary;
+        }
+
+        final Map<Object, Object> shards = new HashMap<>();
+        primary.afterPropertiesSet();
+        shards.put(0, primary);
+        for (int i = 0; i < urls.length; i++) {
+            final PoolRoutingDataSource shard = shard(properties, meterRegistry, urls[i], i + 1);
+            shard.afterPropertiesSet();
+            migrate(shard);
+            shards.put(i + 1, shard);
+        }
+        log.info("Sharding enabled: {} shards", shards.size());
+
+        final ShardRoutingDataSource dataSource = new ShardRoutingDataSource();
+        dataSource.setTargetDataSources(shards);
+        dataSource.setDefaultTargetDataSource(primary);
+        return dataSource;
+    }
+
+    private PoolRoutingDataSource shard(
+            final DataSourceProperties properties,
+            final MeterRegistry meterRegistry,
+            final String url,
+            final int shard
+    ) {
+        final Map<Object, Object> pools = new HashMap<>();
+        pools.put(PoolType.USER, pool(properties, meterRegistry, url, shard, PoolType.USER, userPoolSize, userConnectionTimeout));
+        pools.put(PoolType.ADMIN, pool(properties, meterRegistry, url, shard, PoolType.ADMIN, adminPoolSize, adminConnectionTimeout));
+        pools.put(PoolType.BATCH, pool(properties, meterRegistry, url, shard, PoolType.BATCH, batchPoolSize, batchConnectionTimeout));
+        pools.put(PoolType.NOTIFY, pool(properties, meterRegistry, url, shard, PoolType.NOTIFY, notifyPoolSize, notifyConnectionTimeout));
+
+        final PoolRoutingDataSource dataSource = new PoolRoutingDataSource();
+        dataSource.setTargetDataSources(pools);
+        dataSource.setDefaultTargetDataSource(pools.get(PoolType.USER));
+        return dataSource;
+    }
+
+    // Схему шарда 0 обновляет автоконфигурация Liquibase, дополнительных — этот метод
+    private void migrate(final DataSource shard) {
+        if (!liquibaseEnabled) {
+            return;
+        }
+        final SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(shard);
+        liquibase.setChangeLog(changeLog);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        try {
+            liquibase.afterPropertiesSet();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to migrate shard schema: " + e.getMessage(), e);
+        }
+    }
+
+    private HikariDataSource pool(
+            final DataSourceProperties properties,
+            final MeterRegistry meterRegistry,
+            final String url,
+            final int shard,
+            final PoolType type,
+            final int maximumPoolSize,
+            final Duration connectionTimeout
+    ) {
+        final HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        pool.setPoolName(shard == 0 ? type.poolName() : type.poolName() + "-shard-" + shard);
+        pool.setMaximumPoolSize(maximumPoolSize);
+        pool.setConnectionTimeout(connectionTimeout.toMillis());
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
@@ -1,10 +1,15 @@
 package com.bortnik.bank_rest.config;
 
+import com.bortnik.bank_rest.config.jackson.CardDTOSerializer;
+import com.bortnik.bank_rest.config.jackson.PageSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
 
 @Configuration
 public class JacksonConfig {
@@ -13,7 +18,15 @@ public class JacksonConfig {
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new SimpleModule("bank-serializers")
+                .addSerializer(new CardDTOSerializer())
+                .addSerializer(new PageSerializer()));
+        // Blackbird заменяет рефлексивный доступ к геттерам и конструкторам DTO сгенерированными лямбдами.
+        // В нативном образе генерация классов во время выполнения недоступна, там остаётся рефлексия
+        if (!NativeDetector.inNativeImage()) {
+            mapper.registerModule(new BlackbirdModule());
+        }
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         return mapper;
     }
-}
\ No newline at end of file
+}
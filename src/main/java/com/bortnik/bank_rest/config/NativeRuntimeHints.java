@@ -0,0 +1,91 @@
+package com.bortnik.bank_rest.config;
+
+import com.bortnik.bank_rest.dto.ApiError;
+import com.bortnik.bank_rest.dto.ApiResponse;
+import com.bortnik.bank_rest.dto.auth.AuthResponse;
+import com.bortnik.bank_rest.dto.auth.UserLogin;
+import com.bortnik.bank_rest.dto.auth.UserRegister;
+import com.bortnik.bank_rest.dto.card.CardChangesDTO;
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.dto.card.CardHoldCaptureRequest;
+import com.bortnik.bank_rest.dto.card.CardHoldDTO;
+import com.bortnik.bank_rest.dto.card.CardHoldRequest;
+import com.bortnik.bank_rest.dto.card.CardLimitDTO;
+import com.bortnik.bank_rest.dto.card.CardLimitRequest;
+import com.bortnik.bank_rest.dto.card.CardTransactionDTO;
+import com.bortnik.bank_rest.dto.card.RecurringTransferDTO;
+import com.bortnik.bank_rest.dto.card.RecurringTransferRequest;
+import com.bortnik.bank_rest.dto.card.TopUpRequest;
+import com.bortnik.bank_rest.dto.scheduler.SchedulerRunReport;
+import com.bortnik.bank_rest.dto.user.UserCreateDTO;
+import com.bortnik.bank_rest.dto.user.UserDTO;
+import com.bortnik.bank_rest.entity.id.UuidV7IdGenerator;
+import com.bortnik.bank_rest.event.CardEvent;
+import com.bortnik.bank_rest.outbox.OutboxMessage;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Подсказки для нативного образа GraalVM по тому, что Spring AOT не может вывести сам.
+ * На JVM не используются.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    // DTO сериализуются Jackson через рефлексию (геттеры и конструкторы, сгенерированные Lombok)
+    private static final List<Class<?>> DTO_TYPES = List.of(
+            ApiResponse.class,
+            ApiError.class,
+            AuthResponse.class,
+            UserLogin.class,
+            UserRegister.class,
+            CardDTO.class,
+            CardChangesDTO.class,
+            CardHoldDTO.class,
+            CardHoldRequest.class,
+            CardHoldCaptureRequest.class,
+            CardLimitDTO.class,
+            CardLimitRequest.class,
+            CardTransactionDTO.class,
+            RecurringTransferDTO.class,
+            RecurringTransferRequest.class,
+            TopUpRequest.class,
+            SchedulerRunReport.class,
+            UserDTO.class,
+            UserCreateDTO.class,
+            CardEvent.class,
+            OutboxMessage.class
+    );
+
+    // JJWT 0.11 создаёт реализации по имени класса (Jwts, Classes.newInstance) и через ServiceLoader
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    @Override
+    public void registerHints(final RuntimeHints hints, final ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(
+                hints.reflection(), DTO_TYPES.toArray(Class<?>[]::new));
+
+        JJWT_TYPES.forEach(type -> hints.reflection().registerTypeIfPresent(classLoader, type,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        // Hibernate создаёт генератор из @IdGeneratorType через рефлексию
+        hints.reflection().registerType(UuidV7IdGenerator.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        hints.resources().registerPattern("db/changelog/*");
+    }
+}
@@ -0,0 +1,85 @@
+package com.bortnik.bank_rest.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Неблокирующий клиент PostgreSQL для реактивных эндпоинтов чтения.
+ * <p>
+ * Пул соединений не регистрируется как бин {@code ConnectionFactory}:
+ * иначе Spring Boot не создаст JDBC DataSource для JPA и Liquibase.
+ * <p>
+ * При шардировании у каждого шарда свой пул: {@code app.r2dbc.url} — шард 0, {@code app.r2dbc.shard-urls} —
+ * остальные в том же порядке, что и {@code app.sharding.shard-urls}.
+ */
+@Configuration
+public class R2dbcConfig implements DisposableBean {
+
+    @Value("${app.r2dbc.url}")
+    private String url;
+
+    @Value("${app.r2dbc.shard-urls:}")
+    private String shardUrls;
+
+    @Value("${app.sharding.shard-urls:}")
+    private String jdbcShardUrls;
+
+    @Value("${app.r2dbc.username}")
+    private String username;
+
+    @Value("${app.r2dbc.password}")
+    private String password;
+
+    @Value("${app.r2dbc.pool.max-size:20}")
+    private int maxPoolSize;
+
+    private final List<ConnectionPool> connectionPools = new ArrayList<>();
+
+    @Bean
+    public ReactiveShardClients reactiveShardClients() {
+        final String[] urls = StringUtils.tokenizeToStringArray(shardUrls, ",");
+        final int jdbcShards = StringUtils.tokenizeToStringArray(jdbcShardUrls, ",").length;
+        if (urls.length != jdbcShards) {
+            throw new IllegalStateException("app.r2dbc.shard-urls lists %d shards, app.sharding.shard-urls lists %d"
+                    .formatted(urls.length, jdbcShards));
+        }
+
+        final List<DatabaseClient> clients = new ArrayList<>(1 + urls.length);
+        clients.add(client(url, "reactive-read"));
+        for (int i = 0; i < urls.length; i++) {
+            clients.add(client(urls[i], "reactive-read-shard-" + (i + 1)));
+        }
+        return new ReactiveShardClients(clients);
+    }
+
+    private DatabaseClient client(final String url, final String name) {
+        final ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        final ConnectionPool connectionPool = new ConnectionPool(
+                ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                        .name(name)
+                        .maxSize(maxPoolSize)
+                        .build()
+        );
+        connectionPools.add(connectionPool);
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        connectionPools.forEach(ConnectionPool::dispose);
+    }
+}
@@ -0,0 +1,28 @@
+package com.bortnik.bank_rest.config;
+
+import com.bortnik.bank_rest.config.datasource.ShardContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * R2DBC-клиенты шардов в порядке номеров, как {@code spring.datasource.url} и {@code app.sharding.shard-urls}.
+ * Пользователь и его карты читаются с шарда, на который указывает хеш их ID.
+ */
+public class ReactiveShardClients {
+
+    private final List<DatabaseClient> clients;
+
+    public ReactiveShardClients(final List<DatabaseClient> clients) {
+        this.clients = List.copyOf(clients);
+    }
+
+    /**
+     * @param id ID пользователя или карты
+     * @return клиент шарда, на котором хранится запись
+     */
+    public DatabaseClient forId(final UUID id) {
+        return clients.get(ShardContext.shardOf(id));
+    }
+}
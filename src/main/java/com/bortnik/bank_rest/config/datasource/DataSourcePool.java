@@ -0,0 +1,22 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Выбирает пул соединений, из которого берутся соединения внутри метода (или всех методов класса).
+ * Аннотация на методе важнее аннотации на классе.
+ * <p>
+ * Пул определяется в момент получения соединения, обычно при открытии транзакции.
+ * Если транзакция уже открыта выше по стеку, метод продолжит работать на её соединении.
+ *
+ * @see DataSourcePoolAspect
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DataSourcePool {
+
+    PoolType value();
+}
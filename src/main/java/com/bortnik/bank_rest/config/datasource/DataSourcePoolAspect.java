@@ -0,0 +1,42 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Переключает пул соединений на время вызова метода с {@link DataSourcePool}.
+ * Выполняется раньше транзакций и {@code @ClusterLocked}, чтобы они получили соединение уже из нужного пула.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DataSourcePoolAspect {
+
+    @Around("@annotation(com.bortnik.bank_rest.config.datasource.DataSourcePool) "
+            + "|| @within(com.bortnik.bank_rest.config.datasource.DataSourcePool)")
+    public Object usePool(final ProceedingJoinPoint joinPoint) throws Throwable {
+        final PoolType previous = DataSourcePoolContext.set(resolvePool(joinPoint));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourcePoolContext.set(previous);
+        }
+    }
+
+    private PoolType resolvePool(final ProceedingJoinPoint joinPoint) {
+        final MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        DataSourcePool annotation = AnnotatedElementUtils.findMergedAnnotation(
+                signature.getMethod(), DataSourcePool.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(
+                    joinPoint.getTarget().getClass(), DataSourcePool.class);
+        }
+        return annotation != null ? annotation.value() : DataSourcePoolContext.current();
+    }
+}
@@ -0,0 +1,35 @@
+package com.bortnik.bank_rest.config.datasource;
+
+/**
+ * Пул соединений, выбранный для текущего потока.
+ */
+public final class DataSourcePoolContext {
+
+    private static final ThreadLocal<PoolType> CURRENT = new ThreadLocal<>();
+
+    private DataSourcePoolContext() {
+    }
+
+    /**
+     * @return пул текущего потока, {@link PoolType#USER}, если пул не выбран
+     */
+    public static PoolType current() {
+        final PoolType pool = CURRENT.get();
+        return pool != null ? pool : PoolType.USER;
+    }
+
+    /**
+     * Устанавливает пул для текущего потока.
+     * @param pool пул, {@code null} — сбросить к пулу по умолчанию
+     * @return ранее установленный пул (может быть {@code null}) для восстановления через этот же метод
+     */
+    static PoolType set(final PoolType pool) {
+        final PoolType previous = CURRENT.get();
+        if (pool == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(pool);
+        }
+        return previous;
+    }
+}
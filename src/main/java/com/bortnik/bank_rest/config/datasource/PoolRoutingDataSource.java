@@ -0,0 +1,25 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * DataSource, выдающий соединения из пула, выбранного для текущего потока через {@link DataSourcePool}.
+ * Пулы не зарегистрированы как бины, поэтому закрываются здесь.
+ */
+public class PoolRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DataSourcePoolContext.current();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Object dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.bortnik.bank_rest.config.datasource;
+
+/**
+ * Классы трафика, для каждого из которых выделен свой пул соединений с БД.
+ */
+public enum PoolType {
+    /** Запросы пользователей: переводы, просмотр карт, аутентификация. Пул по умолчанию. */
+    USER,
+    /** Операции администратора, в том числе тяжёлые выборки по всем картам. */
+    ADMIN,
+    /** Фоновые задачи планировщика. */
+    BATCH,
+    /**
+     * Отправка {@code pg_notify} каждые 100 мс (инвалидация кэшей, SSE). Отдельный маленький пул
+     * с коротким таймаутом: уведомления не ждут соединения за длинными фоновыми задачами.
+     */
+    NOTIFY;
+
+    /**
+     * Имя пула в настройках ({@code app.datasource.pools.<name>.*}) и в метриках HikariCP.
+     */
+    public String poolName() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,82 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import java.util.UUID;
+
+/**
+ * Шард БД, выбранный для текущего потока, и число шардов.
+ * <p>
+ * Пользователь и его карты живут на шарде {@link #shardOf(UUID) shardOf(userId)}.
+ * Номер шарда вычисляется jump consistent hash от ID и числа шардов. Записи между шардами
+ * не переносятся, поэтому число шардов фиксируется вместе с данными: {@link ShardLayoutGuard}
+ * не даёт запустить приложение, если оно изменилось, а на шарде уже есть пользователи.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private static volatile int shardCount = 1;
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return шард текущего потока, 0, если шард не выбран
+     */
+    public static int current() {
+        final Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+
+    /**
+     * Устанавливает шард для текущего потока.
+     * @param shard шард, {@code null} — сбросить к шарду по умолчанию
+     * @return ранее установленный шард (может быть {@code null}) для восстановления через этот же метод
+     */
+    static Integer set(final Integer shard) {
+        final Integer previous = CURRENT.get();
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+        return previous;
+    }
+
+    /**
+     * @return число шардов, 1 — шардирование выключено
+     */
+    public static int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Задаёт число шардов. Вызывается при создании DataSource.
+     * @param count число шардов
+     */
+    public static void configure(final int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + count);
+        }
+        shardCount = count;
+    }
+
+    /**
+     * @param userId ID пользователя
+     * @return шард пользователя и его карт
+     */
+    public static int shardOf(final UUID userId) {
+        return jumpHash(userId.getLeastSignificantBits(), shardCount);
+    }
+
+    // Lamping, Veach. A Fast, Minimal Memory, Consistent Hash Algorithm (2014)
+    static int jumpHash(long key, final int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
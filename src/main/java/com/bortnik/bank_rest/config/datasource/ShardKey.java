@@ -0,0 +1,31 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Параметр метода, по которому выбирается шард БД на время вызова.
+ * Шард выбирается до начала транзакции, поэтому вся транзакция идёт на одном шарде.
+ *
+ * @see ShardRoutingAspect
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardKey {
+
+    /**
+     * @return что хранится в параметре
+     */
+    Kind value() default Kind.USER;
+
+    enum Kind {
+        /** ID пользователя: шард вычисляется по хешу. */
+        USER,
+        /** ID карты: шард ищется по наличию карты, сначала на шарде из хеша ID. */
+        CARD
+    }
+}
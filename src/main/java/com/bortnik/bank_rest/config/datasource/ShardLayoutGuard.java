@@ -0,0 +1,115 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Запрет запуска с числом шардов, отличным от того, с которым записаны данные.
+ * <p>
+ * Шард пользователя вычисляется jump consistent hash от ID и числа шардов, а записи не переносятся:
+ * после изменения {@code app.sharding.shard-urls} часть пользователей искалась бы не на своём шарде.
+ * Поэтому каждый шард хранит в {@code shard_layout} свой номер и число шардов; если они не совпадают
+ * с настройками, а на шарде уже есть пользователи, приложение не запускается. Пустой шард принимает
+ * новую раскладку.
+ * <p>
+ * Проверка выполняется при запуске контекста до веб-сервера и планировщика, а не при создании бина:
+ * обучающий запуск AOT-кэша в Docker-образе работает без БД и завершается раньше.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShardLayoutGuard implements SmartLifecycle {
+
+    private final DataSource dataSource;
+    private final ShardRouter shardRouter;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        shardRouter.forEachShard(() -> verify(ShardContext.current(), shardRouter.shardCount()));
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Раньше веб-сервера: с неверной раскладкой запросы не должны приниматься вовсе
+        return Integer.MIN_VALUE;
+    }
+
+    void verify(final int shard, final int shardCount) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+
+            final Layout configured = new Layout(shard, shardCount);
+            final Optional<Layout> recorded = recordedLayout(connection);
+            if (recorded.isPresent() && recorded.get().equals(configured)) {
+                return;
+            }
+            if (recorded.isPresent() && hasUsers(connection)) {
+                throw new IllegalStateException((
+                        "Shard %d holds users distributed as shard %d of %d, but %d shards are configured. "
+                                + "Change app.sharding.shard-urls only together with a data migration")
+                        .formatted(shard, recorded.get().shard(), recorded.get().count(), shardCount));
+            }
+
+            record(connection, configured);
+            log.info("Shard layout recorded: shard {} of {}", shard, shardCount);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to verify layout of shard " + shard, e);
+        }
+    }
+
+    private Optional<Layout> recordedLayout(final Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT shard_index, shard_count FROM shard_layout WHERE id = 1");
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next()
+                    ? Optional.of(new Layout(resultSet.getInt(1), resultSet.getInt(2)))
+                    : Optional.empty();
+        }
+    }
+
+    private boolean hasUsers(final Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT EXISTS (SELECT 1 FROM users)");
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getBoolean(1);
+        }
+    }
+
+    private void record(final Connection connection, final Layout layout) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("""
+                INSERT INTO shard_layout (id, shard_index, shard_count)
+                VALUES (1, ?, ?)
+                ON CONFLICT (id) DO UPDATE
+                SET shard_index = EXCLUDED.shard_index, shard_count = EXCLUDED.shard_count, updated_at = CURRENT_TIMESTAMP
+                """)) {
+            statement.setInt(1, layout.shard());
+            statement.setInt(2, layout.count());
+            statement.executeUpdate();
+        }
+    }
+
+    private record Layout(int shard, int count) {
+    }
+}
@@ -0,0 +1,216 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Выполнение запросов на нужном шарде и на всех шардах сразу (scatter-gather).
+ * <p>
+ * Запросы ко всем шардам идут параллельно на виртуальных потоках, пул соединений
+ * ({@link DataSourcePool}) вызывающего потока сохраняется. При одном шарде всё выполняется
+ * в вызывающем потоке без накладных расходов.
+ */
+@Component
+public class ShardRouter {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    /**
+     * @return число шардов
+     */
+    public int shardCount() {
+        return ShardContext.shardCount();
+    }
+
+    /**
+     * @param userId ID пользователя
+     * @return шард пользователя и его карт
+     */
+    public int shardForUser(final UUID userId) {
+        return ShardContext.shardOf(userId);
+    }
+
+    /**
+     * Шард для нового пользователя, по кругу. ID пользователя генерируется так,
+     * чтобы его хеш указывал на этот шард (см. {@code UuidV7IdGenerator}).
+     * @return шард
+     */
+    public int nextShardForNewUser() {
+        return Math.floorMod(nextShard.getAndIncrement(), shardCount());
+    }
+
+    /**
+     * Выполняет действие на указанном шарде.
+     * @param shard шард
+     * @param action действие
+     * @return результат действия
+     * @throws IllegalStateException если в потоке уже открыта транзакция на другом шарде
+     */
+    public <T> T onShard(final int shard, final Supplier<T> action) {
+        if (shard == ShardContext.current()) {
+            return action.get();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(
+                    "Cannot switch to shard " + shard + " inside a transaction on shard " + ShardContext.current());
+        }
+        final Integer previous = ShardContext.set(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    /**
+     * Выполняет действие на каждом шарде по очереди. Для фоновых задач, которым
+     * не нужна параллельность и нагрузка на все шарды сразу.
+     * @param action действие
+     */
+    public void forEachShard(final Runnable action) {
+        for (int shard = 0; shard < shardCount(); shard++) {
+            onShard(shard, () -> {
+                action.run();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Выполняет действие на всех шардах параллельно.
+     * @param action действие
+     * @return результаты в порядке номеров шардов
+     */
+    public <T> List<T> onEachShard(final Supplier<T> action) {
+        final int count = shardCount();
+        if (count == 1) {
+            return List.of(action.get());
+        }
+
+        final PoolType pool = DataSourcePoolContext.current();
+        final List<Future<T>> futures = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            final int target = shard;
+            futures.add(executor.submit(() -> {
+                DataSourcePoolContext.set(pool);
+                ShardContext.set(target);
+                return action.get();
+            }));
+        }
+
+        final List<T> results = new ArrayList<>(count);
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    /**
+     * Ищет значение на всех шардах.
+     * @param lookup поиск на одном шарде
+     * @return первое найденное значение в порядке номеров шардов
+     */
+    public <T> Optional<T> findFirst(final Supplier<Optional<T>> lookup) {
+        return onEachShard(lookup).stream()
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    /**
+     * Находит шард, на котором хранится запись. Сначала проверяется шард из хеша ID,
+     * остальные — только если записи там нет (например, запись перенесена на другой шард вместе с владельцем).
+     * @param id ID записи
+     * @param existsOnShard проверка наличия записи на текущем шарде
+     * @return шард с записью или шард из хеша ID, если запись не найдена
+     */
+    public int locate(final UUID id, final Predicate<UUID> existsOnShard) {
+        final int hashed = ShardContext.shardOf(id);
+        if (shardCount() == 1 || onShard(hashed, () -> existsOnShard.test(id))) {
+            return hashed;
+        }
+
+        final List<Boolean> found = onEachShard(() -> ShardContext.current() != hashed && existsOnShard.test(id));
+        final int shard = found.indexOf(Boolean.TRUE);
+        return shard >= 0 ? shard : hashed;
+    }
+
+    /**
+     * Страница, собранная со всех шардов. С каждого шарда читается начало выборки
+     * до конца запрошенной страницы, результаты сливаются в порядке сортировки запроса;
+     * для однозначного порядка к сортировке добавляется {@code id}.
+     * Чем дальше страница, тем больше строк читается с каждого шарда.
+     * @param pageable запрошенная страница
+     * @param query запрос к одному шарду
+     * @return страница с общим числом элементов по всем шардам
+     */
+    public <T> Page<T> scatterPage(final Pageable pageable, final Function<Pageable, Page<T>> query) {
+        if (shardCount() == 1) {
+            return query.apply(pageable);
+        }
+
+        final Sort sort = pageable.getSort().getOrderFor("id") != null
+                ? pageable.getSort()
+                : pageable.getSort().and(Sort.by("id"));
+        final Pageable head = pageable.isPaged()
+                ? PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize()), sort)
+                : Pageable.unpaged(sort);
+
+        final List<Page<T>> pages = onEachShard(() -> query.apply(head));
+        final List<T> merged = new ArrayList<>();
+        long total = 0;
+        for (Page<T> page : pages) {
+            merged.addAll(page.getContent());
+            total += page.getTotalElements();
+        }
+        merged.sort(new SortComparator<>(sort));
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(merged, pageable, total);
+        }
+        final int from = (int) Math.min(merged.size(), pageable.getOffset());
+        final int to = Math.min(merged.size(), from + pageable.getPageSize());
+        return new PageImpl<>(new ArrayList<>(merged.subList(from, to)), pageable, total);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static <T> T await(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shard", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import com.bortnik.bank_rest.repository.CardRepository;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Переключает шард БД на время вызова метода с параметром {@link ShardKey}.
+ * Выполняется раньше транзакций, чтобы они получили соединение уже с нужного шарда.
+ * При одном шарде ничего не делает.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ShardRoutingAspect {
+
+    private final ShardRouter shardRouter;
+    private final CardRepository cardRepository;
+
+    // Позиция и вид параметра @ShardKey для каждого метода, чтобы не разбирать аннотации на каждом вызове
+    private final Map<Method, KeyParameter> keyParameters = new ConcurrentHashMap<>();
+
+    private record KeyParameter(int index, ShardKey.Kind kind) {
+    }
+
+    @Around("execution(* *(.., @com.bortnik.bank_rest.config.datasource.ShardKey (*), ..))")
+    public Object useShard(final ProceedingJoinPoint joinPoint) throws Throwable {
+        if (shardRouter.shardCount() == 1) {
+            return joinPoint.proceed();
+        }
+
+        final int shard = resolveShard(joinPoint);
+        try {
+            return shardRouter.onShard(shard, () -> proceed(joinPoint));
+        } catch (ProceedFailure failure) {
+            throw failure.getCause();
+        }
+    }
+
+    private int resolveShard(final ProceedingJoinPoint joinPoint) {
+        final Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        final KeyParameter parameter = keyParameters.computeIfAbsent(method, ShardRoutingAspect::findKeyParameter);
+        final UUID key = (UUID) joinPoint.getArgs()[parameter.index()];
+        if (key == null) {
+            return ShardContext.current();
+        }
+        return switch (parameter.kind()) {
+            case USER -> shardRouter.shardForUser(key);
+            case CARD -> shardRouter.locate(key, cardRepository::existsById);
+        };
+    }
+
+    private static KeyParameter findKeyParameter(final Method method) {
+        final Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof ShardKey shardKey) {
+                    return new KeyParameter(i, shardKey.value());
+                }
+            }
+        }
+        throw new IllegalStateException("No @ShardKey parameter on " + method);
+    }
+
+    private static Object proceed(final ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            throw new ProceedFailure(e);
+        }
+    }
+
+    // Переносит исключение метода через Supplier без оборачивания для вызывающего кода
+    private static final class ProceedFailure extends RuntimeException {
+        private ProceedFailure(final Throwable cause) {
+            super(null, cause, false, false);
+        }
+    }
+}
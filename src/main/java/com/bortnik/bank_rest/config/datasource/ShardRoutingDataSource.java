@@ -0,0 +1,25 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * DataSource, выдающий соединения шарда, выбранного для текущего потока ({@link ShardContext}).
+ * Каждый шард — свой {@link PoolRoutingDataSource} с пулами по классам трафика.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Object dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof DisposableBean disposable) {
+                disposable.destroy();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Сравнение сущностей в порядке {@link Sort}, совпадающем с ORDER BY PostgreSQL,
+ * чтобы слияние страниц с разных шардов давало тот же порядок, что и один запрос:
+ * перечисления сравниваются по имени (хранятся строкой), UUID — как беззнаковые байты,
+ * {@code NULL} больше любого значения.
+ */
+class SortComparator<T> implements Comparator<T> {
+
+    private final Sort sort;
+
+    SortComparator(final Sort sort) {
+        this.sort = sort;
+    }
+
+    @Override
+    public int compare(final T left, final T right) {
+        final BeanWrapperImpl leftBean = new BeanWrapperImpl(left);
+        final BeanWrapperImpl rightBean = new BeanWrapperImpl(right);
+        for (Sort.Order order : sort) {
+            final int result = compareValues(
+                    leftBean.getPropertyValue(order.getProperty()),
+                    rightBean.getPropertyValue(order.getProperty()),
+                    order.isIgnoreCase()
+            );
+            if (result != 0) {
+                return order.isAscending() ? result : -result;
+            }
+        }
+        return 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(final Object left, final Object right, final boolean ignoreCase) {
+        if (left == null || right == null) {
+            return left == right ? 0 : (left == null ? 1 : -1);
+        }
+        if (left instanceof UUID leftId && right instanceof UUID rightId) {
+            final int high = Long.compareUnsigned(leftId.getMostSignificantBits(), rightId.getMostSignificantBits());
+            return high != 0 ? high
+                    : Long.compareUnsigned(leftId.getLeastSignificantBits(), rightId.getLeastSignificantBits());
+        }
+        if (left instanceof Enum<?> leftEnum && right instanceof Enum<?> rightEnum) {
+            return leftEnum.name().compareTo(rightEnum.name());
+        }
+        if (ignoreCase && left instanceof String leftString && right instanceof String rightString) {
+            return leftString.compareToIgnoreCase(rightString);
+        }
+        return ((Comparable) left).compareTo(right);
+    }
+}
@@ -0,0 +1,204 @@
+package com.bortnik.bank_rest.config.jackson;
+
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Сериализатор {@link CardDTO}, самого частого объекта в ответах API.
+ * <p>
+ * Пишет поля напрямую в генератор в том же порядке и формате, что и стандартный BeanSerializer:
+ * без обхода свойств через рефлексию и с заранее закодированными именами полей.
+ * UUID и даты ({@code ISO_LOCAL_DATE}, {@code ISO_LOCAL_DATE_TIME}) форматируются в один буфер на карту,
+ * а не через промежуточные строки и {@code DateTimeFormatter}.
+ * Маскированный номер карты уже лежит в DTO готовой строкой (см. {@code CardMapper}) и копируется как есть.
+ * Если даты настроены писать числами или год вне {@code 0000–9999}, используются сериализаторы ObjectMapper.
+ */
+public class CardDTOSerializer extends StdSerializer<CardDTO> implements ResolvableSerializer {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString USER_ID = new SerializedString("userId");
+    private static final SerializableString CARD_NUMBER = new SerializedString("cardNumber");
+    private static final SerializableString EXPIRATION_DATE = new SerializedString("expirationDate");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString BALANCE = new SerializedString("balance");
+    private static final SerializableString AVAILABLE_BALANCE = new SerializedString("availableBalance");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    // Самое длинное значение — дата-время с наносекундами: 2025-01-31T10:15:30.123456789
+    private static final int BUFFER_SIZE = 36;
+
+    private JsonSerializer<Object> dateSerializer;
+    private JsonSerializer<Object> dateTimeSerializer;
+
+    public CardDTOSerializer() {
+        super(CardDTO.class);
+    }
+
+    @Override
+    public void resolve(final SerializerProvider provider) throws JsonMappingException {
+        dateSerializer = provider.findValueSerializer(LocalDate.class);
+        dateTimeSerializer = provider.findValueSerializer(LocalDateTime.class);
+    }
+
+    @Override
+    public void serialize(
+            final CardDTO card,
+            final JsonGenerator gen,
+            final SerializerProvider provider
+    ) throws IOException {
+        final char[] buffer = new char[BUFFER_SIZE];
+        final boolean isoDates = !provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        gen.writeStartObject(card);
+
+        gen.writeFieldName(ID);
+        writeUuid(card.getId(), buffer, gen);
+
+        gen.writeFieldName(USER_ID);
+        writeUuid(card.getUserId(), buffer, gen);
+
+        gen.writeFieldName(CARD_NUMBER);
+        gen.writeString(card.getCardNumber());
+
+        gen.writeFieldName(EXPIRATION_DATE);
+        final LocalDate expirationDate = card.getExpirationDate();
+        if (expirationDate == null) {
+            gen.writeNull();
+        } else if (isoDates && hasFourDigitYear(expirationDate.getYear())) {
+            gen.writeString(buffer, 0, formatDate(expirationDate, buffer, 0));
+        } else {
+            dateSerializer.serialize(expirationDate, gen, provider);
+        }
+
+        gen.writeFieldName(STATUS);
+        if (card.getStatus() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(card.getStatus().name());
+        }
+
+        gen.writeFieldName(BALANCE);
+        if (card.getBalance() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(card.getBalance());
+        }
+
+        gen.writeFieldName(AVAILABLE_BALANCE);
+        if (card.getAvailableBalance() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(card.getAvailableBalance());
+        }
+
+        gen.writeFieldName(CREATED_AT);
+        writeDateTime(card.getCreatedAt(), isoDates, buffer, gen, provider);
+
+        gen.writeFieldName(UPDATED_AT);
+        writeDateTime(card.getUpdatedAt(), isoDates, buffer, gen, provider);
+
+        gen.writeEndObject();
+    }
+
+    private void writeUuid(final UUID uuid, final char[] buffer, final JsonGenerator gen) throws IOException {
+        if (uuid == null) {
+            gen.writeNull();
+            return;
+        }
+        final long msb = uuid.getMostSignificantBits();
+        final long lsb = uuid.getLeastSignificantBits();
+        hex(msb >>> 32, 8, buffer, 0);
+        buffer[8] = '-';
+        hex(msb >>> 16, 4, buffer, 9);
+        buffer[13] = '-';
+        hex(msb, 4, buffer, 14);
+        buffer[18] = '-';
+        hex(lsb >>> 48, 4, buffer, 19);
+        buffer[23] = '-';
+        hex(lsb, 12, buffer, 24);
+        gen.writeString(buffer, 0, 36);
+    }
+
+    private void writeDateTime(
+            final LocalDateTime value,
+            final boolean isoDates,
+            final char[] buffer,
+            final JsonGenerator gen,
+            final SerializerProvider provider
+    ) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else if (isoDates && hasFourDigitYear(value.getYear())) {
+            gen.writeString(buffer, 0, formatDateTime(value, buffer));
+        } else {
+            dateTimeSerializer.serialize(value, gen, provider);
+        }
+    }
+
+    private static boolean hasFourDigitYear(final int year) {
+        return year >= 0 && year <= 9999;
+    }
+
+    private static int formatDate(final LocalDate date, final char[] buffer, final int offset) {
+        digits(date.getYear(), 4, buffer, offset);
+        buffer[offset + 4] = '-';
+        digits(date.getMonthValue(), 2, buffer, offset + 5);
+        buffer[offset + 7] = '-';
+        digits(date.getDayOfMonth(), 2, buffer, offset + 8);
+        return offset + 10;
+    }
+
+    // Тот же вывод, что у DateTimeFormatter.ISO_LOCAL_DATE_TIME: секунды всегда, дробная часть без хвостовых нулей
+    private static int formatDateTime(final LocalDateTime dateTime, final char[] buffer) {
+        int position = formatDate(dateTime.toLocalDate(), buffer, 0);
+        buffer[position++] = 'T';
+        digits(dateTime.getHour(), 2, buffer, position);
+        buffer[position + 2] = ':';
+        digits(dateTime.getMinute(), 2, buffer, position + 3);
+        buffer[position + 5] = ':';
+        digits(dateTime.getSecond(), 2, buffer, position + 6);
+        position += 8;
+
+        int nano = dateTime.getNano();
+        if (nano != 0) {
+            int length = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                length--;
+            }
+            buffer[position++] = '.';
+            digits(nano, length, buffer, position);
+            position += length;
+        }
+        return position;
+    }
+
+    private static void digits(int value, final int length, final char[] buffer, final int offset) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static void hex(long value, final int length, final char[] buffer, final int offset) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            buffer[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
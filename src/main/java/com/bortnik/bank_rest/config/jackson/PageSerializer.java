@@ -0,0 +1,56 @@
+package com.bortnik.bank_rest.config.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+
+/**
+ * Компактная сериализация {@link Page}: содержимое и четыре поля метаданных.
+ * <pre>
+ * {"content": [...], "page": {"size": 20, "number": 0, "totalElements": 42, "totalPages": 3}}
+ * </pre>
+ * Формат совпадает с {@code PagedModel} Spring Data (режим {@code VIA_DTO}), но не требует менять
+ * возвращаемые типы контроллеров. Поля {@code pageable}, {@code sort} и вычисляемые флаги
+ * ({@code first}, {@code last}, {@code empty}) не пишутся.
+ */
+@SuppressWarnings("rawtypes")
+public class PageSerializer extends StdSerializer<Page> {
+
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString PAGE = new SerializedString("page");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString NUMBER = new SerializedString("number");
+    private static final SerializableString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializableString TOTAL_PAGES = new SerializedString("totalPages");
+
+    public PageSerializer() {
+        super(Page.class);
+    }
+
+    @Override
+    public void serialize(final Page page, final JsonGenerator gen, final SerializerProvider provider) throws IOException {
+        gen.writeStartObject(page);
+
+        gen.writeFieldName(CONTENT);
+        provider.defaultSerializeValue(page.getContent(), gen);
+
+        gen.writeFieldName(PAGE);
+        gen.writeStartObject();
+        gen.writeFieldName(SIZE);
+        gen.writeNumber(page.getSize());
+        gen.writeFieldName(NUMBER);
+        gen.writeNumber(page.getNumber());
+        gen.writeFieldName(TOTAL_ELEMENTS);
+        gen.writeNumber(page.getTotalElements());
+        gen.writeFieldName(TOTAL_PAGES);
+        gen.writeNumber(page.getTotalPages());
+        gen.writeEndObject();
+
+        gen.writeEndObject();
+    }
+}
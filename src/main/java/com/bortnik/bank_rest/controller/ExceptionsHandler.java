@@ -4,13 +4,19 @@ import com.bortnik.bank_rest.dto.ApiError;
 import com.bortnik.bank_rest.dto.ApiResponse;
 import com.bortnik.bank_rest.exception.BadCredentials;
 import com.bortnik.bank_rest.exception.BadRequest;
+import com.bortnik.bank_rest.exception.ServiceOverloaded;
 import com.bortnik.bank_rest.exception.card.*;
 import com.bortnik.bank_rest.exception.security.AccessError;
+import com.bortnik.bank_rest.exception.security.SuspiciousActivity;
 import com.bortnik.bank_rest.exception.user.UserAlreadyExists;
 import com.bortnik.bank_rest.exception.user.UserNotFound;
+import com.bortnik.bank_rest.metrics.BankMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
@@ -19,38 +25,95 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 import java.time.LocalDateTime;
 
 @ControllerAdvice
+@RequiredArgsConstructor
 public class ExceptionsHandler {
 
+    private final BankMetrics bankMetrics;
+
     @ExceptionHandler(AccessError.class)
     ResponseEntity<ApiResponse<ApiError>> handleAccessError(AccessError accessError) {
         return buildResponseEntity(
+                accessError,
                 "Access Error",
                 accessError.getMessage(),
                 HttpStatus.FORBIDDEN
         );
     }
 
+    @ExceptionHandler(SuspiciousActivity.class)
+    ResponseEntity<ApiResponse<ApiError>> handleSuspiciousActivity(SuspiciousActivity suspiciousActivity) {
+        return buildResponseEntity(
+                suspiciousActivity,
+                "Suspicious Activity",
+                suspiciousActivity.getMessage(),
+                HttpStatus.TOO_MANY_REQUESTS
+        );
+    }
+
     @ExceptionHandler(CardNotFound.class)
     ResponseEntity<ApiResponse<ApiError>> handleCardNotFound(CardNotFound cardNotFound) {
         return buildResponseEntity(
+                cardNotFound,
                 "Card Not Found",
                 cardNotFound.getMessage(),
                 HttpStatus.NOT_FOUND
         );
     }
 
+    @ExceptionHandler(RecurringTransferNotFound.class)
+    ResponseEntity<ApiResponse<ApiError>> handleRecurringTransferNotFound(RecurringTransferNotFound recurringTransferNotFound) {
+        return buildResponseEntity(
+                recurringTransferNotFound,
+                "Recurring Transfer Not Found",
+                recurringTransferNotFound.getMessage(),
+                HttpStatus.NOT_FOUND
+        );
+    }
+
+    @ExceptionHandler(CardHoldNotFound.class)
+    ResponseEntity<ApiResponse<ApiError>> handleCardHoldNotFound(CardHoldNotFound cardHoldNotFound) {
+        return buildResponseEntity(
+                cardHoldNotFound,
+                "Card Hold Not Found",
+                cardHoldNotFound.getMessage(),
+                HttpStatus.NOT_FOUND
+        );
+    }
+
+    @ExceptionHandler(CardHoldNotActive.class)
+    ResponseEntity<ApiResponse<ApiError>> handleCardHoldNotActive(CardHoldNotActive cardHoldNotActive) {
+        return buildResponseEntity(
+                cardHoldNotActive,
+                "Card Hold Not Active",
+                cardHoldNotActive.getMessage(),
+                HttpStatus.CONFLICT
+        );
+    }
+
     @ExceptionHandler(InsufficientFunds.class)
     ResponseEntity<ApiResponse<ApiError>> handleInsufficientFunds(InsufficientFunds insufficientFunds) {
         return buildResponseEntity(
+                insufficientFunds,
                 "Insufficient Funds",
                 insufficientFunds.getMessage(),
                 HttpStatus.BAD_REQUEST
         );
     }
 
+    @ExceptionHandler(CardLimitExceeded.class)
+    ResponseEntity<ApiResponse<ApiError>> handleCardLimitExceeded(CardLimitExceeded cardLimitExceeded) {
+        return buildResponseEntity(
+                cardLimitExceeded,
+                "Card Limit Exceeded",
+                cardLimitExceeded.getMessage(),
+                HttpStatus.BAD_REQUEST
+        );
+    }
+
     @ExceptionHandler(UserAlreadyExists.class)
     ResponseEntity<ApiResponse<ApiError>> handleUserAlreadyExists(UserAlreadyExists userAlreadyExists) {
         return buildResponseEntity(
+                userAlreadyExists,
                 "User Already Exists",
                 userAlreadyExists.getMessage(),
                 HttpStatus.CONFLICT
@@ -60,6 +123,7 @@ public class ExceptionsHandler {
     @ExceptionHandler(UserNotFound.class)
     ResponseEntity<ApiResponse<ApiError>> handleUserNotFound(UserNotFound userNotFound) {
         return buildResponseEntity(
+                userNotFound,
                 "User Not Found",
                 userNotFound.getMessage(),
                 HttpStatus.NOT_FOUND
@@ -69,6 +133,7 @@ public class ExceptionsHandler {
     @ExceptionHandler(BadRequest.class)
     ResponseEntity<ApiResponse<ApiError>> handleBadRequest(BadRequest badRequestException) {
         return buildResponseEntity(
+                badRequestException,
                 "Bad Request",
                 badRequestException.getMessage(),
                 HttpStatus.BAD_REQUEST
@@ -78,6 +143,7 @@ public class ExceptionsHandler {
     @ExceptionHandler(CardBlocked.class)
     ResponseEntity<ApiResponse<ApiError>> handleCardBlocked(CardBlocked cardBlocked) {
         return buildResponseEntity(
+                cardBlocked,
                 "Card Blocked",
                 cardBlocked.getMessage(),
                 HttpStatus.FORBIDDEN
@@ -87,6 +153,7 @@ public class ExceptionsHandler {
     @ExceptionHandler(CardExpired.class)
     ResponseEntity<ApiResponse<ApiError>> handleCardExpired(CardExpired cardExpired) {
         return buildResponseEntity(
+                cardExpired,
                 "Card Expired",
                 cardExpired.getMessage(),
                 HttpStatus.FORBIDDEN
@@ -96,6 +163,7 @@ public class ExceptionsHandler {
     @ExceptionHandler(CardsAreTheSame.class)
     ResponseEntity<ApiResponse<ApiError>> handleCardsAreTheSame(CardsAreTheSame cardsAreTheSame) {
         return buildResponseEntity(
+                cardsAreTheSame,
                 "Card Are The Same",
                 cardsAreTheSame.getMessage(),
                 HttpStatus.BAD_REQUEST
@@ -105,6 +173,7 @@ public class ExceptionsHandler {
     @ExceptionHandler(IncorrectAmount.class)
     ResponseEntity<ApiResponse<ApiError>> handleIncorrectAmount(IncorrectAmount incorrectAmount) {
         return buildResponseEntity(
+                incorrectAmount,
                 "Card Are The Same",
                 incorrectAmount.getMessage(),
                 HttpStatus.BAD_REQUEST
@@ -114,6 +183,7 @@ public class ExceptionsHandler {
     @ExceptionHandler(CardAlreadyActivated.class)
     ResponseEntity<ApiResponse<ApiError>> handleCardAlreadyActivated(CardAlreadyActivated cardAlreadyActivated) {
         return buildResponseEntity(
+                cardAlreadyActivated,
                 "Card Already Activated",
                 cardAlreadyActivated.getMessage(),
                 HttpStatus.CONFLICT
@@ -123,15 +193,27 @@ public class ExceptionsHandler {
     @ExceptionHandler(CardAlreadyBlocked.class)
     ResponseEntity<ApiResponse<ApiError>> handleCardAlreadyActivated(CardAlreadyBlocked cardAlreadyBlocked) {
         return buildResponseEntity(
+                cardAlreadyBlocked,
                 "Card Already Blocked",
                 cardAlreadyBlocked.getMessage(),
                 HttpStatus.CONFLICT
         );
     }
 
+    @ExceptionHandler(SyncTokenExpired.class)
+    ResponseEntity<ApiResponse<ApiError>> handleSyncTokenExpired(SyncTokenExpired syncTokenExpired) {
+        return buildResponseEntity(
+                syncTokenExpired,
+                "Sync Token Expired",
+                syncTokenExpired.getMessage(),
+                HttpStatus.GONE
+        );
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     ResponseEntity<ApiResponse<ApiError>> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException exception) {
         return buildResponseEntity(
+                exception,
                 "Bad Request",
                 "Invalid parameter: " + exception.getName(),
                 HttpStatus.BAD_REQUEST
@@ -141,6 +223,7 @@ public class ExceptionsHandler {
     @ExceptionHandler(NoResourceFoundException.class)
     ResponseEntity<ApiResponse<ApiError>> handleNoResourceFoundException(NoResourceFoundException exception) {
         return buildResponseEntity(
+                exception,
                 "Resource Not Found",
                 exception.getMessage(),
                 HttpStatus.NOT_FOUND
@@ -150,6 +233,7 @@ public class ExceptionsHandler {
     @ExceptionHandler(BadCredentials.class)
     ResponseEntity<ApiResponse<ApiError>> handleBadCredentials(BadCredentials badCredentials) {
         return buildResponseEntity(
+                badCredentials,
                 "Bad Credentials",
                 badCredentials.getMessage(),
                 HttpStatus.UNAUTHORIZED
@@ -159,15 +243,47 @@ public class ExceptionsHandler {
     @ExceptionHandler(BadCredentialsException.class)
     ResponseEntity<ApiResponse<ApiError>> handleBadCredentialsException(BadCredentialsException exception) {
         return buildResponseEntity(
+                exception,
                 "Bad Credentials",
                 exception.getMessage(),
                 HttpStatus.UNAUTHORIZED
         );
     }
 
+    /**
+     * Пул соединений исчерпан и соединение не выдано за {@code connection-timeout} пула.
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    ResponseEntity<ApiResponse<ApiError>> handleCannotCreateTransaction(CannotCreateTransactionException exception) {
+        return buildResponseEntity(
+                exception,
+                "Service Unavailable",
+                "Service is temporarily overloaded, try again later",
+                HttpStatus.SERVICE_UNAVAILABLE
+        );
+    }
+
+    /**
+     * Запрос отклонён адаптивным лимитом одновременных запросов.
+     */
+    @ExceptionHandler(ServiceOverloaded.class)
+    ResponseEntity<ApiResponse<ApiError>> handleServiceOverloaded(ServiceOverloaded serviceOverloaded) {
+        final ResponseEntity<ApiResponse<ApiError>> response = buildResponseEntity(
+                serviceOverloaded,
+                "Service Unavailable",
+                serviceOverloaded.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE
+        );
+        final long retryAfterSeconds = Math.max(1, serviceOverloaded.getRetryAfter().toSeconds());
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(Exception.class)
     ResponseEntity<ApiResponse<ApiError>> handleGenericException(Exception exception) {
         return buildResponseEntity(
+                exception,
                 "Internal Server Error",
                 exception.getMessage(),
                 HttpStatus.INTERNAL_SERVER_ERROR
@@ -175,10 +291,13 @@ public class ExceptionsHandler {
     }
 
     private ResponseEntity<ApiResponse<ApiError>> buildResponseEntity(
+            final Exception exception,
             final String error,
             final String message,
             final HttpStatus status
     ) {
+        bankMetrics.recordRejection(exception, status);
+
         final ApiError apiError = ApiError.builder()
                 .timestamp(LocalDateTime.now())
                 .error(error)
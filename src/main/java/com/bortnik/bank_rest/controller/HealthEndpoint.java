@@ -4,7 +4,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-@RestController
+// Имя бина по умолчанию "healthEndpoint" занято эндпоинтом Actuator
+@RestController("healthController")
 public class HealthEndpoint {
 
     @GetMapping("/health" )
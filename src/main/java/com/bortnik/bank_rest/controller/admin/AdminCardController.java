@@ -3,9 +3,17 @@ package com.bortnik.bank_rest.controller.admin;
 import com.bortnik.bank_rest.controller.validator.CardValidator;
 import com.bortnik.bank_rest.dto.ApiResponse;
 import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.dto.card.CardHoldCaptureRequest;
+import com.bortnik.bank_rest.dto.card.CardHoldDTO;
+import com.bortnik.bank_rest.dto.card.CardHoldRequest;
+import com.bortnik.bank_rest.dto.card.CardLimitDTO;
+import com.bortnik.bank_rest.dto.card.CardLimitRequest;
 import com.bortnik.bank_rest.dto.card.TopUpRequest;
+import com.bortnik.bank_rest.entity.CardHoldStatus;
 import com.bortnik.bank_rest.entity.CardStatus;
 import com.bortnik.bank_rest.service.card.AdminCardService;
+import com.bortnik.bank_rest.service.card.CardHoldService;
+import com.bortnik.bank_rest.service.card.CardLimitService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -27,6 +35,8 @@ import java.util.UUID;
 public class AdminCardController {
 
     private final AdminCardService adminCardService;
+    private final CardLimitService cardLimitService;
+    private final CardHoldService cardHoldService;
 
     @Operation(summary = "Get user's cards", description = "Returns a paginated list of cards belonging to the specified user")
     @GetMapping("/users/{userId}/cards")
@@ -131,4 +141,82 @@ public class AdminCardController {
                 .responseData(adminCardService.topUpCardBalance(cardId, topUpRequest.getAmount()))
                 .build();
     }
+
+    @Operation(summary = "Get card limits", description = "Returns transfer limits of a card and the amount spent over the last 24 hours")
+    @GetMapping("/{cardId}/limits")
+    public ApiResponse<CardLimitDTO> getCardLimits(
+            @Parameter(description = "Card ID") @PathVariable UUID cardId
+    ) {
+        return ApiResponse.<CardLimitDTO>builder()
+                .responseData(cardLimitService.getLimits(cardId))
+                .build();
+    }
+
+    @Operation(summary = "Set card limits", description = "Sets daily and per-transaction transfer limits of a card, empty values reset to defaults")
+    @PutMapping("/{cardId}/limits")
+    public ApiResponse<CardLimitDTO> setCardLimits(
+            @Parameter(description = "Card ID") @PathVariable UUID cardId,
+            @Parameter(description = "New limits") @RequestBody CardLimitRequest cardLimitRequest
+    ) {
+        CardValidator.validateLimitPositive(cardLimitRequest.getDailyLimit());
+        CardValidator.validateLimitPositive(cardLimitRequest.getPerTransactionLimit());
+        return ApiResponse.<CardLimitDTO>builder()
+                .responseData(cardLimitService.setLimits(cardId, cardLimitRequest))
+                .build();
+    }
+
+    @Operation(summary = "Get card holds", description = "Returns a paginated list of holds of a card")
+    @GetMapping("/{cardId}/holds")
+    public ApiResponse<Page<CardHoldDTO>> getCardHolds(
+            @Parameter(description = "Card ID") @PathVariable UUID cardId,
+            @Parameter(description = "Filter by status")
+            @RequestParam(required = false)
+            CardHoldStatus status,
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC)
+            Pageable pageable
+    ) {
+        return ApiResponse.<Page<CardHoldDTO>>builder()
+                .responseData(cardHoldService.getHolds(cardId, status, pageable))
+                .build();
+    }
+
+    @Operation(summary = "Hold funds", description = "Reserves an amount on a card until it is captured, released or expires")
+    @PostMapping("/{cardId}/holds")
+    public ResponseEntity<ApiResponse<CardHoldDTO>> createCardHold(
+            @Parameter(description = "Card ID") @PathVariable UUID cardId,
+            @Parameter(description = "Amount and TTL of the hold") @RequestBody CardHoldRequest cardHoldRequest
+    ) {
+        CardValidator.validateAmountPositive(cardHoldRequest.getAmount());
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                ApiResponse.<CardHoldDTO>builder()
+                        .responseData(cardHoldService.createHold(cardId, cardHoldRequest))
+                        .build()
+        );
+    }
+
+    @Operation(summary = "Capture hold", description = "Debits the held amount or a part of it from the card balance, the rest is released")
+    @PostMapping("/{cardId}/holds/{holdId}/capture")
+    public ApiResponse<CardHoldDTO> captureCardHold(
+            @Parameter(description = "Card ID") @PathVariable UUID cardId,
+            @Parameter(description = "Hold ID") @PathVariable UUID holdId,
+            @Parameter(description = "Amount to capture, the whole hold if empty")
+            @RequestBody(required = false)
+            CardHoldCaptureRequest captureRequest
+    ) {
+        return ApiResponse.<CardHoldDTO>builder()
+                .responseData(cardHoldService.captureHold(
+                        cardId, holdId, captureRequest != null ? captureRequest.getAmount() : null))
+                .build();
+    }
+
+    @Operation(summary = "Release hold", description = "Cancels a hold and returns the amount to the available balance")
+    @PostMapping("/{cardId}/holds/{holdId}/release")
+    public ApiResponse<CardHoldDTO> releaseCardHold(
+            @Parameter(description = "Card ID") @PathVariable UUID cardId,
+            @Parameter(description = "Hold ID") @PathVariable UUID holdId
+    ) {
+        return ApiResponse.<CardHoldDTO>builder()
+                .responseData(cardHoldService.releaseHold(cardId, holdId))
+                .build();
+    }
 }
@@ -0,0 +1,59 @@
+package com.bortnik.bank_rest.controller.admin;
+
+import com.bortnik.bank_rest.dto.ApiResponse;
+import com.bortnik.bank_rest.dto.scheduler.SchedulerRunReport;
+import com.bortnik.bank_rest.scheduler.CardHoldExpiryScheduler;
+import com.bortnik.bank_rest.scheduler.ExpiredCardScheduler;
+import com.bortnik.bank_rest.scheduler.RecurringTransferScheduler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/scheduler")
+@RequiredArgsConstructor
+@Tag(name = "Admin — Scheduler", description = "Batch job reports for administrators")
+public class AdminSchedulerController {
+
+    private final ExpiredCardScheduler expiredCardScheduler;
+    private final RecurringTransferScheduler recurringTransferScheduler;
+    private final CardHoldExpiryScheduler cardHoldExpiryScheduler;
+
+    @Operation(
+            summary = "Last expired cards run",
+            description = "Returns counts and duration of the last expired cards run on this node. Empty if the job has not run yet."
+    )
+    @GetMapping("/expired-cards/last-run")
+    public ApiResponse<SchedulerRunReport> expiredCardsLastRun() {
+        return ApiResponse.<SchedulerRunReport>builder()
+                .responseData(expiredCardScheduler.getLastRun().orElse(null))
+                .build();
+    }
+
+    @Operation(
+            summary = "Last recurring transfers run",
+            description = "Returns executed and failed standing orders, batches and duration of the last run on this node. "
+                    + "Empty if the job has not run yet."
+    )
+    @GetMapping("/recurring-transfers/last-run")
+    public ApiResponse<SchedulerRunReport> recurringTransfersLastRun() {
+        return ApiResponse.<SchedulerRunReport>builder()
+                .responseData(recurringTransferScheduler.getLastRun().orElse(null))
+                .build();
+    }
+
+    @Operation(
+            summary = "Last expired holds run",
+            description = "Returns released holds, batches and duration of the last expired holds run on this node. "
+                    + "Empty if the job has not run yet."
+    )
+    @GetMapping("/card-holds/last-run")
+    public ApiResponse<SchedulerRunReport> cardHoldsLastRun() {
+        return ApiResponse.<SchedulerRunReport>builder()
+                .responseData(cardHoldExpiryScheduler.getLastRun().orElse(null))
+                .build();
+    }
+}
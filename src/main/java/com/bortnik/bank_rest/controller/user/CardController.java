@@ -2,11 +2,14 @@ package com.bortnik.bank_rest.controller.user;
 
 import com.bortnik.bank_rest.controller.validator.CardValidator;
 import com.bortnik.bank_rest.dto.ApiResponse;
+import com.bortnik.bank_rest.dto.card.CardChangesDTO;
 import com.bortnik.bank_rest.dto.card.CardDTO;
 import com.bortnik.bank_rest.dto.card.CardTransactionDTO;
 import com.bortnik.bank_rest.entity.CardStatus;
 import com.bortnik.bank_rest.security.services.UserDetailsImpl;
+import com.bortnik.bank_rest.service.card.CardSyncService;
 import com.bortnik.bank_rest.service.card.UserCardService;
+import com.bortnik.bank_rest.sse.CardStreamRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,9 +18,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.UUID;
 
@@ -28,6 +33,8 @@ import java.util.UUID;
 public class CardController {
 
     private final UserCardService userCardService;
+    private final CardStreamRegistry cardStreamRegistry;
+    private final CardSyncService cardSyncService;
 
     @Operation(
             summary = "Get all cards of the authenticated user",
@@ -58,6 +65,39 @@ public class CardController {
                 .build();
     }
 
+    @Operation(
+            summary = "Get card changes since the last sync",
+            description = "Returns cards of the authenticated user created or changed after the sync token, "
+                    + "IDs of deleted cards and a token for the next call. Without a token returns all cards. "
+                    + "Cards may repeat across calls and should be applied by ID. "
+                    + "Responds with 410 when the token is too old and a full resync is required."
+    )
+    @GetMapping("/my/changes")
+    public ApiResponse<CardChangesDTO> getCardChanges(
+            @Parameter(hidden = true)
+            @AuthenticationPrincipal UserDetailsImpl userDetailsImpl,
+            @Parameter(description = "Sync token from the previous response")
+            @RequestParam(required = false) String since
+    ) {
+        return ApiResponse.<CardChangesDTO>builder()
+                .responseData(cardSyncService.getCardChanges(userDetailsImpl.getId(), since))
+                .build();
+    }
+
+    @Operation(
+            summary = "Stream card updates",
+            description = "Server-Sent Events stream of the authenticated user's cards. "
+                    + "Each `card` event carries the current state of a card after a transfer, top-up, "
+                    + "block, activation or expiry. Reload `/api/cards/my` after reconnecting."
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCards(
+            @Parameter(hidden = true)
+            @AuthenticationPrincipal UserDetailsImpl userDetailsImpl
+    ) {
+        return cardStreamRegistry.subscribe(userDetailsImpl.getId());
+    }
+
     @Operation(
             summary = "Get card by ID",
             description = "Returns details of a specific card of the authenticated user."
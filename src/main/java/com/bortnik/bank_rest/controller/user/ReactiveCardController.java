@@ -0,0 +1,75 @@
+package com.bortnik.bank_rest.controller.user;
+
+import com.bortnik.bank_rest.dto.ApiResponse;
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.entity.CardStatus;
+import com.bortnik.bank_rest.security.services.UserDetailsImpl;
+import com.bortnik.bank_rest.service.card.ReactiveUserCardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Неблокирующие варианты {@code GET /api/cards/my} и {@code GET /api/cards/{cardId}}.
+ * Поток Tomcat освобождается на время запроса к БД, ответ дописывается после завершения {@link Mono}.
+ */
+@RestController
+@RequestMapping("/api/reactive/cards")
+@RequiredArgsConstructor
+@Tag(name = "Cards (reactive)", description = "Non-blocking read-only endpoints for user cards")
+public class ReactiveCardController {
+
+    private final ReactiveUserCardService reactiveUserCardService;
+
+    @Operation(
+            summary = "Get all cards of the authenticated user",
+            description = "Non-blocking variant of GET /api/cards/my."
+    )
+    @GetMapping("/my")
+    public Mono<ApiResponse<Page<CardDTO>>> getAllUserCards(
+            @Parameter(hidden = true)
+            @AuthenticationPrincipal
+            UserDetailsImpl userDetailsImpl,
+            @Parameter(description = "Pagination and sorting parameters")
+            @PageableDefault(
+                    size = 20,
+                    sort = "createdAt",
+                    direction = Sort.Direction.DESC
+            ) Pageable pageable,
+            @Parameter(description = "Filter by status")
+            @RequestParam(required = false)
+            CardStatus status
+    ) {
+        return reactiveUserCardService.getAllUserCards(userDetailsImpl.getId(), status, pageable)
+                .map(page -> ApiResponse.<Page<CardDTO>>builder()
+                        .responseData(page)
+                        .build());
+    }
+
+    @Operation(
+            summary = "Get card by ID",
+            description = "Non-blocking variant of GET /api/cards/{cardId}."
+    )
+    @GetMapping("/{cardId}")
+    public Mono<ApiResponse<CardDTO>> getCardById(
+            @Parameter(hidden = true)
+            @AuthenticationPrincipal UserDetailsImpl userDetailsImpl,
+            @Parameter(description = "Card UUID", required = true)
+            @PathVariable UUID cardId
+    ) {
+        return reactiveUserCardService.getUserCardById(userDetailsImpl.getId(), cardId)
+                .map(card -> ApiResponse.<CardDTO>builder()
+                        .responseData(card)
+                        .build());
+    }
+}
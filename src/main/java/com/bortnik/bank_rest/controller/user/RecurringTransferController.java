@@ -0,0 +1,83 @@
+package com.bortnik.bank_rest.controller.user;
+
+import com.bortnik.bank_rest.controller.validator.CardValidator;
+import com.bortnik.bank_rest.dto.ApiResponse;
+import com.bortnik.bank_rest.dto.card.RecurringTransferDTO;
+import com.bortnik.bank_rest.dto.card.RecurringTransferRequest;
+import com.bortnik.bank_rest.security.services.UserDetailsImpl;
+import com.bortnik.bank_rest.service.card.RecurringTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/cards/recurring-transfers")
+@RequiredArgsConstructor
+@Tag(name = "Recurring transfers", description = "Standing orders between cards of the authenticated user")
+public class RecurringTransferController {
+
+    private final RecurringTransferService recurringTransferService;
+
+    @Operation(
+            summary = "Create a recurring transfer",
+            description = "Schedules a transfer between two cards of the authenticated user every day, week or month. "
+                    + "Without firstRunAt the first transfer runs on the next scheduler pass. "
+                    + "Each run is checked like a regular transfer; a rejected run is reported in lastStatus and lastError."
+    )
+    @PostMapping
+    public ResponseEntity<ApiResponse<RecurringTransferDTO>> createRecurringTransfer(
+            @Parameter(hidden = true)
+            @AuthenticationPrincipal UserDetailsImpl userDetailsImpl,
+            @Parameter(description = "Cards, amount and schedule", required = true)
+            @RequestBody RecurringTransferRequest request
+    ) {
+        CardValidator.validateAmountPositive(request.getAmount());
+        CardValidator.validateDifferentCards(request.getFromCardId(), request.getToCardId());
+        CardValidator.validateSchedule(request.getFrequency(), request.getFirstRunAt());
+        final RecurringTransferDTO recurringTransfer =
+                recurringTransferService.createRecurringTransfer(userDetailsImpl.getId(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                ApiResponse.<RecurringTransferDTO>builder()
+                        .responseData(recurringTransfer)
+                        .build()
+        );
+    }
+
+    @Operation(
+            summary = "Get recurring transfers",
+            description = "Returns recurring transfers of the authenticated user with the result of the last run."
+    )
+    @GetMapping
+    public ApiResponse<Page<RecurringTransferDTO>> getRecurringTransfers(
+            @Parameter(hidden = true)
+            @AuthenticationPrincipal UserDetailsImpl userDetailsImpl,
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC)
+            Pageable pageable
+    ) {
+        return ApiResponse.<Page<RecurringTransferDTO>>builder()
+                .responseData(recurringTransferService.getRecurringTransfers(userDetailsImpl.getId(), pageable))
+                .build();
+    }
+
+    @Operation(summary = "Cancel a recurring transfer", description = "Deletes a recurring transfer of the authenticated user.")
+    @DeleteMapping("/{recurringTransferId}")
+    public ResponseEntity<Void> cancelRecurringTransfer(
+            @Parameter(hidden = true)
+            @AuthenticationPrincipal UserDetailsImpl userDetailsImpl,
+            @Parameter(description = "Recurring transfer ID") @PathVariable UUID recurringTransferId
+    ) {
+        recurringTransferService.cancelRecurringTransfer(userDetailsImpl.getId(), recurringTransferId);
+        return ResponseEntity.noContent().build();
+    }
+}
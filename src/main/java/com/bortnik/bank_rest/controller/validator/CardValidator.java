@@ -1,8 +1,10 @@
 package com.bortnik.bank_rest.controller.validator;
 
+import com.bortnik.bank_rest.entity.RecurringTransferFrequency;
 import com.bortnik.bank_rest.exception.BadRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public class CardValidator {
@@ -17,4 +19,19 @@ public class CardValidator {
             throw new BadRequest("From and To card IDs must be different");
         }
     }
+
+    public static void validateLimitPositive(final BigDecimal limit) {
+        if (limit != null && limit.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BadRequest("Limit must be positive");
+        }
+    }
+
+    public static void validateSchedule(final RecurringTransferFrequency frequency, final LocalDateTime firstRunAt) {
+        if (frequency == null) {
+            throw new BadRequest("Frequency is required");
+        }
+        if (firstRunAt != null && firstRunAt.isBefore(LocalDateTime.now())) {
+            throw new BadRequest("First run must not be in the past");
+        }
+    }
 }
@@ -0,0 +1,18 @@
+package com.bortnik.bank_rest.dto.card;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+import java.util.UUID;
+
+@Value
+@Builder
+public class CardChangesDTO {
+    // Карты, созданные или изменённые после токена запроса
+    List<CardDTO> cards;
+    // Карты, удалённые после токена запроса
+    List<UUID> deletedCardIds;
+    // Токен для следующего запроса изменений
+    String syncToken;
+}
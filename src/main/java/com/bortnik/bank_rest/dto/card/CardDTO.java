@@ -18,6 +18,8 @@ public class CardDTO {
     LocalDate expirationDate;
     CardStatus status;
     BigDecimal balance;
+    // Баланс за вычетом удержаний
+    BigDecimal availableBalance;
     LocalDateTime createdAt;
     LocalDateTime updatedAt;
 }
@@ -0,0 +1,14 @@
+package com.bortnik.bank_rest.dto.card;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardHoldCaptureRequest {
+    // Списываемая сумма, не больше удержанной; null — вся сумма удержания
+    private BigDecimal amount;
+}
@@ -0,0 +1,24 @@
+package com.bortnik.bank_rest.dto.card;
+
+import com.bortnik.bank_rest.entity.CardHoldStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Value
+@Builder
+public class CardHoldDTO {
+    UUID id;
+    UUID cardId;
+    BigDecimal amount;
+    // Списанная сумма, только для CAPTURED
+    BigDecimal capturedAmount;
+    CardHoldStatus status;
+    LocalDateTime createdAt;
+    LocalDateTime expiresAt;
+    // Время списания, отмены или истечения
+    LocalDateTime settledAt;
+}
@@ -0,0 +1,16 @@
+package com.bortnik.bank_rest.dto.card;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardHoldRequest {
+    private BigDecimal amount;
+    // Срок удержания, null — app.cards.holds.default-ttl
+    private Duration ttl;
+}
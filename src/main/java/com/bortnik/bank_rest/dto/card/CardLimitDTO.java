@@ -0,0 +1,19 @@
+package com.bortnik.bank_rest.dto.card;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Value
+@Builder(toBuilder = true)
+public class CardLimitDTO {
+    UUID cardId;
+    // Лимит исходящих переводов за скользящие сутки, null — без лимита
+    BigDecimal dailyLimit;
+    // Лимит одного перевода, null — без лимита
+    BigDecimal perTransactionLimit;
+    // Исходящие переводы за скользящие сутки
+    BigDecimal dailySpent;
+}
@@ -0,0 +1,16 @@
+package com.bortnik.bank_rest.dto.card;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardLimitRequest {
+    // null — лимит по умолчанию
+    private BigDecimal dailyLimit;
+    // null — лимит по умолчанию
+    private BigDecimal perTransactionLimit;
+}
@@ -0,0 +1,26 @@
+package com.bortnik.bank_rest.dto.card;
+
+import com.bortnik.bank_rest.entity.RecurringTransferFrequency;
+import com.bortnik.bank_rest.entity.RecurringTransferRunStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Value
+@Builder
+public class RecurringTransferDTO {
+    UUID id;
+    UUID fromCardId;
+    UUID toCardId;
+    BigDecimal amount;
+    RecurringTransferFrequency frequency;
+    LocalDateTime firstRunAt;
+    LocalDateTime nextRunAt;
+    LocalDateTime lastRunAt;
+    RecurringTransferRunStatus lastStatus;
+    String lastError;
+    LocalDateTime createdAt;
+}
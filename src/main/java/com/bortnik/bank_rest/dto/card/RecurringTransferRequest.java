@@ -0,0 +1,21 @@
+package com.bortnik.bank_rest.dto.card;
+
+import com.bortnik.bank_rest.entity.RecurringTransferFrequency;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringTransferRequest {
+    private UUID fromCardId;
+    private UUID toCardId;
+    private BigDecimal amount;
+    private RecurringTransferFrequency frequency;
+    // null — первое исполнение сразу
+    private LocalDateTime firstRunAt;
+}
@@ -0,0 +1,18 @@
+package com.bortnik.bank_rest.dto.scheduler;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+@Builder
+public class SchedulerRunReport {
+    String job;
+    LocalDateTime startedAt;
+    long durationMillis;
+    long processed;
+    // Обработанные записи, которые не удалось выполнить (например, перевод отклонён)
+    long failed;
+    int batches;
+}
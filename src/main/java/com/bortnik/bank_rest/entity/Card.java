@@ -1,5 +1,6 @@
 package com.bortnik.bank_rest.entity;
 
+import com.bortnik.bank_rest.entity.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -18,7 +19,7 @@ import java.util.UUID;
 public class Card {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     UUID id;
 
     @Column(name = "user_id")
@@ -42,6 +43,12 @@ public class Card {
     @Setter
     BigDecimal balance;
 
+    // Меняется только SQL-запросами удержаний (CardHoldRepository), чтобы сохранение карты не затёрло
+    // удержание, созданное параллельно
+    @Column(name = "held_amount", updatable = false)
+    @Builder.Default
+    BigDecimal heldAmount = BigDecimal.ZERO;
+
     @CreationTimestamp
     @Column(name = "created_at")
     LocalDateTime createdAt;
@@ -49,4 +56,11 @@ public class Card {
     @Column(name = "updated_at")
     @Setter
     LocalDateTime updatedAt;
+
+    /**
+     * @return баланс за вычетом удержаний: сумма, доступная для переводов и новых удержаний
+     */
+    public BigDecimal getAvailableBalance() {
+        return balance != null ? balance.subtract(heldAmount) : null;
+    }
 }
@@ -0,0 +1,50 @@
+package com.bortnik.bank_rest.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Удержание средств на карте до списания или отмены.
+ * Создаётся и истекает SQL-запросами {@link com.bortnik.bank_rest.repository.CardHoldRepository},
+ * вместе с изменением {@code cards.held_amount}.
+ */
+@Entity
+@Table(name = "card_holds")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+public class CardHold {
+
+    @Id
+    UUID id;
+
+    @Column(name = "card_id")
+    UUID cardId;
+
+    @Column
+    BigDecimal amount;
+
+    @Column(name = "captured_amount")
+    @Setter
+    BigDecimal capturedAmount;
+
+    @Column
+    @Enumerated(EnumType.STRING)
+    @Setter
+    CardHoldStatus status;
+
+    @Column(name = "created_at")
+    LocalDateTime createdAt;
+
+    @Column(name = "expires_at")
+    LocalDateTime expiresAt;
+
+    @Column(name = "settled_at")
+    @Setter
+    LocalDateTime settledAt;
+}
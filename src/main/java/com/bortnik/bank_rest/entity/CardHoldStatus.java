@@ -0,0 +1,8 @@
+package com.bortnik.bank_rest.entity;
+
+public enum CardHoldStatus {
+    ACTIVE,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,34 @@
+package com.bortnik.bank_rest.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Лимиты исходящих переводов карты, заданные администратором.
+ * Пустое значение — лимит по умолчанию.
+ */
+@Entity
+@Table(name = "card_limits")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+public class CardLimit {
+
+    @Id
+    @Column(name = "card_id")
+    UUID cardId;
+
+    @Column(name = "daily_limit")
+    BigDecimal dailyLimit;
+
+    @Column(name = "per_transaction_limit")
+    BigDecimal perTransactionLimit;
+
+    @Column(name = "updated_at")
+    LocalDateTime updatedAt;
+}
@@ -0,0 +1,41 @@
+package com.bortnik.bank_rest.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Сумма исходящих переводов карты за один интервал скользящего окна суточного лимита.
+ */
+@Entity
+@Table(name = "card_spend_buckets")
+@IdClass(CardSpendBucket.Key.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+public class CardSpendBucket {
+
+    @Id
+    @Column(name = "card_id")
+    UUID cardId;
+
+    @Id
+    @Column(name = "bucket_start")
+    LocalDateTime bucketStart;
+
+    @Column(name = "amount")
+    BigDecimal amount;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        UUID cardId;
+        LocalDateTime bucketStart;
+    }
+}
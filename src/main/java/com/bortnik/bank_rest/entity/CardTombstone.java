@@ -0,0 +1,29 @@
+package com.bortnik.bank_rest.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Отметка об удалённой карте, по которой клиенты дельта-синхронизации узнают об удалении.
+ */
+@Entity
+@Table(name = "card_tombstones")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+public class CardTombstone {
+
+    @Id
+    @Column(name = "card_id")
+    UUID cardId;
+
+    @Column(name = "user_id")
+    UUID userId;
+
+    @Column(name = "deleted_at")
+    LocalDateTime deletedAt;
+}
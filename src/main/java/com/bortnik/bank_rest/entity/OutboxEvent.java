@@ -0,0 +1,40 @@
+package com.bortnik.bank_rest.entity;
+
+import com.bortnik.bank_rest.entity.id.UuidV7;
+import com.bortnik.bank_rest.event.CardEventType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnTransformer;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "card_events_outbox")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @UuidV7
+    UUID id;
+
+    @Column(name = "aggregate_id")
+    UUID aggregateId;
+
+    @Column(name = "event_type")
+    @Enumerated(EnumType.STRING)
+    CardEventType eventType;
+
+    // JSON события уже сериализован, в jsonb он приводится на стороне БД
+    @Column
+    @ColumnTransformer(write = "?::jsonb")
+    String payload;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,71 @@
+package com.bortnik.bank_rest.entity;
+
+import com.bortnik.bank_rest.entity.id.UuidV7;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Постоянное поручение: перевод между картами пользователя с заданной периодичностью.
+ */
+@Entity
+@Table(name = "recurring_transfers")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+public class RecurringTransfer {
+
+    @Id
+    @UuidV7
+    UUID id;
+
+    @Column(name = "user_id")
+    UUID userId;
+
+    @Column(name = "from_card_id")
+    UUID fromCardId;
+
+    @Column(name = "to_card_id")
+    UUID toCardId;
+
+    @Column
+    BigDecimal amount;
+
+    @Column
+    @Enumerated(EnumType.STRING)
+    RecurringTransferFrequency frequency;
+
+    @Column(name = "first_run_at")
+    LocalDateTime firstRunAt;
+
+    // Номер следующего исполнения, начиная с 0
+    @Column
+    @Setter
+    int occurrence;
+
+    @Column(name = "next_run_at")
+    @Setter
+    LocalDateTime nextRunAt;
+
+    @Column(name = "last_run_at")
+    @Setter
+    LocalDateTime lastRunAt;
+
+    @Column(name = "last_status")
+    @Enumerated(EnumType.STRING)
+    @Setter
+    RecurringTransferRunStatus lastStatus;
+
+    @Column(name = "last_error")
+    @Setter
+    String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    LocalDateTime createdAt;
+}
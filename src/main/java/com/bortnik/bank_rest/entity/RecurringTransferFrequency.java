@@ -0,0 +1,25 @@
+package com.bortnik.bank_rest.entity;
+
+import java.time.LocalDateTime;
+
+public enum RecurringTransferFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * Время исполнения с номером {@code occurrence}, считая от первого.
+     * Считается от первого исполнения, а не от предыдущего, чтобы дата не смещалась
+     * (31 января → 28 февраля → 31 марта).
+     * @param firstRunAt первое исполнение
+     * @param occurrence номер исполнения, начиная с 0
+     * @return время исполнения
+     */
+    public LocalDateTime occurrence(final LocalDateTime firstRunAt, final int occurrence) {
+        return switch (this) {
+            case DAILY -> firstRunAt.plusDays(occurrence);
+            case WEEKLY -> firstRunAt.plusWeeks(occurrence);
+            case MONTHLY -> firstRunAt.plusMonths(occurrence);
+        };
+    }
+}
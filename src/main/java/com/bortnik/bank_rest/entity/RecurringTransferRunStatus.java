@@ -0,0 +1,6 @@
+package com.bortnik.bank_rest.entity;
+
+public enum RecurringTransferRunStatus {
+    SUCCEEDED,
+    FAILED
+}
@@ -1,5 +1,6 @@
 package com.bortnik.bank_rest.entity;
 
+import com.bortnik.bank_rest.entity.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -16,7 +17,7 @@ import java.util.UUID;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     UUID id;
 
     @Column
@@ -0,0 +1,20 @@
+package com.bortnik.bank_rest.entity.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Помечает первичный ключ, значение которого генерируется как упорядоченный по времени UUIDv7.
+ * Новые строки попадают в правый край B-дерева индекса, а не в случайные страницы.
+ */
+@IdGeneratorType(UuidV7IdGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface UuidV7 {
+}
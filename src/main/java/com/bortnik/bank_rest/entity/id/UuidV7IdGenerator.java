@@ -0,0 +1,31 @@
+package com.bortnik.bank_rest.entity.id;
+
+import com.bortnik.bank_rest.config.datasource.ShardContext;
+import com.bortnik.bank_rest.util.UuidV7Generator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.util.UUID;
+
+/**
+ * Генератор идентификаторов Hibernate для {@link UuidV7}.
+ * При нескольких шардах выдаёт ID, хеш которого указывает на текущий шард:
+ * так новый пользователь остаётся на шарде, куда его записали, а карту можно найти
+ * по ID без опроса всех шардов. В среднем требуется столько попыток, сколько шардов.
+ */
+public class UuidV7IdGenerator implements IdentifierGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (ShardContext.shardCount() == 1) {
+            return UuidV7Generator.generate();
+        }
+
+        final int shard = ShardContext.current();
+        UUID id;
+        do {
+            id = UuidV7Generator.generate();
+        } while (ShardContext.shardOf(id) != shard);
+        return id;
+    }
+}
@@ -0,0 +1,26 @@
+package com.bortnik.bank_rest.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Доменное событие карты. Публикуется сервисами через {@code ApplicationEventPublisher}
+ * внутри транзакции, которая изменила карту, и попадает в outbox в той же транзакции.
+ */
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CardEvent {
+    CardEventType type;
+    // Карта, с которой произошло событие (для перевода — карта списания)
+    UUID cardId;
+    // Владелец карты
+    UUID userId;
+    // Карта зачисления для перевода
+    UUID relatedCardId;
+    BigDecimal amount;
+}
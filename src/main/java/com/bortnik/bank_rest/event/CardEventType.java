@@ -0,0 +1,13 @@
+package com.bortnik.bank_rest.event;
+
+public enum CardEventType {
+    TRANSFER,
+    TOP_UP,
+    BLOCKED,
+    ACTIVATED,
+    EXPIRED,
+    HOLD_CREATED,
+    HOLD_CAPTURED,
+    HOLD_RELEASED,
+    HOLD_EXPIRED
+}
@@ -1,7 +1,7 @@
 package com.bortnik.bank_rest.exception;
 
-public class BadCredentials extends RuntimeException {
-    public BadCredentials(String message) {
-        super(message);
+public class BadCredentials extends BusinessException {
+    public BadCredentials(String message, Object... args) {
+        super(message, args);
     }
 }
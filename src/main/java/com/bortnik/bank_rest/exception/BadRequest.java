@@ -1,7 +1,7 @@
 package com.bortnik.bank_rest.exception;
 
-public class BadRequest extends RuntimeException {
-  public BadRequest(String message) {
-    super(message);
+public class BadRequest extends BusinessException {
+  public BadRequest(String message, Object... args) {
+    super(message, args);
   }
 }
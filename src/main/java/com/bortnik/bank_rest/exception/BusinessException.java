@@ -0,0 +1,56 @@
+package com.bortnik.bank_rest.exception;
+
+/**
+ * Базовое исключение для ожидаемых бизнес-исходов: карта не найдена, недостаточно средств, нет доступа и т.п.
+ * <p>
+ * Такие исключения бросаются на обычных запросах и сразу превращаются в ответ в {@code ExceptionsHandler},
+ * поэтому стек вызовов не заполняется: при большом числе отказов (например, боты перебирают ID карт)
+ * его сбор заметен в профиле CPU. Сообщение задаётся шаблоном с плейсхолдерами {@code {}}, как в логах,
+ * и собирается только при первом вызове {@link #getMessage()}.
+ */
+public abstract class BusinessException extends RuntimeException {
+
+    private static final String PLACEHOLDER = "{}";
+
+    private final String template;
+    private final Object[] args;
+    private String message;
+
+    /**
+     * @param template сообщение или шаблон сообщения с плейсхолдерами {@code {}}
+     * @param args значения для плейсхолдеров, подставляются через {@link String#valueOf(Object)}
+     */
+    protected BusinessException(final String template, final Object... args) {
+        super(null, null, false, false);
+        this.template = template;
+        this.args = args;
+    }
+
+    @Override
+    public String getMessage() {
+        String formatted = message;
+        if (formatted == null) {
+            // Гонка безопасна: результат форматирования всегда одинаковый
+            formatted = format(template, args);
+            message = formatted;
+        }
+        return formatted;
+    }
+
+    static String format(final String template, final Object[] args) {
+        if (template == null || args == null || args.length == 0) {
+            return template;
+        }
+        final StringBuilder builder = new StringBuilder(template.length() + 16 * args.length);
+        int from = 0;
+        for (Object arg : args) {
+            final int placeholder = template.indexOf(PLACEHOLDER, from);
+            if (placeholder < 0) {
+                break;
+            }
+            builder.append(template, from, placeholder).append(arg);
+            from = placeholder + PLACEHOLDER.length();
+        }
+        return builder.append(template, from, template.length()).toString();
+    }
+}
@@ -0,0 +1,16 @@
+package com.bortnik.bank_rest.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class ServiceOverloaded extends BusinessException {
+
+    private final Duration retryAfter;
+
+    public ServiceOverloaded(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -1,7 +1,9 @@
 package com.bortnik.bank_rest.exception.card;
 
-public class CardAlreadyActivated extends RuntimeException {
-    public CardAlreadyActivated(String message) {
-        super(message);
+import com.bortnik.bank_rest.exception.BusinessException;
+
+public class CardAlreadyActivated extends BusinessException {
+    public CardAlreadyActivated(String message, Object... args) {
+        super(message, args);
     }
 }
@@ -1,7 +1,9 @@
 package com.bortnik.bank_rest.exception.card;
 
-public class CardAlreadyBlocked extends RuntimeException {
-    public CardAlreadyBlocked(String message) {
-        super(message);
+import com.bortnik.bank_rest.exception.BusinessException;
+
+public class CardAlreadyBlocked extends BusinessException {
+    public CardAlreadyBlocked(String message, Object... args) {
+        super(message, args);
     }
 }
@@ -1,7 +1,9 @@
 package com.bortnik.bank_rest.exception.card;
 
-public class CardBlocked extends RuntimeException {
-  public CardBlocked(String message) {
-    super(message);
+import com.bortnik.bank_rest.exception.BusinessException;
+
+public class CardBlocked extends BusinessException {
+  public CardBlocked(String message, Object... args) {
+    super(message, args);
   }
 }
@@ -1,7 +1,9 @@
 package com.bortnik.bank_rest.exception.card;
 
-public class CardExpired extends RuntimeException {
-  public CardExpired(String message) {
-    super(message);
+import com.bortnik.bank_rest.exception.BusinessException;
+
+public class CardExpired extends BusinessException {
+  public CardExpired(String message, Object... args) {
+    super(message, args);
   }
 }
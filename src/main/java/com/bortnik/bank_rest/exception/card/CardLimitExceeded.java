@@ -0,0 +1,9 @@
+package com.bortnik.bank_rest.exception.card;
+
+import com.bortnik.bank_rest.exception.BusinessException;
+
+public class CardLimitExceeded extends BusinessException {
+    public CardLimitExceeded(String message, Object... args) {
+        super(message, args);
+    }
+}
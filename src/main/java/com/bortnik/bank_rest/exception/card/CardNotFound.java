@@ -1,7 +1,9 @@
 package com.bortnik.bank_rest.exception.card;
 
-public class CardNotFound extends RuntimeException {
-    public CardNotFound(String message) {
-        super(message);
+import com.bortnik.bank_rest.exception.BusinessException;
+
+public class CardNotFound extends BusinessException {
+    public CardNotFound(String message, Object... args) {
+        super(message, args);
     }
 }
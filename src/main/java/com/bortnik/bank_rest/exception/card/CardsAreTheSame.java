@@ -1,7 +1,9 @@
 package com.bortnik.bank_rest.exception.card;
 
-public class CardsAreTheSame extends RuntimeException {
-  public CardsAreTheSame(String message) {
-    super(message);
+import com.bortnik.bank_rest.exception.BusinessException;
+
+public class CardsAreTheSame extends BusinessException {
+  public CardsAreTheSame(String message, Object... args) {
+    super(message, args);
   }
 }
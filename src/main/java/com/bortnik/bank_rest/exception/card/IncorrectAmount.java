@@ -1,7 +1,9 @@
 package com.bortnik.bank_rest.exception.card;
 
-public class IncorrectAmount extends RuntimeException {
-    public IncorrectAmount(String message) {
-        super(message);
+import com.bortnik.bank_rest.exception.BusinessException;
+
+public class IncorrectAmount extends BusinessException {
+    public IncorrectAmount(String message, Object... args) {
+        super(message, args);
     }
 }
@@ -1,7 +1,9 @@
 package com.bortnik.bank_rest.exception.card;
 
-public class InsufficientFunds extends RuntimeException {
-    public InsufficientFunds(String message) {
-        super(message);
+import com.bortnik.bank_rest.exception.BusinessException;
+
+public class InsufficientFunds extends BusinessException {
+    public InsufficientFunds(String message, Object... args) {
+        super(message, args);
     }
 }
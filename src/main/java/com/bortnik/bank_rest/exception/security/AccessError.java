@@ -1,7 +1,9 @@
 package com.bortnik.bank_rest.exception.security;
 
-public class AccessError extends RuntimeException {
-    public AccessError(String message) {
-        super(message);
+import com.bortnik.bank_rest.exception.BusinessException;
+
+public class AccessError extends BusinessException {
+    public AccessError(String message, Object... args) {
+        super(message, args);
     }
 }
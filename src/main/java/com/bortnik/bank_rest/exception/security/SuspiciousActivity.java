@@ -0,0 +1,9 @@
+package com.bortnik.bank_rest.exception.security;
+
+import com.bortnik.bank_rest.exception.BusinessException;
+
+public class SuspiciousActivity extends BusinessException {
+    public SuspiciousActivity(String message, Object... args) {
+        super(message, args);
+    }
+}
@@ -1,7 +1,9 @@
 package com.bortnik.bank_rest.exception.user;
 
-public class UserAlreadyExists extends RuntimeException {
-    public UserAlreadyExists(String message) {
-        super(message);
+import com.bortnik.bank_rest.exception.BusinessException;
+
+public class UserAlreadyExists extends BusinessException {
+    public UserAlreadyExists(String message, Object... args) {
+        super(message, args);
     }
 }
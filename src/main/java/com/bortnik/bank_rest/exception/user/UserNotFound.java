@@ -1,7 +1,9 @@
 package com.bortnik.bank_rest.exception.user;
 
-public class UserNotFound extends RuntimeException {
-    public UserNotFound(String message) {
-        super(message);
+import com.bortnik.bank_rest.exception.BusinessException;
+
+public class UserNotFound extends BusinessException {
+    public UserNotFound(String message, Object... args) {
+        super(message, args);
     }
 }
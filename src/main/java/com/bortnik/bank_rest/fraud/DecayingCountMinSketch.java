@@ -0,0 +1,93 @@
+package com.bortnik.bank_rest.fraud;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-min sketch с затуханием: приблизительное число событий по ключу в фиксированной памяти.
+ * <p>
+ * Таблица {@code depth × width} счётчиков, каждая строка адресуется своей хеш-функцией ключа.
+ * Оценка — минимум по строкам: она не меньше настоящего числа событий и превышает его только
+ * из-за коллизий, на {@code depth} строках это маловероятно. Память не зависит от числа ключей.
+ * {@link #decay()} делит все счётчики пополам, поэтому после регулярных вызовов оценка отражает
+ * недавнюю частоту событий, а не их число за всё время.
+ * <p>
+ * Счётчики атомарные, блокировок нет: добавление стоит {@code depth} атомарных инкрементов.
+ */
+public final class DecayingCountMinSketch {
+
+    public static final int MAX_DEPTH = 8;
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+    private final int mask;
+    private final AtomicIntegerArray counters;
+
+    /**
+     * @param depth число строк (хеш-функций), от 1 до {@value #MAX_DEPTH}
+     * @param width число счётчиков в строке, степень двойки
+     */
+    public DecayingCountMinSketch(final int depth, final int width) {
+        if (depth < 1 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + MAX_DEPTH + ": " + depth);
+        }
+        if (width < 1 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Width must be a power of two: " + width);
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counters = new AtomicIntegerArray(depth * width);
+    }
+
+    /**
+     * Учитывает событие.
+     * @param key ключ
+     * @return оценка числа событий по ключу с учётом этого
+     */
+    public int add(final UUID key) {
+        final long hash = hash(key);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, hash)));
+        }
+        return estimate;
+    }
+
+    /**
+     * @param key ключ
+     * @return оценка числа событий по ключу
+     */
+    public int estimate(final UUID key) {
+        final long hash = hash(key);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Делит все счётчики пополам.
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    private static long hash(final UUID key) {
+        return key.getMostSignificantBits() ^ Long.rotateLeft(key.getLeastSignificantBits(), 32);
+    }
+
+    private int index(final int row, final long hash) {
+        // Финализатор SplitMix64 со своей константой на каждую строку
+        long h = (hash ^ SEEDS[row]) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return row * (mask + 1) + ((int) h & mask);
+    }
+}
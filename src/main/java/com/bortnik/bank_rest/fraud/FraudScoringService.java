@@ -0,0 +1,126 @@
+package com.bortnik.bank_rest.fraud;
+
+import com.bortnik.bank_rest.exception.security.SuspiciousActivity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Проверка переводов и пополнений на подозрительную частоту.
+ * <p>
+ * События считаются в {@link DecayingCountMinSketch} отдельно по видам: переводы пользователя,
+ * попытки пользователя обратиться к чужой карте ({@code AccessError}) и пополнения карты.
+ * Счётчики делятся пополам каждые {@code app.fraud.half-life}, поэтому оценка — это примерно число
+ * событий за последний период полураспада плюс затухающий хвост предыдущих (не больше чем вдвое больше).
+ * <p>
+ * Оценка операции — сумма отношений счётчиков к их порогам ({@code app.fraud.*-threshold}):
+ * частые переводы и неудачные обращения к чужим картам складываются. При оценке {@code >= 1}
+ * операция отклоняется, пока счётчики не затухнут. Проверка — несколько атомарных инкрементов
+ * в памяти узла, без обращений к БД; в кластере каждый узел считает свои запросы.
+ * <p>
+ * Метрика {@code bank.fraud.blocked} (тег {@code operation}).
+ */
+@Service
+@Slf4j
+public class FraudScoringService {
+
+    private final DecayingCountMinSketch transfersByUser;
+    private final DecayingCountMinSketch accessErrorsByUser;
+    private final DecayingCountMinSketch topUpsByCard;
+
+    private final Counter blockedTransfers;
+    private final Counter blockedTopUps;
+
+    @Value("${app.fraud.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.fraud.transfer-threshold:30}")
+    private double transferThreshold;
+
+    @Value("${app.fraud.access-error-threshold:5}")
+    private double accessErrorThreshold;
+
+    @Value("${app.fraud.top-up-threshold:20}")
+    private double topUpThreshold;
+
+    public FraudScoringService(
+            @Value("${app.fraud.sketch-depth:4}") final int depth,
+            @Value("${app.fraud.sketch-width:16384}") final int width,
+            final MeterRegistry meterRegistry
+    ) {
+        this.transfersByUser = new DecayingCountMinSketch(depth, width);
+        this.accessErrorsByUser = new DecayingCountMinSketch(depth, width);
+        this.topUpsByCard = new DecayingCountMinSketch(depth, width);
+        this.blockedTransfers = blockedCounter(meterRegistry, "transfer");
+        this.blockedTopUps = blockedCounter(meterRegistry, "top_up");
+    }
+
+    /**
+     * Учитывает перевод пользователя и отклоняет его при подозрительной частоте.
+     * @param userId ID пользователя
+     * @throws SuspiciousActivity если оценка перевода достигла порога
+     */
+    public void checkTransfer(final UUID userId) {
+        if (!enabled) {
+            return;
+        }
+        final int transfers = transfersByUser.add(userId);
+        final int accessErrors = accessErrorsByUser.estimate(userId);
+        final double score = transfers / transferThreshold + accessErrors / accessErrorThreshold;
+        if (score >= 1) {
+            blockedTransfers.increment();
+            log.warn("Transfer blocked by fraud check: user={} transfers={} accessErrors={} score={}",
+                    userId, transfers, accessErrors, score);
+            throw new SuspiciousActivity("Too many operations from user {}, try again later", userId);
+        }
+    }
+
+    /**
+     * Учитывает пополнение карты и отклоняет его при подозрительной частоте.
+     * @param cardId ID карты
+     * @throws SuspiciousActivity если оценка пополнения достигла порога
+     */
+    public void checkTopUp(final UUID cardId) {
+        if (!enabled) {
+            return;
+        }
+        final int topUps = topUpsByCard.add(cardId);
+        if (topUps / topUpThreshold >= 1) {
+            blockedTopUps.increment();
+            log.warn("Top-up blocked by fraud check: card={} topUps={}", cardId, topUps);
+            throw new SuspiciousActivity("Too many top-ups of card {}, try again later", cardId);
+        }
+    }
+
+    /**
+     * Учитывает обращение пользователя к чужой карте.
+     * @param userId ID пользователя
+     */
+    public void recordAccessError(final UUID userId) {
+        if (enabled) {
+            accessErrorsByUser.add(userId);
+        }
+    }
+
+    /**
+     * Затухание счётчиков: делит их пополам раз в период полураспада.
+     */
+    @Scheduled(fixedRateString = "${app.fraud.half-life:PT1M}", initialDelayString = "${app.fraud.half-life:PT1M}")
+    public void decay() {
+        transfersByUser.decay();
+        accessErrorsByUser.decay();
+        topUpsByCard.decay();
+    }
+
+    private static Counter blockedCounter(final MeterRegistry meterRegistry, final String operation) {
+        return Counter.builder("bank.fraud.blocked")
+                .description("Operations rejected by the velocity fraud check")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,124 @@
+package com.bortnik.bank_rest.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный лимит одновременных запросов по градиенту времени ответа.
+ * <p>
+ * Лимитер хранит два средних времени ответа:
+ * <ul>
+ *     <li>долгое — экспоненциальное среднее по многим запросам, оценка времени ответа без нагрузки;</li>
+ *     <li>текущее — время ответа последнего запроса.</li>
+ * </ul>
+ * Пока текущее время не превышает долгое больше чем в {@code tolerance} раз, лимит растёт примерно на √limit.
+ * Когда БД замедляется и запросы начинают стоять в очереди, лимит уменьшается пропорционально отношению времён.
+ * Если соединение не удалось получить или запрос упал по таймауту, лимит сразу умножается на {@code backoffRatio}
+ * (мультипликативное уменьшение, как в AIMD).
+ * Лимит не растёт, пока занято меньше половины, чтобы простаивающий сервис не накопил завышенный лимит.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // Окно долгого среднего в запросах
+    private static final int LONG_WINDOW = 600;
+    private static final double LONG_WINDOW_ALPHA = 2.0 / (LONG_WINDOW + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(
+            final int initialLimit,
+            final int minLimit,
+            final int maxLimit,
+            final double tolerance,
+            final double smoothing,
+            final double backoffRatio
+    ) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(
+                    "Limits must satisfy 1 <= min <= initial <= max: " + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Занимает место под запрос.
+     * @return {@code false}, если лимит исчерпан и запрос нужно отклонить
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место после обработанного запроса и учитывает его время ответа.
+     * @param rttNanos время выполнения запроса
+     */
+    public void onSuccess(final long rttNanos) {
+        final int inFlightBefore = inFlight.getAndDecrement();
+        update(Math.max(rttNanos, 1), inFlightBefore);
+    }
+
+    /**
+     * Освобождает место после запроса, отброшенного из-за перегрузки (таймаут, нет соединения).
+     */
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        }
+    }
+
+    /**
+     * @return текущий лимит одновременных запросов
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return число запросов, выполняющихся сейчас
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(final long rttNanos, final int inFlightBefore) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) * LONG_WINDOW_ALPHA;
+        }
+        // После спада нагрузки долгое среднее догоняет текущее быстрее, иначе лимит долго остаётся заниженным
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        if (inFlightBefore < limit / 2) {
+            return;
+        }
+
+        final double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+        final double target = limit * gradient + Math.sqrt(limit);
+        final double smoothed = limit * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+}
@@ -0,0 +1,121 @@
+package com.bortnik.bank_rest.limiter;
+
+import com.bortnik.bank_rest.exception.ServiceOverloaded;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Применяет {@link AdaptiveConcurrencyLimiter} к методам с {@link ConcurrencyLimited}.
+ * Выполняется снаружи транзакции, поэтому отклонённый запрос не занимает соединение с БД,
+ * а в измеряемое время входят ожидание соединения, блокировки строк и коммит.
+ * <p>
+ * Метрики с тегом {@code limiter}: {@code bank.concurrency.limit}, {@code bank.concurrency.in_flight}
+ * и {@code bank.concurrency.rejected}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class ConcurrencyLimitAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    @Value("${app.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${app.concurrency-limit.min-limit:2}")
+    private int minLimit;
+
+    @Value("${app.concurrency-limit.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${app.concurrency-limit.rtt-tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${app.concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${app.concurrency-limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${app.concurrency-limit.retry-after:PT1S}")
+    private Duration retryAfter;
+
+    public ConcurrencyLimitAspect(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(concurrencyLimited)")
+    public Object limit(final ProceedingJoinPoint joinPoint, final ConcurrencyLimited concurrencyLimited) throws Throwable {
+        final String name = concurrencyLimited.value();
+        final AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(name, this::createLimiter);
+
+        if (!limiter.tryAcquire()) {
+            rejections.get(name).increment();
+            log.warn("Request to {} rejected: concurrency limit {} reached", name, limiter.getLimit());
+            throw new ServiceOverloaded("Service is temporarily overloaded, try again later", retryAfter);
+        }
+
+        final long started = System.nanoTime();
+        try {
+            final Object result = joinPoint.proceed();
+            limiter.onSuccess(System.nanoTime() - started);
+            return result;
+        } catch (CannotCreateTransactionException | TransientDataAccessException e) {
+            limiter.onDropped();
+            throw e;
+        } catch (Throwable e) {
+            // Бизнес-ошибки (недостаточно средств и т.п.) отражают обычное время обработки
+            limiter.onSuccess(System.nanoTime() - started);
+            throw e;
+        }
+    }
+
+    /**
+     * @param name имя лимита
+     * @return лимитер или {@code null}, если к методам с таким именем ещё не было обращений
+     */
+    AdaptiveConcurrencyLimiter getLimiter(final String name) {
+        return limiters.get(name);
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(final String name) {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                initialLimit, minLimit, maxLimit, tolerance, smoothing, backoffRatio);
+
+        Gauge.builder("bank.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("bank.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently executing under the concurrency limit")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        rejections.put(name, Counter.builder("bank.concurrency.rejected")
+                .description("Requests rejected because the concurrency limit was reached")
+                .tag("limiter", name)
+                .register(meterRegistry));
+
+        log.info("Concurrency limiter {} created with initial limit {}", name, initialLimit);
+        return limiter;
+    }
+}
@@ -0,0 +1,23 @@
+package com.bortnik.bank_rest.limiter;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Ограничивает число одновременных вызовов метода адаптивным лимитом.
+ * Когда лимит исчерпан, вызов сразу отклоняется с {@link com.bortnik.bank_rest.exception.ServiceOverloaded},
+ * а не ждёт свободного соединения с БД.
+ *
+ * @see ConcurrencyLimitAspect
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+
+    /**
+     * Имя лимита. Методы с одинаковым именем делят один лимит, имя попадает в тег метрик.
+     */
+    String value();
+}
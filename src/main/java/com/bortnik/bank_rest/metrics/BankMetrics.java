@@ -0,0 +1,100 @@
+package com.bortnik.bank_rest.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Бизнес-метрики операций с картами.
+ * Экспортируются в Prometheus через {@code /actuator/prometheus}.
+ * Суммы операций внутри транзакции учитываются после её коммита, откаченные операции не считаются.
+ */
+@Component
+public class BankMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary transfers;
+    private final DistributionSummary topUps;
+    private final DistributionSummary captures;
+    // Счётчики отказов по типу исключения и статусу, чтобы не искать их в реестре на каждом отказе
+    private final Map<RejectionKey, Counter> rejections = new ConcurrentHashMap<>();
+
+    public BankMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.transfers = DistributionSummary.builder("bank.card.transfers")
+                .description("Amounts of successful internal transfers")
+                .baseUnit("money")
+                .register(meterRegistry);
+        this.topUps = DistributionSummary.builder("bank.card.top_ups")
+                .description("Amounts of successful card top-ups")
+                .baseUnit("money")
+                .register(meterRegistry);
+        this.captures = DistributionSummary.builder("bank.card.captures")
+                .description("Amounts debited by captured card holds")
+                .baseUnit("money")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Учитывает успешный перевод между картами.
+     * @param amount сумма перевода
+     */
+    public void recordTransfer(final BigDecimal amount) {
+        afterCommit(() -> transfers.record(amount.doubleValue()));
+    }
+
+    /**
+     * Учитывает успешное пополнение карты.
+     * @param amount сумма пополнения
+     */
+    public void recordTopUp(final BigDecimal amount) {
+        afterCommit(() -> topUps.record(amount.doubleValue()));
+    }
+
+    /**
+     * Учитывает списание удержания.
+     * @param amount списанная сумма
+     */
+    public void recordCapture(final BigDecimal amount) {
+        afterCommit(() -> captures.record(amount.doubleValue()));
+    }
+
+    /**
+     * Учитывает отклонённый запрос по типу исключения.
+     * @param exception исключение, которым завершился запрос
+     * @param status HTTP-статус ответа
+     */
+    public void recordRejection(final Exception exception, final HttpStatus status) {
+        rejections.computeIfAbsent(new RejectionKey(exception.getClass(), status), key ->
+                Counter.builder("bank.rejections")
+                        .description("Requests rejected with a business or validation error")
+                        .tag("exception", key.exception().getSimpleName())
+                        .tag("status", String.valueOf(key.status().value()))
+                        .register(meterRegistry)
+        ).increment();
+    }
+
+    private void afterCommit(final Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record RejectionKey(Class<?> exception, HttpStatus status) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.bortnik.bank_rest.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Диагностика «закрепления» виртуальных потоков на потоках-носителях.
+ * <p>
+ * Виртуальный поток, заблокированный внутри {@code synchronized} (в нашем коде или в библиотеке),
+ * не отпускает поток-носитель, и при нагрузке пул носителей исчерпывается.
+ * Монитор подписывается на JFR-событие {@code jdk.VirtualThreadPinned}, логирует место закрепления
+ * и учитывает его в метриках {@code bank.virtual_threads.pinned}.
+ * Включается вместе с виртуальными потоками ({@code spring.threads.virtual.enabled=true}).
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    // Сколько кадров стека выводить в лог, чтобы найти synchronized-секцию
+    private static final int LOGGED_FRAMES = 8;
+
+    private final MeterRegistry meterRegistry;
+    private final Timer pinnedDuration;
+
+    @Value("${app.virtual-threads.pinning-threshold:PT0.02S}")
+    private Duration threshold;
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.pinnedDuration = Timer.builder("bank.virtual_threads.pinned.duration")
+                .description("Time virtual threads stayed pinned to a carrier thread")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started, threshold={}", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(final RecordedEvent event) {
+        final List<RecordedFrame> frames = event.getStackTrace() != null
+                ? event.getStackTrace().getFrames()
+                : List.of();
+        final String location = frames.isEmpty() ? "unknown" : format(frames.get(0));
+        recordPinning(event.getDuration(), location);
+
+        if (log.isWarnEnabled()) {
+            final StringBuilder stack = new StringBuilder();
+            frames.stream()
+                    .limit(LOGGED_FRAMES)
+                    .forEach(frame -> stack.append(System.lineSeparator()).append("\tat ").append(format(frame)));
+            log.warn("Virtual thread pinned for {} ms at {}{}", event.getDuration().toMillis(), location, stack);
+        }
+    }
+
+    /**
+     * Учитывает закрепление виртуального потока.
+     * @param duration длительность закрепления
+     * @param location метод, в котором поток был закреплён
+     */
+    void recordPinning(final Duration duration, final String location) {
+        pinnedDuration.record(duration);
+        Counter.builder("bank.virtual_threads.pinned")
+                .description("Virtual thread pinning events longer than the configured threshold")
+                .tag("location", location)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String format(final RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,68 @@
+package com.bortnik.bank_rest.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Дописывает события в файл в формате JSON Lines, по одному событию на строку.
+ * Пачка записывается одним вызовом и сбрасывается на диск до удаления событий из outbox.
+ * Запись пачек упорядочена {@link ReentrantLock}, а не {@code synchronized}: виртуальный поток,
+ * ожидающий {@code force()}, не закрепляет поток-носитель.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.publisher", havingValue = "file")
+@Slf4j
+public class FileOutboxPublisher implements OutboxPublisher {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public FileOutboxPublisher(
+            final ObjectMapper objectMapper,
+            @Value("${app.outbox.file.path:outbox/card-events.jsonl}") final Path path
+    ) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public void publish(final List<OutboxMessage> messages) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(messages.size() * 256);
+        for (OutboxMessage message : messages) {
+            buffer.write(objectMapper.writeValueAsBytes(message));
+            buffer.write('\n');
+        }
+
+        writeLock.lock();
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                final ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        log.debug("{} outbox events written to {}", messages.size(), path);
+    }
+}
@@ -0,0 +1,29 @@
+package com.bortnik.bank_rest.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Публикует доставленные события внутри приложения одной {@link OutboxBatch}
+ * для подписчиков {@code @EventListener}. Используется по умолчанию и для локальной разработки.
+ * Подписчики вызываются в транзакции relay: исключение подписчика вернёт пачку в outbox.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.publisher", havingValue = "in-process", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class InProcessOutboxPublisher implements OutboxPublisher {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void publish(final List<OutboxMessage> messages) {
+        log.debug("Publishing {} outbox events in-process", messages.size());
+        applicationEventPublisher.publishEvent(new OutboxBatch(messages));
+    }
+}
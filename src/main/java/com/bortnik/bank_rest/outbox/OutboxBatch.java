@@ -0,0 +1,14 @@
+package com.bortnik.bank_rest.outbox;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Пачка событий из outbox, доставленная {@link InProcessOutboxPublisher}.
+ * Подписчики получают всю пачку сразу и могут обработать её одним запросом к БД.
+ */
+@Value
+public class OutboxBatch {
+    List<OutboxMessage> messages;
+}
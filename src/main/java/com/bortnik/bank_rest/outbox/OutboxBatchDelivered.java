@@ -0,0 +1,17 @@
+package com.bortnik.bank_rest.outbox;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Пачка событий, которую {@link OutboxRelay} передал издателю и удалил из outbox.
+ * Публикуется при любом {@link OutboxPublisher} внутри транзакции relay, поэтому подписчикам
+ * стоит использовать {@code @TransactionalEventListener}: пачка, чья транзакция откатилась, будет доставлена снова.
+ */
+@Value
+public class OutboxBatchDelivered {
+    // Шард, с outbox которого доставлена пачка
+    int shard;
+    List<OutboxMessage> messages;
+}
@@ -0,0 +1,35 @@
+package com.bortnik.bank_rest.outbox;
+
+import com.bortnik.bank_rest.entity.OutboxEvent;
+import com.bortnik.bank_rest.event.CardEventType;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Событие из outbox в виде, передаваемом {@link OutboxPublisher}.
+ * {@code id} уникален и возрастает во времени, по нему получатели отбрасывают повторные доставки.
+ */
+@Value
+@Builder
+public class OutboxMessage {
+    UUID id;
+    CardEventType type;
+    UUID aggregateId;
+    @JsonRawValue
+    String payload;
+    LocalDateTime createdAt;
+
+    public static OutboxMessage from(final OutboxEvent event) {
+        return OutboxMessage.builder()
+                .id(event.getId())
+                .type(event.getEventType())
+                .aggregateId(event.getAggregateId())
+                .payload(event.getPayload())
+                .createdAt(event.getCreatedAt())
+                .build();
+    }
+}
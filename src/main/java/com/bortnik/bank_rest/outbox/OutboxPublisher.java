@@ -0,0 +1,19 @@
+package com.bortnik.bank_rest.outbox;
+
+import java.util.List;
+
+/**
+ * Доставка событий из outbox во внешнюю систему (брокер, очередь, файл).
+ * <p>
+ * Гарантия — «хотя бы один раз»: если метод завершился без исключения, события удаляются из outbox,
+ * но при сбое коммита после доставки та же пачка будет доставлена повторно.
+ * Если метод бросил исключение, ни одно событие пачки не считается доставленным.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * @param messages события в порядке записи в outbox
+     * @throws Exception если пачку не удалось доставить
+     */
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
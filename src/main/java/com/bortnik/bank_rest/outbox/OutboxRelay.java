@@ -0,0 +1,116 @@
+package com.bortnik.bank_rest.outbox;
+
+import com.bortnik.bank_rest.config.datasource.DataSourcePool;
+import com.bortnik.bank_rest.config.datasource.PoolType;
+import com.bortnik.bank_rest.config.datasource.ShardContext;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.entity.OutboxEvent;
+import com.bortnik.bank_rest.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Доставляет события из outbox через {@link OutboxPublisher}.
+ * <p>
+ * Каждая пачка обрабатывается в своей транзакции: строки блокируются {@code FOR UPDATE SKIP LOCKED},
+ * передаются издателю и удаляются одним {@code DELETE}. Если издатель упал, транзакция откатывается
+ * и пачка будет доставлена при следующем запуске. Узлы кластера забирают разные пачки параллельно,
+ * поэтому порядок гарантирован только внутри пачки. У каждого шарда свой outbox, шарды обходятся по очереди.
+ * Каждая доставленная пачка, независимо от издателя, дополнительно публикуется внутри приложения
+ * как {@link OutboxBatchDelivered}.
+ * <p>
+ * Метрики: {@code bank.outbox.delivered} и {@code bank.outbox.failures}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final Counter delivered;
+    private final Counter failures;
+
+    @Value("${app.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    public OutboxRelay(
+            final OutboxEventRepository outboxEventRepository,
+            final OutboxPublisher outboxPublisher,
+            final PlatformTransactionManager transactionManager,
+            final MeterRegistry meterRegistry,
+            final ShardRouter shardRouter,
+            final ApplicationEventPublisher applicationEventPublisher
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxPublisher = outboxPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.delivered = Counter.builder("bank.outbox.delivered")
+                .description("Card events delivered from the outbox")
+                .register(meterRegistry);
+        this.failures = Counter.builder("bank.outbox.failures")
+                .description("Outbox batches that failed to deliver and will be retried")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Доставляет пачки, пока outbox не опустеет.
+     */
+    @DataSourcePool(PoolType.BATCH)
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval:PT1S}")
+    public void relay() {
+        shardRouter.forEachShard(this::relayShard);
+    }
+
+    // Сбой доставки на одном шарде не останавливает доставку с остальных
+    private void relayShard() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Outbox delivery failed, batch will be retried: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        final List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        final List<OutboxMessage> messages = batch.stream().map(OutboxMessage::from).toList();
+        try {
+            outboxPublisher.publish(messages);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+
+        final List<UUID> ids = batch.stream().map(OutboxEvent::getId).toList();
+        outboxEventRepository.deleteAllByIds(ids);
+        applicationEventPublisher.publishEvent(new OutboxBatchDelivered(ShardContext.current(), messages));
+        delivered.increment(batch.size());
+        log.debug("Outbox batch delivered: {} events", batch.size());
+        return batch.size();
+    }
+}
@@ -0,0 +1,41 @@
+package com.bortnik.bank_rest.outbox;
+
+import com.bortnik.bank_rest.entity.OutboxEvent;
+import com.bortnik.bank_rest.event.CardEvent;
+import com.bortnik.bank_rest.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Записывает {@link CardEvent} в outbox в транзакции, которая опубликовала событие.
+ * Без транзакции публикация события завершится ошибкой, а не потеряет событие.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void onCardEvent(final CardEvent event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateId(event.getCardId())
+                .eventType(event.getType())
+                .payload(toJson(event))
+                .build());
+    }
+
+    private String toJson(final CardEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize card event " + event.getType(), e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.bortnik.bank_rest.repository;
+
+import com.bortnik.bank_rest.entity.CardHold;
+import com.bortnik.bank_rest.entity.CardHoldStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CardHoldRepository extends JpaRepository<CardHold, UUID> {
+
+    /**
+     * Удерживает сумму на карте одним запросом: условный UPDATE увеличивает {@code held_amount},
+     * только если карта активна, не истекла и доступный остаток не меньше суммы, и тем же запросом
+     * создаёт удержание. Строка карты блокируется только на время запроса, без предварительного чтения,
+     * поэтому параллельные авторизации одной карты выполняются друг за другом без повторных попыток:
+     * после ожидания блокировки PostgreSQL проверяет условие на новой версии строки.
+     * @return ID владельца карты или пустое значение, если условие не выполнено и удержание не создано
+     */
+    @Query(value = """
+    WITH held AS (
+        UPDATE cards SET held_amount = held_amount + :amount, updated_at = :now
+        WHERE id = :cardId
+        AND status = 'ACTIVE'
+        AND expiration_date >= CAST(:now AS DATE)
+        AND balance - held_amount >= :amount
+        RETURNING id, user_id
+    ), hold AS (
+        INSERT INTO card_holds (id, card_id, amount, status, created_at, expires_at)
+        SELECT :id, id, :amount, 'ACTIVE', :now, :expiresAt FROM held
+    )
+    SELECT user_id FROM held
+""", nativeQuery = true)
+    Optional<UUID> createHold(
+            @Param("id") UUID id,
+            @Param("cardId") UUID cardId,
+            @Param("amount") BigDecimal amount,
+            @Param("now") LocalDateTime now,
+            @Param("expiresAt") LocalDateTime expiresAt
+    );
+
+    /**
+     * Загружает удержание карты с блокировкой строки до конца транзакции.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM CardHold h WHERE h.id = :id AND h.cardId = :cardId")
+    Optional<CardHold> findByIdAndCardIdForUpdate(@Param("id") UUID id, @Param("cardId") UUID cardId);
+
+    /**
+     * Снимает удержание с карты и списывает захваченную часть с баланса.
+     * @param released сумма удержания
+     * @param captured списываемая сумма, не больше {@code released}; {@code 0} — отмена удержания
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE cards
+            SET held_amount = held_amount - :released, balance = balance - :captured, updated_at = :now
+            WHERE id = :cardId
+            """, nativeQuery = true)
+    void settleHold(
+            @Param("cardId") UUID cardId,
+            @Param("released") BigDecimal released,
+            @Param("captured") BigDecimal captured,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Переводит в статус EXPIRED не более {@code limit} истёкших удержаний и снимает их с карт одним запросом.
+     * Использует частичный индекс {@code idx_card_holds_expires_at_active}; удержания, заблокированные
+     * списанием или отменой, пропускаются. Событие HOLD_EXPIRED пишется в outbox тем же запросом
+     * ({@code uuidv7()} — PostgreSQL 18+), по одному на карту.
+     * @param limit максимальный размер пачки
+     * @param now время истечения
+     * @return ID карт снятых удержаний, по одному на удержание
+     */
+    @Transactional
+    @Query(value = """
+    WITH expired AS (
+        UPDATE card_holds SET status = 'EXPIRED', settled_at = :now
+        WHERE id IN (
+            SELECT id FROM card_holds
+            WHERE status = 'ACTIVE'
+            AND expires_at <= :now
+            ORDER BY expires_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING card_id, amount
+    ), released AS (
+        UPDATE cards c SET held_amount = c.held_amount - e.amount, updated_at = :now
+        FROM (SELECT card_id, SUM(amount) AS amount FROM expired GROUP BY card_id) e
+        WHERE c.id = e.card_id
+        RETURNING c.id, c.user_id, e.amount
+    ), events AS (
+        INSERT INTO card_events_outbox (id, aggregate_id, event_type, payload)
+        SELECT uuidv7(), id, 'HOLD_EXPIRED',
+               jsonb_build_object('type', 'HOLD_EXPIRED', 'cardId', id, 'userId', user_id, 'amount', amount)
+        FROM released
+    )
+    SELECT card_id FROM expired
+""", nativeQuery = true)
+    List<UUID> expireHoldsBatch(@Param("limit") int limit, @Param("now") LocalDateTime now);
+
+    Page<CardHold> findAllByCardId(UUID cardId, Pageable pageable);
+
+    Page<CardHold> findAllByCardIdAndStatus(UUID cardId, CardHoldStatus status, Pageable pageable);
+}
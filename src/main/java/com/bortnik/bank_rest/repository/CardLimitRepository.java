@@ -0,0 +1,9 @@
+package com.bortnik.bank_rest.repository;
+
+import com.bortnik.bank_rest.entity.CardLimit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface CardLimitRepository extends JpaRepository<CardLimit, UUID> {
+}
@@ -2,26 +2,92 @@ package com.bortnik.bank_rest.repository;
 
 import com.bortnik.bank_rest.entity.Card;
 import com.bortnik.bank_rest.entity.CardStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
-import java.util.stream.Stream;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, UUID> {
 
     Page<Card> findAllByUserId(UUID userId, Pageable pageable);
 
-    @Query("""
-    SELECT c FROM Card c
-    WHERE c.expirationDate < CURRENT_DATE
-    AND c.status != 'EXPIRED'
-""")
-    Stream<Card> findExpiredCards();
+    List<Card> findAllByUserIdOrderByUpdatedAt(UUID userId);
+
+    @Query("SELECT c.id FROM Card c WHERE c.userId = :userId")
+    List<UUID> findIdsByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Карты пользователя, версии которых записаны транзакциями с номером не меньше {@code sinceXid}
+     * ({@code row_xid8(xmin)}), то есть закоммиченные после получения позиции {@link #currentSyncXid()}.
+     * Карты пользователя ищутся по индексу {@code idx_cards_user_id_updated_at}.
+     */
+    @Query(value = """
+        SELECT * FROM cards
+        WHERE user_id = :userId AND row_xid8(xmin) >= :sinceXid
+        ORDER BY updated_at
+        """, nativeQuery = true)
+    List<Card> findAllByUserIdChangedSince(@Param("userId") UUID userId, @Param("sinceXid") long sinceXid);
+
+    /**
+     * Позиция дельта-синхронизации: наименьший номер ещё не завершённой транзакции из текущего снимка.
+     * Все транзакции с меньшим номером уже закоммичены или откачены, поэтому изменения, которые
+     * станут видны позже, будут записаны транзакциями с номером не меньше этой позиции,
+     * сколько бы ни длилась транзакция и как бы ни расходились часы узлов.
+     */
+    @Query(value = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint", nativeQuery = true)
+    long currentSyncXid();
+
+    /**
+     * Загружает карты с блокировкой строк ({@code SELECT ... FOR UPDATE}) до конца транзакции.
+     * Строки блокируются в порядке ID, поэтому встречные переводы между одними и теми же картами
+     * не приводят к взаимоблокировке.
+     * @param ids ID карт
+     * @return найденные карты, отсортированные по ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Card c WHERE c.id IN :ids ORDER BY c.id")
+    List<Card> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Переводит в статус EXPIRED не более {@code limit} просроченных карт одним запросом.
+     * Использует частичный индекс {@code idx_cards_expiration_date_not_expired};
+     * строки, заблокированные другими транзакциями, пропускаются до следующей пачки.
+     * Событие EXPIRED для каждой карты пишется в outbox тем же запросом ({@code uuidv7()} — PostgreSQL 18+).
+     * @param limit максимальный размер пачки
+     * @param now время изменения; берётся с часов приложения, как и у остальных изменений карт
+     * @return ID обновлённых карт
+     */
+    @Transactional
+    @Query(value = """
+    WITH expired AS (
+        UPDATE cards SET status = 'EXPIRED', updated_at = :now
+        WHERE id IN (
+            SELECT id FROM cards
+            WHERE expiration_date < CURRENT_DATE
+            AND status <> 'EXPIRED'
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING id, user_id
+    ), events AS (
+        INSERT INTO card_events_outbox (id, aggregate_id, event_type, payload)
+        SELECT uuidv7(), id, 'EXPIRED', jsonb_build_object('type', 'EXPIRED', 'cardId', id, 'userId', user_id)
+        FROM expired
+    )
+    SELECT id FROM expired
+""", nativeQuery = true)
+    List<UUID> expireCardsBatch(@Param("limit") int limit, @Param("now") LocalDateTime now);
 
     Page<Card> findByUserIdAndStatus(UUID userId, CardStatus status, Pageable pageable);
 
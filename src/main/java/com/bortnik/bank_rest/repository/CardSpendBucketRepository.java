@@ -0,0 +1,59 @@
+package com.bortnik.bank_rest.repository;
+
+import com.bortnik.bank_rest.entity.CardSpendBucket;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface CardSpendBucketRepository extends JpaRepository<CardSpendBucket, CardSpendBucket.Key> {
+
+    /**
+     * Прибавляет сумму к интервалу карты одним запросом, создавая интервал при необходимости.
+     * Выполняется в транзакции перевода.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO card_spend_buckets (card_id, bucket_start, amount)
+            VALUES (:cardId, :bucketStart, :amount)
+            ON CONFLICT (card_id, bucket_start) DO UPDATE
+            SET amount = card_spend_buckets.amount + EXCLUDED.amount
+            """, nativeQuery = true)
+    void addSpend(
+            @Param("cardId") UUID cardId,
+            @Param("bucketStart") LocalDateTime bucketStart,
+            @Param("amount") BigDecimal amount
+    );
+
+    /**
+     * Сумма интервалов карты, начавшихся не раньше {@code since}. Читает по первичному ключу
+     * не больше интервалов, чем помещается в окно.
+     */
+    @Query(value = """
+            SELECT COALESCE(SUM(amount), 0)
+            FROM card_spend_buckets
+            WHERE card_id = :cardId AND bucket_start >= :since
+            """, nativeQuery = true)
+    BigDecimal sumSpendSince(@Param("cardId") UUID cardId, @Param("since") LocalDateTime since);
+
+    /**
+     * Интервалы, начавшиеся не раньше {@code since}, для восстановления счётчиков при старте.
+     * Использует индекс {@code idx_card_spend_buckets_bucket_start}.
+     */
+    List<CardSpendBucket> findAllByBucketStartGreaterThanEqual(LocalDateTime since);
+
+    /**
+     * Удаляет интервалы, вышедшие из окна, одним запросом.
+     * @return число удалённых интервалов
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CardSpendBucket b WHERE b.bucketStart < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,33 @@
+package com.bortnik.bank_rest.repository;
+
+import com.bortnik.bank_rest.entity.CardTombstone;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface CardTombstoneRepository extends JpaRepository<CardTombstone, UUID> {
+
+    /**
+     * ID карт пользователя, отметки об удалении которых записаны транзакциями с номером
+     * не меньше {@code sinceXid} (см. {@link CardRepository#currentSyncXid()}).
+     * Отметки пользователя ищутся по индексу {@code idx_card_tombstones_user_id_deleted_at}.
+     */
+    @Query(value = "SELECT card_id FROM card_tombstones WHERE user_id = :userId AND row_xid8(xmin) >= :sinceXid",
+            nativeQuery = true)
+    List<UUID> findCardIdsDeletedSince(@Param("userId") UUID userId, @Param("sinceXid") long sinceXid);
+
+    /**
+     * Удаляет отметки старше срока хранения одним запросом.
+     * @return число удалённых отметок
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CardTombstone t WHERE t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
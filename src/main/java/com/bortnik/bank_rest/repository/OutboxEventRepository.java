@@ -0,0 +1,34 @@
+package com.bortnik.bank_rest.repository;
+
+import com.bortnik.bank_rest.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Блокирует до {@code limit} самых старых недоставленных событий.
+     * Строки, заблокированные другим узлом, пропускаются, поэтому ретрансляторы на разных узлах не мешают друг другу.
+     * Вызывать внутри транзакции, в которой события будут доставлены и удалены.
+     */
+    @Query(value = """
+    SELECT * FROM card_events_outbox
+    ORDER BY id
+    LIMIT :limit
+    FOR UPDATE SKIP LOCKED
+""", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    /**
+     * Удаляет доставленные события одним запросом.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM card_events_outbox WHERE id IN (:ids)", nativeQuery = true)
+    int deleteAllByIds(@Param("ids") Collection<UUID> ids);
+}
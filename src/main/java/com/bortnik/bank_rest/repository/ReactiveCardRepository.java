@@ -0,0 +1,103 @@
+package com.bortnik.bank_rest.repository;
+
+import com.bortnik.bank_rest.config.ReactiveShardClients;
+import com.bortnik.bank_rest.entity.Card;
+import com.bortnik.bank_rest.entity.CardStatus;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Неблокирующее чтение карт через R2DBC. Зашифрованный номер карты не выбирается:
+ * для {@link com.bortnik.bank_rest.dto.card.CardDTO} достаточно последних четырёх цифр.
+ * Запрос уходит на шард карты или пользователя.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveCardRepository {
+
+    private static final String COLUMNS =
+            "id, user_id, expiration_date, status, last_four_digits, balance, held_amount, created_at, updated_at";
+
+    // Поля сортировки, доступные клиенту, и соответствующие им колонки
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "created_at",
+            "updatedAt", "updated_at",
+            "expirationDate", "expiration_date",
+            "balance", "balance",
+            "status", "status"
+    );
+
+    private final ReactiveShardClients reactiveShardClients;
+
+    public Mono<Card> findById(final UUID cardId) {
+        return reactiveShardClients.forId(cardId).sql("SELECT " + COLUMNS + " FROM cards WHERE id = :id")
+                .bind("id", cardId)
+                .map(ReactiveCardRepository::toCard)
+                .one();
+    }
+
+    /**
+     * Страница карт пользователя, при {@code status != null} только с указанным статусом.
+     */
+    public Flux<Card> findAllByUserId(final UUID userId, final CardStatus status, final Pageable pageable) {
+        final String sql = "SELECT " + COLUMNS + " FROM cards WHERE user_id = :userId"
+                + (status != null ? " AND status = :status" : "")
+                + " ORDER BY " + orderBy(pageable.getSort())
+                + " LIMIT :limit OFFSET :offset";
+        DatabaseClient.GenericExecuteSpec spec = reactiveShardClients.forId(userId).sql(sql)
+                .bind("userId", userId)
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset());
+        if (status != null) {
+            spec = spec.bind("status", status.name());
+        }
+        return spec.map(ReactiveCardRepository::toCard).all();
+    }
+
+    public Mono<Long> countByUserId(final UUID userId, final CardStatus status) {
+        DatabaseClient.GenericExecuteSpec spec = reactiveShardClients.forId(userId).sql(
+                        "SELECT COUNT(*) FROM cards WHERE user_id = :userId"
+                                + (status != null ? " AND status = :status" : ""))
+                .bind("userId", userId);
+        if (status != null) {
+            spec = spec.bind("status", status.name());
+        }
+        return spec.map(row -> row.get(0, Long.class)).one();
+    }
+
+    static String orderBy(final Sort sort) {
+        final String columns = sort.stream()
+                .filter(order -> SORT_COLUMNS.containsKey(order.getProperty()))
+                .map(order -> SORT_COLUMNS.get(order.getProperty()) + (order.isAscending() ? " ASC" : " DESC"))
+                .collect(Collectors.joining(", "));
+        // id в конце делает порядок строк детерминированным между страницами
+        return columns.isEmpty() ? "created_at DESC, id" : columns + ", id";
+    }
+
+    private static Card toCard(final Readable row) {
+        return Card.builder()
+                .id(row.get("id", UUID.class))
+                .userId(row.get("user_id", UUID.class))
+                .expirationDate(row.get("expiration_date", LocalDate.class))
+                .status(CardStatus.valueOf(row.get("status", String.class)))
+                .lastFourDigits(row.get("last_four_digits", String.class))
+                .balance(row.get("balance", BigDecimal.class))
+                .heldAmount(row.get("held_amount", BigDecimal.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.bortnik.bank_rest.repository;
+
+import com.bortnik.bank_rest.config.ReactiveShardClients;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Неблокирующие проверки пользователей через R2DBC на шарде пользователя.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveUserRepository {
+
+    private final ReactiveShardClients reactiveShardClients;
+
+    public Mono<Boolean> existsById(final UUID userId) {
+        return reactiveShardClients.forId(userId).sql("SELECT EXISTS (SELECT 1 FROM users WHERE id = :id)")
+                .bind("id", userId)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+}
@@ -0,0 +1,57 @@
+package com.bortnik.bank_rest.repository;
+
+import com.bortnik.bank_rest.entity.RecurringTransfer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RecurringTransferRepository extends JpaRepository<RecurringTransfer, UUID> {
+
+    /**
+     * Блокирует до {@code limit} поручений, время исполнения которых наступило, начиная с самых давних.
+     * Читает диапазон индекса {@code idx_recurring_transfers_next_run_at}, а не всю таблицу.
+     * Строки, заблокированные другим узлом, пропускаются, поэтому узлы исполняют разные пачки параллельно.
+     * Вызывать внутри транзакции, в которой поручения будут исполнены и перенесены на следующий срок.
+     */
+    @Query(value = """
+    SELECT * FROM recurring_transfers
+    WHERE next_run_at <= :now
+    ORDER BY next_run_at
+    LIMIT :limit
+    FOR UPDATE SKIP LOCKED
+""", nativeQuery = true)
+    List<RecurringTransfer> lockDueBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * ID до {@code limit} созревших поручений в том же порядке, что и {@link #lockDueBatch}, без блокировки.
+     * Используется, чтобы исполнить по одному поручения пачки, которая откатилась.
+     */
+    @Query(value = """
+    SELECT id FROM recurring_transfers
+    WHERE next_run_at <= :now
+    ORDER BY next_run_at
+    LIMIT :limit
+""", nativeQuery = true)
+    List<UUID> findDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Блокирует поручение, если его время исполнения наступило и строку не держит другой узел.
+     */
+    @Query(value = """
+    SELECT * FROM recurring_transfers
+    WHERE id = :id AND next_run_at <= :now
+    FOR UPDATE SKIP LOCKED
+""", nativeQuery = true)
+    Optional<RecurringTransfer> lockDueById(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    Page<RecurringTransfer> findAllByUserId(UUID userId, Pageable pageable);
+
+    Optional<RecurringTransfer> findByIdAndUserId(UUID id, UUID userId);
+}
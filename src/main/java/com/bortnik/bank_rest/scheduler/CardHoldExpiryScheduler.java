@@ -0,0 +1,86 @@
+package com.bortnik.bank_rest.scheduler;
+
+import com.bortnik.bank_rest.cache.CacheInvalidationBus;
+import com.bortnik.bank_rest.cache.CacheNames;
+import com.bortnik.bank_rest.config.datasource.DataSourcePool;
+import com.bortnik.bank_rest.config.datasource.PoolType;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.dto.scheduler.SchedulerRunReport;
+import com.bortnik.bank_rest.repository.CardHoldRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CardHoldExpiryScheduler {
+
+    public static final String JOB_NAME = "card-holds";
+
+    private final CardHoldRepository cardHoldRepository;
+    private final ShardRouter shardRouter;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${app.cards.holds.expiry-batch-size:1000}")
+    private int batchSize;
+
+    private volatile SchedulerRunReport lastRun;
+
+    /**
+     * Снимает истёкшие удержания пачками по {@code batchSize}: каждая пачка — один запрос в своей транзакции,
+     * который закрывает удержания и уменьшает {@code held_amount} карт. Удержания выбираются с {@code SKIP LOCKED},
+     * поэтому узлы кластера снимают разные пачки одновременно и блокировка кластера не нужна.
+     * Карты со снятыми удержаниями удаляются из кэшей, так как запрос выполняется без событий приложения.
+     */
+    @DataSourcePool(PoolType.BATCH)
+    @Scheduled(fixedDelayString = "${app.cards.holds.expiry-interval:PT1M}")
+    public void releaseExpiredHolds() {
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final long started = System.nanoTime();
+        final AtomicLong processed = new AtomicLong();
+        final AtomicInteger batches = new AtomicInteger();
+
+        shardRouter.forEachShard(() -> {
+            List<UUID> cardIds;
+            do {
+                cardIds = cardHoldRepository.expireHoldsBatch(batchSize, LocalDateTime.now());
+                processed.addAndGet(cardIds.size());
+                new HashSet<>(cardIds).forEach(cardId -> cacheInvalidationBus.invalidate(CacheNames.CARDS, cardId));
+                log.debug("Expired holds batch {}: {} holds", batches.incrementAndGet(), cardIds.size());
+            } while (cardIds.size() == batchSize);
+        });
+
+        lastRun = SchedulerRunReport.builder()
+                .job(JOB_NAME)
+                .startedAt(startedAt)
+                .durationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started))
+                .processed(processed.get())
+                .batches(batches.get())
+                .build();
+
+        if (lastRun.getProcessed() > 0) {
+            log.info("Expired holds released: {} holds in {} batches, {} ms",
+                    lastRun.getProcessed(), lastRun.getBatches(), lastRun.getDurationMillis());
+        }
+    }
+
+    /**
+     * Итоги последнего запуска на этом узле.
+     * @return отчёт о запуске или пустое значение, если задача ещё не запускалась
+     */
+    public Optional<SchedulerRunReport> getLastRun() {
+        return Optional.ofNullable(lastRun);
+    }
+}
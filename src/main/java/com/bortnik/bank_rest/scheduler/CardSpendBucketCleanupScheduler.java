@@ -0,0 +1,50 @@
+package com.bortnik.bank_rest.scheduler;
+
+import com.bortnik.bank_rest.config.datasource.DataSourcePool;
+import com.bortnik.bank_rest.config.datasource.PoolType;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.repository.CardSpendBucketRepository;
+import com.bortnik.bank_rest.scheduler.lock.ClusterLocked;
+import com.bortnik.bank_rest.service.card.CardLimitService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CardSpendBucketCleanupScheduler {
+
+    public static final String JOB_NAME = "card-spend-bucket-cleanup";
+
+    private final CardSpendBucketRepository cardSpendBucketRepository;
+    private final CardLimitService cardLimitService;
+    private final ShardRouter shardRouter;
+
+    /**
+     * Удаляет интервалы переводов, вышедшие из суточного окна.
+     * В кластере выполняется только на одном узле: удаление по всему шарду не нужно повторять на каждом.
+     */
+    @DataSourcePool(PoolType.BATCH)
+    @ClusterLocked(JOB_NAME)
+    @Scheduled(cron = "${app.cards.limits.cleanup-cron:0 15 * * * *}")
+    public void deleteExpiredBuckets() {
+        final LocalDateTime threshold = LocalDateTime.now().minus(CardLimitService.WINDOW);
+        shardRouter.forEachShard(() -> {
+            final int deleted = cardSpendBucketRepository.deleteOlderThan(threshold);
+            log.info("Card spend buckets older than {} deleted: {}", threshold, deleted);
+        });
+    }
+
+    /**
+     * Удаляет счётчики карт без переводов за окно. Счётчики хранятся в памяти узла,
+     * поэтому задача выполняется на каждом узле.
+     */
+    @Scheduled(cron = "${app.cards.limits.cleanup-cron:0 15 * * * *}")
+    public void dropIdleCounters() {
+        cardLimitService.dropIdleCounters();
+    }
+}
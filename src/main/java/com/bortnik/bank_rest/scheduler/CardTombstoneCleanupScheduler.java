@@ -0,0 +1,45 @@
+package com.bortnik.bank_rest.scheduler;
+
+import com.bortnik.bank_rest.config.datasource.DataSourcePool;
+import com.bortnik.bank_rest.config.datasource.PoolType;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.repository.CardTombstoneRepository;
+import com.bortnik.bank_rest.scheduler.lock.ClusterLocked;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CardTombstoneCleanupScheduler {
+
+    public static final String JOB_NAME = "card-tombstone-cleanup";
+
+    private final CardTombstoneRepository cardTombstoneRepository;
+    private final ShardRouter shardRouter;
+
+    @Value("${app.cards.sync.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    /**
+     * Удаляет отметки об удалённых картах старше срока хранения.
+     * Клиенты с более старым токеном синхронизации получают 410 и синхронизируются заново.
+     * В кластере выполняется только на одном узле: удаление по всему шарду не нужно повторять на каждом.
+     */
+    @DataSourcePool(PoolType.BATCH)
+    @ClusterLocked(JOB_NAME)
+    @Scheduled(cron = "${app.cards.sync.tombstone-cleanup-cron:0 30 0 * * *}")
+    public void deleteExpiredTombstones() {
+        final LocalDateTime threshold = LocalDateTime.now().minus(tombstoneRetention);
+        shardRouter.forEachShard(() -> {
+            final int deleted = cardTombstoneRepository.deleteOlderThan(threshold);
+            log.info("Card tombstones older than {} deleted: {}", tombstoneRetention, deleted);
+        });
+    }
+}
@@ -1,33 +1,86 @@
 package com.bortnik.bank_rest.scheduler;
 
-import com.bortnik.bank_rest.entity.Card;
-import com.bortnik.bank_rest.entity.CardStatus;
+import com.bortnik.bank_rest.cache.CacheInvalidationBus;
+import com.bortnik.bank_rest.cache.CacheNames;
+import com.bortnik.bank_rest.config.datasource.DataSourcePool;
+import com.bortnik.bank_rest.config.datasource.PoolType;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.dto.scheduler.SchedulerRunReport;
 import com.bortnik.bank_rest.repository.CardRepository;
-import jakarta.transaction.Transactional;
+import com.bortnik.bank_rest.scheduler.lock.ClusterLocked;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.stream.Stream;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ExpiredCardScheduler {
 
+    public static final String JOB_NAME = "expired-cards";
+
     private final CardRepository cardRepository;
+    private final ShardRouter shardRouter;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${app.scheduler.expired-cards.batch-size:1000}")
+    private int batchSize;
 
-    @Transactional
-    @Scheduled(cron = "0 0 0 * * *")
+    private volatile SchedulerRunReport lastRun;
+
+    /**
+     * Переводит просроченные карты в статус EXPIRED пачками по {@code batchSize}.
+     * Каждая пачка — отдельный UPDATE в своей короткой транзакции,
+     * поэтому контекст персистентности не растёт, а блокировки держатся недолго.
+     * Шарды обрабатываются по очереди. В кластере выполняется только на одном узле.
+     * Просроченные карты удаляются из кэшей, так как запрос выполняется без событий приложения.
+     */
+    @DataSourcePool(PoolType.BATCH)
+    @ClusterLocked(JOB_NAME)
+    @Scheduled(cron = "${app.scheduler.expired-cards.cron:0 0 0 * * *}")
     public void checkExpiredCard() {
-        try (Stream<Card> stream = cardRepository.findExpiredCards()) {
-            stream.forEach(it -> {
-                it.setStatus(CardStatus.EXPIRED);
-                it.setUpdatedAt(LocalDateTime.now());
-            });
-        }
-        log.info("Expired cards have been updated");
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final long started = System.nanoTime();
+        final AtomicLong processed = new AtomicLong();
+        final AtomicInteger batches = new AtomicInteger();
+
+        shardRouter.forEachShard(() -> {
+            List<UUID> expired;
+            do {
+                expired = cardRepository.expireCardsBatch(batchSize, LocalDateTime.now());
+                processed.addAndGet(expired.size());
+                expired.forEach(cardId -> cacheInvalidationBus.invalidate(CacheNames.CARDS, cardId));
+                log.debug("Expired cards batch {}: {} cards", batches.incrementAndGet(), expired.size());
+            } while (expired.size() == batchSize);
+        });
+
+        lastRun = SchedulerRunReport.builder()
+                .job(JOB_NAME)
+                .startedAt(startedAt)
+                .durationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started))
+                .processed(processed.get())
+                .batches(batches.get())
+                .build();
+
+        log.info("Expired cards have been updated: {} cards in {} batches, {} ms",
+                lastRun.getProcessed(), lastRun.getBatches(), lastRun.getDurationMillis());
+    }
+
+    /**
+     * Итоги последнего запуска на этом узле.
+     * @return отчёт о запуске или пустое значение, если задача ещё не запускалась
+     */
+    public Optional<SchedulerRunReport> getLastRun() {
+        return Optional.ofNullable(lastRun);
     }
 }
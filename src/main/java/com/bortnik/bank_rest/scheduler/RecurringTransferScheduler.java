@@ -0,0 +1,124 @@
+package com.bortnik.bank_rest.scheduler;
+
+import com.bortnik.bank_rest.config.datasource.DataSourcePool;
+import com.bortnik.bank_rest.config.datasource.PoolType;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.dto.scheduler.SchedulerRunReport;
+import com.bortnik.bank_rest.service.card.RecurringTransferService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecurringTransferScheduler {
+
+    public static final String JOB_NAME = "recurring-transfers";
+
+    private final RecurringTransferService recurringTransferService;
+    private final ShardRouter shardRouter;
+
+    @Value("${app.recurring-transfers.batch-size:100}")
+    private int batchSize;
+
+    private volatile SchedulerRunReport lastRun;
+
+    /**
+     * Исполняет созревшие постоянные поручения пачками по {@code batchSize}, каждая пачка — своя транзакция.
+     * Поручения выбираются по индексу {@code next_run_at} с {@code SKIP LOCKED}, поэтому узлы кластера
+     * исполняют разные пачки одновременно и блокировка кластера не нужна.
+     * Если пачка откатилась, её поручения исполняются по одному, а поручение, транзакция которого снова
+     * откатилась, помечается {@code FAILED} и переносится, после чего работа продолжается пачками.
+     * Если и пометить поручение не удалось (например, БД недоступна), остальные поручения шарда ждут следующего запуска;
+     * шарды обрабатываются независимо.
+     */
+    @DataSourcePool(PoolType.BATCH)
+    @Scheduled(fixedDelayString = "${app.recurring-transfers.interval:PT1M}")
+    public void executeDueTransfers() {
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final long started = System.nanoTime();
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicInteger batches = new AtomicInteger();
+
+        shardRouter.forEachShard(() -> {
+            try {
+                boolean fullBatch;
+                do {
+                    RecurringTransferService.BatchResult result;
+                    try {
+                        result = recurringTransferService.executeDueBatch(startedAt, batchSize);
+                        fullBatch = result.processed() == batchSize;
+                    } catch (RuntimeException e) {
+                        log.warn("Recurring transfers batch rolled back, executing its orders one by one: {}",
+                                e.getMessage());
+                        final List<UUID> due = recurringTransferService.findDueIds(startedAt, batchSize);
+                        result = executeOneByOne(due, startedAt);
+                        // Поручения, занятые другим узлом, не исполнены: без прогресса повторять нечего
+                        fullBatch = due.size() == batchSize && result.processed() > 0;
+                    }
+                    processed.addAndGet(result.processed());
+                    failed.addAndGet(result.failed());
+                    batches.incrementAndGet();
+                    log.debug("Recurring transfers batch {}: {} executed, {} failed",
+                            batches.get(), result.processed(), result.failed());
+                } while (fullBatch);
+            } catch (Exception e) {
+                log.warn("Recurring transfers stopped, will be retried on the next run: {}", e.getMessage());
+            }
+        });
+
+        lastRun = SchedulerRunReport.builder()
+                .job(JOB_NAME)
+                .startedAt(startedAt)
+                .durationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started))
+                .processed(processed.get())
+                .failed(failed.get())
+                .batches(batches.get())
+                .build();
+
+        if (lastRun.getProcessed() > 0) {
+            log.info("Recurring transfers executed: {} orders ({} failed) in {} batches, {} ms",
+                    lastRun.getProcessed(), lastRun.getFailed(), lastRun.getBatches(), lastRun.getDurationMillis());
+        }
+    }
+
+    // Каждое поручение — своя транзакция: откатившееся помечается FAILED и не мешает остальным
+    private RecurringTransferService.BatchResult executeOneByOne(
+            final List<UUID> recurringTransferIds,
+            final LocalDateTime startedAt
+    ) {
+        int processed = 0;
+        int failed = 0;
+        for (UUID recurringTransferId : recurringTransferIds) {
+            RecurringTransferService.BatchResult result;
+            try {
+                result = recurringTransferService.executeOne(recurringTransferId, startedAt);
+            } catch (RuntimeException e) {
+                result = recurringTransferService.markFailed(recurringTransferId, startedAt, e);
+            }
+            processed += result.processed();
+            failed += result.failed();
+        }
+        return new RecurringTransferService.BatchResult(processed, failed);
+    }
+
+    /**
+     * Итоги последнего запуска на этом узле.
+     * @return отчёт о запуске или пустое значение, если задача ещё не запускалась
+     */
+    public Optional<SchedulerRunReport> getLastRun() {
+        return Optional.ofNullable(lastRun);
+    }
+}
@@ -0,0 +1,78 @@
+package com.bortnik.bank_rest.scheduler.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.EmbeddedValueResolverAware;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringValueResolver;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ClusterLockAspect implements EmbeddedValueResolverAware {
+
+    private final ClusterLockService clusterLockService;
+
+    private final Map<Method, Duration> periods = new ConcurrentHashMap<>();
+
+    private StringValueResolver valueResolver;
+
+    @Override
+    public void setEmbeddedValueResolver(final StringValueResolver resolver) {
+        this.valueResolver = resolver;
+    }
+
+    @Around("@annotation(clusterLocked)")
+    public Object runExclusively(final ProceedingJoinPoint joinPoint, final ClusterLocked clusterLocked) throws Throwable {
+        final Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        final Duration period = periods.computeIfAbsent(method, m -> period(m, clusterLocked));
+        clusterLockService.runExclusively(clusterLocked.value(), period, joinPoint::proceed);
+        return null;
+    }
+
+    Duration period(final Method method, final ClusterLocked clusterLocked) {
+        if (!clusterLocked.period().isEmpty()) {
+            return Duration.parse(resolve(clusterLocked.period()));
+        }
+
+        final Scheduled scheduled = method.getAnnotation(Scheduled.class);
+        if (scheduled == null) {
+            throw new IllegalStateException(
+                    "Job %s has no @Scheduled, set ClusterLocked.period".formatted(clusterLocked.value()));
+        }
+        if (!scheduled.cron().isEmpty()) {
+            final CronExpression cron = CronExpression.parse(resolve(scheduled.cron()));
+            final LocalDateTime next = cron.next(LocalDateTime.now());
+            return Duration.between(next, cron.next(next));
+        }
+        if (!scheduled.fixedRateString().isEmpty()) {
+            return interval(resolve(scheduled.fixedRateString()), scheduled);
+        }
+        if (!scheduled.fixedDelayString().isEmpty()) {
+            return interval(resolve(scheduled.fixedDelayString()), scheduled);
+        }
+        final long interval = scheduled.fixedRate() > 0 ? scheduled.fixedRate() : scheduled.fixedDelay();
+        return Duration.of(interval, scheduled.timeUnit().toChronoUnit());
+    }
+
+    private Duration interval(final String value, final Scheduled scheduled) {
+        return value.startsWith("P")
+                ? Duration.parse(value)
+                : Duration.of(Long.parseLong(value), scheduled.timeUnit().toChronoUnit());
+    }
+
+    private String resolve(final String value) {
+        return valueResolver != null ? valueResolver.resolveStringValue(value) : value;
+    }
+}
@@ -0,0 +1,206 @@
+package com.bortnik.bank_rest.scheduler.lock;
+
+import com.bortnik.bank_rest.config.datasource.DataSourcePool;
+import com.bortnik.bank_rest.config.datasource.PoolType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Выполнение задач на единственном узле кластера с помощью advisory-блокировок PostgreSQL.
+ * <p>
+ * Блокировка сессионная и держится на отдельном соединении всё время выполнения задачи.
+ * Узел делает одну попытку взять блокировку при каждом запуске: если её держит другой узел,
+ * запуск не ждёт, а откладывается — поток планировщика и соединение не заняты ожиданием.
+ * Узлы запускают задачу почти одновременно, поэтому узел, получивший блокировку после лидера,
+ * не повторяет работу, если в {@code scheduler_job_runs} есть завершение за последние полпериода задачи.
+ * <p>
+ * Отложенные запуски раз в {@code app.scheduler.lock.catch-up-interval} повторяются ({@link #catchUp}):
+ * пока лидер работает, блокировка занята; когда он закончил, есть отметка о завершении и запуск отменяется.
+ * Если лидер упал посреди работы, PostgreSQL снимает блокировку вместе с его сессией, а отметки нет —
+ * задачу доделывает другой узел, не дожидаясь следующего запуска по расписанию. Отложенный запуск,
+ * не выполненный за полпериода, отменяется: дальше работает обычное расписание.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterLockService {
+
+    // Пространство ключей advisory-блокировок приложения ("BANK"), чтобы не пересекаться с другими клиентами БД
+    private static final int LOCK_NAMESPACE = 0x42414E4B;
+    private static final String NODE_ID = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final DataSource dataSource;
+
+    // Запуски, пропущенные из-за блокировки другого узла, по имени задачи
+    private final Map<String, PendingRun> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Задача, выполняемая под блокировкой.
+     */
+    @FunctionalInterface
+    public interface LockedJob {
+        void run() throws Throwable;
+    }
+
+    /**
+     * Выполняет задачу, если удалось с первой попытки получить блокировку с указанным именем
+     * и задача не была завершена за последние полпериода. Если блокировку держит другой узел,
+     * запуск откладывается до {@link #catchUp}.
+     * @param name имя задачи
+     * @param period период запуска задачи
+     * @param job задача
+     * @return {@code true}, если задача выполнена на этом узле
+     * @throws Throwable исключение, выброшенное задачей
+     */
+    public boolean runExclusively(final String name, final Duration period, final LockedJob job) throws Throwable {
+        pending.remove(name);
+
+        final Outcome outcome = tryRun(name, period, job);
+        if (outcome == Outcome.LOCKED) {
+            log.info("Job {} deferred: running on another node", name);
+            pending.put(name, new PendingRun(period, job, Instant.now()));
+        }
+        return outcome == Outcome.EXECUTED;
+    }
+
+    /**
+     * Повторяет запуски, отложенные из-за блокировки другого узла, и выполняет задачу,
+     * если её лидер упал, не завершив работу.
+     */
+    @DataSourcePool(PoolType.BATCH)
+    @Scheduled(fixedDelayString = "${app.scheduler.lock.catch-up-interval:PT1M}")
+    public void catchUp() {
+        pending.forEach((name, run) -> {
+            if (run.registeredAt().plus(window(run.period())).isBefore(Instant.now())) {
+                pending.remove(name, run);
+                log.warn("Job {} deferred run dropped: lock held by another node for half a period", name);
+                return;
+            }
+            try {
+                if (tryRun(name, run.period(), run.job()) != Outcome.LOCKED) {
+                    pending.remove(name, run);
+                }
+            } catch (Throwable e) {
+                // Отметки о завершении нет, запуск повторится при следующей проверке
+                log.error("Job {} catch-up run failed", name, e);
+            }
+        });
+    }
+
+    private Outcome tryRun(final String name, final Duration period, final LockedJob job) throws Throwable {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+
+            if (!tryLock(connection, name)) {
+                return Outcome.LOCKED;
+            }
+
+            try {
+                final Timestamp since = Timestamp.from(
+                        currentTimestamp(connection).toInstant().minus(window(period)));
+                if (completedSince(connection, name, since)) {
+                    log.info("Job {} skipped: already completed by another node", name);
+                    return Outcome.COMPLETED;
+                }
+
+                log.info("Job {} started on node {}", name, NODE_ID);
+                job.run();
+                markCompleted(connection, name);
+                return Outcome.EXECUTED;
+            } finally {
+                release(connection, name);
+            }
+        }
+    }
+
+    // Запуск считается выполненным, если задача завершена в пределах половины периода
+    private static Duration window(final Duration period) {
+        return period.dividedBy(2);
+    }
+
+    private boolean tryLock(final Connection connection, final String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT pg_try_advisory_lock(?, hashtext(?))")) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setString(2, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private void release(final Connection connection, final String name) {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT pg_advisory_unlock(?, hashtext(?))")) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setString(2, name);
+            statement.execute();
+        } catch (SQLException e) {
+            // Блокировка снимется при закрытии сессии
+            log.warn("Failed to release lock for job {}: {}", name, e.getMessage());
+        }
+    }
+
+    private Timestamp currentTimestamp(final Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT clock_timestamp()");
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getTimestamp(1);
+        }
+    }
+
+    private boolean completedSince(
+            final Connection connection,
+            final String name,
+            final Timestamp since
+    ) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT 1 FROM scheduler_job_runs WHERE job = ? AND last_completed_at >= ?")) {
+            statement.setString(1, name);
+            statement.setTimestamp(2, since);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private void markCompleted(final Connection connection, final String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("""
+                INSERT INTO scheduler_job_runs (job, last_completed_at, completed_by)
+                VALUES (?, clock_timestamp(), ?)
+                ON CONFLICT (job) DO UPDATE
+                SET last_completed_at = EXCLUDED.last_completed_at, completed_by = EXCLUDED.completed_by
+                """)) {
+            statement.setString(1, name);
+            statement.setString(2, NODE_ID);
+            statement.executeUpdate();
+        }
+    }
+
+    private enum Outcome {
+        // Задача выполнена на этом узле
+        EXECUTED,
+        // Задача уже завершена другим узлом в текущем периоде
+        COMPLETED,
+        // Блокировку держит другой узел
+        LOCKED
+    }
+
+    private record PendingRun(Duration period, LockedJob job, Instant registeredAt) {
+    }
+}
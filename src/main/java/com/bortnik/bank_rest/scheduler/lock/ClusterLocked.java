@@ -0,0 +1,33 @@
+package com.bortnik.bank_rest.scheduler.lock;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Помечает задачу (обычно {@code @Scheduled}), которая в кластере должна выполняться только на одном узле.
+ * Перед запуском узел пробует взять advisory-блокировку PostgreSQL с именем задачи;
+ * остальные узлы запуск откладывают, не дожидаясь освобождения блокировки, и выполняют задачу,
+ * только если лидер упал, не завершив её.
+ * Метод должен быть идемпотентным и возвращать {@code void}: на пропущенном узле он не вызывается.
+ *
+ * @see ClusterLockService
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ClusterLocked {
+
+    /**
+     * Имя задачи, уникальное в пределах приложения. Используется как ключ блокировки.
+     */
+    String value();
+
+    /**
+     * Период запуска задачи в формате ISO-8601, например {@code PT10M}; поддерживает плейсхолдеры.
+     * Завершение задачи за последние полпериода считается выполнением текущего запуска.
+     * По умолчанию вычисляется по {@code cron}, {@code fixedDelay} или {@code fixedRate}
+     * аннотации {@code @Scheduled} метода.
+     */
+    String period() default "";
+}
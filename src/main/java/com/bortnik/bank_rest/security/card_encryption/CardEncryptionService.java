@@ -1,5 +1,6 @@
 package com.bortnik.bank_rest.security.card_encryption;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -31,6 +32,7 @@ public class CardEncryptionService {
      * @param cardNumber номер карты для шифрования
      * @return зашифрованный номер карты в формате Base64
      */
+    @Timed(value = "bank.card.encryption", extraTags = {"operation", "encrypt"}, histogram = true)
     public String encrypt(String cardNumber) {
         try {
             // Генерируем случайный IV для каждого шифрования
@@ -59,6 +61,7 @@ public class CardEncryptionService {
      * @param encryptedCardNumber зашифрованный номер карты в формате Base64
      * @return расшифрованный номер карты
      */
+    @Timed(value = "bank.card.encryption", extraTags = {"operation", "decrypt"}, histogram = true)
     public String decrypt(String encryptedCardNumber) {
         try {
             byte[] decoded = Base64.getDecoder().decode(encryptedCardNumber);
@@ -1,5 +1,7 @@
 package com.bortnik.bank_rest.security.services;
 
+import com.bortnik.bank_rest.cache.LocalCache;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
 import com.bortnik.bank_rest.entity.User;
 import com.bortnik.bank_rest.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -13,12 +15,18 @@ import org.springframework.stereotype.Service;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final ShardRouter shardRouter;
+    private final LocalCache<UserDetailsImpl> userDetailsCache;
 
+    // Вызывается на каждый запрос с JWT, а шард по имени пользователя не вычисляется
+    // и поиск идёт по всем шардам, поэтому результат кэшируется
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        final User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        return userDetailsCache.get(username, () -> {
+            final User user = shardRouter.findFirst(() -> userRepository.findByUsername(username))
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
-        return UserDetailsImpl.build(user);
+            return UserDetailsImpl.build(user);
+        });
     }
 }
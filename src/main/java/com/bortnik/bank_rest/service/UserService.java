@@ -1,12 +1,21 @@
 package com.bortnik.bank_rest.service;
 
+import com.bortnik.bank_rest.cache.CacheInvalidationBus;
+import com.bortnik.bank_rest.cache.CacheNames;
+import com.bortnik.bank_rest.cache.LocalCache;
+import com.bortnik.bank_rest.config.datasource.DataSourcePool;
+import com.bortnik.bank_rest.config.datasource.PoolType;
+import com.bortnik.bank_rest.config.datasource.ShardKey;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
 import com.bortnik.bank_rest.dto.user.UserCreateDTO;
 import com.bortnik.bank_rest.dto.user.UserDTO;
 import com.bortnik.bank_rest.entity.Role;
 import com.bortnik.bank_rest.entity.User;
 import com.bortnik.bank_rest.exception.user.UserAlreadyExists;
 import com.bortnik.bank_rest.exception.user.UserNotFound;
+import com.bortnik.bank_rest.repository.CardRepository;
 import com.bortnik.bank_rest.repository.UserRepository;
+import com.bortnik.bank_rest.util.SingleFlight;
 import com.bortnik.bank_rest.util.mappers.UserMapper;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +25,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -24,23 +34,32 @@ import java.util.UUID;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CardRepository cardRepository;
+    private final ShardRouter shardRouter;
+    private final LocalCache<UserDTO> userCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    // Одновременные запросы одного пользователя (who-am-i при каждой загрузке страницы) делят одно чтение из БД
+    private final SingleFlight<UUID, UserDTO> userLoads = new SingleFlight<>();
 
     /**
-     * Создание нового пользователя.
+     * Создание нового пользователя. Пользователи распределяются по шардам по кругу.
+     * <p>
+     * Уникальность имени проверяется на всех шардах, но уникальный индекс действует только
+     * внутри шарда: два одновременных запроса с одним именем могут создать пользователей на разных шардах.
      * @param userCreateDTO информация о создаваемом пользователе
      * @return {@code UserDTO} информация о созданном пользователе
      * @throws UserAlreadyExists если пользователь с таким именем уже существует
      */
-    @Transactional
     public UserDTO createUser(final UserCreateDTO userCreateDTO) {
         log.info("Creating user with username: {}", userCreateDTO.getUsername());
 
-        if (userRepository.existsByUsername(userCreateDTO.getUsername())) {
+        if (existsByUsername(userCreateDTO.getUsername())) {
             log.warn("User with username {} already exists", userCreateDTO.getUsername());
-            throw new UserAlreadyExists("User with username " + userCreateDTO.getUsername() + " already exists");
+            throw new UserAlreadyExists("User with username {} already exists", userCreateDTO.getUsername());
         }
 
-        UserDTO user = UserMapper.toUserDTO(
+        UserDTO user = shardRouter.onShard(shardRouter.nextShardForNewUser(), () -> UserMapper.toUserDTO(
                 userRepository.save(
                         User.builder()
                                 .username(userCreateDTO.getUsername())
@@ -48,17 +67,26 @@ public class UserService {
                                 .role(userCreateDTO.getRole())
                                 .build()
                 )
-        );
+        ));
 
         log.info("User with username: {} created successfully", userCreateDTO.getUsername());
 
         return user;
     }
 
-    public UserDTO getUserById(final UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFound("User with id " + userId + " not found"));
-        return UserMapper.toUserDTO(user);
+    /**
+     * Получение пользователя по ID из кэша.
+     * Одновременные запросы одного пользователя, которого нет в кэше, выполняют одно чтение из БД.
+     * @param userId идентификатор пользователя
+     * @return {@code UserDTO} информация о пользователе
+     * @throws UserNotFound если пользователь не найден
+     */
+    public UserDTO getUserById(@ShardKey final UUID userId) {
+        return userCache.get(userId, () -> userLoads.execute(userId, () -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new UserNotFound("User with id {} not found", userId));
+            return UserMapper.toUserDTO(user);
+        }));
     }
 
     /**
@@ -66,19 +94,21 @@ public class UserService {
      * @param userId идентификатор пользователя
      * @return {@code UserDTO} информация о пользователе с ролью администратора
      */
+    @DataSourcePool(PoolType.ADMIN)
     @Transactional
-    public UserDTO makeAdmin(final UUID userId) {
+    public UserDTO makeAdmin(@ShardKey final UUID userId) {
         log.info("Making user with id {} admin", userId);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> {
                     log.warn("User with id {} not found", userId);
-                    return new UserNotFound("User with id " + userId + " not found");
+                    return new UserNotFound("User with id {} not found", userId);
                 });
 
         user.setRole(Role.ADMIN);
         user.setUpdatedAt(LocalDateTime.now());
         UserDTO userDto = UserMapper.toUserDTO(userRepository.save(user));
+        evictFromCaches(user);
 
         log.info("User with id {} is now an admin", userId);
 
@@ -86,22 +116,25 @@ public class UserService {
     }
 
     /**
-     * Получение всех пользователей с пагинацией. Функция для администратора.
+     * Получение всех пользователей с пагинацией, со всех шардов. Функция для администратора.
      * @param pageable параметры пагинации
      * @return страница с пользователями
      */
+    @DataSourcePool(PoolType.ADMIN)
     public Page<UserDTO> getAllUsers(final Pageable pageable) {
-        return userRepository.findAll(pageable).map(UserMapper::toUserDTO);
+        return shardRouter.scatterPage(pageable, userRepository::findAll).map(UserMapper::toUserDTO);
     }
 
     /**
-     * Получение всех пользователей по роли с пагинацией. Функция для администратора.
+     * Получение всех пользователей по роли с пагинацией, со всех шардов. Функция для администратора.
      * @param role роль пользователя
      * @param pageable параметры пагинации
      * @return страница с пользователями указанной роли
      */
+    @DataSourcePool(PoolType.ADMIN)
     public Page<UserDTO> getAllUsersByRole(final Role role, final Pageable pageable) {
-        return userRepository.findAllByRole(role, pageable).map(UserMapper::toUserDTO);
+        return shardRouter.scatterPage(pageable, page -> userRepository.findAllByRole(role, page))
+                .map(UserMapper::toUserDTO);
     }
 
     /**
@@ -110,18 +143,42 @@ public class UserService {
      * @param id ID пользователя
      * @throws UserNotFound если пользователь не найден
      */
+    @DataSourcePool(PoolType.ADMIN)
     @Transactional
-    public void deleteUser(final UUID id) {
+    public void deleteUser(@ShardKey final UUID id) {
         log.info("Deleting user with id {}", id);
 
         final User user = userRepository.findById(id)
-                .orElseThrow(() -> new UserNotFound("User with id " + id + " not found"));
+                .orElseThrow(() -> new UserNotFound("User with id {} not found", id));
+        // Карты удаляются каскадом в БД, поэтому их ID читаются до удаления пользователя
+        final List<UUID> cardIds = cardRepository.findIdsByUserId(id);
 
         userRepository.delete(user);
+        evictFromCaches(user);
+        cardIds.forEach(cardId -> cacheInvalidationBus.invalidate(CacheNames.CARDS, cardId));
         log.info("User with id {} deleted successfully", id);
     }
 
-    public boolean existsById(final UUID userId) {
+    public boolean existsById(@ShardKey final UUID userId) {
         return userRepository.existsById(userId);
     }
+
+    /**
+     * Проверка, занято ли имя пользователя, на всех шардах.
+     * @param username имя пользователя
+     * @return {@code true}, если пользователь с таким именем существует
+     */
+    public boolean existsByUsername(final String username) {
+        return shardRouter.onEachShard(() -> userRepository.existsByUsername(username))
+                .contains(Boolean.TRUE);
+    }
+
+    /**
+     * Удаляет пользователя из кэшей всех узлов после коммита транзакции.
+     * @param user изменённый пользователь
+     */
+    private void evictFromCaches(final User user) {
+        cacheInvalidationBus.invalidate(CacheNames.USERS, user.getId());
+        cacheInvalidationBus.invalidate(CacheNames.USER_DETAILS, user.getUsername());
+    }
 }
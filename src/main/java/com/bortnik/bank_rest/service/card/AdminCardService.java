@@ -1,18 +1,35 @@
 package com.bortnik.bank_rest.service.card;
 
+import com.bortnik.bank_rest.cache.CacheInvalidationBus;
+import com.bortnik.bank_rest.cache.CacheNames;
+import com.bortnik.bank_rest.cache.LocalCache;
+import com.bortnik.bank_rest.config.datasource.DataSourcePool;
+import com.bortnik.bank_rest.config.datasource.PoolType;
+import com.bortnik.bank_rest.config.datasource.ShardKey;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
 import com.bortnik.bank_rest.dto.card.CardDTO;
 import com.bortnik.bank_rest.entity.Card;
 import com.bortnik.bank_rest.entity.CardStatus;
+import com.bortnik.bank_rest.entity.CardTombstone;
+import com.bortnik.bank_rest.event.CardEvent;
+import com.bortnik.bank_rest.event.CardEventType;
 import com.bortnik.bank_rest.exception.card.*;
+import com.bortnik.bank_rest.exception.security.SuspiciousActivity;
 import com.bortnik.bank_rest.exception.user.UserNotFound;
+import com.bortnik.bank_rest.fraud.FraudScoringService;
+import com.bortnik.bank_rest.limiter.ConcurrencyLimited;
+import com.bortnik.bank_rest.metrics.BankMetrics;
 import com.bortnik.bank_rest.repository.CardRepository;
+import com.bortnik.bank_rest.repository.CardTombstoneRepository;
 import com.bortnik.bank_rest.service.UserService;
 import com.bortnik.bank_rest.security.card_encryption.CardEncryptionService;
 import com.bortnik.bank_rest.util.SimpleCardNumberGenerator;
+import com.bortnik.bank_rest.util.SingleFlight;
 import com.bortnik.bank_rest.util.mappers.CardMapper;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -20,12 +37,15 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * Сервис для управления картами пользователей администратором.
+ * Работает на отдельном пуле соединений, чтобы тяжёлые выборки не мешали пользовательским запросам.
  */
 @Service
+@DataSourcePool(PoolType.ADMIN)
 @RequiredArgsConstructor
 @Slf4j
 public class AdminCardService {
@@ -34,6 +54,16 @@ public class AdminCardService {
     private final UserService userService;
     private final CoreCardService coreCardService;
     private final CardEncryptionService cardEncryptionService;
+    private final BankMetrics bankMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CardTombstoneRepository cardTombstoneRepository;
+    private final ShardRouter shardRouter;
+    private final LocalCache<CardDTO> cardCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final FraudScoringService fraudScoringService;
+
+    // Одновременные запросы одной и той же карты (дашборды, повторы клиентов) делят одно чтение из БД
+    private final SingleFlight<UUID, CardDTO> cardLoads = new SingleFlight<>();
 
     // Срок действия карты в годах
     private final static int EXPIRATION_YEARS = 5;
@@ -45,7 +75,7 @@ public class AdminCardService {
      * @return страница с картами пользователя
      * @throws UserNotFound если пользователь не найден
      */
-    public Page<CardDTO> getAllUserCards(final UUID userId, final Pageable pageable) {
+    public Page<CardDTO> getAllUserCards(@ShardKey final UUID userId, final Pageable pageable) {
         return coreCardService.findAllUserCards(userId, pageable);
     }
 
@@ -58,7 +88,7 @@ public class AdminCardService {
      * @return страница с картами пользователя по статусу
      */
     public Page<CardDTO> getCardsByUserIdAndStatus(
-            final UUID userId,
+            @ShardKey final UUID userId,
             final CardStatus status,
             final Pageable pageable
     ) {
@@ -66,17 +96,17 @@ public class AdminCardService {
     }
 
     /**
-     * Получение всех карт с пагинацией, администратором.
+     * Получение всех карт с пагинацией со всех шардов, администратором.
      * @param pageable параметры пагинации
      * @return страница с картами
      */
     public Page<CardDTO> getAllCards(final Pageable pageable) {
-        return cardRepository.findAll(pageable)
+        return shardRouter.scatterPage(pageable, cardRepository::findAll)
                 .map(CardMapper::toCardDTO);
     }
 
     /**
-     * Получение всех карт по статусу с пагинацией, администратором.
+     * Получение всех карт по статусу с пагинацией со всех шардов, администратором.
      * @param status статус карты
      * @param pageable параметры пагинации
      * @return страница с картами по статусу
@@ -85,18 +115,20 @@ public class AdminCardService {
             final CardStatus status,
             final Pageable pageable
     ) {
-        return cardRepository.findByStatus(status, pageable)
+        return shardRouter.scatterPage(pageable, page -> cardRepository.findByStatus(status, page))
                 .map(CardMapper::toCardDTO);
     }
 
     /**
-     * Получение карты по номеру, администратором.
+     * Получение карты по номеру из кэша, администратором.
+     * Одновременные запросы одной карты, которой нет в кэше, выполняют одно чтение из БД.
+     * Изменения карты удаляют её из кэша через {@link com.bortnik.bank_rest.cache.CardCacheInvalidator}.
      * @param cardId ID карты
      * @return информация о карте
+     * @throws CardNotFound если карта не найдена
      */
-    public CardDTO getCardById(final UUID cardId) {
-        final Card card = getCardEntityById(cardId);
-        return CardMapper.toCardDTO(card);
+    public CardDTO getCardById(@ShardKey(ShardKey.Kind.CARD) final UUID cardId) {
+        return cardCache.get(cardId, () -> cardLoads.execute(cardId, () -> CardMapper.toCardDTO(getCardEntityById(cardId))));
     }
 
     /**
@@ -105,7 +137,7 @@ public class AdminCardService {
      * @return обновленная информация о карте
      */
     @Transactional
-    public CardDTO blockCard(final UUID cardId) {
+    public CardDTO blockCard(@ShardKey(ShardKey.Kind.CARD) final UUID cardId) {
         log.info("Admin tries to block card {}", cardId);
 
         final Card card = getCardEntityById(cardId);
@@ -119,6 +151,7 @@ public class AdminCardService {
 
         card.setStatus(CardStatus.BLOCKED);
         card.setUpdatedAt(LocalDateTime.now());
+        publishEvent(CardEventType.BLOCKED, card, null);
 
         log.info("Card {} successfully blocked by admin", cardId);
 
@@ -131,7 +164,7 @@ public class AdminCardService {
      * @return обновленная информация о карте
      */
     @Transactional
-    public CardDTO activateCard(final UUID cardId) {
+    public CardDTO activateCard(@ShardKey(ShardKey.Kind.CARD) final UUID cardId) {
         log.info("Admin tries to activate card {}", cardId);
 
         final Card card = getCardEntityById(cardId);
@@ -145,6 +178,7 @@ public class AdminCardService {
 
         card.setStatus(CardStatus.ACTIVE);
         card.setUpdatedAt(LocalDateTime.now());
+        publishEvent(CardEventType.ACTIVATED, card, null);
 
         log.info("Card {} successfully activated by admin", cardId);
 
@@ -153,15 +187,22 @@ public class AdminCardService {
 
     /**
      * Удаление карты по номеру, администратором.
+     * Оставляет отметку об удалении для дельта-синхронизации клиентов.
      *
      * @param cardId номер карты
      */
     @Transactional
-    public void deleteCard(final UUID cardId) {
+    public void deleteCard(@ShardKey(ShardKey.Kind.CARD) final UUID cardId) {
         log.info("Admin deletes card {}", cardId);
         final Card card = getCardEntityById(cardId);
 
         cardRepository.delete(card);
+        cardTombstoneRepository.save(CardTombstone.builder()
+                .cardId(card.getId())
+                .userId(card.getUserId())
+                .deletedAt(LocalDateTime.now())
+                .build());
+        cacheInvalidationBus.invalidate(CacheNames.CARDS, cardId);
 
         log.info("Card {} successfully deleted by admin", cardId);
     }
@@ -175,12 +216,12 @@ public class AdminCardService {
      * @throws UserNotFound если пользователь с указанным ID не найден
      */
     @Transactional
-    public CardDTO createCardForUser(final UUID userId) {
+    public CardDTO createCardForUser(@ShardKey final UUID userId) {
         log.info("Admin creates new card for user {}", userId);
 
         if (!userService.existsById(userId)) {
             log.warn("Card creation failed: user {} not found", userId);
-            throw new UserNotFound("User with ID " + userId + " not found");
+            throw new UserNotFound("User with ID {} not found", userId);
         }
 
         final String cardNumber = SimpleCardNumberGenerator.generate();
@@ -196,6 +237,7 @@ public class AdminCardService {
                         .status(CardStatus.ACTIVE)
                         .balance(BigDecimal.ZERO)
                         .expirationDate(expirationDate)
+                        .updatedAt(LocalDateTime.now())
                         .build()
         );
 
@@ -213,21 +255,29 @@ public class AdminCardService {
      * @throws CardNotFound если одна из карт не найдена
      * @throws CardBlocked если карта заблокирована
      * @throws CardExpired если карта истекла
+     * @throws SuspiciousActivity если карту пополняют слишком часто
      */
+    @ConcurrencyLimited("top-up")
     @Transactional
-    public CardDTO topUpCardBalance(final UUID cardId, final BigDecimal amount) {
+    public CardDTO topUpCardBalance(@ShardKey(ShardKey.Kind.CARD) final UUID cardId, final BigDecimal amount) {
         log.info("Admin tries to top up card {} by amount {}", cardId, amount);
 
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             log.warn("Top-up failed: incorrect amount {} for card {}", amount, cardId);
             throw new IncorrectAmount("Amount must be positive");
         }
+        fraudScoringService.checkTopUp(cardId);
 
+        // Блокируем карту до чтения баланса, чтобы не потерять параллельный перевод или пополнение
+        cardRepository.findAllByIdForUpdate(List.of(cardId));
         final Card card = getCardEntityById(cardId);
 
         coreCardService.validateActiveCard(card);
 
         card.setBalance(card.getBalance().add(amount));
+        card.setUpdatedAt(LocalDateTime.now());
+        bankMetrics.recordTopUp(amount);
+        publishEvent(CardEventType.TOP_UP, card, amount);
 
         log.info("Card {} topped up by admin. New balance={}", cardId, card.getBalance());
 
@@ -244,10 +294,25 @@ public class AdminCardService {
         return cardRepository.findById(cardId)
                 .orElseThrow(() -> {
                     log.warn("Card not found: {}", cardId);
-                    return new CardNotFound("Card with id " + cardId + " not found");
+                    return new CardNotFound("Card with id {} not found", cardId);
                 });
     }
 
+    /**
+     * Публикует событие карты, которое запишется в outbox в текущей транзакции.
+     * @param type тип события
+     * @param card карта
+     * @param amount сумма операции, если есть
+     */
+    private void publishEvent(final CardEventType type, final Card card, final BigDecimal amount) {
+        eventPublisher.publishEvent(CardEvent.builder()
+                .type(type)
+                .cardId(card.getId())
+                .userId(card.getUserId())
+                .amount(amount)
+                .build());
+    }
+
     /**
      * Проверяет, что карта не истекла.
      * Если карта истекла, выбрасывает соответствующее исключение.
@@ -0,0 +1,253 @@
+package com.bortnik.bank_rest.service.card;
+
+import com.bortnik.bank_rest.config.datasource.ShardKey;
+import com.bortnik.bank_rest.dto.card.CardHoldDTO;
+import com.bortnik.bank_rest.dto.card.CardHoldRequest;
+import com.bortnik.bank_rest.entity.Card;
+import com.bortnik.bank_rest.entity.CardHold;
+import com.bortnik.bank_rest.entity.CardHoldStatus;
+import com.bortnik.bank_rest.event.CardEvent;
+import com.bortnik.bank_rest.event.CardEventType;
+import com.bortnik.bank_rest.exception.BadRequest;
+import com.bortnik.bank_rest.exception.BusinessException;
+import com.bortnik.bank_rest.exception.card.*;
+import com.bortnik.bank_rest.metrics.BankMetrics;
+import com.bortnik.bank_rest.repository.CardHoldRepository;
+import com.bortnik.bank_rest.repository.CardRepository;
+import com.bortnik.bank_rest.util.UuidV7Generator;
+import com.bortnik.bank_rest.util.mappers.CardHoldMapper;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Двухфазное списание с карты: удержание суммы (авторизация), затем списание (capture) или отмена (release).
+ * <p>
+ * Удержанная сумма хранится в {@code cards.held_amount} и не входит в доступный остаток
+ * ({@link Card#getAvailableBalance()}), с которого идут переводы и новые удержания. Баланс уменьшается
+ * только при списании. Удержание создаётся одним условным UPDATE без блокировки карты заранее
+ * ({@link CardHoldRepository#createHold}); неснятые удержания снимаются по истечении срока
+ * {@link com.bortnik.bank_rest.scheduler.CardHoldExpiryScheduler}. Списание — исходящая операция карты,
+ * поэтому проходит через лимиты {@link CardLimitService}, как перевод.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardHoldService {
+
+    private final CardHoldRepository cardHoldRepository;
+    private final CardRepository cardRepository;
+    private final CoreCardService coreCardService;
+    private final CardLimitService cardLimitService;
+    private final BankMetrics bankMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.cards.holds.default-ttl:P7D}")
+    private Duration defaultTtl;
+
+    @Value("${app.cards.holds.max-ttl:P30D}")
+    private Duration maxTtl;
+
+    /**
+     * Удерживает сумму на карте.
+     * @param cardId ID карты
+     * @param request сумма и срок удержания
+     * @return созданное удержание
+     * @throws IncorrectAmount если сумма некорректна
+     * @throws BadRequest если срок не положительный или больше {@code app.cards.holds.max-ttl}
+     * @throws CardNotFound если карта не найдена
+     * @throws CardBlocked если карта заблокирована
+     * @throws CardExpired если карта истекла
+     * @throws InsufficientFunds если доступный остаток меньше суммы
+     */
+    @Transactional
+    public CardHoldDTO createHold(@ShardKey(ShardKey.Kind.CARD) final UUID cardId, final CardHoldRequest request) {
+        log.info("Hold requested: card={} amount={} ttl={}", cardId, request.getAmount(), request.getTtl());
+
+        if (request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            log.warn("Hold failed: incorrect amount {} for card {}", request.getAmount(), cardId);
+            throw new IncorrectAmount("Amount must be positive");
+        }
+        final Duration ttl = request.getTtl() != null ? request.getTtl() : defaultTtl;
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(maxTtl) > 0) {
+            log.warn("Hold failed: incorrect ttl {} for card {}", ttl, cardId);
+            throw new BadRequest("Hold TTL must be positive and not longer than {}", maxTtl);
+        }
+
+        final LocalDateTime now = LocalDateTime.now();
+        final CardHold hold = CardHold.builder()
+                .id(UuidV7Generator.generate())
+                .cardId(cardId)
+                .amount(request.getAmount())
+                .status(CardHoldStatus.ACTIVE)
+                .createdAt(now)
+                .expiresAt(now.plus(ttl))
+                .build();
+
+        final UUID userId = cardHoldRepository
+                .createHold(hold.getId(), cardId, hold.getAmount(), now, hold.getExpiresAt())
+                .orElseThrow(() -> rejection(cardId, request.getAmount()));
+
+        publishEvent(CardEventType.HOLD_CREATED, cardId, userId, hold.getAmount());
+        log.info("Hold {} of {} created on card {}, expires at {}", hold.getId(), hold.getAmount(), cardId, hold.getExpiresAt());
+
+        return CardHoldMapper.toCardHoldDTO(hold);
+    }
+
+    /**
+     * Списывает удержание: баланс уменьшается на списываемую сумму, остаток удержания освобождается.
+     * @param cardId ID карты
+     * @param holdId ID удержания
+     * @param amount списываемая сумма, {@code null} — вся сумма удержания
+     * @return списанное удержание
+     * @throws CardHoldNotFound если у карты нет такого удержания
+     * @throws CardHoldNotActive если удержание уже списано, отменено или истекло
+     * @throws IncorrectAmount если сумма не положительная или больше удержанной
+     * @throws CardLimitExceeded если списание превышает лимиты карты
+     */
+    @Transactional
+    public CardHoldDTO captureHold(
+            @ShardKey(ShardKey.Kind.CARD) final UUID cardId,
+            final UUID holdId,
+            final BigDecimal amount
+    ) {
+        log.info("Capture requested: hold={} card={} amount={}", holdId, cardId, amount);
+
+        final LocalDateTime now = LocalDateTime.now();
+        final CardHold hold = getActiveHoldForUpdate(cardId, holdId);
+        if (!hold.getExpiresAt().isAfter(now)) {
+            log.warn("Capture failed: hold {} expired at {}", holdId, hold.getExpiresAt());
+            throw new CardHoldNotActive("Hold {} expired at {}", holdId, hold.getExpiresAt());
+        }
+
+        final BigDecimal captured = amount != null ? amount : hold.getAmount();
+        if (captured.compareTo(BigDecimal.ZERO) <= 0 || captured.compareTo(hold.getAmount()) > 0) {
+            log.warn("Capture failed: incorrect amount {} for hold {} of {}", captured, holdId, hold.getAmount());
+            throw new IncorrectAmount("Capture amount must be positive and not greater than held amount {}", hold.getAmount());
+        }
+
+        // Карта блокируется после удержания, как в settle: лимит сверяется с переводами других узлов под блокировкой
+        cardRepository.findAllByIdForUpdate(List.of(cardId));
+        cardLimitService.reserve(cardId, captured);
+
+        settle(hold, CardHoldStatus.CAPTURED, captured, now);
+        bankMetrics.recordCapture(captured);
+        publishEvent(CardEventType.HOLD_CAPTURED, cardId, getCardEntityById(cardId).getUserId(), captured);
+        log.info("Hold {} captured: {} of {} debited from card {}", holdId, captured, hold.getAmount(), cardId);
+
+        return CardHoldMapper.toCardHoldDTO(hold);
+    }
+
+    /**
+     * Отменяет удержание: сумма возвращается в доступный остаток, баланс не меняется.
+     * Истёкшее, но ещё не снятое планировщиком удержание тоже можно отменить.
+     * @param cardId ID карты
+     * @param holdId ID удержания
+     * @return отменённое удержание
+     * @throws CardHoldNotFound если у карты нет такого удержания
+     * @throws CardHoldNotActive если удержание уже списано, отменено или истекло
+     */
+    @Transactional
+    public CardHoldDTO releaseHold(@ShardKey(ShardKey.Kind.CARD) final UUID cardId, final UUID holdId) {
+        log.info("Release requested: hold={} card={}", holdId, cardId);
+
+        final CardHold hold = getActiveHoldForUpdate(cardId, holdId);
+        settle(hold, CardHoldStatus.RELEASED, BigDecimal.ZERO, LocalDateTime.now());
+        publishEvent(CardEventType.HOLD_RELEASED, cardId, getCardEntityById(cardId).getUserId(), hold.getAmount());
+        log.info("Hold {} of {} released on card {}", holdId, hold.getAmount(), cardId);
+
+        return CardHoldMapper.toCardHoldDTO(hold);
+    }
+
+    /**
+     * Удержания карты, при {@code status != null} только с указанным статусом.
+     * @param cardId ID карты
+     * @param status статус удержаний
+     * @param pageable параметры пагинации
+     * @return страница удержаний
+     * @throws CardNotFound если карта не найдена
+     */
+    public Page<CardHoldDTO> getHolds(
+            @ShardKey(ShardKey.Kind.CARD) final UUID cardId,
+            final CardHoldStatus status,
+            final Pageable pageable
+    ) {
+        if (!cardRepository.existsById(cardId)) {
+            log.warn("Card not found: {}", cardId);
+            throw new CardNotFound("Card with id {} not found", cardId);
+        }
+        final Page<CardHold> holds = status != null
+                ? cardHoldRepository.findAllByCardIdAndStatus(cardId, status, pageable)
+                : cardHoldRepository.findAllByCardId(cardId, pageable);
+        return holds.map(CardHoldMapper::toCardHoldDTO);
+    }
+
+    /**
+     * Снимает удержание с карты, списывая {@code captured}, и закрывает его.
+     * Строка удержания уже заблокирована, карта блокируется UPDATE: тот же порядок, что у истечения удержаний.
+     */
+    private void settle(
+            final CardHold hold,
+            final CardHoldStatus status,
+            final BigDecimal captured,
+            final LocalDateTime now
+    ) {
+        cardHoldRepository.settleHold(hold.getCardId(), hold.getAmount(), captured, now);
+        hold.setStatus(status);
+        hold.setCapturedAmount(status == CardHoldStatus.CAPTURED ? captured : null);
+        hold.setSettledAt(now);
+    }
+
+    private CardHold getActiveHoldForUpdate(final UUID cardId, final UUID holdId) {
+        final CardHold hold = cardHoldRepository.findByIdAndCardIdForUpdate(holdId, cardId)
+                .orElseThrow(() -> {
+                    log.warn("Hold {} of card {} not found", holdId, cardId);
+                    return new CardHoldNotFound("Hold with id {} not found on card {}", holdId, cardId);
+                });
+        if (hold.getStatus() != CardHoldStatus.ACTIVE) {
+            log.warn("Hold {} is already {}", holdId, hold.getStatus());
+            throw new CardHoldNotActive("Hold {} is already {}", holdId, hold.getStatus());
+        }
+        return hold;
+    }
+
+    /**
+     * Причина, по которой условный UPDATE не удержал сумму. Читает карту уже после него,
+     * поэтому при гонке с параллельным изменением причина может относиться к более новому состоянию.
+     */
+    private BusinessException rejection(final UUID cardId, final BigDecimal amount) {
+        final Card card = getCardEntityById(cardId);
+        coreCardService.validateActiveCard(card);
+        log.warn("Hold failed: insufficient funds on card {} (available={}, requested={})",
+                cardId, card.getAvailableBalance(), amount);
+        return new InsufficientFunds("Insufficient funds on card {}", cardId);
+    }
+
+    private Card getCardEntityById(final UUID cardId) {
+        return cardRepository.findById(cardId)
+                .orElseThrow(() -> {
+                    log.warn("Card not found: {}", cardId);
+                    return new CardNotFound("Card with id {} not found", cardId);
+                });
+    }
+
+    private void publishEvent(final CardEventType type, final UUID cardId, final UUID userId, final BigDecimal amount) {
+        eventPublisher.publishEvent(CardEvent.builder()
+                .type(type)
+                .cardId(cardId)
+                .userId(userId)
+                .amount(amount)
+                .build());
+    }
+}
@@ -0,0 +1,268 @@
+package com.bortnik.bank_rest.service.card;
+
+import com.bortnik.bank_rest.cache.CacheInvalidationBus;
+import com.bortnik.bank_rest.cache.CacheNames;
+import com.bortnik.bank_rest.cache.LocalCache;
+import com.bortnik.bank_rest.config.datasource.DataSourcePool;
+import com.bortnik.bank_rest.config.datasource.PoolType;
+import com.bortnik.bank_rest.config.datasource.ShardKey;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.dto.card.CardLimitDTO;
+import com.bortnik.bank_rest.dto.card.CardLimitRequest;
+import com.bortnik.bank_rest.entity.CardLimit;
+import com.bortnik.bank_rest.entity.CardSpendBucket;
+import com.bortnik.bank_rest.exception.ServiceOverloaded;
+import com.bortnik.bank_rest.exception.card.CardLimitExceeded;
+import com.bortnik.bank_rest.exception.card.CardNotFound;
+import com.bortnik.bank_rest.repository.CardLimitRepository;
+import com.bortnik.bank_rest.repository.CardRepository;
+import com.bortnik.bank_rest.repository.CardSpendBucketRepository;
+import com.bortnik.bank_rest.util.SlidingWindowCounter;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Лимиты исходящих переводов карт: на один перевод и на сумму за скользящие сутки.
+ * <p>
+ * Суммы переводов за окно хранятся в памяти узла в {@link SlidingWindowCounter} по интервалам
+ * {@value #BUCKET_MINUTES} минут, поэтому проверка в переводе не читает историю операций.
+ * Тот же интервал прибавляется к {@code card_spend_buckets} в транзакции перевода, по этой таблице
+ * счётчики восстанавливаются после старта; до окончания восстановления переводы с суточным лимитом
+ * отклоняются с {@link ServiceOverloaded}. Сумма резервируется в счётчике сразу, до коммита,
+ * чтобы следующий перевод по карте её видел, и возвращается, если транзакция откатилась.
+ * <p>
+ * Счётчики у каждого узла свои и видят только его переводы, поэтому сумма в памяти — нижняя оценка:
+ * превышение по ней отклоняется сразу. Когда сумма в памяти с переводом превышает долю
+ * {@code app.cards.limits.db-check-ratio} лимита, сумма за окно читается из {@code card_spend_buckets}
+ * (не больше одной строки на интервал окна, по первичному ключу). Перевод держит блокировку карты,
+ * поэтому в таблице учтены все закоммиченные переводы карты со всех узлов.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardLimitService {
+
+    static final int BUCKET_MINUTES = 15;
+    public static final Duration WINDOW = Duration.ofDays(1);
+    static final Duration BUCKET = Duration.ofMinutes(BUCKET_MINUTES);
+
+    private final CardLimitRepository cardLimitRepository;
+    private final CardSpendBucketRepository cardSpendBucketRepository;
+    private final CardRepository cardRepository;
+    private final ShardRouter shardRouter;
+    private final LocalCache<CardLimitDTO> cardLimitCache;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final Map<UUID, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+
+    @Value("${app.cards.limits.daily:}")
+    private BigDecimal defaultDailyLimit;
+
+    @Value("${app.cards.limits.per-transaction:}")
+    private BigDecimal defaultPerTransactionLimit;
+
+    @Value("${app.cards.limits.db-check-ratio:0}")
+    private BigDecimal dbCheckRatio;
+
+    private volatile boolean countersReady;
+
+    /**
+     * Восстанавливает счётчики по сохранённым интервалам всех шардов.
+     * Выполняется после старта, а не при создании бина: обучающий запуск AOT-кэша работает без БД.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildCounters() {
+        final LocalDateTime since = LocalDateTime.now().minus(WINDOW);
+        shardRouter.forEachShard(() -> {
+            final List<CardSpendBucket> buckets = cardSpendBucketRepository.findAllByBucketStartGreaterThanEqual(since);
+            buckets.forEach(bucket -> counter(bucket.getCardId()).add(toMillis(bucket.getBucketStart()), bucket.getAmount()));
+            log.info("Card spend counters rebuilt from {} buckets", buckets.size());
+        });
+        countersReady = true;
+    }
+
+    /**
+     * Проверяет лимиты и резервирует сумму перевода в суточном окне карты.
+     * Вызывается в транзакции перевода после блокировки карты.
+     * @param cardId карта списания
+     * @param amount сумма перевода
+     * @throws CardLimitExceeded если перевод превышает лимит на операцию или суточный лимит
+     * @throws ServiceOverloaded если у карты суточный лимит, а счётчики ещё не восстановлены
+     */
+    public void reserve(final UUID cardId, final BigDecimal amount) {
+        final CardLimitDTO limits = findLimits(cardId);
+        if (limits.getPerTransactionLimit() != null && amount.compareTo(limits.getPerTransactionLimit()) > 0) {
+            log.warn("Transfer from card {} rejected: amount {} exceeds per-transaction limit {}",
+                    cardId, amount, limits.getPerTransactionLimit());
+            throw new CardLimitExceeded("Amount exceeds per-transaction limit {} of card {}",
+                    limits.getPerTransactionLimit(), cardId);
+        }
+
+        final LocalDateTime now = LocalDateTime.now();
+        final long at = toMillis(now);
+        if (limits.getDailyLimit() != null) {
+            if (!countersReady) {
+                log.warn("Transfer from card {} rejected: spend counters are not rebuilt yet", cardId);
+                throw new ServiceOverloaded("Card limits are loading, try again later", Duration.ofSeconds(1));
+            }
+            verifyStoredSpend(cardId, at, amount, limits.getDailyLimit());
+        }
+        counters.compute(cardId, (id, existing) -> {
+            final SlidingWindowCounter counter = existing != null ? existing : newCounter();
+            if (!counter.tryAdd(at, amount, limits.getDailyLimit())) {
+                log.warn("Transfer from card {} rejected: daily limit {} exceeded", cardId, limits.getDailyLimit());
+                throw new CardLimitExceeded("Amount exceeds daily limit {} of card {}", limits.getDailyLimit(), cardId);
+            }
+            return counter;
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(final int status) {
+                    if (status != STATUS_COMMITTED) {
+                        counters.computeIfPresent(cardId, (id, counter) -> {
+                            counter.add(at, amount.negate());
+                            return counter;
+                        });
+                    }
+                }
+            });
+        }
+        cardSpendBucketRepository.addSpend(cardId, toDateTime(Math.floorDiv(at, BUCKET.toMillis()) * BUCKET.toMillis()), amount);
+    }
+
+    // Другие узлы могли списать по карте больше, чем видно в памяти этого узла
+    private void verifyStoredSpend(final UUID cardId, final long at, final BigDecimal amount, final BigDecimal dailyLimit) {
+        final SlidingWindowCounter counter = counters.get(cardId);
+        final BigDecimal local = counter != null ? counter.total(at) : BigDecimal.ZERO;
+        if (local.add(amount).compareTo(dailyLimit.multiply(dbCheckRatio)) <= 0) {
+            return;
+        }
+
+        final long oldestBucket = Math.floorDiv(at, BUCKET.toMillis()) * BUCKET.toMillis() - WINDOW.toMillis() + BUCKET.toMillis();
+        final BigDecimal stored = cardSpendBucketRepository.sumSpendSince(cardId, toDateTime(oldestBucket));
+        if (stored.add(amount).compareTo(dailyLimit) > 0) {
+            log.warn("Transfer from card {} rejected: daily limit {} exceeded across nodes (spent {})",
+                    cardId, dailyLimit, stored);
+            throw new CardLimitExceeded("Amount exceeds daily limit {} of card {}", dailyLimit, cardId);
+        }
+    }
+
+    /**
+     * Лимиты карты и сумма переводов за скользящие сутки, администратором.
+     * @param cardId ID карты
+     * @return лимиты карты
+     * @throws CardNotFound если карта не найдена
+     */
+    @DataSourcePool(PoolType.ADMIN)
+    public CardLimitDTO getLimits(@ShardKey(ShardKey.Kind.CARD) final UUID cardId) {
+        validateCardExists(cardId);
+        return withSpent(findLimits(cardId));
+    }
+
+    /**
+     * Задаёт лимиты карты, администратором. Пустые значения возвращают лимиты по умолчанию.
+     * @param cardId ID карты
+     * @param request новые лимиты
+     * @return лимиты карты
+     * @throws CardNotFound если карта не найдена
+     */
+    @DataSourcePool(PoolType.ADMIN)
+    @Transactional
+    public CardLimitDTO setLimits(@ShardKey(ShardKey.Kind.CARD) final UUID cardId, final CardLimitRequest request) {
+        log.info("Admin sets limits of card {}: daily={} perTransaction={}",
+                cardId, request.getDailyLimit(), request.getPerTransactionLimit());
+        validateCardExists(cardId);
+
+        if (request.getDailyLimit() == null && request.getPerTransactionLimit() == null) {
+            cardLimitRepository.deleteById(cardId);
+        } else {
+            cardLimitRepository.save(CardLimit.builder()
+                    .cardId(cardId)
+                    .dailyLimit(request.getDailyLimit())
+                    .perTransactionLimit(request.getPerTransactionLimit())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        cacheInvalidationBus.invalidate(CacheNames.CARD_LIMITS, cardId);
+
+        return withSpent(CardLimitDTO.builder()
+                .cardId(cardId)
+                .dailyLimit(orDefault(request.getDailyLimit(), defaultDailyLimit))
+                .perTransactionLimit(orDefault(request.getPerTransactionLimit(), defaultPerTransactionLimit))
+                .build());
+    }
+
+    /**
+     * Удаляет счётчики карт, по которым за окно не было переводов.
+     */
+    public void dropIdleCounters() {
+        final long now = toMillis(LocalDateTime.now());
+        counters.keySet().forEach(cardId ->
+                counters.computeIfPresent(cardId, (id, counter) -> counter.isEmpty(now) ? null : counter));
+    }
+
+    private CardLimitDTO findLimits(final UUID cardId) {
+        return cardLimitCache.get(cardId, () -> {
+            final CardLimit custom = cardLimitRepository.findById(cardId).orElse(null);
+            return CardLimitDTO.builder()
+                    .cardId(cardId)
+                    .dailyLimit(orDefault(custom != null ? custom.getDailyLimit() : null, defaultDailyLimit))
+                    .perTransactionLimit(orDefault(
+                            custom != null ? custom.getPerTransactionLimit() : null, defaultPerTransactionLimit))
+                    .build();
+        });
+    }
+
+    private CardLimitDTO withSpent(final CardLimitDTO limits) {
+        final SlidingWindowCounter counter = counters.get(limits.getCardId());
+        return limits.toBuilder()
+                .dailySpent(counter != null ? counter.total(toMillis(LocalDateTime.now())) : BigDecimal.ZERO)
+                .build();
+    }
+
+    private void validateCardExists(final UUID cardId) {
+        if (!cardRepository.existsById(cardId)) {
+            log.warn("Card not found: {}", cardId);
+            throw new CardNotFound("Card with id {} not found", cardId);
+        }
+    }
+
+    private SlidingWindowCounter counter(final UUID cardId) {
+        return counters.computeIfAbsent(cardId, id -> newCounter());
+    }
+
+    private static SlidingWindowCounter newCounter() {
+        return new SlidingWindowCounter(WINDOW, BUCKET);
+    }
+
+    private static BigDecimal orDefault(final BigDecimal value, final BigDecimal defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    // Время переводов хранится в LocalDateTime, как и остальные даты приложения
+    private static long toMillis(final LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(final long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L), 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,87 @@
+package com.bortnik.bank_rest.service.card;
+
+import com.bortnik.bank_rest.config.datasource.ShardContext;
+import com.bortnik.bank_rest.config.datasource.ShardKey;
+import com.bortnik.bank_rest.dto.card.CardChangesDTO;
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.entity.Card;
+import com.bortnik.bank_rest.exception.BadRequest;
+import com.bortnik.bank_rest.exception.card.SyncTokenExpired;
+import com.bortnik.bank_rest.repository.CardRepository;
+import com.bortnik.bank_rest.repository.CardTombstoneRepository;
+import com.bortnik.bank_rest.util.SyncToken;
+import com.bortnik.bank_rest.util.mappers.CardMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Дельта-синхронизация карт пользователя для клиентов, хранящих карты локально.
+ * <p>
+ * {@code updated_at} выставляется до коммита и по часам приложения, поэтому по нему нельзя понять,
+ * какие изменения клиент уже видел: долгая транзакция коммитится намного позже своей отметки.
+ * Токен хранит позицию в порядке коммитов шарда ({@link CardRepository#currentSyncXid()}), полученную
+ * до чтения карт: всё, что закоммичено позже, записано транзакциями с номером не меньше позиции.
+ * Изменения транзакций, шедших во время чтения, могут прийти повторно, клиент применяет их как upsert по ID карты.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardSyncService {
+
+    private final CardRepository cardRepository;
+    private final CardTombstoneRepository cardTombstoneRepository;
+
+    @Value("${app.cards.sync.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    /**
+     * Изменения карт пользователя после момента из токена.
+     * Без токена возвращаются все карты пользователя.
+     * @param userId ID пользователя
+     * @param since токен предыдущей синхронизации или {@code null}
+     * @return изменённые и удалённые карты и токен для следующего запроса
+     * @throws BadRequest если токен повреждён
+     * @throws SyncTokenExpired если токен старше срока хранения отметок об удалении
+     */
+    public CardChangesDTO getCardChanges(@ShardKey final UUID userId, final String since) {
+        final LocalDateTime now = LocalDateTime.now();
+        final SyncToken sinceToken = since != null ? SyncToken.decode(since) : null;
+        if (sinceToken != null && sinceToken.issuedAt().isBefore(now.minus(tombstoneRetention))) {
+            log.debug("Sync token of user {} is older than tombstone retention", userId);
+            throw new SyncTokenExpired("Sync token expired, full resync required");
+        }
+        if (sinceToken != null && sinceToken.shard() != ShardContext.current()) {
+            // Номера транзакций у каждого шарда свои
+            log.debug("Sync token of user {} was issued on shard {}", userId, sinceToken.shard());
+            throw new SyncTokenExpired("Sync token expired, full resync required");
+        }
+
+        // Позиция берётся до чтения карт: изменения, закоммиченные после неё, попадут в следующую дельту
+        final SyncToken next = new SyncToken(ShardContext.current(), cardRepository.currentSyncXid(), now);
+
+        if (sinceToken == null) {
+            return CardChangesDTO.builder()
+                    .cards(toDTOs(cardRepository.findAllByUserIdOrderByUpdatedAt(userId)))
+                    .deletedCardIds(List.of())
+                    .syncToken(next.encode())
+                    .build();
+        }
+
+        return CardChangesDTO.builder()
+                .cards(toDTOs(cardRepository.findAllByUserIdChangedSince(userId, sinceToken.xid())))
+                .deletedCardIds(cardTombstoneRepository.findCardIdsDeletedSince(userId, sinceToken.xid()))
+                .syncToken(next.encode())
+                .build();
+    }
+
+    private static List<CardDTO> toDTOs(final List<Card> cards) {
+        return cards.stream().map(CardMapper::toCardDTO).toList();
+    }
+}
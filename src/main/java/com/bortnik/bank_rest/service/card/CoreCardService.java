@@ -9,7 +9,6 @@ import com.bortnik.bank_rest.exception.user.UserNotFound;
 import com.bortnik.bank_rest.repository.CardRepository;
 import com.bortnik.bank_rest.service.UserService;
 import com.bortnik.bank_rest.util.mappers.CardMapper;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -39,7 +38,7 @@ public class CoreCardService {
      */
     public Page<CardDTO> findAllUserCards(final UUID userId, final Pageable pageable) {
         if (!userService.existsById(userId)) {
-            throw new UserNotFound("User with ID " + userId + " not found");
+            throw new UserNotFound("User with ID {} not found", userId);
         }
         return cardRepository.findAllByUserId(userId, pageable)
                 .map(CardMapper::toCardDTO);
@@ -58,7 +57,7 @@ public class CoreCardService {
             final Pageable pageable
     ) {
         if (!userService.existsById(userId)) {
-            throw new UserNotFound("User with ID " + userId + " not found");
+            throw new UserNotFound("User with ID {} not found", userId);
         }
         return cardRepository.findByUserIdAndStatus(userId, status, pageable)
                 .map(CardMapper::toCardDTO);
@@ -73,21 +72,21 @@ public class CoreCardService {
      * @throws CardBlocked если карта заблокирована
      * @throws CardExpired если карта истекла
      */
-    @Transactional
+    // Без своей транзакции: отказ внутри неё пометил бы транзакцию вызывающего rollback-only
     public void validateActiveCard(Card card) {
         if (card.getStatus() == CardStatus.BLOCKED) {
             log.warn("Attempt to use blocked card: {}", card.getId());
-            throw new CardBlocked("Card with ID " + card.getId() + " is blocked");
+            throw new CardBlocked("Card with ID {} is blocked", card.getId());
         }
         else if (card.getStatus() == CardStatus.EXPIRED) {
             log.warn("Attempt to use expired card: {}", card.getId());
-            throw new CardExpired("Card with ID " + card.getId() + " is expired");
+            throw new CardExpired("Card with ID {} is expired", card.getId());
         }
         else if (card.getExpirationDate().isBefore(LocalDate.now())) {
             log.warn("Card with ID {} has expired on {}", card.getId(), card.getExpirationDate());
             card.setStatus(CardStatus.EXPIRED);
             log.info("Updating status of card {} to EXPIRED", card.getId());
-            throw new CardExpired("Card with ID " + card.getId() + " has expired on " + card.getExpirationDate());
+            throw new CardExpired("Card with ID {} has expired on {}", card.getId(), card.getExpirationDate());
         }
     }
 }
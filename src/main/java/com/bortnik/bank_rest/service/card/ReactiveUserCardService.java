@@ -0,0 +1,92 @@
+package com.bortnik.bank_rest.service.card;
+
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.entity.CardStatus;
+import com.bortnik.bank_rest.exception.card.CardNotFound;
+import com.bortnik.bank_rest.exception.security.AccessError;
+import com.bortnik.bank_rest.exception.user.UserNotFound;
+import com.bortnik.bank_rest.repository.ReactiveCardRepository;
+import com.bortnik.bank_rest.repository.ReactiveUserRepository;
+import com.bortnik.bank_rest.util.mappers.CardMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Реактивный вариант чтения карт пользователя.
+ * Правила доступа те же, что в {@link UserCardService}: пользователь должен существовать
+ * и видит только свои карты.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveUserCardService {
+
+    private final ReactiveCardRepository reactiveCardRepository;
+    private final ReactiveUserRepository reactiveUserRepository;
+
+    /**
+     * Получение карт пользователя с пагинацией.
+     * @param userId ID пользователя запросившего карты
+     * @param status статус карты, {@code null} — все карты
+     * @param pageable параметры пагинации
+     * @return страница с картами пользователя
+     * @throws UserNotFound если пользователь не найден
+     */
+    public Mono<Page<CardDTO>> getAllUserCards(
+            final UUID userId,
+            final CardStatus status,
+            final Pageable pageable
+    ) {
+        return validateUserExists(userId)
+                .then(Mono.zip(
+                        reactiveCardRepository.findAllByUserId(userId, status, pageable)
+                                .map(CardMapper::toCardDTO)
+                                .collectList(),
+                        reactiveCardRepository.countByUserId(userId, status)
+                ))
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+
+    /**
+     * Получение карты по ID, пользователем.
+     * @param userId ID пользователя запросившего карту
+     * @param cardId ID карты
+     * @return информация о карте
+     * @throws CardNotFound если карта не найдена
+     * @throws UserNotFound если пользователь не найден
+     * @throws AccessError если карта не принадлежит пользователю
+     */
+    public Mono<CardDTO> getUserCardById(final UUID userId, final UUID cardId) {
+        return validateUserExists(userId)
+                .then(reactiveCardRepository.findById(cardId))
+                .switchIfEmpty(Mono.error(() -> {
+                    log.warn("Card not found: {}", cardId);
+                    return new CardNotFound("Card with number {} not found", cardId);
+                }))
+                .flatMap(card -> {
+                    if (!card.getUserId().equals(userId)) {
+                        log.warn("Access denied: user {} does not own card {}", userId, cardId);
+                        return Mono.error(new AccessError("User with ID {} does not own card with number {}", userId, cardId));
+                    }
+                    return Mono.just(CardMapper.toCardDTO(card));
+                });
+    }
+
+    private Mono<Void> validateUserExists(final UUID userId) {
+        return reactiveUserRepository.existsById(userId)
+                .flatMap(exists -> {
+                    if (!exists) {
+                        log.warn("User not found: {}", userId);
+                        return Mono.error(new UserNotFound("User with ID {} not found", userId));
+                    }
+                    return Mono.empty();
+                });
+    }
+}
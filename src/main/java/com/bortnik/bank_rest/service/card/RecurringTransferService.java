@@ -0,0 +1,287 @@
+package com.bortnik.bank_rest.service.card;
+
+import com.bortnik.bank_rest.config.datasource.ShardKey;
+import com.bortnik.bank_rest.dto.card.CardTransactionDTO;
+import com.bortnik.bank_rest.dto.card.RecurringTransferDTO;
+import com.bortnik.bank_rest.dto.card.RecurringTransferRequest;
+import com.bortnik.bank_rest.entity.Card;
+import com.bortnik.bank_rest.entity.RecurringTransfer;
+import com.bortnik.bank_rest.entity.RecurringTransferRunStatus;
+import com.bortnik.bank_rest.exception.BusinessException;
+import com.bortnik.bank_rest.exception.card.*;
+import com.bortnik.bank_rest.exception.security.AccessError;
+import com.bortnik.bank_rest.exception.user.UserNotFound;
+import com.bortnik.bank_rest.repository.CardRepository;
+import com.bortnik.bank_rest.repository.RecurringTransferRepository;
+import com.bortnik.bank_rest.service.UserService;
+import com.bortnik.bank_rest.util.mappers.RecurringTransferMapper;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Постоянные поручения пользователя.
+ * <p>
+ * Созревшие поручения исполняются пачками ({@link #executeDueBatch}), каждая пачка — одна транзакция:
+ * поручения блокируются {@code FOR UPDATE SKIP LOCKED}, затем сразу все их карты в порядке ID,
+ * переводы выполняются с проверками {@link UserCardService#internalTransfer}, и поручения переносятся
+ * на следующий срок. Отклонённый перевод (нет средств, карта заблокирована, превышен лимит) не откатывает пачку:
+ * все проверки выполняются до изменения балансов, поэтому поручение помечается {@code FAILED}
+ * и тоже переносится. Так же помечается поручение, перевод по которому упал с другой ошибкой
+ * (например, карта оказалась на другом шарде), чтобы оно не откатывало пачку при каждом запуске.
+ * Ошибка БД, прервавшая транзакцию, откатывает пачку целиком. Тогда поручения пачки исполняются
+ * по одному ({@link #executeOne}), а поручение, на котором транзакция снова упала, помечается {@code FAILED}
+ * в отдельной транзакции ({@link #markFailed}) и переносится: иначе оно первым попадало бы в каждую пачку
+ * и останавливало исполнение поручений шарда.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecurringTransferService {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final RecurringTransferRepository recurringTransferRepository;
+    private final CardRepository cardRepository;
+    private final UserService userService;
+    private final UserCardService userCardService;
+
+    /**
+     * Итоги пачки.
+     * @param processed исполненные поручения
+     * @param failed поручения, перевод по которым отклонён
+     */
+    public record BatchResult(int processed, int failed) {
+    }
+
+    /**
+     * Создание постоянного поручения пользователем.
+     * Карты проверяются сейчас, а баланс, статус и лимиты — при каждом исполнении.
+     * @param userId ID пользователя
+     * @param request карты, сумма, периодичность и время первого исполнения
+     * @return созданное поручение
+     * @throws CardsAreTheSame если карты совпадают
+     * @throws IncorrectAmount если сумма некорректна
+     * @throws CardNotFound если одна из карт не найдена
+     * @throws AccessError если пользователь не владеет одной из карт
+     * @throws UserNotFound если пользователь не найден
+     */
+    @Transactional
+    public RecurringTransferDTO createRecurringTransfer(@ShardKey final UUID userId, final RecurringTransferRequest request) {
+        log.info("Recurring transfer requested: from={} to={} amount={} frequency={} user={}",
+                request.getFromCardId(), request.getToCardId(), request.getAmount(), request.getFrequency(), userId);
+
+        validateUserExists(userId);
+        if (request.getFromCardId().equals(request.getToCardId())) {
+            log.warn("Recurring transfer rejected: cards are the same (cardId={})", request.getFromCardId());
+            throw new CardsAreTheSame("Cards are can't be the same");
+        }
+        if (request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            log.warn("Recurring transfer rejected: incorrect amount {} from user {}", request.getAmount(), userId);
+            throw new IncorrectAmount("Amount must be positive");
+        }
+        validateCardOwnedByUser(userId, request.getFromCardId());
+        validateCardOwnedByUser(userId, request.getToCardId());
+
+        final LocalDateTime firstRunAt = request.getFirstRunAt() != null ? request.getFirstRunAt() : LocalDateTime.now();
+        final RecurringTransfer saved = recurringTransferRepository.save(RecurringTransfer.builder()
+                .userId(userId)
+                .fromCardId(request.getFromCardId())
+                .toCardId(request.getToCardId())
+                .amount(request.getAmount())
+                .frequency(request.getFrequency())
+                .firstRunAt(firstRunAt)
+                .occurrence(0)
+                .nextRunAt(firstRunAt)
+                .build());
+
+        log.info("Recurring transfer {} created, first run at {}", saved.getId(), firstRunAt);
+        return RecurringTransferMapper.toRecurringTransferDTO(saved);
+    }
+
+    /**
+     * Постоянные поручения пользователя с результатом последнего исполнения.
+     * @param userId ID пользователя
+     * @param pageable параметры пагинации
+     * @return страница поручений
+     * @throws UserNotFound если пользователь не найден
+     */
+    public Page<RecurringTransferDTO> getRecurringTransfers(@ShardKey final UUID userId, final Pageable pageable) {
+        validateUserExists(userId);
+        return recurringTransferRepository.findAllByUserId(userId, pageable)
+                .map(RecurringTransferMapper::toRecurringTransferDTO);
+    }
+
+    /**
+     * Отмена постоянного поручения пользователем.
+     * @param userId ID пользователя
+     * @param recurringTransferId ID поручения
+     * @throws RecurringTransferNotFound если у пользователя нет такого поручения
+     */
+    @Transactional
+    public void cancelRecurringTransfer(@ShardKey final UUID userId, final UUID recurringTransferId) {
+        final RecurringTransfer recurringTransfer = recurringTransferRepository
+                .findByIdAndUserId(recurringTransferId, userId)
+                .orElseThrow(() -> {
+                    log.warn("Recurring transfer {} of user {} not found", recurringTransferId, userId);
+                    return new RecurringTransferNotFound("Recurring transfer with id {} not found", recurringTransferId);
+                });
+
+        recurringTransferRepository.delete(recurringTransfer);
+        log.info("Recurring transfer {} cancelled by user {}", recurringTransferId, userId);
+    }
+
+    /**
+     * Исполняет до {@code limit} созревших поручений текущего шарда в одной транзакции.
+     * @param now время запуска: поручения со сроком позже не исполняются
+     * @param limit размер пачки
+     * @return итоги пачки, {@code processed < limit} — созревших поручений больше нет
+     */
+    @Transactional
+    public BatchResult executeDueBatch(final LocalDateTime now, final int limit) {
+        final List<RecurringTransfer> batch = recurringTransferRepository.lockDueBatch(now, limit);
+        if (!batch.isEmpty()) {
+            // Карты всей пачки блокируются сразу и в порядке ID: пачки с общими картами не ждут друг друга по кругу
+            cardRepository.findAllByIdForUpdate(batch.stream()
+                    .flatMap(recurringTransfer -> Stream.of(recurringTransfer.getFromCardId(), recurringTransfer.getToCardId()))
+                    .distinct()
+                    .toList());
+        }
+        int failed = 0;
+        for (RecurringTransfer recurringTransfer : batch) {
+            if (!execute(recurringTransfer, now)) {
+                failed++;
+            }
+        }
+        return new BatchResult(batch.size(), failed);
+    }
+
+    /**
+     * ID созревших поручений текущего шарда в порядке исполнения.
+     * @param now время запуска
+     * @param limit максимальное число поручений
+     * @return ID поручений
+     */
+    public List<UUID> findDueIds(final LocalDateTime now, final int limit) {
+        return recurringTransferRepository.findDueIds(now, limit);
+    }
+
+    /**
+     * Исполняет одно созревшее поручение в отдельной транзакции.
+     * @param recurringTransferId ID поручения
+     * @param now время запуска
+     * @return итоги, пустые, если поручение уже исполнено, удалено или заблокировано другим узлом
+     */
+    @Transactional
+    public BatchResult executeOne(final UUID recurringTransferId, final LocalDateTime now) {
+        return recurringTransferRepository.lockDueById(recurringTransferId, now)
+                .map(recurringTransfer -> {
+                    cardRepository.findAllByIdForUpdate(Stream.of(
+                            recurringTransfer.getFromCardId(), recurringTransfer.getToCardId()).distinct().toList());
+                    return new BatchResult(1, execute(recurringTransfer, now) ? 0 : 1);
+                })
+                .orElse(new BatchResult(0, 0));
+    }
+
+    /**
+     * Помечает поручение {@code FAILED} без перевода и переносит на следующий срок.
+     * Вызывается, если транзакция исполнения поручения откатилась.
+     * @param recurringTransferId ID поручения
+     * @param now время запуска
+     * @param error ошибка, откатившая транзакцию
+     * @return итоги, пустые, если поручение уже исполнено, удалено или заблокировано другим узлом
+     */
+    @Transactional
+    public BatchResult markFailed(final UUID recurringTransferId, final LocalDateTime now, final RuntimeException error) {
+        return recurringTransferRepository.lockDueById(recurringTransferId, now)
+                .map(recurringTransfer -> {
+                    log.error("Recurring transfer {} rolled back its transaction, marked as failed",
+                            recurringTransferId, error);
+                    fail(recurringTransfer, now, errorMessage(error));
+                    return new BatchResult(1, 1);
+                })
+                .orElse(new BatchResult(0, 0));
+    }
+
+    // Исполняет перевод по поручению и переносит его на следующий срок, false — перевод отклонён
+    private boolean execute(final RecurringTransfer recurringTransfer, final LocalDateTime now) {
+        try {
+            userCardService.transferInCurrentTransaction(CardTransactionDTO.builder()
+                    .fromCardId(recurringTransfer.getFromCardId())
+                    .toCardId(recurringTransfer.getToCardId())
+                    .amount(recurringTransfer.getAmount())
+                    .build(), recurringTransfer.getUserId());
+        } catch (BusinessException e) {
+            log.warn("Recurring transfer {} failed: {}", recurringTransfer.getId(), e.getMessage());
+            fail(recurringTransfer, now, errorMessage(e));
+            return false;
+        } catch (RuntimeException e) {
+            log.error("Recurring transfer {} failed unexpectedly", recurringTransfer.getId(), e);
+            fail(recurringTransfer, now, errorMessage(e));
+            return false;
+        }
+        recurringTransfer.setLastStatus(RecurringTransferRunStatus.SUCCEEDED);
+        recurringTransfer.setLastError(null);
+        recurringTransfer.setLastRunAt(now);
+        scheduleNextRun(recurringTransfer, now);
+        return true;
+    }
+
+    private static void fail(final RecurringTransfer recurringTransfer, final LocalDateTime now, final String error) {
+        recurringTransfer.setLastStatus(RecurringTransferRunStatus.FAILED);
+        recurringTransfer.setLastError(error);
+        recurringTransfer.setLastRunAt(now);
+        scheduleNextRun(recurringTransfer, now);
+    }
+
+    /**
+     * Переносит поручение на ближайший срок после {@code now}.
+     * Сроки, пропущенные, пока приложение не работало, не исполняются задним числом.
+     * @param recurringTransfer поручение
+     * @param now текущее время
+     */
+    private static void scheduleNextRun(final RecurringTransfer recurringTransfer, final LocalDateTime now) {
+        int occurrence = recurringTransfer.getOccurrence();
+        LocalDateTime nextRunAt;
+        do {
+            occurrence++;
+            nextRunAt = recurringTransfer.getFrequency().occurrence(recurringTransfer.getFirstRunAt(), occurrence);
+        } while (!nextRunAt.isAfter(now));
+        recurringTransfer.setOccurrence(occurrence);
+        recurringTransfer.setNextRunAt(nextRunAt);
+    }
+
+    // Сообщение обрезается до размера колонки last_error
+    private static String errorMessage(final RuntimeException exception) {
+        final String message = exception.getMessage() != null ? exception.getMessage() : exception.getClass().getName();
+        return message != null && message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private void validateCardOwnedByUser(final UUID userId, final UUID cardId) {
+        final Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> {
+                    log.warn("Card not found: {}", cardId);
+                    return new CardNotFound("Card with number {} not found", cardId);
+                });
+        if (!card.getUserId().equals(userId)) {
+            log.warn("Access denied: user {} does not own card {}", userId, cardId);
+            throw new AccessError("User with ID {} does not own card with number {}", userId, cardId);
+        }
+    }
+
+    private void validateUserExists(final UUID userId) {
+        if (!userService.existsById(userId)) {
+            log.warn("User not found: {}", userId);
+            throw new UserNotFound("User with ID {} not found", userId);
+        }
+    }
+}
@@ -1,24 +1,33 @@
 package com.bortnik.bank_rest.service.card;
 
+import com.bortnik.bank_rest.config.datasource.ShardKey;
 import com.bortnik.bank_rest.dto.card.CardDTO;
 import com.bortnik.bank_rest.dto.card.CardTransactionDTO;
 import com.bortnik.bank_rest.entity.Card;
 import com.bortnik.bank_rest.entity.CardStatus;
+import com.bortnik.bank_rest.event.CardEvent;
+import com.bortnik.bank_rest.event.CardEventType;
 import com.bortnik.bank_rest.exception.card.*;
 import com.bortnik.bank_rest.exception.security.AccessError;
+import com.bortnik.bank_rest.exception.security.SuspiciousActivity;
 import com.bortnik.bank_rest.exception.user.UserNotFound;
+import com.bortnik.bank_rest.fraud.FraudScoringService;
+import com.bortnik.bank_rest.limiter.ConcurrencyLimited;
+import com.bortnik.bank_rest.metrics.BankMetrics;
 import com.bortnik.bank_rest.repository.CardRepository;
 import com.bortnik.bank_rest.service.UserService;
 import com.bortnik.bank_rest.util.mappers.CardMapper;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -32,6 +41,10 @@ public class UserCardService {
     private final CardRepository cardRepository;
     private final CoreCardService coreCardService;
     private final UserService userService;
+    private final BankMetrics bankMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CardLimitService cardLimitService;
+    private final FraudScoringService fraudScoringService;
 
     /**
      * Получение всех карт пользователя с пагинацией.
@@ -39,7 +52,7 @@ public class UserCardService {
      * @param pageable параметры пагинации
      * @return страница с картами пользователя
      */
-    public Page<CardDTO> getAllUserCards(final UUID userId, final Pageable pageable) {
+    public Page<CardDTO> getAllUserCards(@ShardKey final UUID userId, final Pageable pageable) {
         validateUserExists(userId);
         return coreCardService.findAllUserCards(userId, pageable);
     }
@@ -50,14 +63,17 @@ public class UserCardService {
      *
      * @param transactionDTO детали транзакции (ID карт и сумма перевода)
      * @throws InsufficientFunds если на исходной карте недостаточно средств
+     * @throws CardLimitExceeded если перевод превышает лимиты исходной карты
+     * @throws SuspiciousActivity если пользователь переводит или обращается к чужим картам слишком часто
      * @throws CardsAreTheSame если карты совпадают
      * @throws IncorrectAmount если сумма перевода некорректна
      * @throws CardNotFound если одна из карт не найдена
      * @throws UserNotFound если пользователь не найден
      * @throws AccessError если пользователь не владеет одной из карт
      */
+    @ConcurrencyLimited("transfer")
     @Transactional
-    public void internalTransfer(final CardTransactionDTO transactionDTO, final UUID userId) {
+    public void internalTransfer(final CardTransactionDTO transactionDTO, @ShardKey final UUID userId) {
         log.info("Internal transfer requested: from={} to={} amount={} user={}",
                 transactionDTO.getFromCardId(),
                 transactionDTO.getToCardId(),
@@ -65,6 +81,33 @@ public class UserCardService {
                 userId
         );
 
+        validateTransfer(transactionDTO, userId);
+        fraudScoringService.checkTransfer(userId);
+        executeTransfer(transactionDTO, userId);
+    }
+
+    /**
+     * Перевод в транзакции вызывающего кода с теми же проверками, что и {@link #internalTransfer},
+     * кроме ограничения конкурентности и проверки частоты: для исполнения постоянных поручений пачками.
+     * Все проверки выполняются до изменения балансов, поэтому после отказа транзакцию можно продолжать
+     * и зафиксировать остальные переводы пачки.
+     *
+     * @param transactionDTO детали транзакции (ID карт и сумма перевода)
+     * @param userId владелец обеих карт
+     * @throws InsufficientFunds если на исходной карте недостаточно средств
+     * @throws CardLimitExceeded если перевод превышает лимиты исходной карты
+     * @throws CardsAreTheSame если карты совпадают
+     * @throws IncorrectAmount если сумма перевода некорректна
+     * @throws CardNotFound если одна из карт не найдена
+     * @throws UserNotFound если пользователь не найден
+     * @throws AccessError если пользователь не владеет одной из карт
+     */
+    public void transferInCurrentTransaction(final CardTransactionDTO transactionDTO, final UUID userId) {
+        validateTransfer(transactionDTO, userId);
+        executeTransfer(transactionDTO, userId);
+    }
+
+    private void validateTransfer(final CardTransactionDTO transactionDTO, final UUID userId) {
         validateUserExists(userId);
         if (transactionDTO.getFromCardId().equals(transactionDTO.getToCardId())) {
             log.warn("Transfer failed: cards are the same (cardId={})", transactionDTO.getFromCardId());
@@ -74,21 +117,39 @@ public class UserCardService {
             log.warn("Transfer failed: incorrect amount {} from user {}", transactionDTO.getAmount(), userId);
             throw new IncorrectAmount("Amount must be positive");
         }
+    }
+
+    private void executeTransfer(final CardTransactionDTO transactionDTO, final UUID userId) {
+        // Блокируем обе карты до чтения балансов, иначе параллельные переводы теряют обновления
+        cardRepository.findAllByIdForUpdate(List.of(transactionDTO.getFromCardId(), transactionDTO.getToCardId()));
 
         final Card fromCard = getCardOwnedByUser(userId, transactionDTO.getFromCardId());
         coreCardService.validateActiveCard(fromCard);
         final Card toCard = getCardOwnedByUser(userId, transactionDTO.getToCardId());
         coreCardService.validateActiveCard(toCard);
 
-        if (transactionDTO.getAmount().compareTo(fromCard.getBalance()) > 0) {
-            log.warn("Transfer failed: insufficient funds on card {} (balance={}, requested={})",
-                    fromCard.getId(), fromCard.getBalance(), transactionDTO.getAmount());
-            throw new InsufficientFunds("Insufficient funds on card " + transactionDTO.getFromCardId());
+        // Удержанные суммы переводить нельзя, даже если баланс их покрывает
+        if (transactionDTO.getAmount().compareTo(fromCard.getAvailableBalance()) > 0) {
+            log.warn("Transfer failed: insufficient funds on card {} (available={}, requested={})",
+                    fromCard.getId(), fromCard.getAvailableBalance(), transactionDTO.getAmount());
+            throw new InsufficientFunds("Insufficient funds on card {}", transactionDTO.getFromCardId());
         }
+        cardLimitService.reserve(fromCard.getId(), transactionDTO.getAmount());
 
-        // Изменения автоматически сохранятся благодаря @Transactional
+        // Изменения сохранятся при коммите транзакции
+        final LocalDateTime now = LocalDateTime.now();
         fromCard.setBalance(fromCard.getBalance().subtract(transactionDTO.getAmount()));
+        fromCard.setUpdatedAt(now);
         toCard.setBalance(toCard.getBalance().add(transactionDTO.getAmount()));
+        toCard.setUpdatedAt(now);
+        bankMetrics.recordTransfer(transactionDTO.getAmount());
+        eventPublisher.publishEvent(CardEvent.builder()
+                .type(CardEventType.TRANSFER)
+                .cardId(fromCard.getId())
+                .userId(userId)
+                .relatedCardId(toCard.getId())
+                .amount(transactionDTO.getAmount())
+                .build());
 
         log.info("Transfer success: {} -> {} amount={}",
                 fromCard.getId(),
@@ -111,7 +172,7 @@ public class UserCardService {
      */
     @Transactional
     public CardDTO blockCard(
-            final UUID userId,
+            @ShardKey final UUID userId,
             final UUID cardId
     ) {
         log.info("Block card request: user={} card={}", userId, cardId);
@@ -130,6 +191,11 @@ public class UserCardService {
 
         card.setStatus(CardStatus.BLOCKED);
         card.setUpdatedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(CardEvent.builder()
+                .type(CardEventType.BLOCKED)
+                .cardId(cardId)
+                .userId(userId)
+                .build());
 
         log.info("Card {} successfully blocked by user {}", cardId, userId);
 
@@ -147,7 +213,7 @@ public class UserCardService {
      * @throws AccessError если пользователь не владеет одной из карт
      */
     public CardDTO getUserCardById(
-            final UUID userId,
+            @ShardKey final UUID userId,
             final UUID cardId
     ) {
         validateUserExists(userId);
@@ -164,7 +230,7 @@ public class UserCardService {
      * @throws UserNotFound если пользователь не найден
      */
     public Page<CardDTO> getCardsByUserIdAndStatus(
-            final UUID userId,
+            @ShardKey final UUID userId,
             final CardStatus status,
             final Pageable pageable
     ) {
@@ -189,12 +255,13 @@ public class UserCardService {
         final Card card = cardRepository.findById(cardId)
                 .orElseThrow(() -> {
                     log.warn("Card not found: {}", cardId);
-                    return new CardNotFound("Card with number " + cardId + " not found");
+                    return new CardNotFound("Card with number {} not found", cardId);
                 });
 
         if (!card.getUserId().equals(userId)) {
             log.warn("Access denied: user {} does not own card {}", userId, cardId);
-            throw new AccessError("User with ID " + userId + " does not own card with number " + cardId);
+            fraudScoringService.recordAccessError(userId);
+            throw new AccessError("User with ID {} does not own card with number {}", userId, cardId);
         }
 
         return card;
@@ -208,7 +275,7 @@ public class UserCardService {
     private void validateUserExists(final UUID userId) {
         if (!userService.existsById(userId)) {
             log.warn("User not found: {}", userId);
-            throw new UserNotFound("User with ID " + userId + " not found");
+            throw new UserNotFound("User with ID {} not found", userId);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,190 @@
+package com.bortnik.bank_rest.sse;
+
+import com.bortnik.bank_rest.config.datasource.DataSourcePool;
+import com.bortnik.bank_rest.config.datasource.PoolType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Рассылка изменённых карт всем узлам кластера через PostgreSQL {@code NOTIFY}.
+ * <p>
+ * Outbox-событие забирает из БД только один узел, а подписчики SSE подключены к разным узлам,
+ * поэтому ID изменённых карт ставятся в очередь, а раз в {@code app.sse.notify-interval} отправляются
+ * через {@code pg_notify} в шард 0: повторяющиеся карты схлопываются, карты раскладываются по уведомлениям
+ * не больше {@value #MAX_PAYLOAD_BYTES} байт. Уведомления получают все узлы, включая отправителя,
+ * их принимает {@link CardStreamNotificationListener}.
+ * <p>
+ * Доставка не гарантирована: изменения, не дошедшие до узла, клиент дочитает через дельта-синхронизацию
+ * при переподключении. Метрики: {@code bank.sse.notifications.sent} и {@code bank.sse.notifications.received}.
+ */
+@Component
+@Slf4j
+public class CardStreamBus {
+
+    public static final String CHANNEL = "bank_card_stream";
+
+    // Лимит PostgreSQL на payload NOTIFY — 8000 байт, оставляем запас на служебные поля
+    static final int MAX_PAYLOAD_BYTES = 7_000;
+
+    // UUID в кавычках и разделитель
+    private static final int ID_BYTES = 39;
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final Counter notificationsSent;
+    private final Counter notificationsReceived;
+
+    // Изменённые карты по шарду и владельцу; набор меняется только внутри compute, поэтому не теряется при drain
+    private final Map<ShardUser, Set<UUID>> pending = new ConcurrentHashMap<>();
+
+    public CardStreamBus(final DataSource dataSource, final ObjectMapper objectMapper, final MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.notificationsSent = Counter.builder("bank.sse.notifications.sent")
+                .description("Card update notifications sent to all nodes")
+                .register(meterRegistry);
+        this.notificationsReceived = Counter.builder("bank.sse.notifications.received")
+                .description("Card update notifications received by this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ставит изменённые карты пользователей в очередь рассылки.
+     * @param shard шард, на котором хранятся карты
+     * @param changes изменённые карты по ID владельца
+     */
+    public void publish(final int shard, final Map<UUID, Set<UUID>> changes) {
+        changes.forEach((userId, cardIds) -> pending.compute(new ShardUser(shard, userId), (key, queued) -> {
+            final Set<UUID> cards = queued != null ? queued : new HashSet<>();
+            cards.addAll(cardIds);
+            return cards;
+        }));
+    }
+
+    /**
+     * Отправляет накопленные изменения всем узлам.
+     */
+    @DataSourcePool(PoolType.NOTIFY)
+    @Scheduled(fixedDelayString = "${app.sse.notify-interval:PT0.1S}")
+    public void flush() {
+        final List<String> payloads = drain();
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (String payload : payloads) {
+                statement.setString(1, CHANNEL);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+            notificationsSent.increment(payloads.size());
+            log.debug("Card stream notifications sent: {}", payloads.size());
+        } catch (SQLException e) {
+            // Изменения не возвращаются в очередь: клиенты дочитают их при переподключении
+            log.warn("Failed to send card stream notifications: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Разбирает уведомление, полученное от любого узла.
+     * @param payload содержимое уведомления
+     * @return изменения или пустое значение, если уведомление не удалось разобрать
+     */
+    Optional<Notification> parse(final String payload) {
+        try {
+            final JsonNode notification = objectMapper.readTree(payload);
+            final Map<UUID, Set<UUID>> changes = new HashMap<>();
+            notification.path("users").properties().forEach(user -> {
+                final Set<UUID> cardIds = new HashSet<>();
+                user.getValue().forEach(cardId -> cardIds.add(UUID.fromString(cardId.asText())));
+                changes.put(UUID.fromString(user.getKey()), cardIds);
+            });
+            notificationsReceived.increment();
+            return Optional.of(new Notification(notification.path("shard").asInt(), changes));
+        } catch (Exception e) {
+            log.warn("Malformed card stream notification ignored: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // Забирает очередь и раскладывает карты по уведомлениям не больше MAX_PAYLOAD_BYTES
+    List<String> drain() {
+        final Map<Integer, Map<UUID, Set<UUID>>> byShard = new HashMap<>();
+        for (ShardUser key : pending.keySet()) {
+            final Set<UUID> cardIds = pending.remove(key);
+            if (cardIds != null) {
+                byShard.computeIfAbsent(key.shard(), shard -> new HashMap<>()).put(key.userId(), cardIds);
+            }
+        }
+
+        final List<String> payloads = new ArrayList<>();
+        byShard.forEach((shard, users) -> {
+            ObjectNode notification = notification(shard);
+            int size = 0;
+            for (Map.Entry<UUID, Set<UUID>> user : users.entrySet()) {
+                ArrayNode cards = null;
+                for (UUID cardId : user.getValue()) {
+                    // Первая карта пользователя в уведомлении добавляет и его ID
+                    final int cardSize = cards == null ? 2 * ID_BYTES + 4 : ID_BYTES;
+                    if (size > 0 && size + cardSize > MAX_PAYLOAD_BYTES) {
+                        payloads.add(notification.toString());
+                        notification = notification(shard);
+                        size = 0;
+                        cards = null;
+                    }
+                    if (cards == null) {
+                        cards = ((ObjectNode) notification.get("users")).putArray(user.getKey().toString());
+                        size += ID_BYTES + 4;
+                    }
+                    cards.add(cardId.toString());
+                    size += ID_BYTES;
+                }
+            }
+            if (size > 0) {
+                payloads.add(notification.toString());
+            }
+        });
+        return payloads;
+    }
+
+    private ObjectNode notification(final int shard) {
+        final ObjectNode notification = objectMapper.createObjectNode();
+        notification.put("shard", shard);
+        notification.putObject("users");
+        return notification;
+    }
+
+    /**
+     * Изменённые карты из одного уведомления.
+     * @param shard шард, на котором хранятся карты
+     * @param changes изменённые карты по ID владельца
+     */
+    record Notification(int shard, Map<UUID, Set<UUID>> changes) {
+    }
+
+    private record ShardUser(int shard, UUID userId) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.bortnik.bank_rest.sse;
+
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.outbox.OutboxBatchDelivered;
+import com.bortnik.bank_rest.outbox.OutboxMessage;
+import com.bortnik.bank_rest.repository.CardRepository;
+import com.bortnik.bank_rest.util.mappers.CardMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Рассылает изменения карт из outbox их владельцам по SSE на всех узлах кластера.
+ * <p>
+ * Доставленная пачка outbox (при любом издателе) превращается в ID изменённых карт по владельцам
+ * и после коммита relay уходит всем узлам через {@link CardStreamBus}. Получив уведомление,
+ * узел выполняет не больше одного запроса к БД: читаются только карты пользователей,
+ * подключённых к этому узлу, и каждая карта отправляется один раз в актуальном состоянии,
+ * сколько бы событий по ней ни пришло.
+ * Ошибка рассылки не возвращает пачку в outbox — клиенты дочитают данные при переподключении.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CardStreamListener {
+
+    private final CardStreamRegistry cardStreamRegistry;
+    private final CardRepository cardRepository;
+    private final CardStreamBus cardStreamBus;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+
+    @TransactionalEventListener
+    public void onOutboxBatch(final OutboxBatchDelivered batch) {
+        final Map<UUID, Set<UUID>> changes = changedCards(batch.getMessages());
+        if (!changes.isEmpty()) {
+            cardStreamBus.publish(batch.getShard(), changes);
+        }
+    }
+
+    /**
+     * Отправляет изменённые карты подписчикам этого узла.
+     * @param shard шард, на котором хранятся карты
+     * @param changes изменённые карты по ID владельца
+     */
+    public void push(final int shard, final Map<UUID, Set<UUID>> changes) {
+        try {
+            final Set<UUID> cardIds = changes.entrySet().stream()
+                    .filter(user -> cardStreamRegistry.hasSubscribers(user.getKey()))
+                    .flatMap(user -> user.getValue().stream())
+                    .collect(Collectors.toSet());
+            if (cardIds.isEmpty()) {
+                return;
+            }
+
+            final Map<UUID, List<CardDTO>> cardsByUser = shardRouter.onShard(shard, () ->
+                    cardRepository.findAllById(cardIds)).stream()
+                    .map(CardMapper::toCardDTO)
+                    .collect(Collectors.groupingBy(CardDTO::getUserId));
+            cardsByUser.forEach(cardStreamRegistry::push);
+        } catch (RuntimeException e) {
+            log.warn("Failed to stream card updates: {}", e.getMessage());
+        }
+    }
+
+    private Map<UUID, Set<UUID>> changedCards(final List<OutboxMessage> messages) {
+        final Map<UUID, Set<UUID>> changes = new HashMap<>();
+        for (OutboxMessage message : messages) {
+            final JsonNode payload = readPayload(message);
+            final UUID userId = payload == null ? null : uuid(payload, "userId");
+            if (userId == null) {
+                continue;
+            }
+            final Set<UUID> cardIds = changes.computeIfAbsent(userId, key -> new HashSet<>());
+            cardIds.add(message.getAggregateId());
+            final UUID relatedCardId = uuid(payload, "relatedCardId");
+            if (relatedCardId != null) {
+                cardIds.add(relatedCardId);
+            }
+        }
+        return changes;
+    }
+
+    private JsonNode readPayload(final OutboxMessage message) {
+        try {
+            return objectMapper.readTree(message.getPayload());
+        } catch (IOException e) {
+            log.warn("Skipping outbox event {} with unreadable payload: {}", message.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static UUID uuid(final JsonNode payload, final String field) {
+        final JsonNode value = payload.get(field);
+        return value == null || value.isNull() ? null : UUID.fromString(value.asText());
+    }
+}
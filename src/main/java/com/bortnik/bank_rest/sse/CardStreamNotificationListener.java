@@ -0,0 +1,101 @@
+package com.bortnik.bank_rest.sse;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Принимает уведомления {@link CardStreamBus} на выделенном соединении с БД (шард 0)
+ * и передаёт их {@link CardStreamListener} для рассылки подписчикам этого узла.
+ * <p>
+ * {@code LISTEN} держит соединение всё время работы узла, поэтому оно открывается напрямую,
+ * а не берётся из пулов HikariCP. При обрыве соединение открывается заново через
+ * {@code app.sse.reconnect-delay}; изменения, пришедшие без подписки, клиенты дочитают при переподключении.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CardStreamNotificationListener {
+
+    private final CardStreamBus cardStreamBus;
+    private final CardStreamListener cardStreamListener;
+    private final DataSourceProperties dataSourceProperties;
+
+    @Value("${app.sse.poll-timeout:PT5S}")
+    private Duration pollTimeout;
+
+    @Value("${app.sse.reconnect-delay:PT5S}")
+    private Duration reconnectDelay;
+
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    /**
+     * Запускает поток слушателя после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform()
+                .name("card-stream-listener")
+                .daemon()
+                .start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        final Thread listener = thread;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CardStreamBus.CHANNEL);
+                }
+                log.info("Listening for card updates on channel {}", CardStreamBus.CHANNEL);
+
+                final PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    final PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            cardStreamBus.parse(notification.getParameter()).ifPresent(changes ->
+                                    cardStreamListener.push(changes.shard(), changes.changes()));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Card stream listener disconnected, reconnecting in {}: {}", reconnectDelay, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
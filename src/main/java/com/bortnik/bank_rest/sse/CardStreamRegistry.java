@@ -0,0 +1,170 @@
+package com.bortnik.bank_rest.sse;
+
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Реестр SSE-подключений узла: по одному списку подключений на пользователя.
+ * <p>
+ * Рассылка только ставит изменения в очереди подписчиков, отправка идёт на виртуальных потоках,
+ * поэтому поток, доставивший событие, не ждёт клиентов. Периодический heartbeat не даёт
+ * прокси закрыть простаивающее подключение и заодно выявляет отвалившихся клиентов.
+ * Клиент, который дольше {@code app.sse.send-timeout} не принимает данные, отключается.
+ * <p>
+ * Метрики: {@code bank.sse.connections} и {@code bank.sse.dropped} (тег {@code reason}).
+ */
+@Component
+@Slf4j
+public class CardStreamRegistry {
+
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(3);
+
+    private final Map<UUID, List<CardStreamSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter droppedOverflow;
+    private final Counter droppedStalled;
+
+    @Value("${app.sse.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${app.sse.send-timeout:PT30S}")
+    private Duration sendTimeout;
+
+    @Value("${app.sse.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${app.sse.max-pending-cards:100}")
+    private int maxPendingCards;
+
+    public CardStreamRegistry(final MeterRegistry meterRegistry) {
+        Gauge.builder("bank.sse.connections", connections, AtomicInteger::get)
+                .description("Open card update streams on this node")
+                .register(meterRegistry);
+        this.droppedOverflow = dropped(meterRegistry, "overflow");
+        this.droppedStalled = dropped(meterRegistry, "stalled");
+    }
+
+    private static Counter dropped(final MeterRegistry meterRegistry, final String reason) {
+        return Counter.builder("bank.sse.dropped")
+                .description("Card update streams closed because the client could not keep up")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Открывает поток изменений карт пользователя.
+     * Сверх {@code app.sse.max-connections-per-user} закрывается самое старое подключение.
+     * @param userId ID пользователя
+     * @return SSE-подключение
+     */
+    public SseEmitter subscribe(final UUID userId) {
+        final SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        final CardStreamSubscriber subscriber =
+                new CardStreamSubscriber(userId, emitter, executor, maxPendingCards, this::remove);
+
+        // Добавление атомарно с удалением пустого списка в remove
+        final List<CardStreamSubscriber> userSubscribers = subscribers.compute(userId, (id, current) -> {
+            final List<CardStreamSubscriber> list = current != null ? current : new CopyOnWriteArrayList<>();
+            list.add(subscriber);
+            return list;
+        });
+        connections.incrementAndGet();
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        if (userSubscribers.size() > maxConnectionsPerUser) {
+            log.debug("User {} exceeded {} card streams, closing the oldest", userId, maxConnectionsPerUser);
+            userSubscribers.getFirst().close();
+        }
+
+        try {
+            // Подтверждение подключения и интервал переподключения для EventSource
+            emitter.send(SseEmitter.event().comment("connected").reconnectTime(RECONNECT_DELAY.toMillis()));
+        } catch (IOException e) {
+            subscriber.close();
+        }
+        log.debug("User {} subscribed to card updates", userId);
+        return emitter;
+    }
+
+    /**
+     * @param userId ID пользователя
+     * @return {@code true}, если у пользователя есть открытые подключения на этом узле
+     */
+    public boolean hasSubscribers(final UUID userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    /**
+     * Отправляет новые состояния карт всем подключениям пользователя.
+     * @param userId ID владельца карт
+     * @param cards новые состояния карт
+     */
+    public void push(final UUID userId, final Collection<CardDTO> cards) {
+        final List<CardStreamSubscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null || cards.isEmpty()) {
+            return;
+        }
+        for (CardStreamSubscriber subscriber : userSubscribers) {
+            if (!subscriber.enqueue(cards)) {
+                log.debug("Card stream of user {} overflowed, closing", userId);
+                droppedOverflow.increment();
+                subscriber.close();
+            }
+        }
+    }
+
+    /**
+     * Отправляет heartbeat простаивающим подключениям и закрывает зависшие.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+            if (subscriber.isStalled(sendTimeout)) {
+                log.debug("Card stream of user {} stalled, closing", subscriber.getUserId());
+                droppedStalled.increment();
+                subscriber.close();
+            } else {
+                subscriber.heartbeat();
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(CardStreamSubscriber::close));
+        executor.shutdown();
+    }
+
+    private void remove(final CardStreamSubscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.getUserId(), (userId, userSubscribers) -> {
+            if (userSubscribers.remove(subscriber)) {
+                connections.decrementAndGet();
+            }
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+}
@@ -0,0 +1,193 @@
+package com.bortnik.bank_rest.sse;
+
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Одно SSE-подключение пользователя.
+ * <p>
+ * Изменения копятся в очереди, где по каждой карте хранится только последнее состояние,
+ * и отправляются отдельной задачей на {@code executor}, поэтому медленный клиент не задерживает
+ * рассылку остальным. Пока предыдущая отправка не завершилась, новые изменения той же карты
+ * заменяют неотправленные. Если очередь переполнена, подключение закрывается:
+ * клиент переподключится и перечитает карты через {@code GET /api/cards/my}.
+ */
+@Slf4j
+class CardStreamSubscriber {
+
+    static final String CARD_EVENT = "card";
+
+    @Getter
+    private final UUID userId;
+    @Getter
+    private final SseEmitter emitter;
+    private final Executor executor;
+    private final int maxPending;
+    private final Consumer<CardStreamSubscriber> onClose;
+
+    // Последнее неотправленное состояние каждой карты в порядке первого изменения
+    private final Map<UUID, CardDTO> pending = new LinkedHashMap<>();
+    private boolean heartbeatDue;
+    private boolean draining;
+    private boolean closed;
+    // Время начала текущей отправки, 0 — отправки нет
+    private volatile long sendingSince;
+
+    CardStreamSubscriber(
+            final UUID userId,
+            final SseEmitter emitter,
+            final Executor executor,
+            final int maxPending,
+            final Consumer<CardStreamSubscriber> onClose
+    ) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.executor = executor;
+        this.maxPending = maxPending;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Ставит изменения карт в очередь на отправку.
+     * @param cards новые состояния карт
+     * @return {@code false}, если подключение закрыто или очередь переполнена
+     */
+    boolean enqueue(final Collection<CardDTO> cards) {
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            for (CardDTO card : cards) {
+                pending.put(card.getId(), card);
+            }
+            if (pending.size() > maxPending) {
+                return false;
+            }
+            if (draining) {
+                return true;
+            }
+            draining = true;
+        }
+        executor.execute(this::drain);
+        return true;
+    }
+
+    /**
+     * Отправляет комментарий-heartbeat, если подключение простаивает.
+     * Пока идёт отправка изменений, heartbeat не нужен.
+     */
+    void heartbeat() {
+        synchronized (this) {
+            if (closed || draining) {
+                return;
+            }
+            heartbeatDue = true;
+            draining = true;
+        }
+        executor.execute(this::drain);
+    }
+
+    /**
+     * @param timeout допустимая длительность одной отправки
+     * @return {@code true}, если клиент не принимает данные дольше {@code timeout}
+     */
+    boolean isStalled(final Duration timeout) {
+        final long since = sendingSince;
+        return since != 0 && System.nanoTime() - since > timeout.toNanos();
+    }
+
+    /**
+     * Закрывает подключение, не дожидаясь отправки. Повторные вызовы ничего не делают.
+     * <p>
+     * {@link SseEmitter#complete()} ждёт ту же блокировку, что и {@code send()}, поэтому при зависшем клиенте
+     * завершение ответа выполняется на {@code executor}, а вызывающий поток (планировщик heartbeat
+     * или поток доставки уведомлений) сразу освобождается.
+     */
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+        }
+        onClose.accept(this);
+        try {
+            executor.execute(this::complete);
+        } catch (RejectedExecutionException e) {
+            log.debug("SSE stream of user {} left to the servlet container: {}", userId, e.getMessage());
+        }
+    }
+
+    private void complete() {
+        try {
+            emitter.complete();
+        } catch (RuntimeException e) {
+            log.debug("Failed to complete SSE stream of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            final List<CardDTO> cards;
+            final boolean ping;
+            synchronized (this) {
+                if (closed || (pending.isEmpty() && !heartbeatDue)) {
+                    draining = false;
+                    sendingSince = 0;
+                    return;
+                }
+                cards = new ArrayList<>(pending.values());
+                pending.clear();
+                ping = heartbeatDue;
+                heartbeatDue = false;
+                sendingSince = System.nanoTime();
+            }
+
+            try {
+                emitter.send(toEvents(cards, ping));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("SSE stream of user {} is gone: {}", userId, e.getMessage());
+                synchronized (this) {
+                    draining = false;
+                    sendingSince = 0;
+                }
+                close();
+                return;
+            }
+        }
+    }
+
+    // Все события пачки уходят одной записью в ответ с одним flush
+    private Set<ResponseBodyEmitter.DataWithMediaType> toEvents(final List<CardDTO> cards, final boolean ping) {
+        final Set<ResponseBodyEmitter.DataWithMediaType> events = new LinkedHashSet<>();
+        if (ping) {
+            events.addAll(SseEmitter.event().comment("heartbeat").build());
+        }
+        for (CardDTO card : cards) {
+            events.addAll(SseEmitter.event()
+                    .name(CARD_EVENT)
+                    .data(card, MediaType.APPLICATION_JSON)
+                    .build());
+        }
+        return events;
+    }
+}
@@ -0,0 +1,69 @@
+package com.bortnik.bank_rest.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одинаковых одновременных загрузок.
+ * <p>
+ * Первый вызов с ключом выполняет загрузку, остальные вызовы с тем же ключом, пришедшие до её окончания,
+ * ждут и получают тот же результат или то же исключение. После окончания загрузки ключ удаляется,
+ * и следующий вызов снова идёт в БД, так что результат не переживает запрос, который его загрузил.
+ * Возвращаемые значения общие для всех ожидающих, поэтому должны быть неизменяемыми.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значения
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Возвращает результат загрузки по ключу, присоединяясь к уже выполняющейся загрузке, если она есть.
+     * @param key ключ загрузки
+     * @param loader загрузка, выполняется в текущем потоке
+     * @return загруженное значение
+     */
+    public V execute(final K key, final Supplier<V> loader) {
+        final CompletableFuture<V> own = new CompletableFuture<>();
+        final CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            final V value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * @return число загрузок, выполняющихся сейчас
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V await(final CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Пробрасываем исходное исключение, чтобы обработчики ошибок видели тот же тип, что и у первого вызова
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.bortnik.bank_rest.util;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Сумма за скользящее окно времени, разбитое на интервалы (кольцевой буфер).
+ * <p>
+ * Каждый интервал хранит свою сумму, общая сумма окна поддерживается инкрементально,
+ * поэтому проверка и добавление стоят O(число интервалов) независимо от числа операций.
+ * Окно покрывает текущий неполный интервал и предыдущие, то есть от {@code window - bucket}
+ * до {@code window} назад. Время — миллисекунды, источник времени выбирает вызывающий код.
+ */
+public final class SlidingWindowCounter {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long bucketMillis;
+    private final long[] bucketIndexes;
+    private final BigDecimal[] sums;
+    private BigDecimal total = BigDecimal.ZERO;
+
+    public SlidingWindowCounter(final Duration window, final Duration bucket) {
+        this.bucketMillis = bucket.toMillis();
+        final int buckets = (int) (window.toMillis() / bucketMillis);
+        if (buckets < 1) {
+            throw new IllegalArgumentException("Window must contain at least one bucket");
+        }
+        this.bucketIndexes = new long[buckets];
+        this.sums = new BigDecimal[buckets];
+        Arrays.fill(bucketIndexes, EMPTY);
+        Arrays.fill(sums, BigDecimal.ZERO);
+    }
+
+    /**
+     * @param now текущее время
+     * @return сумма за окно
+     */
+    public synchronized BigDecimal total(final long now) {
+        expire(now);
+        return total;
+    }
+
+    /**
+     * Добавляет сумму, если с ней сумма за окно не превысит лимит.
+     * @param now текущее время
+     * @param amount сумма
+     * @param limit лимит окна, {@code null} — без лимита
+     * @return {@code true}, если сумма добавлена
+     */
+    public synchronized boolean tryAdd(final long now, final BigDecimal amount, final BigDecimal limit) {
+        expire(now);
+        if (limit != null && total.add(amount).compareTo(limit) > 0) {
+            return false;
+        }
+        add(now, amount);
+        return true;
+    }
+
+    /**
+     * Добавляет сумму в интервал момента {@code at}. Отрицательная сумма отменяет ранее добавленную.
+     * Если интервал уже вытеснен более новым, сумма не учитывается.
+     * @param at момент операции
+     * @param amount сумма
+     */
+    public synchronized void add(final long at, final BigDecimal amount) {
+        final long bucket = Math.floorDiv(at, bucketMillis);
+        final int slot = (int) Math.floorMod(bucket, (long) bucketIndexes.length);
+        if (bucketIndexes[slot] > bucket) {
+            return;
+        }
+        if (bucketIndexes[slot] != bucket) {
+            total = total.subtract(sums[slot]);
+            sums[slot] = BigDecimal.ZERO;
+            bucketIndexes[slot] = bucket;
+        }
+        sums[slot] = sums[slot].add(amount);
+        total = total.add(amount);
+    }
+
+    /**
+     * @param now текущее время
+     * @return {@code true}, если за окно ничего не накоплено
+     */
+    public synchronized boolean isEmpty(final long now) {
+        expire(now);
+        return total.signum() == 0;
+    }
+
+    /**
+     * @param at момент
+     * @return начало интервала, в который попадает момент
+     */
+    public long bucketStart(final long at) {
+        return Math.floorDiv(at, bucketMillis) * bucketMillis;
+    }
+
+    private void expire(final long now) {
+        final long oldest = Math.floorDiv(now, bucketMillis) - bucketIndexes.length + 1;
+        for (int slot = 0; slot < bucketIndexes.length; slot++) {
+            if (bucketIndexes[slot] != EMPTY && bucketIndexes[slot] < oldest) {
+                total = total.subtract(sums[slot]);
+                sums[slot] = BigDecimal.ZERO;
+                bucketIndexes[slot] = EMPTY;
+            }
+        }
+    }
+}
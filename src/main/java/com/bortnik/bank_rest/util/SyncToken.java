@@ -0,0 +1,71 @@
+package com.bortnik.bank_rest.util;
+
+import com.bortnik.bank_rest.exception.BadRequest;
+import com.bortnik.bank_rest.exception.card.SyncTokenExpired;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Непрозрачный токен дельта-синхронизации: позиция в порядке коммитов шарда, с которой клиенту нужны изменения.
+ * Внутри — шард, номер транзакции ({@code xid8}) и время выдачи в микросекундах от эпохи в base64url,
+ * клиенты не должны разбирать его сами.
+ * @param shard шард, на котором выдан токен
+ * @param xid позиция синхронизации (см. {@code CardRepository#currentSyncXid()})
+ * @param issuedAt время выдачи, по нему проверяется срок хранения отметок об удалении
+ */
+public record SyncToken(int shard, long xid, LocalDateTime issuedAt) {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * @return токен для следующего запроса изменений
+     */
+    public String encode() {
+        final long micros = ChronoUnit.MICROS.between(EPOCH, issuedAt);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((shard + "." + xid + "." + micros).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param token токен, выданный {@link #encode}
+     * @return позиция синхронизации
+     * @throws BadRequest если токен повреждён
+     * @throws SyncTokenExpired если токен выдан до перехода на позиции по порядку коммитов
+     */
+    public static SyncToken decode(final String token) {
+        final String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split("\\.", -1);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequest("Invalid sync token");
+        }
+        if (parts.length == 1 && isNumber(parts[0])) {
+            // Токен по времени изменения: по нему нельзя надёжно найти изменения долгих транзакций
+            throw new SyncTokenExpired("Sync token format is outdated, full resync required");
+        }
+        if (parts.length != 3 || !isNumber(parts[0]) || !isNumber(parts[1]) || !isNumber(parts[2])) {
+            throw new BadRequest("Invalid sync token");
+        }
+
+        try {
+            final long micros = Long.parseLong(parts[2]);
+            return new SyncToken(
+                    Integer.parseInt(parts[0]),
+                    Long.parseLong(parts[1]),
+                    LocalDateTime.ofEpochSecond(
+                            Math.floorDiv(micros, 1_000_000L),
+                            (int) Math.floorMod(micros, 1_000_000L) * 1_000,
+                            ZoneOffset.UTC));
+        } catch (RuntimeException e) {
+            throw new BadRequest("Invalid sync token");
+        }
+    }
+
+    private static boolean isNumber(final String value) {
+        return value.matches("-?\\d{1,19}");
+    }
+}
@@ -0,0 +1,56 @@
+package com.bortnik.bank_rest.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class UuidV7Generator {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Битов под счётчик внутри одной миллисекунды (поле rand_a в RFC 9562)
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final long VARIANT_RFC = 0x8000000000000000L;
+
+    // Последнее выданное значение: (unix millis << COUNTER_BITS) | counter
+    private static final AtomicLong LAST_TIMESTAMP = new AtomicLong();
+
+    private UuidV7Generator() {
+    }
+
+    /**
+     * Генерирует упорядоченный по времени UUID версии 7 (RFC 9562).
+     * Старшие 48 бит содержат unix-время в миллисекундах, следующие 12 бит — счётчик,
+     * поэтому значения, выданные одним процессом, строго возрастают даже в пределах одной миллисекунды.
+     * При переполнении счётчика метка времени сдвигается вперёд на 1 мс.
+     * @return новый UUIDv7
+     */
+    public static UUID generate() {
+        final long timestamp = LAST_TIMESTAMP.updateAndGet(previous -> {
+            final long now = System.currentTimeMillis() << COUNTER_BITS;
+            return now > previous ? now : previous + 1;
+        });
+
+        final long mostSigBits = ((timestamp >>> COUNTER_BITS) << 16)
+                | VERSION_7
+                | (timestamp & COUNTER_MASK);
+        final long leastSigBits = (RANDOM.nextLong() & VARIANT_MASK) | VARIANT_RFC;
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Извлекает метку времени из UUIDv7.
+     * @param uuid идентификатор версии 7
+     * @return unix-время создания в миллисекундах
+     * @throws IllegalArgumentException если UUID не версии 7
+     */
+    public static long extractTimestamp(final UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("UUID " + uuid + " is not version 7");
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,20 @@
+package com.bortnik.bank_rest.util.mappers;
+
+import com.bortnik.bank_rest.dto.card.CardHoldDTO;
+import com.bortnik.bank_rest.entity.CardHold;
+
+public class CardHoldMapper {
+
+    public static CardHoldDTO toCardHoldDTO(CardHold cardHold) {
+        return CardHoldDTO.builder()
+                .id(cardHold.getId())
+                .cardId(cardHold.getCardId())
+                .amount(cardHold.getAmount())
+                .capturedAmount(cardHold.getCapturedAmount())
+                .status(cardHold.getStatus())
+                .createdAt(cardHold.getCreatedAt())
+                .expiresAt(cardHold.getExpiresAt())
+                .settledAt(cardHold.getSettledAt())
+                .build();
+    }
+}
@@ -4,16 +4,58 @@ import com.bortnik.bank_rest.dto.card.CardDTO;
 import com.bortnik.bank_rest.entity.Card;
 
 public class CardMapper {
+
+    private static final String MASK_PREFIX = "**** **** **** ";
+
+    // Последних четырёх цифр всего 10 000 вариантов, поэтому маскированные номера создаются один раз
+    // и переиспользуются, а не собираются конкатенацией для каждой карты в ответе
+    private static final String[] MASKED_NUMBERS = new String[10_000];
+
     public static CardDTO toCardDTO(Card card) {
         return CardDTO.builder()
                 .id(card.getId())
                 .userId(card.getUserId())
-                .cardNumber("**** **** **** " + card.getLastFourDigits())
+                .cardNumber(maskedNumber(card.getLastFourDigits()))
                 .expirationDate(card.getExpirationDate())
                 .status(card.getStatus())
                 .balance(card.getBalance())
+                .availableBalance(card.getAvailableBalance())
                 .createdAt(card.getCreatedAt())
                 .updatedAt(card.getUpdatedAt())
                 .build();
     }
+
+    /**
+     * Маскированный номер карты вида {@code **** **** **** 1234}.
+     * @param lastFourDigits последние четыре цифры номера
+     * @return маскированный номер
+     */
+    public static String maskedNumber(final String lastFourDigits) {
+        final int index = digitsIndex(lastFourDigits);
+        if (index < 0) {
+            return MASK_PREFIX + lastFourDigits;
+        }
+        String masked = MASKED_NUMBERS[index];
+        if (masked == null) {
+            // Гонка безопасна: строки неизменяемы, в худшем случае одна и та же строка создастся дважды
+            masked = MASK_PREFIX + lastFourDigits;
+            MASKED_NUMBERS[index] = masked;
+        }
+        return masked;
+    }
+
+    private static int digitsIndex(final String lastFourDigits) {
+        if (lastFourDigits == null || lastFourDigits.length() != 4) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < 4; i++) {
+            final char c = lastFourDigits.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
 }
@@ -0,0 +1,23 @@
+package com.bortnik.bank_rest.util.mappers;
+
+import com.bortnik.bank_rest.dto.card.RecurringTransferDTO;
+import com.bortnik.bank_rest.entity.RecurringTransfer;
+
+public class RecurringTransferMapper {
+
+    public static RecurringTransferDTO toRecurringTransferDTO(RecurringTransfer recurringTransfer) {
+        return RecurringTransferDTO.builder()
+                .id(recurringTransfer.getId())
+                .fromCardId(recurringTransfer.getFromCardId())
+                .toCardId(recurringTransfer.getToCardId())
+                .amount(recurringTransfer.getAmount())
+                .frequency(recurringTransfer.getFrequency())
+                .firstRunAt(recurringTransfer.getFirstRunAt())
+                .nextRunAt(recurringTransfer.getNextRunAt())
+                .lastRunAt(recurringTransfer.getLastRunAt())
+                .lastStatus(recurringTransfer.getLastStatus())
+                .lastError(recurringTransfer.getLastError())
+                .createdAt(recurringTransfer.getCreatedAt())
+                .build();
+    }
+}
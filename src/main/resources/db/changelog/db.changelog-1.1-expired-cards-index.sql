@@ -0,0 +1,4 @@
+--liquibase formatted sql
+
+--changeset BortnikD:create-cards-expiration-date-partial-index
+CREATE INDEX idx_cards_expiration_date_not_expired ON cards (expiration_date) WHERE status <> 'EXPIRED';
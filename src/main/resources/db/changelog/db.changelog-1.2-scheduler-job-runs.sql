@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset BortnikD:create-scheduler-job-runs-table
+CREATE TABLE scheduler_job_runs
+(
+    job               VARCHAR(64) PRIMARY KEY,
+    last_completed_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    completed_by      VARCHAR(255)             NOT NULL
+);
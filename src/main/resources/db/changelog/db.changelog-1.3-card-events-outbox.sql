@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+--changeset BortnikD:create-card-events-outbox-table
+-- Доменные события карт, записанные в той же транзакции, что и изменение карты.
+-- Строки удаляются после доставки, поэтому таблица остаётся небольшой.
+CREATE TABLE card_events_outbox
+(
+    id           UUID PRIMARY KEY,
+    aggregate_id UUID                    NOT NULL,
+    event_type   VARCHAR(32)             NOT NULL,
+    payload      JSONB                   NOT NULL,
+    created_at   TIMESTAMP DEFAULT NOW() NOT NULL
+);
@@ -0,0 +1,24 @@
+--liquibase formatted sql
+
+--changeset BortnikD:backfill-cards-updated-at
+-- Дельта-синхронизация ищет изменения по updated_at, поэтому оно заполнено у каждой карты
+UPDATE cards SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE cards ALTER COLUMN updated_at SET NOT NULL;
+
+--changeset BortnikD:create-cards-user-id-updated-at-index
+-- Покрывает и поиск карт по user_id, поэтому отдельный индекс по user_id больше не нужен
+CREATE INDEX idx_cards_user_id_updated_at ON cards (user_id, updated_at);
+DROP INDEX idx_cards_user_id;
+
+--changeset BortnikD:create-card-tombstones-table
+-- Удалённые карты для дельта-синхронизации. Хранятся app.cards.sync.tombstone-retention,
+-- клиент с более старым токеном синхронизируется заново.
+CREATE TABLE card_tombstones
+(
+    card_id    UUID PRIMARY KEY,
+    user_id    UUID REFERENCES users (id) ON DELETE CASCADE NOT NULL,
+    deleted_at TIMESTAMP                                    NOT NULL
+);
+
+CREATE INDEX idx_card_tombstones_user_id_deleted_at ON card_tombstones (user_id, deleted_at);
+CREATE INDEX idx_card_tombstones_deleted_at ON card_tombstones (deleted_at);
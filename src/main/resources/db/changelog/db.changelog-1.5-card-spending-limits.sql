@@ -0,0 +1,24 @@
+--liquibase formatted sql
+
+--changeset BortnikD:create-card-limits-table
+-- Лимиты исходящих переводов, заданные администратором. NULL — лимит по умолчанию из app.cards.limits.*
+CREATE TABLE card_limits
+(
+    card_id               UUID PRIMARY KEY REFERENCES cards (id) ON DELETE CASCADE,
+    daily_limit           DECIMAL(19, 4) CHECK ( daily_limit > 0 ),
+    per_transaction_limit DECIMAL(19, 4) CHECK ( per_transaction_limit > 0 ),
+    updated_at            TIMESTAMP NOT NULL
+);
+
+--changeset BortnikD:create-card-spend-buckets-table
+-- Суммы исходящих переводов карты по интервалам скользящего окна суточного лимита.
+-- Нужны только для восстановления счётчиков в памяти при старте, строки старше окна удаляются.
+CREATE TABLE card_spend_buckets
+(
+    card_id      UUID REFERENCES cards (id) ON DELETE CASCADE NOT NULL,
+    bucket_start TIMESTAMP                                    NOT NULL,
+    amount       DECIMAL(19, 4)                               NOT NULL,
+    PRIMARY KEY (card_id, bucket_start)
+);
+
+CREATE INDEX idx_card_spend_buckets_bucket_start ON card_spend_buckets (bucket_start);
@@ -0,0 +1,26 @@
+--liquibase formatted sql
+
+--changeset BortnikD:create-recurring-transfers-table
+-- Постоянные поручения: перевод между картами пользователя с заданной периодичностью.
+-- next_run_at — следующее исполнение, вычисляется от first_run_at и номера исполнения occurrence,
+-- чтобы ежемесячные переводы 31-го числа не смещались на 28-е после февраля.
+CREATE TABLE recurring_transfers
+(
+    id           UUID PRIMARY KEY,
+    user_id      UUID REFERENCES users (id) ON DELETE CASCADE NOT NULL,
+    from_card_id UUID REFERENCES cards (id) ON DELETE CASCADE NOT NULL,
+    to_card_id   UUID REFERENCES cards (id) ON DELETE CASCADE NOT NULL,
+    amount       DECIMAL(19, 4)                               NOT NULL CHECK ( amount > 0 ),
+    frequency    VARCHAR(16)                                  NOT NULL,
+    first_run_at TIMESTAMP                                    NOT NULL,
+    occurrence   INTEGER                                      NOT NULL DEFAULT 0,
+    next_run_at  TIMESTAMP                                    NOT NULL,
+    last_run_at  TIMESTAMP,
+    last_status  VARCHAR(16),
+    last_error   VARCHAR(255),
+    created_at   TIMESTAMP                                    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Планировщик выбирает созревшие поручения диапазоном по индексу, а не обходом всей таблицы
+CREATE INDEX idx_recurring_transfers_next_run_at ON recurring_transfers (next_run_at);
+CREATE INDEX idx_recurring_transfers_user_id ON recurring_transfers (user_id);
@@ -0,0 +1,39 @@
+--liquibase formatted sql
+
+--changeset BortnikD:add-cards-held-amount
+-- Сумма активных удержаний карты. Доступный остаток — баланс за вычетом удержаний,
+-- он не может стать отрицательным: удержание и списание проверяются одним условным UPDATE.
+-- Колонка с константным DEFAULT добавляется без перезаписи таблицы, ограничения — NOT VALID:
+-- ACCESS EXCLUSIVE держится только на изменение каталога, существующие строки проверяет следующий changeset
+ALTER TABLE cards
+    ADD COLUMN held_amount DECIMAL(19, 4) DEFAULT 0 NOT NULL;
+ALTER TABLE cards
+    ADD CONSTRAINT chk_cards_held_amount_non_negative CHECK ( held_amount >= 0 ) NOT VALID;
+ALTER TABLE cards
+    ADD CONSTRAINT chk_cards_held_amount_within_balance CHECK ( held_amount <= balance ) NOT VALID;
+
+--changeset BortnikD:validate-cards-held-amount-constraints
+-- Отдельная транзакция: VALIDATE CONSTRAINT читает таблицу под SHARE UPDATE EXCLUSIVE и не блокирует запись
+ALTER TABLE cards
+    VALIDATE CONSTRAINT chk_cards_held_amount_non_negative;
+ALTER TABLE cards
+    VALIDATE CONSTRAINT chk_cards_held_amount_within_balance;
+
+--changeset BortnikD:create-card-holds-table
+-- Удержания средств (авторизация): ACTIVE до списания (CAPTURED), отмены (RELEASED) или истечения (EXPIRED)
+CREATE TABLE card_holds
+(
+    id              UUID PRIMARY KEY,
+    card_id         UUID REFERENCES cards (id) ON DELETE CASCADE NOT NULL,
+    amount          DECIMAL(19, 4)                               NOT NULL CHECK ( amount > 0 ),
+    captured_amount DECIMAL(19, 4),
+    status          VARCHAR(16)                                  NOT NULL
+        CHECK (status IN ('ACTIVE', 'CAPTURED', 'RELEASED', 'EXPIRED')),
+    created_at      TIMESTAMP                                    NOT NULL,
+    expires_at      TIMESTAMP                                    NOT NULL,
+    settled_at      TIMESTAMP
+);
+
+CREATE INDEX idx_card_holds_card_id ON card_holds (card_id, created_at);
+-- Поиск истёкших удержаний: в индексе только активные, он не растёт с историей
+CREATE INDEX idx_card_holds_expires_at_active ON card_holds (expires_at) WHERE status = 'ACTIVE';
@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset BortnikD:create-row-xid8-function splitStatements:false
+-- Полный (64-битный) номер транзакции, записавшей версию строки, для дельта-синхронизации по порядку коммитов.
+-- xmin хранит только младшие 32 бита, старшие берутся из текущего снимка. Для строк старше 2^32 транзакций
+-- номер получается завышенным: такие строки лишь повторно попадут в дельту, но не потеряются.
+CREATE OR REPLACE FUNCTION row_xid8(row_xmin xid) RETURNS BIGINT
+    LANGUAGE sql
+    STABLE
+AS
+$$
+SELECT s.xmax - ((s.xmax - row_xmin::text::bigint) % 4294967296 + 4294967296) % 4294967296
+FROM (SELECT pg_snapshot_xmax(pg_current_snapshot())::text::bigint AS xmax) s
+$$;
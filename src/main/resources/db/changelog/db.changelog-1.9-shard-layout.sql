@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset BortnikD:create-shard-layout-table
+-- Номер шарда и число шардов, с которыми в эту БД записываются данные. Проверяется при старте
+-- (ShardLayoutGuard): пользователи распределены хешем от числа шардов, поэтому его нельзя менять без переноса данных.
+CREATE TABLE shard_layout
+(
+    id          SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    shard_index INT       NOT NULL,
+    shard_count INT       NOT NULL,
+    updated_at  TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
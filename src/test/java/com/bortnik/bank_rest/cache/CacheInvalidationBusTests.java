@@ -0,0 +1,195 @@
+package com.bortnik.bank_rest.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CacheInvalidationBusTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DataSource dataSource = mock(DataSource.class);
+    private final LocalCache<String> users = new LocalCache<>(CacheNames.USERS, Duration.ofMinutes(1), 100);
+    private final LocalCache<String> cards = new LocalCache<>(CacheNames.CARDS, Duration.ofMinutes(1), 100);
+    private final CacheInvalidationBus bus = new CacheInvalidationBus(
+            List.of(users, cards), dataSource, objectMapper, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        setField(bus, "enabled", true);
+        setField(bus, "maxPendingKeys", 10_000);
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private String nodeOf(String payload) throws Exception {
+        return objectMapper.readTree(payload).path("node").asText();
+    }
+
+    @Test
+    void invalidate_withoutTransactionEvictsAndQueuesCoalescedKeys() throws Exception {
+        UUID userId = UUID.randomUUID();
+        users.get(userId, () -> "user");
+
+        bus.invalidate(CacheNames.USERS, userId);
+        bus.invalidate(CacheNames.USERS, userId);
+        bus.invalidate(CacheNames.CARDS, "card");
+
+        assertEquals(0, users.size());
+        List<String> payloads = bus.drain();
+        assertEquals(1, payloads.size());
+        JsonNode keys = objectMapper.readTree(payloads.get(0)).path("keys");
+        assertEquals(1, keys.path(CacheNames.USERS).size());
+        assertEquals(userId.toString(), keys.path(CacheNames.USERS).get(0).asText());
+        assertEquals("card", keys.path(CacheNames.CARDS).get(0).asText());
+        assertTrue(bus.drain().isEmpty());
+    }
+
+    @Test
+    void invalidate_insideTransactionWaitsForCommit() {
+        users.get("user", () -> "value");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bus.invalidate(CacheNames.USERS, "user");
+
+            assertEquals(1, users.size());
+            assertTrue(bus.drain().isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, users.size());
+        assertEquals(1, bus.drain().size());
+    }
+
+    @Test
+    void drain_splitsBurstIntoNotificationsWithinPayloadLimit() throws Exception {
+        Set<String> sent = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            bus.invalidate(CacheNames.CARDS, UUID.randomUUID());
+        }
+
+        List<String> payloads = bus.drain();
+
+        assertTrue(payloads.size() > 1);
+        for (String payload : payloads) {
+            assertTrue(payload.getBytes(StandardCharsets.UTF_8).length < 8_000);
+            objectMapper.readTree(payload).path("keys").path(CacheNames.CARDS)
+                    .forEach(key -> sent.add(key.asText()));
+        }
+        assertEquals(1_000, sent.size());
+    }
+
+    @Test
+    void drain_sendsClearWhenQueueOverflows() throws Exception {
+        setField(bus, "maxPendingKeys", 10);
+        for (int i = 0; i < 20; i++) {
+            bus.invalidate(CacheNames.CARDS, UUID.randomUUID());
+        }
+
+        List<String> payloads = bus.drain();
+
+        assertEquals(1, payloads.size());
+        assertTrue(objectMapper.readTree(payloads.get(0)).path("clear").asBoolean());
+        assertTrue(bus.drain().isEmpty());
+    }
+
+    @Test
+    void invalidate_disabledBusOnlyEvictsLocally() {
+        setField(bus, "enabled", false);
+        users.get("user", () -> "value");
+
+        bus.invalidate(CacheNames.USERS, "user");
+
+        assertEquals(0, users.size());
+        assertTrue(bus.drain().isEmpty());
+    }
+
+    @Test
+    void apply_evictsKeysFromOtherNodes() {
+        users.get("a", () -> "a");
+        users.get("b", () -> "b");
+        cards.get("c", () -> "c");
+
+        bus.apply("{\"node\":\"other\",\"keys\":{\"users\":[\"a\"],\"cards\":[\"c\"],\"unknown\":[\"x\"]}}");
+
+        assertEquals(1, users.size());
+        assertEquals(0, cards.size());
+    }
+
+    @Test
+    void apply_clearsAllCaches() {
+        users.get("a", () -> "a");
+        cards.get("c", () -> "c");
+
+        bus.apply("{\"node\":\"other\",\"clear\":true}");
+
+        assertEquals(0, users.size());
+        assertEquals(0, cards.size());
+    }
+
+    @Test
+    void apply_ignoresOwnAndMalformedNotifications() throws Exception {
+        bus.invalidate(CacheNames.CARDS, "c");
+        String own = bus.drain().get(0);
+        cards.get("c", () -> "c");
+
+        bus.apply(own);
+        bus.apply("not json");
+
+        assertEquals(1, cards.size());
+        assertFalse(nodeOf(own).isEmpty());
+    }
+
+    @Test
+    void flush_sendsNotificationsThroughPgNotify() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        bus.invalidate(CacheNames.USERS, "user");
+        bus.flush();
+
+        verify(connection).prepareStatement("SELECT pg_notify(?, ?)");
+        verify(statement).setString(1, CacheInvalidationBus.CHANNEL);
+        verify(statement).setString(eq(2), anyString());
+        verify(statement).execute();
+        verify(connection).close();
+    }
+
+    @Test
+    void flush_skipsDatabaseWhenNothingQueued() throws Exception {
+        bus.flush();
+
+        verify(dataSource, never()).getConnection();
+    }
+}
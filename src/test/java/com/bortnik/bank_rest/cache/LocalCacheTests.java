@@ -0,0 +1,90 @@
+package com.bortnik.bank_rest.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalCacheTests {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    @Test
+    void get_loadsOnceUntilEvicted() {
+        LocalCache<String> cache = new LocalCache<>("test", Duration.ofMinutes(1), 10);
+        UUID key = UUID.randomUUID();
+
+        assertEquals("a", cache.get(key, () -> load("a")));
+        assertEquals("a", cache.get(key, () -> load("b")));
+        assertEquals(1, loads.get());
+
+        cache.evict(key.toString());
+
+        assertEquals("c", cache.get(key, () -> load("c")));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_reloadsExpiredEntries() {
+        LocalCache<String> cache = new LocalCache<>("test", Duration.ZERO, 10);
+
+        cache.get("key", () -> load("a"));
+        cache.get("key", () -> load("a"));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_doesNotCacheValueLoadedDuringInvalidation() {
+        LocalCache<String> cache = new LocalCache<>("test", Duration.ofMinutes(1), 10);
+
+        assertEquals("stale", cache.get("key", () -> {
+            cache.evict("key");
+            return load("stale");
+        }));
+        assertEquals("fresh", cache.get("key", () -> load("fresh")));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_doesNotCacheFailures() {
+        LocalCache<String> cache = new LocalCache<>("test", Duration.ofMinutes(1), 10);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("key", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("a", cache.get("key", () -> load("a")));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void get_keepsSizeWithinLimit() {
+        LocalCache<String> cache = new LocalCache<>("test", Duration.ofMinutes(1), 5);
+
+        for (int i = 0; i < 50; i++) {
+            int value = i;
+            cache.get(i, () -> load(String.valueOf(value)));
+        }
+
+        assertTrue(cache.size() <= 5);
+    }
+
+    @Test
+    void clear_removesAllEntries() {
+        LocalCache<String> cache = new LocalCache<>("test", Duration.ofMinutes(1), 10);
+        cache.get("a", () -> load("a"));
+        cache.get("b", () -> load("b"));
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+    }
+}
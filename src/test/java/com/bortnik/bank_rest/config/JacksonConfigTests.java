@@ -0,0 +1,100 @@
+package com.bortnik.bank_rest.config;
+
+import com.bortnik.bank_rest.dto.ApiResponse;
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.entity.CardStatus;
+import com.bortnik.bank_rest.util.UuidV7Generator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JacksonConfigTests {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    // ObjectMapper без собственных сериализаторов, как до их появления
+    private final ObjectMapper plainMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private CardDTO card() {
+        return CardDTO.builder()
+                .id(UuidV7Generator.generate())
+                .userId(UUID.randomUUID())
+                .cardNumber("**** **** **** 1234")
+                .expirationDate(LocalDate.of(2030, 1, 31))
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal("1250.5000"))
+                .availableBalance(new BigDecimal("1000.5000"))
+                .createdAt(LocalDateTime.of(2025, 3, 1, 10, 15, 0))
+                .updatedAt(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_000_000))
+                .build();
+    }
+
+    @Test
+    void cardDTO_serializedExactlyLikeBeanSerializer() throws Exception {
+        CardDTO card = card();
+
+        assertEquals(plainMapper.writeValueAsString(card), objectMapper.writeValueAsString(card));
+    }
+
+    @Test
+    void cardDTO_formatsDatesLikeIsoFormatter() throws Exception {
+        for (LocalDateTime dateTime : List.of(
+                LocalDateTime.of(2025, 12, 31, 23, 59, 59, 999_999_999),
+                LocalDateTime.of(2025, 1, 1, 0, 0, 0, 100),
+                LocalDateTime.of(2025, 1, 1, 0, 0, 0, 120_000_000),
+                LocalDateTime.of(999, 1, 1, 0, 0),
+                LocalDateTime.of(12_345, 6, 7, 8, 9, 10))) {
+            CardDTO card = CardDTO.builder()
+                    .id(UUID.randomUUID())
+                    .createdAt(dateTime)
+                    .expirationDate(dateTime.toLocalDate())
+                    .build();
+
+            assertEquals(plainMapper.writeValueAsString(card), objectMapper.writeValueAsString(card));
+        }
+    }
+
+    @Test
+    void cardDTO_writesNullFields() throws Exception {
+        CardDTO card = CardDTO.builder()
+                .id(UUID.randomUUID())
+                .cardNumber("**** **** **** 0001")
+                .build();
+
+        assertEquals(plainMapper.writeValueAsString(card), objectMapper.writeValueAsString(card));
+    }
+
+    @Test
+    void page_serializedAsCompactEnvelope() throws Exception {
+        CardDTO card = card();
+        Page<CardDTO> page = new PageImpl<>(List.of(card), PageRequest.of(1, 20), 42);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(
+                ApiResponse.<Page<CardDTO>>builder().responseData(page).build()));
+
+        JsonNode data = json.get("responseData");
+        assertEquals(2, data.size());
+        assertEquals(plainMapper.readTree(plainMapper.writeValueAsString(card)), data.get("content").get(0));
+
+        JsonNode metadata = data.get("page");
+        assertEquals(20, metadata.get("size").asInt());
+        assertEquals(1, metadata.get("number").asInt());
+        assertEquals(42, metadata.get("totalElements").asLong());
+        assertEquals(3, metadata.get("totalPages").asInt());
+    }
+}
@@ -0,0 +1,52 @@
+package com.bortnik.bank_rest.config;
+
+import com.bortnik.bank_rest.dto.ApiResponse;
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.entity.id.UuidV7IdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NativeRuntimeHintsTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeRuntimeHintsTests() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersDtoGettersForJackson() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(CardDTO.class.getMethod("getCardNumber"))
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(ApiResponse.class.getMethod("getResponseData"))
+                .test(hints));
+    }
+
+    @Test
+    void registersJjwtImplementations() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(io.jsonwebtoken.impl.DefaultJwtBuilder.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.io.Serializer")
+                .test(hints));
+    }
+
+    @Test
+    void registersIdGeneratorAndChangelogs() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(UuidV7IdGenerator.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("db/changelog/db.changelog-master.yaml")
+                .test(hints));
+    }
+}
@@ -0,0 +1,42 @@
+package com.bortnik.bank_rest.config;
+
+import com.bortnik.bank_rest.config.datasource.ShardContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class ReactiveShardClientsTests {
+
+    private final DatabaseClient first = mock(DatabaseClient.class);
+    private final DatabaseClient second = mock(DatabaseClient.class);
+
+    @AfterEach
+    void tearDown() {
+        ShardContext.configure(1);
+    }
+
+    @Test
+    void forId_returnsClientOfHashedShard() {
+        ShardContext.configure(2);
+        ReactiveShardClients clients = new ReactiveShardClients(List.of(first, second));
+
+        for (int i = 0; i < 100; i++) {
+            UUID id = UUID.randomUUID();
+            DatabaseClient expected = ShardContext.shardOf(id) == 0 ? first : second;
+            assertSame(expected, clients.forId(id));
+        }
+    }
+
+    @Test
+    void forId_singleShard_returnsOnlyClient() {
+        ReactiveShardClients clients = new ReactiveShardClients(List.of(first));
+
+        assertSame(first, clients.forId(UUID.randomUUID()));
+    }
+}
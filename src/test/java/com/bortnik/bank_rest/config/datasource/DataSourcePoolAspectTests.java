@@ -0,0 +1,111 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DataSourcePoolAspectTests {
+
+    @DataSourcePool(PoolType.ADMIN)
+    public static class AdminService {
+
+        public PoolType classPool() {
+            return DataSourcePoolContext.current();
+        }
+
+        @DataSourcePool(PoolType.BATCH)
+        public PoolType methodPool() {
+            return DataSourcePoolContext.current();
+        }
+
+        public PoolType failing() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    public static class PlainService {
+
+        public PoolType plain() {
+            return DataSourcePoolContext.current();
+        }
+
+        @DataSourcePool(PoolType.BATCH)
+        public PoolType batch() {
+            return DataSourcePoolContext.current();
+        }
+    }
+
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new DataSourcePoolAspect());
+        return factory.getProxy();
+    }
+
+    @Test
+    void usePool_appliesClassAnnotation() {
+        AdminService service = proxy(new AdminService());
+
+        assertEquals(PoolType.ADMIN, service.classPool());
+        assertEquals(PoolType.USER, DataSourcePoolContext.current());
+    }
+
+    @Test
+    void usePool_methodAnnotationOverridesClassAnnotation() {
+        AdminService service = proxy(new AdminService());
+
+        assertEquals(PoolType.BATCH, service.methodPool());
+    }
+
+    @Test
+    void usePool_restoresPreviousPoolAfterException() {
+        AdminService service = proxy(new AdminService());
+
+        assertThrows(IllegalStateException.class, service::failing);
+        assertEquals(PoolType.USER, DataSourcePoolContext.current());
+    }
+
+    @Test
+    void usePool_restoresOuterPoolAfterNestedCall() {
+        PlainService service = proxy(new PlainService());
+
+        PoolType previous = DataSourcePoolContext.set(PoolType.ADMIN);
+        try {
+            assertEquals(PoolType.BATCH, service.batch());
+            assertEquals(PoolType.ADMIN, DataSourcePoolContext.current());
+            assertEquals(PoolType.ADMIN, service.plain());
+        } finally {
+            DataSourcePoolContext.set(previous);
+        }
+    }
+
+    @Test
+    void routingDataSource_returnsConnectionFromSelectedPool() throws Exception {
+        DataSource userPool = mock(DataSource.class);
+        DataSource adminPool = mock(DataSource.class);
+        Connection userConnection = mock(Connection.class);
+        Connection adminConnection = mock(Connection.class);
+        when(userPool.getConnection()).thenReturn(userConnection);
+        when(adminPool.getConnection()).thenReturn(adminConnection);
+
+        PoolRoutingDataSource routing = new PoolRoutingDataSource();
+        routing.setTargetDataSources(Map.of(PoolType.USER, userPool, PoolType.ADMIN, adminPool));
+        routing.setDefaultTargetDataSource(userPool);
+        routing.afterPropertiesSet();
+
+        assertSame(userConnection, routing.getConnection());
+
+        PoolType previous = DataSourcePoolContext.set(PoolType.ADMIN);
+        try {
+            assertSame(adminConnection, routing.getConnection());
+        } finally {
+            DataSourcePoolContext.set(previous);
+        }
+    }
+}
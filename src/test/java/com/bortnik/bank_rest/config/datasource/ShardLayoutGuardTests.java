@@ -0,0 +1,100 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ShardLayoutGuardTests {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+
+    private final PreparedStatement layoutStatement = mock(PreparedStatement.class);
+    private final PreparedStatement usersStatement = mock(PreparedStatement.class);
+    private final PreparedStatement recordStatement = mock(PreparedStatement.class);
+
+    private final ResultSet layoutResult = mock(ResultSet.class);
+    private final ResultSet usersResult = mock(ResultSet.class);
+
+    private final ShardLayoutGuard shardLayoutGuard = new ShardLayoutGuard(dataSource, new ShardRouter());
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(startsWith("SELECT shard_index"))).thenReturn(layoutStatement);
+        when(connection.prepareStatement(startsWith("SELECT EXISTS"))).thenReturn(usersStatement);
+        when(connection.prepareStatement(contains("INSERT INTO shard_layout"))).thenReturn(recordStatement);
+
+        when(layoutStatement.executeQuery()).thenReturn(layoutResult);
+        when(usersStatement.executeQuery()).thenReturn(usersResult);
+        when(usersResult.next()).thenReturn(true);
+    }
+
+    private void recordedLayout(int shard, int count) throws SQLException {
+        when(layoutResult.next()).thenReturn(true);
+        when(layoutResult.getInt(1)).thenReturn(shard);
+        when(layoutResult.getInt(2)).thenReturn(count);
+    }
+
+    @Test
+    void verify_sameLayout_doesNothing() throws SQLException {
+        recordedLayout(1, 2);
+
+        shardLayoutGuard.verify(1, 2);
+
+        verify(usersStatement, never()).executeQuery();
+        verify(recordStatement, never()).executeUpdate();
+    }
+
+    @Test
+    void verify_noRecordedLayout_recordsConfigured() throws SQLException {
+        when(layoutResult.next()).thenReturn(false);
+
+        shardLayoutGuard.verify(0, 3);
+
+        verify(recordStatement).setInt(1, 0);
+        verify(recordStatement).setInt(2, 3);
+        verify(recordStatement).executeUpdate();
+    }
+
+    @Test
+    void verify_changedShardCountWithUsers_refusesToStart() throws SQLException {
+        recordedLayout(0, 1);
+        when(usersResult.getBoolean(1)).thenReturn(true);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> shardLayoutGuard.verify(0, 2));
+
+        assertTrue(exception.getMessage().contains("shard 0 of 1"));
+        verify(recordStatement, never()).executeUpdate();
+    }
+
+    @Test
+    void verify_changedShardCountOnEmptyShard_recordsConfigured() throws SQLException {
+        recordedLayout(0, 1);
+        when(usersResult.getBoolean(1)).thenReturn(false);
+
+        shardLayoutGuard.verify(0, 2);
+
+        verify(recordStatement).setInt(2, 2);
+        verify(recordStatement).executeUpdate();
+    }
+
+    @Test
+    void start_verifiesEveryShard() throws SQLException {
+        recordedLayout(0, 1);
+
+        shardLayoutGuard.start();
+
+        assertTrue(shardLayoutGuard.isRunning());
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,195 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardRouterTests {
+
+    private final ShardRouter shardRouter = new ShardRouter();
+
+    public static class Item {
+        private final UUID id;
+        private final int amount;
+
+        Item(UUID id, int amount) {
+            this.id = id;
+            this.amount = amount;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ShardContext.configure(1);
+        shardRouter.shutdown();
+    }
+
+    @Test
+    void jumpHash_staysInRangeAndIsStable() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextLong();
+            int bucket = ShardContext.jumpHash(key, 7);
+            assertTrue(bucket >= 0 && bucket < 7);
+            assertEquals(bucket, ShardContext.jumpHash(key, 7));
+        }
+    }
+
+    @Test
+    void jumpHash_addingShardMovesKeysOnlyToNewShard() {
+        Random random = new Random(7);
+        int moved = 0;
+        int total = 20_000;
+        for (int i = 0; i < total; i++) {
+            long key = random.nextLong();
+            int before = ShardContext.jumpHash(key, 4);
+            int after = ShardContext.jumpHash(key, 5);
+            if (before != after) {
+                assertEquals(4, after);
+                moved++;
+            }
+        }
+        // Ожидается около 1/5 ключей
+        assertTrue(moved > total * 0.15 && moved < total * 0.25, "moved " + moved);
+    }
+
+    @Test
+    void onShard_switchesAndRestoresShard() {
+        ShardContext.configure(3);
+
+        assertEquals(2, shardRouter.onShard(2, ShardContext::current));
+        assertEquals(0, ShardContext.current());
+    }
+
+    @Test
+    void onShard_rejectsSwitchInsideTransaction() {
+        ShardContext.configure(3);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(IllegalStateException.class, () -> shardRouter.onShard(1, ShardContext::current));
+            assertEquals(0, shardRouter.onShard(0, ShardContext::current));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void onEachShard_runsOnEveryShardWithCallerPool() {
+        ShardContext.configure(3);
+
+        PoolType previous = DataSourcePoolContext.set(PoolType.ADMIN);
+        try {
+            List<String> results = shardRouter.onEachShard(
+                    () -> ShardContext.current() + ":" + DataSourcePoolContext.current());
+
+            assertEquals(List.of("0:ADMIN", "1:ADMIN", "2:ADMIN"), results);
+        } finally {
+            DataSourcePoolContext.set(previous);
+        }
+    }
+
+    @Test
+    void findFirst_returnsValueFromAnyShard() {
+        ShardContext.configure(3);
+
+        Optional<Integer> found = shardRouter.findFirst(() -> ShardContext.current() == 2
+                ? Optional.of(2)
+                : Optional.empty());
+
+        assertEquals(Optional.of(2), found);
+    }
+
+    @Test
+    void locate_fallsBackToScatterWhenRecordIsNotOnHashedShard() {
+        ShardContext.configure(3);
+        UUID id = UUID.randomUUID();
+        int hashed = ShardContext.shardOf(id);
+        int actual = (hashed + 1) % 3;
+
+        assertEquals(hashed, shardRouter.locate(id, key -> ShardContext.current() == hashed));
+        assertEquals(actual, shardRouter.locate(id, key -> ShardContext.current() == actual));
+        assertEquals(hashed, shardRouter.locate(id, key -> false));
+    }
+
+    @Test
+    void scatterPage_mergesShardsInSortOrder() {
+        ShardContext.configure(3);
+        Random random = new Random(1);
+        List<Item> all = new ArrayList<>();
+        Map<Integer, List<Item>> byShard = Map.of(0, new ArrayList<>(), 1, new ArrayList<>(), 2, new ArrayList<>());
+        IntStream.range(0, 50).forEach(i -> {
+            Item item = new Item(UUID.randomUUID(), random.nextInt(10));
+            all.add(item);
+            byShard.get(random.nextInt(3)).add(item);
+        });
+        Comparator<Item> order = Comparator.comparing(Item::getAmount).reversed()
+                .thenComparing(Item::getId, (a, b) -> {
+                    int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+                    return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+                });
+        all.sort(order);
+
+        PageRequest request = PageRequest.of(2, 7, Sort.by(Sort.Direction.DESC, "amount"));
+        Page<Item> page = shardRouter.scatterPage(request, head -> {
+            List<Item> shardItems = byShard.get(ShardContext.current()).stream()
+                    .sorted(order)
+                    .toList();
+            assertEquals(0, head.getPageNumber());
+            assertEquals(21, head.getPageSize());
+            assertTrue(head.getSort().getOrderFor("id") != null);
+            List<Item> content = shardItems.subList(0, Math.min(shardItems.size(), head.getPageSize()));
+            return new PageImpl<>(content, head, shardItems.size());
+        });
+
+        assertEquals(50, page.getTotalElements());
+        assertEquals(all.subList(14, 21), page.getContent());
+        assertEquals(request, page.getPageable());
+    }
+
+    @Test
+    void scatterPage_singleShardDelegatesDirectly() {
+        PageRequest request = PageRequest.of(1, 5);
+        Page<Item> expected = new PageImpl<>(List.of(), request, 5);
+
+        assertSame(expected, shardRouter.scatterPage(request, page -> {
+            assertSame(request, page);
+            return expected;
+        }));
+    }
+
+    @Test
+    void nextShardForNewUser_roundRobinsOverShards() {
+        ShardContext.configure(3);
+
+        Set<Integer> shards = Set.of(
+                shardRouter.nextShardForNewUser(),
+                shardRouter.nextShardForNewUser(),
+                shardRouter.nextShardForNewUser());
+
+        assertEquals(Set.of(0, 1, 2), shards);
+    }
+}
@@ -0,0 +1,100 @@
+package com.bortnik.bank_rest.config.datasource;
+
+import com.bortnik.bank_rest.repository.CardRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ShardRoutingAspectTests {
+
+    public static class CardService {
+
+        public int byUser(@ShardKey UUID userId) {
+            return ShardContext.current();
+        }
+
+        public int byCard(String note, @ShardKey(ShardKey.Kind.CARD) UUID cardId) {
+            return ShardContext.current();
+        }
+
+        public int plain(UUID userId) {
+            return ShardContext.current();
+        }
+
+        public void failing(@ShardKey UUID userId) throws IOException {
+            throw new IOException("boom");
+        }
+    }
+
+    private final ShardRouter shardRouter = new ShardRouter();
+    private final CardRepository cardRepository = mock(CardRepository.class);
+
+    private CardService proxy() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new CardService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ShardRoutingAspect(shardRouter, cardRepository));
+        return factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ShardContext.configure(1);
+        shardRouter.shutdown();
+    }
+
+    @Test
+    void useShard_routesByUserIdHash() {
+        ShardContext.configure(3);
+        CardService service = proxy();
+
+        for (int i = 0; i < 20; i++) {
+            UUID userId = UUID.randomUUID();
+            assertEquals(ShardContext.shardOf(userId), service.byUser(userId));
+            assertEquals(0, ShardContext.current());
+        }
+    }
+
+    @Test
+    void useShard_locatesCardShard() {
+        ShardContext.configure(3);
+        CardService service = proxy();
+        UUID cardId = UUID.randomUUID();
+        int actual = (ShardContext.shardOf(cardId) + 2) % 3;
+        when(cardRepository.existsById(cardId)).thenAnswer(invocation -> ShardContext.current() == actual);
+
+        assertEquals(actual, service.byCard("note", cardId));
+    }
+
+    @Test
+    void useShard_ignoresMethodsWithoutShardKey() {
+        ShardContext.configure(3);
+        CardService service = proxy();
+
+        assertEquals(0, service.plain(UUID.randomUUID()));
+    }
+
+    @Test
+    void useShard_rethrowsOriginalException() {
+        ShardContext.configure(3);
+        CardService service = proxy();
+
+        IOException exception = assertThrows(IOException.class, () -> service.failing(UUID.randomUUID()));
+        assertEquals("boom", exception.getMessage());
+        assertEquals(0, ShardContext.current());
+    }
+
+    @Test
+    void useShard_singleShardSkipsLookup() {
+        CardService service = proxy();
+
+        assertEquals(0, service.byCard("note", UUID.randomUUID()));
+        verify(cardRepository, never()).existsById(any());
+    }
+}
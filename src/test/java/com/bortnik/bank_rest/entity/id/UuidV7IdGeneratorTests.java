@@ -0,0 +1,42 @@
+package com.bortnik.bank_rest.entity.id;
+
+import com.bortnik.bank_rest.config.datasource.ShardContext;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidV7IdGeneratorTests {
+
+    private final UuidV7IdGenerator generator = new UuidV7IdGenerator();
+    private final ShardRouter shardRouter = new ShardRouter();
+
+    @AfterEach
+    void tearDown() {
+        ShardContext.configure(1);
+        shardRouter.shutdown();
+    }
+
+    @Test
+    void generate_returnsUuidV7() {
+        UUID id = (UUID) generator.generate(null, null);
+
+        assertEquals(7, id.version());
+    }
+
+    @Test
+    void generate_matchesCurrentShard() {
+        ShardContext.configure(4);
+
+        for (int shard = 0; shard < 4; shard++) {
+            for (int i = 0; i < 100; i++) {
+                UUID id = shardRouter.onShard(shard, () -> (UUID) generator.generate(null, null));
+                assertEquals(shard, ShardContext.shardOf(id));
+                assertEquals(7, id.version());
+            }
+        }
+    }
+}
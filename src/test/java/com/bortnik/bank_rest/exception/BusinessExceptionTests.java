@@ -0,0 +1,61 @@
+package com.bortnik.bank_rest.exception;
+
+import com.bortnik.bank_rest.exception.card.CardExpired;
+import com.bortnik.bank_rest.exception.card.CardNotFound;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BusinessExceptionTests {
+
+    @Test
+    void constructor_doesNotCaptureStackTrace() {
+        CardNotFound exception = new CardNotFound("Card with id {} not found", UUID.randomUUID());
+
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void getMessage_matchesConcatenatedMessage() {
+        UUID cardId = UUID.randomUUID();
+        LocalDate expiredOn = LocalDate.of(2024, 5, 31);
+
+        assertEquals("Card with id " + cardId + " not found",
+                new CardNotFound("Card with id {} not found", cardId).getMessage());
+        assertEquals("Card with ID " + cardId + " has expired on " + expiredOn,
+                new CardExpired("Card with ID {} has expired on {}", cardId, expiredOn).getMessage());
+        assertEquals("card is expired", new CardExpired("card is expired").getMessage());
+    }
+
+    @Test
+    void getMessage_formatsLazilyAndOnce() {
+        AtomicInteger formatted = new AtomicInteger();
+        Object argument = new Object() {
+            @Override
+            public String toString() {
+                formatted.incrementAndGet();
+                return "42";
+            }
+        };
+
+        CardNotFound exception = new CardNotFound("Card with id {} not found", argument);
+        assertEquals(0, formatted.get());
+
+        assertEquals("Card with id 42 not found", exception.getMessage());
+        assertEquals("Card with id 42 not found", exception.getMessage());
+        assertEquals(1, formatted.get());
+    }
+
+    @Test
+    void format_handlesNullsAndMismatchedPlaceholders() {
+        assertEquals("User with username null already exists",
+                BusinessException.format("User with username {} already exists", new Object[]{null}));
+        assertEquals("a 1 b {}", BusinessException.format("a {} b {}", new Object[]{1}));
+        assertEquals("a 1", BusinessException.format("a {}", new Object[]{1, 2}));
+        assertNull(BusinessException.format(null, new Object[]{1}));
+    }
+}
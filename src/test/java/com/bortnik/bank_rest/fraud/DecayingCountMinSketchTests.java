@@ -0,0 +1,70 @@
+package com.bortnik.bank_rest.fraud;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DecayingCountMinSketchTests {
+
+    private final DecayingCountMinSketch sketch = new DecayingCountMinSketch(4, 1024);
+
+    @Test
+    void add_returnsEstimateIncludingEvent() {
+        UUID key = UUID.randomUUID();
+
+        assertEquals(1, sketch.add(key));
+        assertEquals(2, sketch.add(key));
+        assertEquals(2, sketch.estimate(key));
+        assertEquals(0, sketch.estimate(UUID.randomUUID()));
+    }
+
+    @Test
+    void estimate_neverUnderestimatesUnderCollisions() {
+        // Ключей вдвое меньше, чем счётчиков в строке: в каждой строке есть коллизии,
+        // но ключ почти всегда попадает хотя бы в одну строку без них
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < 512; i++) {
+            UUID key = UUID.randomUUID();
+            keys.add(key);
+            for (int j = 0; j <= i % 3; j++) {
+                sketch.add(key);
+            }
+        }
+
+        int exact = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            int estimate = sketch.estimate(keys.get(i));
+            assertTrue(estimate >= i % 3 + 1);
+            if (estimate == i % 3 + 1) {
+                exact++;
+            }
+        }
+        assertTrue(exact > keys.size() * 0.9, "exact estimates: " + exact);
+    }
+
+    @Test
+    void decay_halvesCounters() {
+        UUID key = UUID.randomUUID();
+        for (int i = 0; i < 10; i++) {
+            sketch.add(key);
+        }
+
+        sketch.decay();
+        assertEquals(5, sketch.estimate(key));
+        sketch.decay();
+        sketch.decay();
+        sketch.decay();
+        assertEquals(0, sketch.estimate(key));
+    }
+
+    @Test
+    void constructor_rejectsInvalidDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new DecayingCountMinSketch(0, 1024));
+        assertThrows(IllegalArgumentException.class, () -> new DecayingCountMinSketch(DecayingCountMinSketch.MAX_DEPTH + 1, 1024));
+        assertThrows(IllegalArgumentException.class, () -> new DecayingCountMinSketch(4, 1000));
+    }
+}
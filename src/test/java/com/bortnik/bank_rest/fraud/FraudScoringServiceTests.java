@@ -0,0 +1,104 @@
+package com.bortnik.bank_rest.fraud;
+
+import com.bortnik.bank_rest.exception.security.SuspiciousActivity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FraudScoringServiceTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FraudScoringService fraudScoringService = new FraudScoringService(4, 1024, meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        setField(fraudScoringService, "enabled", true);
+        setField(fraudScoringService, "transferThreshold", 10.0);
+        setField(fraudScoringService, "accessErrorThreshold", 4.0);
+        setField(fraudScoringService, "topUpThreshold", 3.0);
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private double blocked(String operation) {
+        return meterRegistry.get("bank.fraud.blocked").tag("operation", operation).counter().count();
+    }
+
+    @Test
+    void checkTransfer_blocksUserAboveThreshold() {
+        UUID userId = UUID.randomUUID();
+        for (int i = 0; i < 9; i++) {
+            fraudScoringService.checkTransfer(userId);
+        }
+
+        var exception = assertThrows(SuspiciousActivity.class, () -> fraudScoringService.checkTransfer(userId));
+
+        assertEquals("Too many operations from user " + userId + ", try again later", exception.getMessage());
+        assertEquals(1, blocked("transfer"));
+        // Другие пользователи не затронуты
+        fraudScoringService.checkTransfer(UUID.randomUUID());
+    }
+
+    @Test
+    void checkTransfer_accessErrorsLowerTransferBudget() {
+        UUID userId = UUID.randomUUID();
+        fraudScoringService.recordAccessError(userId);
+        fraudScoringService.recordAccessError(userId);
+
+        // 2/4 за обращения к чужим картам + 5/10 за переводы
+        for (int i = 0; i < 4; i++) {
+            fraudScoringService.checkTransfer(userId);
+        }
+        assertThrows(SuspiciousActivity.class, () -> fraudScoringService.checkTransfer(userId));
+    }
+
+    @Test
+    void checkTransfer_allowsAgainAfterDecay() {
+        UUID userId = UUID.randomUUID();
+        for (int i = 0; i < 9; i++) {
+            fraudScoringService.checkTransfer(userId);
+        }
+
+        fraudScoringService.decay();
+
+        fraudScoringService.checkTransfer(userId);
+        assertEquals(0, blocked("transfer"));
+    }
+
+    @Test
+    void checkTopUp_blocksCardAboveThreshold() {
+        UUID cardId = UUID.randomUUID();
+        fraudScoringService.checkTopUp(cardId);
+        fraudScoringService.checkTopUp(cardId);
+
+        assertThrows(SuspiciousActivity.class, () -> fraudScoringService.checkTopUp(cardId));
+        assertEquals(1, blocked("top_up"));
+    }
+
+    @Test
+    void disabled_neverBlocks() {
+        setField(fraudScoringService, "enabled", false);
+        UUID userId = UUID.randomUUID();
+
+        for (int i = 0; i < 100; i++) {
+            fraudScoringService.recordAccessError(userId);
+            fraudScoringService.checkTransfer(userId);
+            fraudScoringService.checkTopUp(userId);
+        }
+
+        assertEquals(0, blocked("transfer"));
+        assertEquals(0, blocked("top_up"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.bortnik.bank_rest.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, 2, 100, 1.5, 0.2, 0.9);
+    }
+
+    // Держит занятыми все места лимита и завершает один запрос с заданным временем ответа
+    private void completeUnderFullLoad(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        while (limiter.tryAcquire()) {
+            // занимаем все свободные места
+        }
+        limiter.onSuccess(rttNanos);
+        while (limiter.getInFlight() > 0) {
+            limiter.onSuccess(rttNanos);
+        }
+    }
+
+    @Test
+    void tryAcquire_rejectsWhenLimitReached() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.onSuccess(FAST);
+
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void onSuccess_growsLimitWhileLatencyIsStable() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        for (int i = 0; i < 20; i++) {
+            completeUnderFullLoad(limiter, FAST);
+        }
+
+        assertTrue(limiter.getLimit() > 10, "limit should grow, was " + limiter.getLimit());
+    }
+
+    @Test
+    void onSuccess_shrinksLimitWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = limiter(50);
+        for (int i = 0; i < 5; i++) {
+            completeUnderFullLoad(limiter, FAST);
+        }
+        int beforeSlowdown = limiter.getLimit();
+
+        for (int i = 0; i < 5; i++) {
+            completeUnderFullLoad(limiter, SLOW);
+        }
+
+        assertTrue(limiter.getLimit() < beforeSlowdown,
+                "limit should shrink: " + beforeSlowdown + " -> " + limiter.getLimit());
+    }
+
+    @Test
+    void onSuccess_doesNotGrowLimitWhenMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onSuccess(FAST);
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void onDropped_decreasesLimitMultiplicativelyDownToMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.onDropped();
+
+        assertEquals(9, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onDropped();
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void constructor_rejectsInconsistentLimits() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new AdaptiveConcurrencyLimiter(1, 2, 100, 1.5, 0.2, 0.9));
+        assertThrows(IllegalArgumentException.class, () ->
+                new AdaptiveConcurrencyLimiter(10, 20, 5, 1.5, 0.2, 0.9));
+    }
+}
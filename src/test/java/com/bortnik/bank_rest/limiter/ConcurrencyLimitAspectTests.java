@@ -0,0 +1,105 @@
+package com.bortnik.bank_rest.limiter;
+
+import com.bortnik.bank_rest.exception.ServiceOverloaded;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitAspectTests {
+
+    public static class TransferService {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @ConcurrencyLimited("transfer")
+        public void blockingTransfer() throws InterruptedException {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+        }
+
+        @ConcurrencyLimited("transfer")
+        public void transfer() {
+        }
+
+        @ConcurrencyLimited("transfer")
+        public void transferWithoutConnection() {
+            throw new CannotCreateTransactionException("pool exhausted");
+        }
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitAspect aspect = new ConcurrencyLimitAspect(meterRegistry);
+    private TransferService service;
+
+    @BeforeEach
+    void setUp() {
+        setField(aspect, "initialLimit", 1);
+        setField(aspect, "minLimit", 1);
+        setField(aspect, "maxLimit", 10);
+        setField(aspect, "tolerance", 1.5);
+        setField(aspect, "smoothing", 0.2);
+        setField(aspect, "backoffRatio", 0.5);
+        setField(aspect, "retryAfter", Duration.ofSeconds(2));
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new TransferService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        service = factory.getProxy();
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void limit_rejectsCallsAboveLimit() throws Exception {
+        TransferService target = (TransferService) ((Advised) service).getTargetSource().getTarget();
+        CompletableFuture<Void> inFlight = CompletableFuture.runAsync(() -> {
+            try {
+                service.blockingTransfer();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+
+        ServiceOverloaded exception = assertThrows(ServiceOverloaded.class, service::transfer);
+
+        assertEquals(Duration.ofSeconds(2), exception.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("bank.concurrency.rejected").tag("limiter", "transfer").counter().count());
+        assertEquals(1.0, meterRegistry.get("bank.concurrency.in_flight").tag("limiter", "transfer").gauge().value());
+
+        target.release.countDown();
+        inFlight.get(5, TimeUnit.SECONDS);
+
+        assertDoesNotThrow(service::transfer);
+        assertEquals(0, aspect.getLimiter("transfer").getInFlight());
+    }
+
+    @Test
+    void limit_backsOffWhenConnectionCannotBeAcquired() {
+        setField(aspect, "initialLimit", 8);
+
+        assertThrows(CannotCreateTransactionException.class, service::transferWithoutConnection);
+
+        assertEquals(4, aspect.getLimiter("transfer").getLimit());
+        assertEquals(4.0, meterRegistry.get("bank.concurrency.limit").tag("limiter", "transfer").gauge().value());
+    }
+}
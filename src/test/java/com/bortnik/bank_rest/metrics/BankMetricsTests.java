@@ -0,0 +1,59 @@
+package com.bortnik.bank_rest.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BankMetricsTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BankMetrics bankMetrics = new BankMetrics(meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private DistributionSummary transfers() {
+        return meterRegistry.get("bank.card.transfers").summary();
+    }
+
+    @Test
+    void recordTransfer_withoutTransaction_recordsImmediately() {
+        bankMetrics.recordTransfer(BigDecimal.TEN);
+
+        assertEquals(1, transfers().count());
+        assertEquals(10.0, transfers().totalAmount());
+    }
+
+    @Test
+    void recordTransfer_insideTransaction_recordsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        bankMetrics.recordTransfer(BigDecimal.TEN);
+        assertEquals(0, transfers().count());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, transfers().count());
+    }
+
+    @Test
+    void recordTopUp_insideRolledBackTransaction_isNotRecorded() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        bankMetrics.recordTopUp(BigDecimal.TEN);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, meterRegistry.get("bank.card.top_ups").summary().count());
+    }
+}
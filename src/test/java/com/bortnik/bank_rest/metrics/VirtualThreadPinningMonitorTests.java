@@ -0,0 +1,78 @@
+package com.bortnik.bank_rest.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadPinningMonitorTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry);
+
+    private final Object lock = new Object();
+
+    @BeforeEach
+    void setUp() {
+        setField(monitor, "threshold", Duration.ofMillis(20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void recordPinning_countsEventsByLocation() {
+        monitor.recordPinning(Duration.ofMillis(50), "com.example.Foo.bar:10");
+        monitor.recordPinning(Duration.ofMillis(30), "com.example.Foo.bar:10");
+
+        Counter counter = meterRegistry.get("bank.virtual_threads.pinned")
+                .tag("location", "com.example.Foo.bar:10")
+                .counter();
+        assertEquals(2, counter.count());
+        assertEquals(2, meterRegistry.get("bank.virtual_threads.pinned.duration").timer().count());
+    }
+
+    @Test
+    void start_detectsSleepInsideSynchronizedBlock() throws Exception {
+        monitor.start();
+
+        Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+
+        // JFR отдаёт события потоку с задержкой около секунды
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (meterRegistry.find("bank.virtual_threads.pinned").counter() == null
+                && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertNotNull(meterRegistry.find("bank.virtual_threads.pinned").counter(),
+                "Pinning inside synchronized block should be reported");
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.bortnik.bank_rest.outbox;
+
+import com.bortnik.bank_rest.event.CardEventType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileOutboxPublisherTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path tempDir;
+
+    private OutboxMessage message(String payload) {
+        return OutboxMessage.builder()
+                .id(UUID.randomUUID())
+                .aggregateId(UUID.randomUUID())
+                .type(CardEventType.TRANSFER)
+                .payload(payload)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void publish_appendsOneJsonLinePerEvent() throws Exception {
+        Path file = tempDir.resolve("events/card-events.jsonl");
+        FileOutboxPublisher publisher = new FileOutboxPublisher(objectMapper, file);
+
+        OutboxMessage first = message("{\"amount\":10}");
+        publisher.publish(List.of(first, message("{\"amount\":20}")));
+        publisher.publish(List.of(message("{\"amount\":30}")));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+
+        JsonNode line = objectMapper.readTree(lines.get(0));
+        assertEquals(first.getId().toString(), line.get("id").asText());
+        assertEquals("TRANSFER", line.get("type").asText());
+        // Полезная нагрузка встраивается как JSON-объект, а не как строка
+        assertEquals(10, line.get("payload").get("amount").asInt());
+        assertEquals(30, objectMapper.readTree(lines.get(2)).get("payload").get("amount").asInt());
+    }
+}
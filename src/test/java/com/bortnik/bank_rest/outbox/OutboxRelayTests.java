@@ -0,0 +1,118 @@
+package com.bortnik.bank_rest.outbox;
+
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.entity.OutboxEvent;
+import com.bortnik.bank_rest.event.CardEventType;
+import com.bortnik.bank_rest.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class OutboxRelayTests {
+
+    private static final int BATCH_SIZE = 2;
+
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private final OutboxPublisher outboxPublisher = mock(OutboxPublisher.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final TransactionStatus transactionStatus = mock(TransactionStatus.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ApplicationEventPublisher applicationEventPublisher = mock(ApplicationEventPublisher.class);
+
+    private final OutboxRelay outboxRelay = new OutboxRelay(
+            outboxEventRepository,
+            outboxPublisher,
+            transactionManager,
+            meterRegistry,
+            new ShardRouter(),
+            applicationEventPublisher
+    );
+
+    @BeforeEach
+    void setUp() {
+        setField(outboxRelay, "batchSize", BATCH_SIZE);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private List<OutboxEvent> events(int count) {
+        return Stream.generate(() -> OutboxEvent.builder()
+                        .id(UUID.randomUUID())
+                        .aggregateId(UUID.randomUUID())
+                        .eventType(CardEventType.TOP_UP)
+                        .payload("{\"amount\":50}")
+                        .createdAt(LocalDateTime.now())
+                        .build())
+                .limit(count)
+                .toList();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relay_publishesAndDeletesBatchesUntilOutboxIsDrained() throws Exception {
+        List<OutboxEvent> first = events(2);
+        List<OutboxEvent> second = events(1);
+        when(outboxEventRepository.lockNextBatch(BATCH_SIZE)).thenReturn(first, second);
+
+        outboxRelay.relay();
+
+        ArgumentCaptor<List<OutboxMessage>> published = ArgumentCaptor.forClass(List.class);
+        verify(outboxPublisher, times(2)).publish(published.capture());
+        assertEquals(first.get(0).getId(), published.getAllValues().get(0).get(0).getId());
+        assertEquals("{\"amount\":50}", published.getAllValues().get(1).get(0).getPayload());
+
+        verify(outboxEventRepository).deleteAllByIds(first.stream().map(OutboxEvent::getId).toList());
+        verify(outboxEventRepository).deleteAllByIds(second.stream().map(OutboxEvent::getId).toList());
+        verify(transactionManager, times(2)).commit(transactionStatus);
+        verify(applicationEventPublisher, times(2)).publishEvent(any(OutboxBatchDelivered.class));
+        assertEquals(3.0, meterRegistry.get("bank.outbox.delivered").counter().count());
+    }
+
+    @Test
+    void relay_doesNothingWhenOutboxIsEmpty() throws Exception {
+        when(outboxEventRepository.lockNextBatch(anyInt())).thenReturn(List.of());
+
+        outboxRelay.relay();
+
+        verify(outboxPublisher, never()).publish(any());
+        verify(outboxEventRepository, never()).deleteAllByIds(any());
+    }
+
+    @Test
+    void relay_keepsEventsWhenPublisherFails() throws Exception {
+        when(outboxEventRepository.lockNextBatch(BATCH_SIZE)).thenReturn(events(2));
+        doThrow(new IOException("disk full")).when(outboxPublisher).publish(any());
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, never()).deleteAllByIds(any());
+        verify(applicationEventPublisher, never()).publishEvent(any(OutboxBatchDelivered.class));
+        verify(transactionManager).rollback(transactionStatus);
+        assertEquals(1.0, meterRegistry.get("bank.outbox.failures").counter().count());
+        assertEquals(0.0, meterRegistry.get("bank.outbox.delivered").counter().count());
+    }
+}
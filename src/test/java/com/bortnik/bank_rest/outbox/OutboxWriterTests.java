@@ -0,0 +1,64 @@
+package com.bortnik.bank_rest.outbox;
+
+import com.bortnik.bank_rest.entity.OutboxEvent;
+import com.bortnik.bank_rest.event.CardEvent;
+import com.bortnik.bank_rest.event.CardEventType;
+import com.bortnik.bank_rest.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class OutboxWriterTests {
+
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OutboxWriter outboxWriter = new OutboxWriter(outboxEventRepository, objectMapper);
+
+    @Test
+    void onCardEvent_savesEventKeyedByCard() throws Exception {
+        UUID cardId = UUID.randomUUID();
+        UUID toCardId = UUID.randomUUID();
+
+        outboxWriter.onCardEvent(CardEvent.builder()
+                .type(CardEventType.TRANSFER)
+                .cardId(cardId)
+                .userId(UUID.randomUUID())
+                .relatedCardId(toCardId)
+                .amount(new BigDecimal("12.50"))
+                .build());
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+
+        OutboxEvent saved = captor.getValue();
+        assertEquals(cardId, saved.getAggregateId());
+        assertEquals(CardEventType.TRANSFER, saved.getEventType());
+
+        JsonNode payload = objectMapper.readTree(saved.getPayload());
+        assertEquals(toCardId.toString(), payload.get("relatedCardId").asText());
+        assertEquals(0, new BigDecimal("12.50").compareTo(payload.get("amount").decimalValue()));
+    }
+
+    @Test
+    void onCardEvent_omitsAbsentFields() throws Exception {
+        outboxWriter.onCardEvent(CardEvent.builder()
+                .type(CardEventType.BLOCKED)
+                .cardId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .build());
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(captor.capture());
+
+        JsonNode payload = objectMapper.readTree(captor.getValue().getPayload());
+        assertFalse(payload.has("amount"));
+        assertFalse(payload.has("relatedCardId"));
+    }
+}
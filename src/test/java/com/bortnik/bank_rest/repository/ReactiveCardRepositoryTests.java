@@ -0,0 +1,28 @@
+package com.bortnik.bank_rest.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReactiveCardRepositoryTests {
+
+    @Test
+    void orderBy_mapsPropertiesToColumns() {
+        Sort sort = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.asc("balance"));
+
+        assertEquals("created_at DESC, balance ASC, id", ReactiveCardRepository.orderBy(sort));
+    }
+
+    @Test
+    void orderBy_ignoresUnknownProperties() {
+        Sort sort = Sort.by("cardNumber; DROP TABLE cards");
+
+        assertEquals("created_at DESC, id", ReactiveCardRepository.orderBy(sort));
+    }
+
+    @Test
+    void orderBy_defaultsToNewestFirst() {
+        assertEquals("created_at DESC, id", ReactiveCardRepository.orderBy(Sort.unsorted()));
+    }
+}
@@ -0,0 +1,79 @@
+package com.bortnik.bank_rest.scheduler;
+
+import com.bortnik.bank_rest.cache.CacheInvalidationBus;
+import com.bortnik.bank_rest.cache.CacheNames;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.dto.scheduler.SchedulerRunReport;
+import com.bortnik.bank_rest.repository.CardHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CardHoldExpirySchedulerTests {
+
+    private static final int BATCH_SIZE = 3;
+
+    private final CardHoldRepository cardHoldRepository = mock(CardHoldRepository.class);
+    private final CacheInvalidationBus cacheInvalidationBus = mock(CacheInvalidationBus.class);
+    private final CardHoldExpiryScheduler cardHoldExpiryScheduler =
+            new CardHoldExpiryScheduler(cardHoldRepository, new ShardRouter(), cacheInvalidationBus);
+
+    @BeforeEach
+    void setUp() {
+        setField(cardHoldExpiryScheduler, "batchSize", BATCH_SIZE);
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void releaseExpiredHolds_processesBatchesUntilPartialBatch() {
+        UUID cardId = UUID.randomUUID();
+        UUID otherCardId = UUID.randomUUID();
+        when(cardHoldRepository.expireHoldsBatch(eq(BATCH_SIZE), any()))
+                .thenReturn(List.of(cardId, cardId, otherCardId))
+                .thenReturn(List.of(cardId));
+
+        cardHoldExpiryScheduler.releaseExpiredHolds();
+
+        verify(cardHoldRepository, times(2)).expireHoldsBatch(eq(BATCH_SIZE), any(LocalDateTime.class));
+        verify(cacheInvalidationBus, times(2)).invalidate(CacheNames.CARDS, cardId);
+        verify(cacheInvalidationBus).invalidate(CacheNames.CARDS, otherCardId);
+
+        SchedulerRunReport report = cardHoldExpiryScheduler.getLastRun().orElseThrow();
+        assertEquals(CardHoldExpiryScheduler.JOB_NAME, report.getJob());
+        assertEquals(4, report.getProcessed());
+        assertEquals(2, report.getBatches());
+    }
+
+    @Test
+    void releaseExpiredHolds_stopsAfterEmptyBatch() {
+        when(cardHoldRepository.expireHoldsBatch(eq(BATCH_SIZE), any())).thenReturn(List.of());
+
+        cardHoldExpiryScheduler.releaseExpiredHolds();
+
+        verify(cardHoldRepository, times(1)).expireHoldsBatch(eq(BATCH_SIZE), any(LocalDateTime.class));
+        verifyNoInteractions(cacheInvalidationBus);
+        assertEquals(0, cardHoldExpiryScheduler.getLastRun().orElseThrow().getProcessed());
+    }
+
+    @Test
+    void getLastRun_emptyBeforeFirstRun() {
+        assertTrue(cardHoldExpiryScheduler.getLastRun().isEmpty());
+    }
+}
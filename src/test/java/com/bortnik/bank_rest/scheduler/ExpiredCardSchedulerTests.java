@@ -0,0 +1,92 @@
+package com.bortnik.bank_rest.scheduler;
+
+import com.bortnik.bank_rest.cache.CacheInvalidationBus;
+import com.bortnik.bank_rest.cache.CacheNames;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.dto.scheduler.SchedulerRunReport;
+import com.bortnik.bank_rest.repository.CardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ExpiredCardSchedulerTests {
+
+    private static final int BATCH_SIZE = 3;
+
+    private final CardRepository cardRepository = mock(CardRepository.class);
+    private final CacheInvalidationBus cacheInvalidationBus = mock(CacheInvalidationBus.class);
+    private final ExpiredCardScheduler expiredCardScheduler =
+            new ExpiredCardScheduler(cardRepository, new ShardRouter(), cacheInvalidationBus);
+
+    @BeforeEach
+    void setUp() {
+        setField(expiredCardScheduler, "batchSize", BATCH_SIZE);
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private List<UUID> ids(int count) {
+        return Stream.generate(UUID::randomUUID).limit(count).toList();
+    }
+
+    @Test
+    void checkExpiredCard_processesBatchesUntilPartialBatch() {
+        when(cardRepository.expireCardsBatch(eq(BATCH_SIZE), any()))
+                .thenReturn(ids(3))
+                .thenReturn(ids(3))
+                .thenReturn(ids(1));
+
+        expiredCardScheduler.checkExpiredCard();
+
+        verify(cardRepository, times(3)).expireCardsBatch(eq(BATCH_SIZE), any(LocalDateTime.class));
+
+        SchedulerRunReport report = expiredCardScheduler.getLastRun().orElseThrow();
+        assertEquals(ExpiredCardScheduler.JOB_NAME, report.getJob());
+        assertEquals(7, report.getProcessed());
+        assertEquals(3, report.getBatches());
+        assertNotNull(report.getStartedAt());
+    }
+
+    @Test
+    void checkExpiredCard_evictsExpiredCardsFromCache() {
+        List<UUID> expired = ids(2);
+        when(cardRepository.expireCardsBatch(eq(BATCH_SIZE), any())).thenReturn(expired);
+
+        expiredCardScheduler.checkExpiredCard();
+
+        expired.forEach(cardId -> verify(cacheInvalidationBus).invalidate(CacheNames.CARDS, cardId));
+    }
+
+    @Test
+    void checkExpiredCard_stopsAfterEmptyBatch() {
+        when(cardRepository.expireCardsBatch(eq(BATCH_SIZE), any())).thenReturn(List.of());
+
+        expiredCardScheduler.checkExpiredCard();
+
+        verify(cardRepository, times(1)).expireCardsBatch(eq(BATCH_SIZE), any(LocalDateTime.class));
+        assertEquals(0, expiredCardScheduler.getLastRun().orElseThrow().getProcessed());
+        verifyNoInteractions(cacheInvalidationBus);
+    }
+
+    @Test
+    void getLastRun_emptyBeforeFirstRun() {
+        assertTrue(expiredCardScheduler.getLastRun().isEmpty());
+    }
+}
@@ -0,0 +1,121 @@
+package com.bortnik.bank_rest.scheduler;
+
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.dto.scheduler.SchedulerRunReport;
+import com.bortnik.bank_rest.service.card.RecurringTransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class RecurringTransferSchedulerTests {
+
+    private static final int BATCH_SIZE = 3;
+
+    private final RecurringTransferService recurringTransferService = mock(RecurringTransferService.class);
+    private final RecurringTransferScheduler recurringTransferScheduler =
+            new RecurringTransferScheduler(recurringTransferService, new ShardRouter());
+
+    @BeforeEach
+    void setUp() {
+        setField(recurringTransferScheduler, "batchSize", BATCH_SIZE);
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void executeDueTransfers_processesBatchesUntilPartialBatch() {
+        when(recurringTransferService.executeDueBatch(any(), eq(BATCH_SIZE))).thenReturn(
+                new RecurringTransferService.BatchResult(3, 1),
+                new RecurringTransferService.BatchResult(3, 0),
+                new RecurringTransferService.BatchResult(2, 2));
+
+        recurringTransferScheduler.executeDueTransfers();
+
+        verify(recurringTransferService, times(3)).executeDueBatch(any(LocalDateTime.class), eq(BATCH_SIZE));
+
+        SchedulerRunReport report = recurringTransferScheduler.getLastRun().orElseThrow();
+        assertEquals(RecurringTransferScheduler.JOB_NAME, report.getJob());
+        assertEquals(8, report.getProcessed());
+        assertEquals(3, report.getFailed());
+        assertEquals(3, report.getBatches());
+    }
+
+    @Test
+    void executeDueTransfers_rolledBackBatchRetriedOrderByOrder() {
+        UUID poisonId = UUID.randomUUID();
+        UUID healthyId = UUID.randomUUID();
+        UUID takenId = UUID.randomUUID();
+        IllegalStateException rollback = new IllegalStateException("numeric field overflow");
+        when(recurringTransferService.executeDueBatch(any(), eq(BATCH_SIZE)))
+                .thenThrow(new IllegalStateException("numeric field overflow"))
+                .thenReturn(new RecurringTransferService.BatchResult(1, 0));
+        when(recurringTransferService.findDueIds(any(), eq(BATCH_SIZE))).thenReturn(List.of(poisonId, healthyId, takenId));
+        when(recurringTransferService.executeOne(eq(poisonId), any())).thenThrow(rollback);
+        when(recurringTransferService.markFailed(eq(poisonId), any(), eq(rollback)))
+                .thenReturn(new RecurringTransferService.BatchResult(1, 1));
+        when(recurringTransferService.executeOne(eq(healthyId), any()))
+                .thenReturn(new RecurringTransferService.BatchResult(1, 0));
+        // Поручение исполнил другой узел
+        when(recurringTransferService.executeOne(eq(takenId), any()))
+                .thenReturn(new RecurringTransferService.BatchResult(0, 0));
+
+        recurringTransferScheduler.executeDueTransfers();
+
+        verify(recurringTransferService).markFailed(eq(poisonId), any(LocalDateTime.class), eq(rollback));
+        verify(recurringTransferService, never()).markFailed(eq(healthyId), any(), any());
+        // Пачка разобрана полностью, поэтому дальше работа продолжается пачками
+        verify(recurringTransferService, times(2)).executeDueBatch(any(LocalDateTime.class), eq(BATCH_SIZE));
+
+        SchedulerRunReport report = recurringTransferScheduler.getLastRun().orElseThrow();
+        assertEquals(3, report.getProcessed());
+        assertEquals(1, report.getFailed());
+    }
+
+    @Test
+    void executeDueTransfers_stopsWhenOrderCannotBeMarkedFailed() {
+        UUID orderId = UUID.randomUUID();
+        when(recurringTransferService.executeDueBatch(any(), eq(BATCH_SIZE)))
+                .thenThrow(new IllegalStateException("connection refused"));
+        when(recurringTransferService.findDueIds(any(), eq(BATCH_SIZE))).thenReturn(List.of(orderId));
+        when(recurringTransferService.executeOne(eq(orderId), any())).thenThrow(new IllegalStateException("connection refused"));
+        when(recurringTransferService.markFailed(eq(orderId), any(), any())).thenThrow(new IllegalStateException("connection refused"));
+
+        recurringTransferScheduler.executeDueTransfers();
+
+        verify(recurringTransferService, times(1)).executeDueBatch(any(LocalDateTime.class), eq(BATCH_SIZE));
+        assertEquals(0, recurringTransferScheduler.getLastRun().orElseThrow().getProcessed());
+    }
+
+    @Test
+    void executeDueTransfers_stopsWhenBatchRolledBack() {
+        when(recurringTransferService.executeDueBatch(any(), eq(BATCH_SIZE)))
+                .thenReturn(new RecurringTransferService.BatchResult(3, 0))
+                .thenThrow(new IllegalStateException("deadlock detected"));
+
+        recurringTransferScheduler.executeDueTransfers();
+
+        verify(recurringTransferService, times(2)).executeDueBatch(any(LocalDateTime.class), eq(BATCH_SIZE));
+        assertEquals(3, recurringTransferScheduler.getLastRun().orElseThrow().getProcessed());
+    }
+
+    @Test
+    void getLastRun_emptyBeforeFirstRun() {
+        assertTrue(recurringTransferScheduler.getLastRun().isEmpty());
+    }
+}
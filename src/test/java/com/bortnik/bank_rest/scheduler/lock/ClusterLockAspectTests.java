@@ -0,0 +1,76 @@
+package com.bortnik.bank_rest.scheduler.lock;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class ClusterLockAspectTests {
+
+    private final ClusterLockAspect clusterLockAspect = new ClusterLockAspect(mock(ClusterLockService.class));
+
+    @SuppressWarnings("unused")
+    static class Jobs {
+
+        @ClusterLocked("daily")
+        @Scheduled(cron = "0 0 0 * * *")
+        void daily() {
+        }
+
+        @ClusterLocked("every-minute")
+        @Scheduled(cron = "0 * * * * *")
+        void everyMinute() {
+        }
+
+        @ClusterLocked("fixed-delay")
+        @Scheduled(fixedDelayString = "PT30S")
+        void fixedDelay() {
+        }
+
+        @ClusterLocked("fixed-rate")
+        @Scheduled(fixedRate = 2, timeUnit = TimeUnit.SECONDS)
+        void fixedRate() {
+        }
+
+        @ClusterLocked(value = "explicit", period = "PT15M")
+        @Scheduled(cron = "0 0 0 * * *")
+        void explicit() {
+        }
+
+        @ClusterLocked("unscheduled")
+        void unscheduled() {
+        }
+    }
+
+    private Duration period(String methodName) throws NoSuchMethodException {
+        final Method method = Jobs.class.getDeclaredMethod(methodName);
+        return clusterLockAspect.period(method, method.getAnnotation(ClusterLocked.class));
+    }
+
+    @Test
+    void period_cron_usesIntervalBetweenRuns() throws NoSuchMethodException {
+        assertEquals(Duration.ofDays(1), period("daily"));
+        assertEquals(Duration.ofMinutes(1), period("everyMinute"));
+    }
+
+    @Test
+    void period_fixedDelayAndRate_useInterval() throws NoSuchMethodException {
+        assertEquals(Duration.ofSeconds(30), period("fixedDelay"));
+        assertEquals(Duration.ofSeconds(2), period("fixedRate"));
+    }
+
+    @Test
+    void period_explicitAttribute_overridesSchedule() throws NoSuchMethodException {
+        assertEquals(Duration.ofMinutes(15), period("explicit"));
+    }
+
+    @Test
+    void period_withoutSchedule_fails() {
+        assertThrows(IllegalStateException.class, () -> period("unscheduled"));
+    }
+}
@@ -0,0 +1,194 @@
+package com.bortnik.bank_rest.scheduler.lock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ClusterLockServiceTests {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+
+    private final PreparedStatement clockStatement = mock(PreparedStatement.class);
+    private final PreparedStatement lockStatement = mock(PreparedStatement.class);
+    private final PreparedStatement unlockStatement = mock(PreparedStatement.class);
+    private final PreparedStatement completedStatement = mock(PreparedStatement.class);
+    private final PreparedStatement markStatement = mock(PreparedStatement.class);
+
+    private final ResultSet clockResult = mock(ResultSet.class);
+    private final ResultSet lockResult = mock(ResultSet.class);
+    private final ResultSet completedResult = mock(ResultSet.class);
+
+    private static final Duration PERIOD = Duration.ofMinutes(10);
+
+    private final ClusterLockService clusterLockService = new ClusterLockService(dataSource);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        when(connection.prepareStatement("SELECT clock_timestamp()")).thenReturn(clockStatement);
+        when(connection.prepareStatement(startsWith("SELECT pg_try_advisory_lock"))).thenReturn(lockStatement);
+        when(connection.prepareStatement(startsWith("SELECT pg_advisory_unlock"))).thenReturn(unlockStatement);
+        when(connection.prepareStatement(startsWith("SELECT 1 FROM scheduler_job_runs"))).thenReturn(completedStatement);
+        when(connection.prepareStatement(contains("INSERT INTO scheduler_job_runs"))).thenReturn(markStatement);
+
+        when(clockStatement.executeQuery()).thenReturn(clockResult);
+        when(clockResult.next()).thenReturn(true);
+        when(clockResult.getTimestamp(1)).thenReturn(new Timestamp(System.currentTimeMillis()));
+
+        when(lockStatement.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+
+        when(completedStatement.executeQuery()).thenReturn(completedResult);
+    }
+
+    @Test
+    void runExclusively_runsJobWhenLockAcquired() throws Throwable {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(completedResult.next()).thenReturn(false);
+        AtomicInteger runs = new AtomicInteger();
+
+        boolean executed = clusterLockService.runExclusively("job", PERIOD, runs::incrementAndGet);
+
+        assertTrue(executed);
+        assertEquals(1, runs.get());
+        verify(markStatement).executeUpdate();
+        verify(unlockStatement).execute();
+        verify(connection).close();
+    }
+
+    @Test
+    void runExclusively_defersWhenLockHeldByAnotherNode() throws Throwable {
+        when(lockResult.getBoolean(1)).thenReturn(false);
+        AtomicInteger runs = new AtomicInteger();
+
+        boolean executed = clusterLockService.runExclusively("job", PERIOD, runs::incrementAndGet);
+
+        assertFalse(executed);
+        assertEquals(0, runs.get());
+        verify(lockStatement, times(1)).executeQuery();
+        verify(unlockStatement, never()).execute();
+        verify(connection).close();
+    }
+
+    @Test
+    void runExclusively_skipsWhenCompletedWithinHalfPeriod() throws Throwable {
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        when(clockResult.getTimestamp(1)).thenReturn(now);
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(completedResult.next()).thenReturn(true);
+
+        boolean executed = clusterLockService.runExclusively("job", PERIOD, () -> fail("Job must not run"));
+
+        assertFalse(executed);
+        verify(completedStatement).setTimestamp(2, Timestamp.from(now.toInstant().minus(PERIOD.dividedBy(2))));
+    }
+
+    @Test
+    void runExclusively_skipsWhenLeaderAlreadyCompleted() throws Throwable {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(completedResult.next()).thenReturn(true);
+        AtomicInteger runs = new AtomicInteger();
+
+        boolean executed = clusterLockService.runExclusively("job", PERIOD, runs::incrementAndGet);
+
+        assertFalse(executed);
+        assertEquals(0, runs.get());
+        verify(markStatement, never()).executeUpdate();
+        verify(unlockStatement).execute();
+    }
+
+    @Test
+    void runExclusively_releasesLockAndDoesNotMarkCompletedWhenJobFails() throws SQLException {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(completedResult.next()).thenReturn(false);
+
+        assertThrows(IllegalStateException.class, () ->
+                clusterLockService.runExclusively("job", PERIOD, () -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        verify(markStatement, never()).executeUpdate();
+        verify(unlockStatement).execute();
+        verify(connection).close();
+    }
+
+    @Test
+    void catchUp_runsDeferredJobWhenLeaderDiedWithoutCompleting() throws Throwable {
+        when(lockResult.getBoolean(1)).thenReturn(false, true);
+        when(completedResult.next()).thenReturn(false);
+        AtomicInteger runs = new AtomicInteger();
+
+        clusterLockService.runExclusively("job", PERIOD, runs::incrementAndGet);
+        clusterLockService.catchUp();
+        clusterLockService.catchUp();
+
+        assertEquals(1, runs.get());
+        verify(markStatement).executeUpdate();
+    }
+
+    @Test
+    void catchUp_dropsDeferredJobWhenLeaderCompleted() throws Throwable {
+        when(lockResult.getBoolean(1)).thenReturn(false, true);
+        when(completedResult.next()).thenReturn(true);
+        AtomicInteger runs = new AtomicInteger();
+
+        clusterLockService.runExclusively("job", PERIOD, runs::incrementAndGet);
+        clusterLockService.catchUp();
+        clusterLockService.catchUp();
+
+        assertEquals(0, runs.get());
+        verify(completedStatement, times(1)).executeQuery();
+    }
+
+    @Test
+    void catchUp_keepsDeferredJobWhileLeaderRuns() throws Throwable {
+        when(lockResult.getBoolean(1)).thenReturn(false, false, true);
+        when(completedResult.next()).thenReturn(false);
+        AtomicInteger runs = new AtomicInteger();
+
+        clusterLockService.runExclusively("job", PERIOD, runs::incrementAndGet);
+        clusterLockService.catchUp();
+        assertEquals(0, runs.get());
+
+        clusterLockService.catchUp();
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void catchUp_keepsDeferredJobWhenCatchUpRunFails() throws Throwable {
+        when(lockResult.getBoolean(1)).thenReturn(false, true);
+        when(completedResult.next()).thenReturn(false);
+        AtomicInteger attempts = new AtomicInteger();
+
+        clusterLockService.runExclusively("job", PERIOD, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("boom");
+            }
+        });
+        clusterLockService.catchUp();
+        clusterLockService.catchUp();
+
+        assertEquals(2, attempts.get());
+        verify(markStatement, times(1)).executeUpdate();
+    }
+
+    @Test
+    void catchUp_withoutDeferredJobs_doesNotTouchDatabase() throws SQLException {
+        clusterLockService.catchUp();
+
+        verify(dataSource, never()).getConnection();
+    }
+}
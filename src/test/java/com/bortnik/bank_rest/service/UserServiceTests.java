@@ -1,14 +1,25 @@
 package com.bortnik.bank_rest.service;
 
+import com.bortnik.bank_rest.cache.CacheInvalidationBus;
+import com.bortnik.bank_rest.cache.CacheNames;
+import com.bortnik.bank_rest.cache.LocalCache;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.dto.card.CardDTO;
 import com.bortnik.bank_rest.dto.user.UserCreateDTO;
 import com.bortnik.bank_rest.dto.user.UserDTO;
 import com.bortnik.bank_rest.entity.Role;
 import com.bortnik.bank_rest.entity.User;
 import com.bortnik.bank_rest.exception.user.UserAlreadyExists;
 import com.bortnik.bank_rest.exception.user.UserNotFound;
+import com.bortnik.bank_rest.repository.CardRepository;
 import com.bortnik.bank_rest.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,12 +27,20 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class UserServiceTests {
 
     private final UserRepository userRepository = mock(UserRepository.class);
-    private final UserService userService = new UserService(userRepository);
+    private final CardRepository cardRepository = mock(CardRepository.class);
+    private final LocalCache<UserDTO> userCache = new LocalCache<>(CacheNames.USERS, Duration.ofMinutes(5), 100);
+    private final LocalCache<CardDTO> cardCache = new LocalCache<>(CacheNames.CARDS, Duration.ofMinutes(5), 100);
+    private final CacheInvalidationBus cacheInvalidationBus = new CacheInvalidationBus(
+            List.of(userCache, cardCache), mock(DataSource.class), new ObjectMapper(), new SimpleMeterRegistry());
+    private final UserService userService = new UserService(
+            userRepository, cardRepository, new ShardRouter(), userCache, cacheInvalidationBus);
 
     @Test
     public void createUser_success() {
@@ -96,4 +115,63 @@ public class UserServiceTests {
 
         assertEquals("User with id " + userId + " not found", exception.getMessage());
     }
+
+    @Test
+    public void getUserById_cachesUntilUserChanges() {
+        UUID userId = UUID.randomUUID();
+
+        User existingUser = User.builder()
+                .id(userId)
+                .username("user")
+                .password("password")
+                .role(Role.USER)
+                .build();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+
+        when(userRepository.save(any(User.class))).thenReturn(existingUser);
+
+        assertEquals(Role.USER, userService.getUserById(userId).getRole());
+        assertEquals(Role.USER, userService.getUserById(userId).getRole());
+        verify(userRepository, times(1)).findById(userId);
+
+        // Повышение до администратора удаляет пользователя из кэша
+        userService.makeAdmin(userId);
+        assertEquals(Role.ADMIN, userService.getUserById(userId).getRole());
+        verify(userRepository, times(3)).findById(userId);
+    }
+
+    @Test
+    public void getUserById_ShouldThrowUserNotFound() {
+        UUID userId = UUID.randomUUID();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        var exception = assertThrows(UserNotFound.class, () ->
+            userService.getUserById(userId)
+        );
+
+        assertEquals("User with id " + userId + " not found", exception.getMessage());
+    }
+
+    @Test
+    public void deleteUser_evictsUserAndCascadedCardsFromCaches() {
+        UUID userId = UUID.randomUUID();
+        UUID cardId = UUID.randomUUID();
+        User user = User.builder()
+                .id(userId)
+                .username("user")
+                .role(Role.USER)
+                .build();
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(cardRepository.findIdsByUserId(userId)).thenReturn(List.of(cardId));
+        cardCache.get(cardId, () -> CardDTO.builder().id(cardId).userId(userId).build());
+        assertEquals(1, cardCache.size());
+
+        userService.deleteUser(userId);
+
+        verify(userRepository).delete(user);
+        assertEquals(0, cardCache.size());
+    }
 }
@@ -1,20 +1,34 @@
 package com.bortnik.bank_rest.service.card;
 
+import com.bortnik.bank_rest.cache.CacheInvalidationBus;
+import com.bortnik.bank_rest.cache.CacheNames;
+import com.bortnik.bank_rest.cache.LocalCache;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
 import com.bortnik.bank_rest.dto.card.CardDTO;
 import com.bortnik.bank_rest.entity.Card;
 import com.bortnik.bank_rest.entity.CardStatus;
+import com.bortnik.bank_rest.entity.CardTombstone;
+import com.bortnik.bank_rest.event.CardEvent;
+import com.bortnik.bank_rest.event.CardEventType;
 import com.bortnik.bank_rest.exception.card.*;
+import com.bortnik.bank_rest.exception.security.SuspiciousActivity;
 import com.bortnik.bank_rest.exception.user.UserNotFound;
+import com.bortnik.bank_rest.fraud.FraudScoringService;
+import com.bortnik.bank_rest.metrics.BankMetrics;
 import com.bortnik.bank_rest.repository.CardRepository;
+import com.bortnik.bank_rest.repository.CardTombstoneRepository;
 import com.bortnik.bank_rest.security.card_encryption.CardEncryptionService;
 import com.bortnik.bank_rest.service.UserService;
 import com.bortnik.bank_rest.util.SimpleCardNumberGenerator;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,12 +41,25 @@ public class AdminCardServiceTests {
     private final UserService userService = mock(UserService.class);
     private final CoreCardService coreCardService = mock(CoreCardService.class);
     private final CardEncryptionService cardEncryptionService = mock(CardEncryptionService.class);
+    private final BankMetrics bankMetrics = mock(BankMetrics.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final CardTombstoneRepository cardTombstoneRepository = mock(CardTombstoneRepository.class);
+    private final LocalCache<CardDTO> cardCache = new LocalCache<>(CacheNames.CARDS, Duration.ofSeconds(30), 100);
+    private final CacheInvalidationBus cacheInvalidationBus = mock(CacheInvalidationBus.class);
+    private final FraudScoringService fraudScoringService = mock(FraudScoringService.class);
 
     private final AdminCardService adminCardService = new AdminCardService(
             cardRepository,
             userService,
             coreCardService,
-            cardEncryptionService
+            cardEncryptionService,
+            bankMetrics,
+            eventPublisher,
+            cardTombstoneRepository,
+            new ShardRouter(),
+            cardCache,
+            cacheInvalidationBus,
+            fraudScoringService
     );
 
     @Test
@@ -162,6 +189,14 @@ public class AdminCardServiceTests {
         adminCardService.topUpCardBalance(card.getId(), BigDecimal.valueOf(50));
 
         assertEquals(BigDecimal.valueOf(150), card.getBalance());
+        assertNotNull(card.getUpdatedAt());
+        verify(cardRepository).findAllByIdForUpdate(List.of(card.getId()));
+        verify(bankMetrics).recordTopUp(BigDecimal.valueOf(50));
+        verify(eventPublisher).publishEvent(CardEvent.builder()
+                .type(CardEventType.TOP_UP)
+                .cardId(card.getId())
+                .amount(BigDecimal.valueOf(50))
+                .build());
     }
 
     @Test
@@ -187,6 +222,57 @@ public class AdminCardServiceTests {
         assertEquals("Amount must be positive", exception.getMessage());
     }
 
+    @Test
+    void topUpCardBalance_shouldThrowSuspiciousActivity() {
+        UUID cardId = UUID.randomUUID();
+        doThrow(new SuspiciousActivity("Too many top-ups of card {}, try again later", cardId))
+                .when(fraudScoringService).checkTopUp(cardId);
+
+        assertThrows(SuspiciousActivity.class, () ->
+                adminCardService.topUpCardBalance(cardId, BigDecimal.valueOf(50)));
+
+        verify(cardRepository, never()).findAllByIdForUpdate(any());
+        verifyNoInteractions(bankMetrics, eventPublisher);
+    }
+
+    @Test
+    void deleteCard_leavesTombstone() {
+        Card card = Card.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .build();
+
+        when(cardRepository.findById(card.getId())).thenReturn(Optional.of(card));
+
+        adminCardService.deleteCard(card.getId());
+
+        verify(cardRepository).delete(card);
+        ArgumentCaptor<CardTombstone> captor = ArgumentCaptor.forClass(CardTombstone.class);
+        verify(cardTombstoneRepository).save(captor.capture());
+        assertEquals(card.getId(), captor.getValue().getCardId());
+        assertEquals(card.getUserId(), captor.getValue().getUserId());
+        assertNotNull(captor.getValue().getDeletedAt());
+        verify(cacheInvalidationBus).invalidate(CacheNames.CARDS, card.getId());
+    }
+
+    @Test
+    void getCardById_servesRepeatedReadsFromCache() {
+        Card card = Card.builder()
+                .id(UUID.randomUUID())
+                .status(CardStatus.ACTIVE)
+                .build();
+
+        when(cardRepository.findById(card.getId())).thenReturn(Optional.of(card));
+
+        assertEquals(card.getId(), adminCardService.getCardById(card.getId()).getId());
+        assertEquals(card.getId(), adminCardService.getCardById(card.getId()).getId());
+        verify(cardRepository, times(1)).findById(card.getId());
+
+        cardCache.evict(card.getId().toString());
+        adminCardService.getCardById(card.getId());
+        verify(cardRepository, times(2)).findById(card.getId());
+    }
+
     @Test
     void createCardForUser_shouldThrowUserNotFound_whenUserDoesNotExist() {
         UUID userId = UUID.randomUUID();
@@ -243,6 +329,7 @@ public class AdminCardServiceTests {
         assertEquals(BigDecimal.ZERO, captured.getBalance());
         assertEquals(CardStatus.ACTIVE, captured.getStatus());
         assertEquals(LocalDate.now().plusYears(EXPIRATION_YEARS), captured.getExpirationDate());
+        assertNotNull(captured.getUpdatedAt());
 
         assertEquals(savedCard.getId(), result.getId());
         assertEquals("5678",
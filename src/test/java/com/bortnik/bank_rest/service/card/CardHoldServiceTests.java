@@ -0,0 +1,302 @@
+package com.bortnik.bank_rest.service.card;
+
+import com.bortnik.bank_rest.dto.card.CardHoldDTO;
+import com.bortnik.bank_rest.dto.card.CardHoldRequest;
+import com.bortnik.bank_rest.entity.Card;
+import com.bortnik.bank_rest.entity.CardHold;
+import com.bortnik.bank_rest.entity.CardHoldStatus;
+import com.bortnik.bank_rest.entity.CardStatus;
+import com.bortnik.bank_rest.event.CardEvent;
+import com.bortnik.bank_rest.event.CardEventType;
+import com.bortnik.bank_rest.exception.BadRequest;
+import com.bortnik.bank_rest.exception.card.*;
+import com.bortnik.bank_rest.metrics.BankMetrics;
+import com.bortnik.bank_rest.repository.CardHoldRepository;
+import com.bortnik.bank_rest.repository.CardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CardHoldServiceTests {
+
+    private final CardHoldRepository cardHoldRepository = mock(CardHoldRepository.class);
+    private final CardRepository cardRepository = mock(CardRepository.class);
+    private final CoreCardService coreCardService = mock(CoreCardService.class);
+    private final CardLimitService cardLimitService = mock(CardLimitService.class);
+    private final BankMetrics bankMetrics = mock(BankMetrics.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final CardHoldService cardHoldService = new CardHoldService(
+            cardHoldRepository,
+            cardRepository,
+            coreCardService,
+            cardLimitService,
+            bankMetrics,
+            eventPublisher
+    );
+
+    @BeforeEach
+    void setUp() {
+        setField(cardHoldService, "defaultTtl", Duration.ofDays(7));
+        setField(cardHoldService, "maxTtl", Duration.ofDays(30));
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Card card(UUID cardId, CardStatus status) {
+        return Card.builder()
+                .id(cardId)
+                .userId(UUID.randomUUID())
+                .status(status)
+                .balance(BigDecimal.valueOf(100))
+                .heldAmount(BigDecimal.valueOf(80))
+                .expirationDate(LocalDate.now().plusYears(1))
+                .build();
+    }
+
+    private CardHold activeHold(UUID cardId, LocalDateTime expiresAt) {
+        return CardHold.builder()
+                .id(UUID.randomUUID())
+                .cardId(cardId)
+                .amount(BigDecimal.valueOf(50))
+                .status(CardHoldStatus.ACTIVE)
+                .createdAt(LocalDateTime.now().minusHours(1))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Test
+    void createHold_success() {
+        UUID cardId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        BigDecimal amount = BigDecimal.valueOf(30);
+
+        when(cardHoldRepository.createHold(any(), eq(cardId), eq(amount), any(), any())).thenReturn(Optional.of(userId));
+
+        CardHoldDTO hold = cardHoldService.createHold(cardId, new CardHoldRequest(amount, Duration.ofHours(2)));
+
+        assertEquals(CardHoldStatus.ACTIVE, hold.getStatus());
+        assertEquals(amount, hold.getAmount());
+        assertEquals(hold.getCreatedAt().plusHours(2), hold.getExpiresAt());
+        verify(cardHoldRepository).createHold(hold.getId(), cardId, amount, hold.getCreatedAt(), hold.getExpiresAt());
+        verify(cardRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(CardEvent.builder()
+                .type(CardEventType.HOLD_CREATED)
+                .cardId(cardId)
+                .userId(userId)
+                .amount(amount)
+                .build());
+    }
+
+    @Test
+    void createHold_usesDefaultTtl() {
+        UUID cardId = UUID.randomUUID();
+        when(cardHoldRepository.createHold(any(), any(), any(), any(), any())).thenReturn(Optional.of(UUID.randomUUID()));
+
+        CardHoldDTO hold = cardHoldService.createHold(cardId, new CardHoldRequest(BigDecimal.TEN, null));
+
+        assertEquals(hold.getCreatedAt().plusDays(7), hold.getExpiresAt());
+    }
+
+    @Test
+    void createHold_shouldThrowBadRequest_WhenTtlTooLong() {
+        assertThrows(BadRequest.class, () ->
+                cardHoldService.createHold(UUID.randomUUID(), new CardHoldRequest(BigDecimal.TEN, Duration.ofDays(31))));
+
+        verifyNoInteractions(cardHoldRepository);
+    }
+
+    @Test
+    void createHold_shouldThrowIncorrectAmount() {
+        assertThrows(IncorrectAmount.class, () ->
+                cardHoldService.createHold(UUID.randomUUID(), new CardHoldRequest(BigDecimal.ZERO, null)));
+
+        verifyNoInteractions(cardHoldRepository);
+    }
+
+    @Test
+    void createHold_shouldThrowInsufficientFunds_WhenAvailableBalanceTooLow() {
+        UUID cardId = UUID.randomUUID();
+
+        when(cardHoldRepository.createHold(any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card(cardId, CardStatus.ACTIVE)));
+
+        var exception = assertThrows(InsufficientFunds.class, () ->
+                cardHoldService.createHold(cardId, new CardHoldRequest(BigDecimal.valueOf(30), null)));
+
+        assertEquals("Insufficient funds on card " + cardId, exception.getMessage());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void createHold_shouldThrowCardBlocked() {
+        UUID cardId = UUID.randomUUID();
+
+        when(cardHoldRepository.createHold(any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        Card card = card(cardId, CardStatus.BLOCKED);
+        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
+        doThrow(new CardBlocked("Card with ID {} is blocked", cardId)).when(coreCardService).validateActiveCard(card);
+
+        assertThrows(CardBlocked.class, () ->
+                cardHoldService.createHold(cardId, new CardHoldRequest(BigDecimal.TEN, null)));
+    }
+
+    @Test
+    void createHold_shouldThrowCardNotFound() {
+        UUID cardId = UUID.randomUUID();
+
+        when(cardHoldRepository.createHold(any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        when(cardRepository.findById(cardId)).thenReturn(Optional.empty());
+
+        assertThrows(CardNotFound.class, () ->
+                cardHoldService.createHold(cardId, new CardHoldRequest(BigDecimal.TEN, null)));
+    }
+
+    @Test
+    void captureHold_partialCaptureReleasesRest() {
+        UUID cardId = UUID.randomUUID();
+        Card card = card(cardId, CardStatus.ACTIVE);
+        CardHold hold = activeHold(cardId, LocalDateTime.now().plusDays(1));
+        BigDecimal captured = BigDecimal.valueOf(20);
+
+        when(cardHoldRepository.findByIdAndCardIdForUpdate(hold.getId(), cardId)).thenReturn(Optional.of(hold));
+        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card));
+
+        CardHoldDTO result = cardHoldService.captureHold(cardId, hold.getId(), captured);
+
+        assertEquals(CardHoldStatus.CAPTURED, result.getStatus());
+        assertEquals(captured, result.getCapturedAmount());
+        assertNotNull(result.getSettledAt());
+        verify(cardRepository).findAllByIdForUpdate(List.of(cardId));
+        verify(cardLimitService).reserve(cardId, captured);
+        verify(cardHoldRepository).settleHold(eq(cardId), eq(BigDecimal.valueOf(50)), eq(captured), any());
+        verify(bankMetrics).recordCapture(captured);
+        verify(eventPublisher).publishEvent(CardEvent.builder()
+                .type(CardEventType.HOLD_CAPTURED)
+                .cardId(cardId)
+                .userId(card.getUserId())
+                .amount(captured)
+                .build());
+    }
+
+    @Test
+    void captureHold_withoutAmountCapturesWholeHold() {
+        UUID cardId = UUID.randomUUID();
+        CardHold hold = activeHold(cardId, LocalDateTime.now().plusDays(1));
+
+        when(cardHoldRepository.findByIdAndCardIdForUpdate(hold.getId(), cardId)).thenReturn(Optional.of(hold));
+        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card(cardId, CardStatus.ACTIVE)));
+
+        cardHoldService.captureHold(cardId, hold.getId(), null);
+
+        verify(cardHoldRepository).settleHold(eq(cardId), eq(BigDecimal.valueOf(50)), eq(BigDecimal.valueOf(50)), any());
+    }
+
+    @Test
+    void captureHold_shouldThrowCardLimitExceeded() {
+        UUID cardId = UUID.randomUUID();
+        CardHold hold = activeHold(cardId, LocalDateTime.now().plusDays(1));
+
+        when(cardHoldRepository.findByIdAndCardIdForUpdate(hold.getId(), cardId)).thenReturn(Optional.of(hold));
+        doThrow(new CardLimitExceeded("Amount exceeds daily limit {} of card {}", BigDecimal.TEN, cardId))
+                .when(cardLimitService).reserve(cardId, BigDecimal.valueOf(50));
+
+        assertThrows(CardLimitExceeded.class, () ->
+                cardHoldService.captureHold(cardId, hold.getId(), null));
+
+        assertEquals(CardHoldStatus.ACTIVE, hold.getStatus());
+        verify(cardHoldRepository, never()).settleHold(any(), any(), any(), any());
+        verify(bankMetrics, never()).recordCapture(any());
+    }
+
+    @Test
+    void captureHold_shouldThrowIncorrectAmount_WhenAmountExceedsHold() {
+        UUID cardId = UUID.randomUUID();
+        CardHold hold = activeHold(cardId, LocalDateTime.now().plusDays(1));
+
+        when(cardHoldRepository.findByIdAndCardIdForUpdate(hold.getId(), cardId)).thenReturn(Optional.of(hold));
+
+        assertThrows(IncorrectAmount.class, () ->
+                cardHoldService.captureHold(cardId, hold.getId(), BigDecimal.valueOf(51)));
+
+        assertEquals(CardHoldStatus.ACTIVE, hold.getStatus());
+        verify(cardHoldRepository, never()).settleHold(any(), any(), any(), any());
+    }
+
+    @Test
+    void captureHold_shouldThrowCardHoldNotActive_WhenExpired() {
+        UUID cardId = UUID.randomUUID();
+        CardHold hold = activeHold(cardId, LocalDateTime.now().minusMinutes(1));
+
+        when(cardHoldRepository.findByIdAndCardIdForUpdate(hold.getId(), cardId)).thenReturn(Optional.of(hold));
+
+        assertThrows(CardHoldNotActive.class, () ->
+                cardHoldService.captureHold(cardId, hold.getId(), null));
+
+        verify(cardHoldRepository, never()).settleHold(any(), any(), any(), any());
+    }
+
+    @Test
+    void captureHold_shouldThrowCardHoldNotFound() {
+        UUID cardId = UUID.randomUUID();
+        UUID holdId = UUID.randomUUID();
+
+        when(cardHoldRepository.findByIdAndCardIdForUpdate(holdId, cardId)).thenReturn(Optional.empty());
+
+        var exception = assertThrows(CardHoldNotFound.class, () ->
+                cardHoldService.captureHold(cardId, holdId, null));
+
+        assertEquals("Hold with id " + holdId + " not found on card " + cardId, exception.getMessage());
+    }
+
+    @Test
+    void releaseHold_success() {
+        UUID cardId = UUID.randomUUID();
+        CardHold hold = activeHold(cardId, LocalDateTime.now().minusMinutes(1));
+
+        when(cardHoldRepository.findByIdAndCardIdForUpdate(hold.getId(), cardId)).thenReturn(Optional.of(hold));
+        when(cardRepository.findById(cardId)).thenReturn(Optional.of(card(cardId, CardStatus.BLOCKED)));
+
+        CardHoldDTO result = cardHoldService.releaseHold(cardId, hold.getId());
+
+        assertEquals(CardHoldStatus.RELEASED, result.getStatus());
+        assertNull(result.getCapturedAmount());
+        verify(cardHoldRepository).settleHold(eq(cardId), eq(BigDecimal.valueOf(50)), eq(BigDecimal.ZERO), any());
+        verifyNoInteractions(bankMetrics);
+    }
+
+    @Test
+    void releaseHold_shouldThrowCardHoldNotActive_WhenAlreadyCaptured() {
+        UUID cardId = UUID.randomUUID();
+        CardHold hold = activeHold(cardId, LocalDateTime.now().plusDays(1));
+        hold.setStatus(CardHoldStatus.CAPTURED);
+
+        when(cardHoldRepository.findByIdAndCardIdForUpdate(hold.getId(), cardId)).thenReturn(Optional.of(hold));
+
+        var exception = assertThrows(CardHoldNotActive.class, () ->
+                cardHoldService.releaseHold(cardId, hold.getId()));
+
+        assertEquals("Hold " + hold.getId() + " is already CAPTURED", exception.getMessage());
+        verify(cardHoldRepository, never()).settleHold(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,286 @@
+package com.bortnik.bank_rest.service.card;
+
+import com.bortnik.bank_rest.cache.CacheInvalidationBus;
+import com.bortnik.bank_rest.cache.CacheNames;
+import com.bortnik.bank_rest.cache.LocalCache;
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.dto.card.CardLimitDTO;
+import com.bortnik.bank_rest.dto.card.CardLimitRequest;
+import com.bortnik.bank_rest.entity.CardLimit;
+import com.bortnik.bank_rest.entity.CardSpendBucket;
+import com.bortnik.bank_rest.exception.ServiceOverloaded;
+import com.bortnik.bank_rest.exception.card.CardLimitExceeded;
+import com.bortnik.bank_rest.exception.card.CardNotFound;
+import com.bortnik.bank_rest.repository.CardLimitRepository;
+import com.bortnik.bank_rest.repository.CardRepository;
+import com.bortnik.bank_rest.repository.CardSpendBucketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CardLimitServiceTests {
+
+    private final CardLimitRepository cardLimitRepository = mock(CardLimitRepository.class);
+    private final CardSpendBucketRepository cardSpendBucketRepository = mock(CardSpendBucketRepository.class);
+    private final CardRepository cardRepository = mock(CardRepository.class);
+    private final LocalCache<CardLimitDTO> cardLimitCache = new LocalCache<>(CacheNames.CARD_LIMITS, Duration.ofMinutes(5), 100);
+    private final CacheInvalidationBus cacheInvalidationBus = mock(CacheInvalidationBus.class);
+
+    private final CardLimitService cardLimitService = new CardLimitService(
+            cardLimitRepository,
+            cardSpendBucketRepository,
+            cardRepository,
+            new ShardRouter(),
+            cardLimitCache,
+            cacheInvalidationBus
+    );
+
+    @BeforeEach
+    void setUp() {
+        setField(cardLimitService, "dbCheckRatio", BigDecimal.ZERO);
+        setField(cardLimitService, "countersReady", true);
+        when(cardSpendBucketRepository.sumSpendSince(any(), any())).thenReturn(BigDecimal.ZERO);
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private CardLimit limit(UUID cardId, String daily, String perTransaction) {
+        return CardLimit.builder()
+                .cardId(cardId)
+                .dailyLimit(daily != null ? new BigDecimal(daily) : null)
+                .perTransactionLimit(perTransaction != null ? new BigDecimal(perTransaction) : null)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void reserve_withoutLimitsAddsSpend() {
+        UUID cardId = UUID.randomUUID();
+        when(cardLimitRepository.findById(cardId)).thenReturn(Optional.empty());
+
+        cardLimitService.reserve(cardId, BigDecimal.valueOf(1_000_000));
+
+        ArgumentCaptor<LocalDateTime> bucketStart = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(cardSpendBucketRepository).addSpend(eq(cardId), bucketStart.capture(), eq(BigDecimal.valueOf(1_000_000)));
+        assertEquals(0, bucketStart.getValue().getMinute() % CardLimitService.BUCKET_MINUTES);
+        assertEquals(0, bucketStart.getValue().getSecond());
+    }
+
+    @Test
+    void reserve_shouldThrowWhenPerTransactionLimitExceeded() {
+        UUID cardId = UUID.randomUUID();
+        when(cardLimitRepository.findById(cardId)).thenReturn(Optional.of(limit(cardId, null, "100")));
+
+        var exception = assertThrows(CardLimitExceeded.class, () ->
+                cardLimitService.reserve(cardId, BigDecimal.valueOf(101)));
+
+        assertEquals("Amount exceeds per-transaction limit 100 of card " + cardId, exception.getMessage());
+        verifyNoInteractions(cardSpendBucketRepository);
+    }
+
+    @Test
+    void reserve_shouldThrowWhenDailyLimitExceeded() {
+        UUID cardId = UUID.randomUUID();
+        when(cardLimitRepository.findById(cardId)).thenReturn(Optional.of(limit(cardId, "500", null)));
+
+        cardLimitService.reserve(cardId, BigDecimal.valueOf(300));
+        cardLimitService.reserve(cardId, BigDecimal.valueOf(200));
+        var exception = assertThrows(CardLimitExceeded.class, () ->
+                cardLimitService.reserve(cardId, BigDecimal.ONE));
+
+        assertEquals("Amount exceeds daily limit 500 of card " + cardId, exception.getMessage());
+        verify(cardSpendBucketRepository, times(2)).addSpend(eq(cardId), any(), any());
+        // Лимиты читаются из кэша, а не в каждом переводе
+        verify(cardLimitRepository, times(1)).findById(cardId);
+    }
+
+    @Test
+    void reserve_shouldThrowWhenSpendOnOtherNodesExceedsDailyLimit() {
+        UUID cardId = UUID.randomUUID();
+        when(cardLimitRepository.findById(cardId)).thenReturn(Optional.of(limit(cardId, "500", null)));
+        when(cardSpendBucketRepository.sumSpendSince(eq(cardId), any())).thenReturn(BigDecimal.valueOf(450));
+
+        var exception = assertThrows(CardLimitExceeded.class, () ->
+                cardLimitService.reserve(cardId, BigDecimal.valueOf(100)));
+
+        assertEquals("Amount exceeds daily limit 500 of card " + cardId, exception.getMessage());
+        verify(cardSpendBucketRepository, never()).addSpend(any(), any(), any());
+    }
+
+    @Test
+    void reserve_readsStoredSpendOnlyAboveCheckRatio() {
+        UUID cardId = UUID.randomUUID();
+        setField(cardLimitService, "dbCheckRatio", new BigDecimal("0.5"));
+        when(cardLimitRepository.findById(cardId)).thenReturn(Optional.of(limit(cardId, "500", null)));
+
+        cardLimitService.reserve(cardId, BigDecimal.valueOf(200));
+        verify(cardSpendBucketRepository, never()).sumSpendSince(any(), any());
+
+        cardLimitService.reserve(cardId, BigDecimal.valueOf(100));
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(cardSpendBucketRepository).sumSpendSince(eq(cardId), since.capture());
+        assertTrue(since.getValue().isAfter(LocalDateTime.now().minus(CardLimitService.WINDOW)));
+    }
+
+    @Test
+    void reserve_shouldThrowUntilCountersRebuilt() {
+        UUID cardId = UUID.randomUUID();
+        setField(cardLimitService, "countersReady", false);
+        when(cardLimitRepository.findById(cardId)).thenReturn(Optional.of(limit(cardId, "500", null)));
+
+        assertThrows(ServiceOverloaded.class, () -> cardLimitService.reserve(cardId, BigDecimal.TEN));
+        verify(cardSpendBucketRepository, never()).addSpend(any(), any(), any());
+
+        cardLimitService.rebuildCounters();
+        cardLimitService.reserve(cardId, BigDecimal.TEN);
+    }
+
+    @Test
+    void reserve_withoutDailyLimitDoesNotWaitForCounters() {
+        UUID cardId = UUID.randomUUID();
+        setField(cardLimitService, "countersReady", false);
+        when(cardLimitRepository.findById(cardId)).thenReturn(Optional.of(limit(cardId, null, "100")));
+
+        cardLimitService.reserve(cardId, BigDecimal.TEN);
+
+        verify(cardSpendBucketRepository).addSpend(eq(cardId), any(), eq(BigDecimal.TEN));
+    }
+
+    @Test
+    void reserve_usesDefaultLimits() {
+        UUID cardId = UUID.randomUUID();
+        setField(cardLimitService, "defaultDailyLimit", BigDecimal.valueOf(100));
+        when(cardLimitRepository.findById(cardId)).thenReturn(Optional.empty());
+
+        cardLimitService.reserve(cardId, BigDecimal.valueOf(100));
+
+        assertThrows(CardLimitExceeded.class, () -> cardLimitService.reserve(cardId, BigDecimal.ONE));
+    }
+
+    @Test
+    void reserve_releasesAmountWhenTransactionRollsBack() {
+        UUID cardId = UUID.randomUUID();
+        when(cardLimitRepository.findById(cardId)).thenReturn(Optional.of(limit(cardId, "100", null)));
+        when(cardRepository.existsById(cardId)).thenReturn(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cardLimitService.reserve(cardId, BigDecimal.valueOf(100));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(cardLimitService.getLimits(cardId).getDailySpent()));
+        cardLimitService.reserve(cardId, BigDecimal.valueOf(100));
+    }
+
+    @Test
+    void reserve_keepsAmountWhenTransactionCommits() {
+        UUID cardId = UUID.randomUUID();
+        when(cardLimitRepository.findById(cardId)).thenReturn(Optional.of(limit(cardId, "100", null)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cardLimitService.reserve(cardId, BigDecimal.valueOf(100));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThrows(CardLimitExceeded.class, () -> cardLimitService.reserve(cardId, BigDecimal.ONE));
+    }
+
+    @Test
+    void rebuildCounters_restoresSpendFromBuckets() {
+        UUID cardId = UUID.randomUUID();
+        when(cardLimitRepository.findById(cardId)).thenReturn(Optional.of(limit(cardId, "100", null)));
+        when(cardRepository.existsById(cardId)).thenReturn(true);
+        when(cardSpendBucketRepository.findAllByBucketStartGreaterThanEqual(any())).thenReturn(List.of(
+                new CardSpendBucket(cardId, LocalDateTime.now().minusHours(2), BigDecimal.valueOf(60)),
+                new CardSpendBucket(cardId, LocalDateTime.now(), BigDecimal.valueOf(30))
+        ));
+
+        cardLimitService.rebuildCounters();
+
+        assertEquals(0, BigDecimal.valueOf(90).compareTo(cardLimitService.getLimits(cardId).getDailySpent()));
+        assertThrows(CardLimitExceeded.class, () -> cardLimitService.reserve(cardId, BigDecimal.valueOf(11)));
+    }
+
+    @Test
+    void getLimits_shouldThrowCardNotFound() {
+        UUID cardId = UUID.randomUUID();
+        when(cardRepository.existsById(cardId)).thenReturn(false);
+
+        assertThrows(CardNotFound.class, () -> cardLimitService.getLimits(cardId));
+    }
+
+    @Test
+    void setLimits_savesLimitsAndInvalidatesCache() {
+        UUID cardId = UUID.randomUUID();
+        when(cardRepository.existsById(cardId)).thenReturn(true);
+
+        CardLimitDTO result = cardLimitService.setLimits(cardId, CardLimitRequest.builder()
+                .dailyLimit(BigDecimal.valueOf(1000))
+                .perTransactionLimit(BigDecimal.valueOf(100))
+                .build());
+
+        ArgumentCaptor<CardLimit> saved = ArgumentCaptor.forClass(CardLimit.class);
+        verify(cardLimitRepository).save(saved.capture());
+        assertEquals(cardId, saved.getValue().getCardId());
+        assertEquals(BigDecimal.valueOf(1000), saved.getValue().getDailyLimit());
+        assertEquals(BigDecimal.valueOf(100), result.getPerTransactionLimit());
+        assertEquals(BigDecimal.ZERO, result.getDailySpent());
+        verify(cacheInvalidationBus).invalidate(CacheNames.CARD_LIMITS, cardId);
+    }
+
+    @Test
+    void setLimits_emptyRequestResetsToDefaults() {
+        UUID cardId = UUID.randomUUID();
+        setField(cardLimitService, "defaultDailyLimit", BigDecimal.valueOf(5000));
+        when(cardRepository.existsById(cardId)).thenReturn(true);
+
+        CardLimitDTO result = cardLimitService.setLimits(cardId, new CardLimitRequest());
+
+        verify(cardLimitRepository).deleteById(cardId);
+        verify(cardLimitRepository, never()).save(any());
+        assertEquals(BigDecimal.valueOf(5000), result.getDailyLimit());
+        assertNull(result.getPerTransactionLimit());
+    }
+
+    @Test
+    void dropIdleCounters_keepsCountersWithSpend() {
+        UUID cardId = UUID.randomUUID();
+        when(cardLimitRepository.findById(cardId)).thenReturn(Optional.of(limit(cardId, "100", null)));
+        when(cardRepository.existsById(cardId)).thenReturn(true);
+        cardLimitService.reserve(cardId, BigDecimal.valueOf(40));
+
+        cardLimitService.dropIdleCounters();
+
+        assertEquals(0, BigDecimal.valueOf(40).compareTo(cardLimitService.getLimits(cardId).getDailySpent()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.bortnik.bank_rest.service.card;
+
+import com.bortnik.bank_rest.dto.card.CardChangesDTO;
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.entity.Card;
+import com.bortnik.bank_rest.entity.CardStatus;
+import com.bortnik.bank_rest.exception.BadRequest;
+import com.bortnik.bank_rest.exception.card.SyncTokenExpired;
+import com.bortnik.bank_rest.repository.CardRepository;
+import com.bortnik.bank_rest.repository.CardTombstoneRepository;
+import com.bortnik.bank_rest.util.SyncToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class CardSyncServiceTests {
+
+    private final CardRepository cardRepository = mock(CardRepository.class);
+    private final CardTombstoneRepository cardTombstoneRepository = mock(CardTombstoneRepository.class);
+    private final CardSyncService cardSyncService = new CardSyncService(cardRepository, cardTombstoneRepository);
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        setField(cardSyncService, "tombstoneRetention", Duration.ofDays(30));
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Card card() {
+        return Card.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .lastFourDigits("1234")
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.TEN)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void getCardChanges_withoutToken_returnsAllCards() {
+        when(cardRepository.currentSyncXid()).thenReturn(1_000L);
+        when(cardRepository.findAllByUserIdOrderByUpdatedAt(userId)).thenReturn(List.of(card(), card()));
+
+        CardChangesDTO changes = cardSyncService.getCardChanges(userId, null);
+
+        assertEquals(2, changes.getCards().size());
+        assertTrue(changes.getDeletedCardIds().isEmpty());
+        SyncToken next = SyncToken.decode(changes.getSyncToken());
+        assertEquals(0, next.shard());
+        assertEquals(1_000L, next.xid());
+        verify(cardTombstoneRepository, never()).findCardIdsDeletedSince(any(), anyLong());
+    }
+
+    @Test
+    void getCardChanges_readsPositionBeforeCards() {
+        when(cardRepository.currentSyncXid()).thenReturn(1_000L);
+
+        cardSyncService.getCardChanges(userId, new SyncToken(0, 900L, LocalDateTime.now()).encode());
+
+        InOrder inOrder = inOrder(cardRepository);
+        inOrder.verify(cardRepository).currentSyncXid();
+        inOrder.verify(cardRepository).findAllByUserIdChangedSince(userId, 900L);
+    }
+
+    @Test
+    void getCardChanges_returnsChangedAndDeletedCardsSinceToken() {
+        UUID deletedCardId = UUID.randomUUID();
+        Card changed = card();
+
+        when(cardRepository.currentSyncXid()).thenReturn(1_500L);
+        when(cardRepository.findAllByUserIdChangedSince(userId, 1_000L)).thenReturn(List.of(changed));
+        when(cardTombstoneRepository.findCardIdsDeletedSince(userId, 1_000L)).thenReturn(List.of(deletedCardId));
+
+        CardChangesDTO changes = cardSyncService.getCardChanges(userId,
+                new SyncToken(0, 1_000L, LocalDateTime.now().minusHours(1)).encode());
+
+        assertEquals(List.of(changed.getId()), changes.getCards().stream().map(CardDTO::getId).toList());
+        assertEquals(List.of(deletedCardId), changes.getDeletedCardIds());
+        assertEquals(1_500L, SyncToken.decode(changes.getSyncToken()).xid());
+    }
+
+    @Test
+    void getCardChanges_rejectsTokenOlderThanTombstoneRetention() {
+        String token = new SyncToken(0, 1_000L, LocalDateTime.now().minusDays(31)).encode();
+
+        assertThrows(SyncTokenExpired.class, () -> cardSyncService.getCardChanges(userId, token));
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void getCardChanges_rejectsTokenFromAnotherShard() {
+        String token = new SyncToken(1, 1_000L, LocalDateTime.now()).encode();
+
+        assertThrows(SyncTokenExpired.class, () -> cardSyncService.getCardChanges(userId, token));
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void getCardChanges_rejectsMalformedToken() {
+        assertThrows(BadRequest.class, () -> cardSyncService.getCardChanges(userId, "%%%"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.bortnik.bank_rest.service.card;
+
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.entity.Card;
+import com.bortnik.bank_rest.entity.CardStatus;
+import com.bortnik.bank_rest.exception.card.CardNotFound;
+import com.bortnik.bank_rest.exception.security.AccessError;
+import com.bortnik.bank_rest.exception.user.UserNotFound;
+import com.bortnik.bank_rest.repository.ReactiveCardRepository;
+import com.bortnik.bank_rest.repository.ReactiveUserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReactiveUserCardServiceTests {
+
+    private final ReactiveCardRepository reactiveCardRepository = mock(ReactiveCardRepository.class);
+    private final ReactiveUserRepository reactiveUserRepository = mock(ReactiveUserRepository.class);
+    private final ReactiveUserCardService reactiveUserCardService =
+            new ReactiveUserCardService(reactiveCardRepository, reactiveUserRepository);
+
+    private Card card(UUID userId) {
+        return Card.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .lastFourDigits("1234")
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.TEN)
+                .build();
+    }
+
+    @Test
+    void getUserCardById_success() {
+        UUID userId = UUID.randomUUID();
+        Card card = card(userId);
+
+        when(reactiveUserRepository.existsById(userId)).thenReturn(Mono.just(true));
+        when(reactiveCardRepository.findById(card.getId())).thenReturn(Mono.just(card));
+
+        CardDTO result = reactiveUserCardService.getUserCardById(userId, card.getId()).block();
+
+        assertNotNull(result);
+        assertEquals(card.getId(), result.getId());
+        assertEquals("**** **** **** 1234", result.getCardNumber());
+    }
+
+    @Test
+    void getUserCardById_shouldThrowAccessError() {
+        UUID userId = UUID.randomUUID();
+        Card card = card(UUID.randomUUID());
+
+        when(reactiveUserRepository.existsById(userId)).thenReturn(Mono.just(true));
+        when(reactiveCardRepository.findById(card.getId())).thenReturn(Mono.just(card));
+
+        AccessError exception = assertThrows(AccessError.class, () ->
+                reactiveUserCardService.getUserCardById(userId, card.getId()).block());
+
+        assertEquals("User with ID " + userId + " does not own card with number " + card.getId(),
+                exception.getMessage());
+    }
+
+    @Test
+    void getUserCardById_shouldThrowCardNotFound() {
+        UUID userId = UUID.randomUUID();
+        UUID cardId = UUID.randomUUID();
+
+        when(reactiveUserRepository.existsById(userId)).thenReturn(Mono.just(true));
+        when(reactiveCardRepository.findById(cardId)).thenReturn(Mono.empty());
+
+        CardNotFound exception = assertThrows(CardNotFound.class, () ->
+                reactiveUserCardService.getUserCardById(userId, cardId).block());
+
+        assertEquals("Card with number " + cardId + " not found", exception.getMessage());
+    }
+
+    @Test
+    void getUserCardById_shouldThrowUserNotFound() {
+        UUID userId = UUID.randomUUID();
+        UUID cardId = UUID.randomUUID();
+
+        when(reactiveUserRepository.existsById(userId)).thenReturn(Mono.just(false));
+        when(reactiveCardRepository.findById(cardId)).thenReturn(Mono.just(card(userId)));
+
+        assertThrows(UserNotFound.class, () ->
+                reactiveUserCardService.getUserCardById(userId, cardId).block());
+    }
+
+    @Test
+    void getAllUserCards_success() {
+        UUID userId = UUID.randomUUID();
+        Pageable pageable = PageRequest.of(0, 2);
+
+        when(reactiveUserRepository.existsById(userId)).thenReturn(Mono.just(true));
+        when(reactiveCardRepository.findAllByUserId(userId, null, pageable))
+                .thenReturn(Flux.just(card(userId), card(userId)));
+        when(reactiveCardRepository.countByUserId(userId, null)).thenReturn(Mono.just(5L));
+
+        Page<CardDTO> page = reactiveUserCardService.getAllUserCards(userId, null, pageable).block();
+
+        assertNotNull(page);
+        assertEquals(2, page.getContent().size());
+        assertEquals(5, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+    }
+
+    @Test
+    void getAllUserCards_shouldThrowUserNotFound() {
+        UUID userId = UUID.randomUUID();
+        Pageable pageable = PageRequest.of(0, 20);
+
+        when(reactiveUserRepository.existsById(userId)).thenReturn(Mono.just(false));
+        when(reactiveCardRepository.findAllByUserId(userId, CardStatus.ACTIVE, pageable)).thenReturn(Flux.empty());
+        when(reactiveCardRepository.countByUserId(userId, CardStatus.ACTIVE)).thenReturn(Mono.just(0L));
+
+        assertThrows(UserNotFound.class, () ->
+                reactiveUserCardService.getAllUserCards(userId, CardStatus.ACTIVE, pageable).block());
+    }
+}
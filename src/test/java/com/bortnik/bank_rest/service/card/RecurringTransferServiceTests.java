@@ -0,0 +1,306 @@
+package com.bortnik.bank_rest.service.card;
+
+import com.bortnik.bank_rest.dto.card.CardTransactionDTO;
+import com.bortnik.bank_rest.dto.card.RecurringTransferDTO;
+import com.bortnik.bank_rest.dto.card.RecurringTransferRequest;
+import com.bortnik.bank_rest.entity.Card;
+import com.bortnik.bank_rest.entity.RecurringTransfer;
+import com.bortnik.bank_rest.entity.RecurringTransferFrequency;
+import com.bortnik.bank_rest.entity.RecurringTransferRunStatus;
+import com.bortnik.bank_rest.exception.card.CardsAreTheSame;
+import com.bortnik.bank_rest.exception.card.InsufficientFunds;
+import com.bortnik.bank_rest.exception.card.RecurringTransferNotFound;
+import com.bortnik.bank_rest.exception.security.AccessError;
+import com.bortnik.bank_rest.repository.CardRepository;
+import com.bortnik.bank_rest.repository.RecurringTransferRepository;
+import com.bortnik.bank_rest.service.UserService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class RecurringTransferServiceTests {
+
+    private final RecurringTransferRepository recurringTransferRepository = mock(RecurringTransferRepository.class);
+    private final CardRepository cardRepository = mock(CardRepository.class);
+    private final UserService userService = mock(UserService.class);
+    private final UserCardService userCardService = mock(UserCardService.class);
+    private final RecurringTransferService recurringTransferService = new RecurringTransferService(
+            recurringTransferRepository,
+            cardRepository,
+            userService,
+            userCardService
+    );
+
+    private RecurringTransfer recurringTransfer(RecurringTransferFrequency frequency, LocalDateTime firstRunAt) {
+        return RecurringTransfer.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .fromCardId(UUID.randomUUID())
+                .toCardId(UUID.randomUUID())
+                .amount(BigDecimal.TEN)
+                .frequency(frequency)
+                .firstRunAt(firstRunAt)
+                .occurrence(0)
+                .nextRunAt(firstRunAt)
+                .build();
+    }
+
+    @Test
+    void createRecurringTransfer_success() {
+        UUID userId = UUID.randomUUID();
+        UUID fromCardId = UUID.randomUUID();
+        UUID toCardId = UUID.randomUUID();
+        LocalDateTime firstRunAt = LocalDateTime.now().plusDays(1);
+
+        when(userService.existsById(userId)).thenReturn(true);
+        when(cardRepository.findById(fromCardId)).thenReturn(Optional.of(Card.builder().id(fromCardId).userId(userId).build()));
+        when(cardRepository.findById(toCardId)).thenReturn(Optional.of(Card.builder().id(toCardId).userId(userId).build()));
+        when(recurringTransferRepository.save(any(RecurringTransfer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RecurringTransferDTO result = recurringTransferService.createRecurringTransfer(userId, RecurringTransferRequest.builder()
+                .fromCardId(fromCardId)
+                .toCardId(toCardId)
+                .amount(BigDecimal.valueOf(100))
+                .frequency(RecurringTransferFrequency.WEEKLY)
+                .firstRunAt(firstRunAt)
+                .build());
+
+        assertEquals(firstRunAt, result.getNextRunAt());
+        assertEquals(RecurringTransferFrequency.WEEKLY, result.getFrequency());
+        assertNull(result.getLastStatus());
+    }
+
+    @Test
+    void createRecurringTransfer_shouldThrowCardsAreTheSame() {
+        UUID userId = UUID.randomUUID();
+        UUID cardId = UUID.randomUUID();
+
+        when(userService.existsById(userId)).thenReturn(true);
+
+        assertThrows(CardsAreTheSame.class, () ->
+                recurringTransferService.createRecurringTransfer(userId, RecurringTransferRequest.builder()
+                        .fromCardId(cardId)
+                        .toCardId(cardId)
+                        .amount(BigDecimal.TEN)
+                        .frequency(RecurringTransferFrequency.DAILY)
+                        .build()));
+
+        verify(recurringTransferRepository, never()).save(any());
+    }
+
+    @Test
+    void createRecurringTransfer_shouldThrowAccessError() {
+        UUID userId = UUID.randomUUID();
+        UUID fromCardId = UUID.randomUUID();
+
+        when(userService.existsById(userId)).thenReturn(true);
+        when(cardRepository.findById(fromCardId))
+                .thenReturn(Optional.of(Card.builder().id(fromCardId).userId(UUID.randomUUID()).build()));
+
+        assertThrows(AccessError.class, () ->
+                recurringTransferService.createRecurringTransfer(userId, RecurringTransferRequest.builder()
+                        .fromCardId(fromCardId)
+                        .toCardId(UUID.randomUUID())
+                        .amount(BigDecimal.TEN)
+                        .frequency(RecurringTransferFrequency.DAILY)
+                        .build()));
+
+        verify(recurringTransferRepository, never()).save(any());
+    }
+
+    @Test
+    void executeDueBatch_marksSucceededAndFailedOrders() {
+        LocalDateTime now = LocalDateTime.now();
+        RecurringTransfer succeeded = recurringTransfer(RecurringTransferFrequency.DAILY, now.minusMinutes(1));
+        RecurringTransfer failed = recurringTransfer(RecurringTransferFrequency.DAILY, now.minusMinutes(1));
+        failed.setLastError("previous error");
+
+        when(recurringTransferRepository.lockDueBatch(now, 10)).thenReturn(List.of(succeeded, failed));
+        doThrow(new InsufficientFunds("Insufficient funds on card {}", failed.getFromCardId()))
+                .when(userCardService).transferInCurrentTransaction(any(CardTransactionDTO.class), eq(failed.getUserId()));
+
+        RecurringTransferService.BatchResult result = recurringTransferService.executeDueBatch(now, 10);
+
+        assertEquals(2, result.processed());
+        assertEquals(1, result.failed());
+        verify(userCardService).transferInCurrentTransaction(argThat(dto ->
+                dto.getFromCardId().equals(succeeded.getFromCardId())
+                        && dto.getToCardId().equals(succeeded.getToCardId())
+                        && dto.getAmount().equals(succeeded.getAmount())), eq(succeeded.getUserId()));
+
+        assertEquals(RecurringTransferRunStatus.SUCCEEDED, succeeded.getLastStatus());
+        assertNull(succeeded.getLastError());
+        assertEquals(RecurringTransferRunStatus.FAILED, failed.getLastStatus());
+        assertEquals("Insufficient funds on card " + failed.getFromCardId(), failed.getLastError());
+        for (RecurringTransfer recurringTransfer : List.of(succeeded, failed)) {
+            assertEquals(now, recurringTransfer.getLastRunAt());
+            assertEquals(1, recurringTransfer.getOccurrence());
+            assertEquals(now.minusMinutes(1).plusDays(1), recurringTransfer.getNextRunAt());
+        }
+    }
+
+    @Test
+    void executeDueBatch_locksAllCardsOfBatchOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        RecurringTransfer first = recurringTransfer(RecurringTransferFrequency.DAILY, now);
+        RecurringTransfer second = RecurringTransfer.builder()
+                .id(UUID.randomUUID())
+                .userId(first.getUserId())
+                .fromCardId(first.getToCardId())
+                .toCardId(UUID.randomUUID())
+                .amount(BigDecimal.ONE)
+                .frequency(RecurringTransferFrequency.DAILY)
+                .firstRunAt(now)
+                .occurrence(0)
+                .nextRunAt(now)
+                .build();
+
+        when(recurringTransferRepository.lockDueBatch(now, 10)).thenReturn(List.of(first, second));
+
+        recurringTransferService.executeDueBatch(now, 10);
+
+        verify(cardRepository).findAllByIdForUpdate(
+                List.of(first.getFromCardId(), first.getToCardId(), second.getToCardId()));
+    }
+
+    @Test
+    void executeDueBatch_emptyBatchLocksNothing() {
+        LocalDateTime now = LocalDateTime.now();
+        when(recurringTransferRepository.lockDueBatch(now, 10)).thenReturn(List.of());
+
+        RecurringTransferService.BatchResult result = recurringTransferService.executeDueBatch(now, 10);
+
+        assertEquals(0, result.processed());
+        verify(cardRepository, never()).findAllByIdForUpdate(any());
+    }
+
+    @Test
+    void executeDueBatch_unexpectedErrorMarksOrderFailed() {
+        LocalDateTime now = LocalDateTime.now();
+        RecurringTransfer broken = recurringTransfer(RecurringTransferFrequency.DAILY, now);
+        RecurringTransfer succeeded = recurringTransfer(RecurringTransferFrequency.DAILY, now);
+
+        when(recurringTransferRepository.lockDueBatch(now, 10)).thenReturn(List.of(broken, succeeded));
+        doThrow(new IllegalStateException("Cannot switch to shard 1 inside a transaction on shard 0"))
+                .when(userCardService).transferInCurrentTransaction(any(CardTransactionDTO.class), eq(broken.getUserId()));
+
+        RecurringTransferService.BatchResult result = recurringTransferService.executeDueBatch(now, 10);
+
+        assertEquals(2, result.processed());
+        assertEquals(1, result.failed());
+        assertEquals(RecurringTransferRunStatus.FAILED, broken.getLastStatus());
+        assertEquals("Cannot switch to shard 1 inside a transaction on shard 0", broken.getLastError());
+        assertEquals(now.plusDays(1), broken.getNextRunAt());
+        assertEquals(RecurringTransferRunStatus.SUCCEEDED, succeeded.getLastStatus());
+    }
+
+    @Test
+    void executeDueBatch_monthlyOrderKeepsDayOfMonth() {
+        LocalDateTime firstRunAt = LocalDateTime.of(2026, 1, 31, 9, 0);
+        RecurringTransfer recurringTransfer = recurringTransfer(RecurringTransferFrequency.MONTHLY, firstRunAt);
+
+        LocalDateTime february = LocalDateTime.of(2026, 2, 28, 9, 0);
+        when(recurringTransferRepository.lockDueBatch(any(), anyInt())).thenReturn(List.of(recurringTransfer));
+
+        recurringTransferService.executeDueBatch(firstRunAt, 10);
+        assertEquals(february, recurringTransfer.getNextRunAt());
+
+        recurringTransferService.executeDueBatch(february, 10);
+        assertEquals(LocalDateTime.of(2026, 3, 31, 9, 0), recurringTransfer.getNextRunAt());
+        assertEquals(2, recurringTransfer.getOccurrence());
+    }
+
+    @Test
+    void executeDueBatch_skipsMissedRuns() {
+        LocalDateTime now = LocalDateTime.now();
+        RecurringTransfer recurringTransfer = recurringTransfer(RecurringTransferFrequency.DAILY, now.minusDays(3).minusHours(1));
+
+        when(recurringTransferRepository.lockDueBatch(now, 10)).thenReturn(List.of(recurringTransfer));
+
+        recurringTransferService.executeDueBatch(now, 10);
+
+        verify(userCardService, times(1)).transferInCurrentTransaction(any(), any());
+        assertEquals(4, recurringTransfer.getOccurrence());
+        assertEquals(now.plusDays(1).minusHours(1), recurringTransfer.getNextRunAt());
+    }
+
+    @Test
+    void executeDueBatch_truncatesLongErrors() {
+        LocalDateTime now = LocalDateTime.now();
+        RecurringTransfer recurringTransfer = recurringTransfer(RecurringTransferFrequency.DAILY, now);
+
+        when(recurringTransferRepository.lockDueBatch(now, 10)).thenReturn(List.of(recurringTransfer));
+        doThrow(new InsufficientFunds("x".repeat(500)))
+                .when(userCardService).transferInCurrentTransaction(any(), any());
+
+        recurringTransferService.executeDueBatch(now, 10);
+
+        assertEquals(255, recurringTransfer.getLastError().length());
+    }
+
+    @Test
+    void executeOne_executesAndReschedulesLockedOrder() {
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+        RecurringTransfer order = recurringTransfer(RecurringTransferFrequency.DAILY, now.minusHours(1));
+        when(recurringTransferRepository.lockDueById(order.getId(), now)).thenReturn(Optional.of(order));
+
+        RecurringTransferService.BatchResult result = recurringTransferService.executeOne(order.getId(), now);
+
+        assertEquals(new RecurringTransferService.BatchResult(1, 0), result);
+        assertEquals(RecurringTransferRunStatus.SUCCEEDED, order.getLastStatus());
+        assertTrue(order.getNextRunAt().isAfter(now));
+        verify(cardRepository).findAllByIdForUpdate(List.of(order.getFromCardId(), order.getToCardId()));
+    }
+
+    @Test
+    void executeOne_orderTakenByAnotherNode_doesNothing() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID orderId = UUID.randomUUID();
+        when(recurringTransferRepository.lockDueById(orderId, now)).thenReturn(Optional.empty());
+
+        assertEquals(new RecurringTransferService.BatchResult(0, 0), recurringTransferService.executeOne(orderId, now));
+
+        verifyNoInteractions(userCardService, cardRepository);
+    }
+
+    @Test
+    void markFailed_marksOrderFailedAndReschedulesWithoutTransfer() {
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+        RecurringTransfer order = recurringTransfer(RecurringTransferFrequency.DAILY, now.minusHours(1));
+        when(recurringTransferRepository.lockDueById(order.getId(), now)).thenReturn(Optional.of(order));
+
+        RecurringTransferService.BatchResult result = recurringTransferService.markFailed(
+                order.getId(), now, new IllegalStateException("value too long for type numeric(19,2)"));
+
+        assertEquals(new RecurringTransferService.BatchResult(1, 1), result);
+        assertEquals(RecurringTransferRunStatus.FAILED, order.getLastStatus());
+        assertEquals("value too long for type numeric(19,2)", order.getLastError());
+        assertEquals(now, order.getLastRunAt());
+        assertTrue(order.getNextRunAt().isAfter(now));
+        verifyNoInteractions(userCardService);
+    }
+
+    @Test
+    void cancelRecurringTransfer_shouldThrowRecurringTransferNotFound() {
+        UUID userId = UUID.randomUUID();
+        UUID recurringTransferId = UUID.randomUUID();
+
+        when(recurringTransferRepository.findByIdAndUserId(recurringTransferId, userId)).thenReturn(Optional.empty());
+
+        var exception = assertThrows(RecurringTransferNotFound.class, () ->
+                recurringTransferService.cancelRecurringTransfer(userId, recurringTransferId));
+
+        assertEquals("Recurring transfer with id " + recurringTransferId + " not found", exception.getMessage());
+        verify(recurringTransferRepository, never()).delete(any());
+    }
+}
@@ -5,14 +5,21 @@ import com.bortnik.bank_rest.dto.card.CardDTO;
 import com.bortnik.bank_rest.dto.card.CardTransactionDTO;
 import com.bortnik.bank_rest.entity.Card;
 import com.bortnik.bank_rest.entity.CardStatus;
+import com.bortnik.bank_rest.event.CardEvent;
+import com.bortnik.bank_rest.event.CardEventType;
 import com.bortnik.bank_rest.exception.card.*;
 import com.bortnik.bank_rest.exception.security.AccessError;
+import com.bortnik.bank_rest.exception.security.SuspiciousActivity;
 import com.bortnik.bank_rest.exception.user.UserNotFound;
+import com.bortnik.bank_rest.fraud.FraudScoringService;
+import com.bortnik.bank_rest.metrics.BankMetrics;
 import com.bortnik.bank_rest.repository.CardRepository;
 import com.bortnik.bank_rest.service.UserService;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -24,7 +31,19 @@ public class UserCardServiceTests {
     private final CardRepository cardRepository = mock(CardRepository.class);
     private final CoreCardService coreCardService = mock(CoreCardService.class);
     private final UserService userService = mock(UserService.class);
-    private final UserCardService userCardService = new UserCardService(cardRepository, coreCardService, userService);
+    private final BankMetrics bankMetrics = mock(BankMetrics.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final CardLimitService cardLimitService = mock(CardLimitService.class);
+    private final FraudScoringService fraudScoringService = mock(FraudScoringService.class);
+    private final UserCardService userCardService = new UserCardService(
+            cardRepository,
+            coreCardService,
+            userService,
+            bankMetrics,
+            eventPublisher,
+            cardLimitService,
+            fraudScoringService
+    );
 
     @Test
     void blockCard_success() {
@@ -171,6 +190,19 @@ public class UserCardServiceTests {
 
         assertEquals(BigDecimal.valueOf(400), fromCard.getBalance());
         assertEquals(BigDecimal.valueOf(100), toCard.getBalance());
+        assertNotNull(fromCard.getUpdatedAt());
+        assertEquals(fromCard.getUpdatedAt(), toCard.getUpdatedAt());
+        verify(cardRepository).findAllByIdForUpdate(List.of(fromCardId, toCardId));
+        verify(cardLimitService).reserve(fromCardId, amount);
+        verify(fraudScoringService).checkTransfer(userId);
+        verify(bankMetrics).recordTransfer(amount);
+        verify(eventPublisher).publishEvent(CardEvent.builder()
+                .type(CardEventType.TRANSFER)
+                .cardId(fromCardId)
+                .userId(userId)
+                .relatedCardId(toCardId)
+                .amount(amount)
+                .build());
     }
 
     @Test
@@ -210,6 +242,86 @@ public class UserCardServiceTests {
         assertEquals("Insufficient funds on card " + fromCardId, exception.getMessage());
     }
 
+    @Test
+    void internalTransfer_shouldThrowInsufficientFunds_WhenBalanceIsHeld() {
+        UUID fromCardId = UUID.randomUUID();
+        UUID toCardId = UUID.randomUUID();
+        BigDecimal amount = BigDecimal.valueOf(300);
+        UUID userId = UUID.randomUUID();
+
+        CardTransactionDTO transactionDTO = CardTransactionDTO.builder()
+                .fromCardId(fromCardId)
+                .toCardId(toCardId)
+                .amount(amount)
+                .build();
+
+        Card fromCard = Card.builder()
+                .id(fromCardId)
+                .userId(userId)
+                .balance(BigDecimal.valueOf(500))
+                .heldAmount(BigDecimal.valueOf(250))
+                .status(CardStatus.ACTIVE)
+                .build();
+
+        Card toCard = Card.builder()
+                .id(toCardId)
+                .userId(userId)
+                .balance(BigDecimal.ZERO)
+                .status(CardStatus.ACTIVE)
+                .build();
+
+        when(userService.existsById(userId)).thenReturn(true);
+        when(cardRepository.findById(fromCardId)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(toCardId)).thenReturn(Optional.of(toCard));
+
+        assertThrows(InsufficientFunds.class, () ->
+                userCardService.internalTransfer(transactionDTO, userId));
+
+        assertEquals(BigDecimal.valueOf(500), fromCard.getBalance());
+        verifyNoInteractions(cardLimitService);
+    }
+
+    @Test
+    void internalTransfer_shouldThrowCardLimitExceeded() {
+        UUID fromCardId = UUID.randomUUID();
+        UUID toCardId = UUID.randomUUID();
+        BigDecimal amount = BigDecimal.valueOf(300);
+        UUID userId = UUID.randomUUID();
+
+        CardTransactionDTO transactionDTO = CardTransactionDTO.builder()
+                .fromCardId(fromCardId)
+                .toCardId(toCardId)
+                .amount(amount)
+                .build();
+
+        Card fromCard = Card.builder()
+                .id(fromCardId)
+                .userId(userId)
+                .balance(BigDecimal.valueOf(500))
+                .status(CardStatus.ACTIVE)
+                .build();
+
+        Card toCard = Card.builder()
+                .id(toCardId)
+                .userId(userId)
+                .balance(BigDecimal.ZERO)
+                .status(CardStatus.ACTIVE)
+                .build();
+
+        when(userService.existsById(userId)).thenReturn(true);
+        when(cardRepository.findById(fromCardId)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(toCardId)).thenReturn(Optional.of(toCard));
+        doThrow(new CardLimitExceeded("Amount exceeds daily limit {} of card {}", BigDecimal.valueOf(200), fromCardId))
+                .when(cardLimitService).reserve(fromCardId, amount);
+
+        assertThrows(CardLimitExceeded.class, () ->
+                userCardService.internalTransfer(transactionDTO, userId));
+
+        assertEquals(BigDecimal.valueOf(500), fromCard.getBalance());
+        assertEquals(BigDecimal.ZERO, toCard.getBalance());
+        verifyNoInteractions(bankMetrics, eventPublisher);
+    }
+
     @Test
     void internalTransfer_shouldThrowAccessError_WhenUserDoesntOwnTheFirstCard() {
         UUID fromCardId = UUID.randomUUID();
@@ -237,6 +349,65 @@ public class UserCardServiceTests {
                 userCardService.internalTransfer(transactionDTO, userId));
 
         assertEquals("User with ID " + userId + " does not own card with number " + fromCardId, exception.getMessage());
+        verify(fraudScoringService).recordAccessError(userId);
+    }
+
+    @Test
+    void internalTransfer_shouldThrowSuspiciousActivity() {
+        UUID userId = UUID.randomUUID();
+
+        CardTransactionDTO transactionDTO = CardTransactionDTO.builder()
+                .fromCardId(UUID.randomUUID())
+                .toCardId(UUID.randomUUID())
+                .amount(BigDecimal.valueOf(100))
+                .build();
+
+        when(userService.existsById(userId)).thenReturn(true);
+        doThrow(new SuspiciousActivity("Too many operations from user {}, try again later", userId))
+                .when(fraudScoringService).checkTransfer(userId);
+
+        assertThrows(SuspiciousActivity.class, () ->
+                userCardService.internalTransfer(transactionDTO, userId));
+
+        verify(cardRepository, never()).findAllByIdForUpdate(any());
+        verifyNoInteractions(cardLimitService, bankMetrics, eventPublisher);
+    }
+
+    @Test
+    void transferInCurrentTransaction_skipsFraudCheck() {
+        UUID fromCardId = UUID.randomUUID();
+        UUID toCardId = UUID.randomUUID();
+        BigDecimal amount = BigDecimal.valueOf(100);
+        UUID userId = UUID.randomUUID();
+
+        Card fromCard = Card.builder()
+                .id(fromCardId)
+                .userId(userId)
+                .balance(BigDecimal.valueOf(500))
+                .status(CardStatus.ACTIVE)
+                .build();
+
+        Card toCard = Card.builder()
+                .id(toCardId)
+                .userId(userId)
+                .balance(BigDecimal.ZERO)
+                .status(CardStatus.ACTIVE)
+                .build();
+
+        when(userService.existsById(userId)).thenReturn(true);
+        when(cardRepository.findById(fromCardId)).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findById(toCardId)).thenReturn(Optional.of(toCard));
+
+        userCardService.transferInCurrentTransaction(CardTransactionDTO.builder()
+                .fromCardId(fromCardId)
+                .toCardId(toCardId)
+                .amount(amount)
+                .build(), userId);
+
+        assertEquals(BigDecimal.valueOf(400), fromCard.getBalance());
+        assertEquals(BigDecimal.valueOf(100), toCard.getBalance());
+        verify(cardLimitService).reserve(fromCardId, amount);
+        verify(fraudScoringService, never()).checkTransfer(any());
     }
 
     @Test
@@ -0,0 +1,99 @@
+package com.bortnik.bank_rest.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CardStreamBusTests {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final CardStreamBus bus = new CardStreamBus(dataSource, new ObjectMapper(), new SimpleMeterRegistry());
+
+    @Test
+    void drain_coalescesCardsAndRoundTripsThroughParse() {
+        UUID userId = UUID.randomUUID();
+        UUID firstCard = UUID.randomUUID();
+        UUID secondCard = UUID.randomUUID();
+
+        bus.publish(2, Map.of(userId, Set.of(firstCard)));
+        bus.publish(2, Map.of(userId, Set.of(firstCard, secondCard)));
+
+        List<String> payloads = bus.drain();
+
+        assertEquals(1, payloads.size());
+        CardStreamBus.Notification notification = bus.parse(payloads.getFirst()).orElseThrow();
+        assertEquals(2, notification.shard());
+        assertEquals(Map.of(userId, Set.of(firstCard, secondCard)), notification.changes());
+        assertTrue(bus.drain().isEmpty());
+    }
+
+    @Test
+    void drain_splitsLargeChangesIntoPayloadsWithinLimit() {
+        UUID userId = UUID.randomUUID();
+        Set<UUID> cards = Stream.generate(UUID::randomUUID).limit(500).collect(Collectors.toSet());
+        UUID otherUser = UUID.randomUUID();
+        UUID otherCard = UUID.randomUUID();
+        bus.publish(0, Map.of(userId, cards, otherUser, Set.of(otherCard)));
+        bus.publish(1, Map.of(otherUser, Set.of(otherCard)));
+
+        List<String> payloads = bus.drain();
+
+        assertTrue(payloads.size() > 2);
+        Map<Integer, Map<UUID, Set<UUID>>> received = new HashMap<>();
+        for (String payload : payloads) {
+            assertTrue(payload.getBytes(StandardCharsets.UTF_8).length <= 8000);
+            CardStreamBus.Notification notification = bus.parse(payload).orElseThrow();
+            notification.changes().forEach((user, ids) -> received
+                    .computeIfAbsent(notification.shard(), shard -> new HashMap<>())
+                    .computeIfAbsent(user, key -> new HashSet<>())
+                    .addAll(ids));
+        }
+        assertEquals(Map.of(userId, cards, otherUser, Set.of(otherCard)), received.get(0));
+        assertEquals(Map.of(otherUser, Set.of(otherCard)), received.get(1));
+    }
+
+    @Test
+    void flush_sendsNotificationsOnChannel() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        bus.publish(0, Map.of(UUID.randomUUID(), Set.of(UUID.randomUUID())));
+
+        bus.flush();
+
+        verify(statement).setString(1, CardStreamBus.CHANNEL);
+        verify(statement).setString(eq(2), anyString());
+        verify(statement).execute();
+    }
+
+    @Test
+    void flush_skipsDatabaseWhenNothingQueued() throws Exception {
+        bus.flush();
+
+        verify(dataSource, never()).getConnection();
+    }
+
+    @Test
+    void parse_ignoresMalformedPayload() {
+        assertTrue(bus.parse("not json").isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+package com.bortnik.bank_rest.sse;
+
+import com.bortnik.bank_rest.config.datasource.ShardRouter;
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.entity.Card;
+import com.bortnik.bank_rest.entity.CardStatus;
+import com.bortnik.bank_rest.event.CardEventType;
+import com.bortnik.bank_rest.outbox.OutboxBatchDelivered;
+import com.bortnik.bank_rest.outbox.OutboxMessage;
+import com.bortnik.bank_rest.repository.CardRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CardStreamListenerTests {
+
+    private final CardStreamRegistry cardStreamRegistry = mock(CardStreamRegistry.class);
+    private final CardRepository cardRepository = mock(CardRepository.class);
+    private final CardStreamBus cardStreamBus = mock(CardStreamBus.class);
+    private final CardStreamListener cardStreamListener = new CardStreamListener(
+            cardStreamRegistry, cardRepository, cardStreamBus, new ShardRouter(), new ObjectMapper());
+
+    private OutboxMessage message(CardEventType type, UUID cardId, String payload) {
+        return OutboxMessage.builder()
+                .id(UUID.randomUUID())
+                .type(type)
+                .aggregateId(cardId)
+                .payload(payload)
+                .build();
+    }
+
+    private Card card(UUID id, UUID userId) {
+        return Card.builder()
+                .id(id)
+                .userId(userId)
+                .lastFourDigits("1234")
+                .status(CardStatus.ACTIVE)
+                .balance(BigDecimal.TEN)
+                .expirationDate(LocalDate.now().plusYears(1))
+                .build();
+    }
+
+    @Test
+    void onOutboxBatch_publishesChangedCardsOfAllUsersToCluster() {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        UUID fromCardId = UUID.randomUUID();
+        UUID toCardId = UUID.randomUUID();
+        UUID otherCardId = UUID.randomUUID();
+
+        cardStreamListener.onOutboxBatch(new OutboxBatchDelivered(1, List.of(
+                message(CardEventType.TRANSFER, fromCardId,
+                        "{\"userId\":\"" + userId + "\",\"relatedCardId\":\"" + toCardId + "\",\"amount\":5}"),
+                message(CardEventType.BLOCKED, fromCardId, "{\"userId\":\"" + userId + "\"}"),
+                message(CardEventType.EXPIRED, otherCardId, "{\"userId\":\"" + otherUserId + "\"}"),
+                message(CardEventType.TOP_UP, otherCardId, "not json")
+        )));
+
+        verify(cardStreamBus).publish(1, Map.of(
+                userId, Set.of(fromCardId, toCardId),
+                otherUserId, Set.of(otherCardId)));
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void onOutboxBatch_skipsBatchWithoutCardOwners() {
+        cardStreamListener.onOutboxBatch(new OutboxBatchDelivered(0, List.of(
+                message(CardEventType.TOP_UP, UUID.randomUUID(), "not json")
+        )));
+
+        verifyNoInteractions(cardStreamBus);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void push_loadsChangedCardsOnceAndPushesToOwner() {
+        UUID userId = UUID.randomUUID();
+        UUID fromCardId = UUID.randomUUID();
+        UUID toCardId = UUID.randomUUID();
+        when(cardStreamRegistry.hasSubscribers(userId)).thenReturn(true);
+        when(cardRepository.findAllById(any())).thenReturn(List.of(card(fromCardId, userId), card(toCardId, userId)));
+
+        cardStreamListener.push(0, Map.of(userId, Set.of(fromCardId, toCardId)));
+
+        ArgumentCaptor<Iterable<UUID>> ids = ArgumentCaptor.forClass(Iterable.class);
+        verify(cardRepository, times(1)).findAllById(ids.capture());
+        assertEquals(Set.of(fromCardId, toCardId), ids.getValue());
+
+        ArgumentCaptor<Collection<CardDTO>> pushed = ArgumentCaptor.forClass(Collection.class);
+        verify(cardStreamRegistry).push(eq(userId), pushed.capture());
+        assertEquals(2, pushed.getValue().size());
+    }
+
+    @Test
+    void push_skipsUsersWithoutSubscribers() {
+        cardStreamListener.push(0, Map.of(UUID.randomUUID(), Set.of(UUID.randomUUID())));
+
+        verify(cardRepository, never()).findAllById(any());
+        verify(cardStreamRegistry, never()).push(any(), any());
+    }
+}
@@ -0,0 +1,78 @@
+package com.bortnik.bank_rest.sse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardStreamRegistryTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CardStreamRegistry cardStreamRegistry = new CardStreamRegistry(meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        setField(cardStreamRegistry, "timeout", Duration.ofMinutes(1));
+        setField(cardStreamRegistry, "sendTimeout", Duration.ofSeconds(30));
+        setField(cardStreamRegistry, "maxConnectionsPerUser", 2);
+        setField(cardStreamRegistry, "maxPendingCards", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cardStreamRegistry.shutdown();
+    }
+
+    private void setField(Object target, String fieldName, Object value) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private double connections() {
+        return meterRegistry.get("bank.sse.connections").gauge().value();
+    }
+
+    @Test
+    void subscribe_registersConnectionPerUser() {
+        UUID userId = UUID.randomUUID();
+
+        cardStreamRegistry.subscribe(userId);
+
+        assertTrue(cardStreamRegistry.hasSubscribers(userId));
+        assertFalse(cardStreamRegistry.hasSubscribers(UUID.randomUUID()));
+        assertEquals(1.0, connections());
+    }
+
+    @Test
+    void subscribe_closesOldestConnectionOverLimit() {
+        UUID userId = UUID.randomUUID();
+
+        cardStreamRegistry.subscribe(userId);
+        cardStreamRegistry.subscribe(userId);
+        cardStreamRegistry.subscribe(userId);
+
+        assertEquals(2.0, connections());
+    }
+
+    @Test
+    void shutdown_closesAllConnections() {
+        UUID userId = UUID.randomUUID();
+        cardStreamRegistry.subscribe(userId);
+        cardStreamRegistry.subscribe(UUID.randomUUID());
+
+        cardStreamRegistry.shutdown();
+
+        assertFalse(cardStreamRegistry.hasSubscribers(userId));
+        assertEquals(0.0, connections());
+    }
+}
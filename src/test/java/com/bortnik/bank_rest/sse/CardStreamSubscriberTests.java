@@ -0,0 +1,170 @@
+package com.bortnik.bank_rest.sse;
+
+import com.bortnik.bank_rest.dto.card.CardDTO;
+import com.bortnik.bank_rest.entity.CardStatus;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CardStreamSubscriberTests {
+
+    // Задачи отправки выполняются вручную, чтобы проверить накопление изменений между отправками
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final Executor executor = tasks::add;
+    private final SseEmitter emitter = mock(SseEmitter.class);
+    private final AtomicInteger closed = new AtomicInteger();
+    private final UUID userId = UUID.randomUUID();
+
+    private final CardStreamSubscriber subscriber =
+            new CardStreamSubscriber(userId, emitter, executor, 2, s -> closed.incrementAndGet());
+
+    private CardDTO card(UUID id, String balance) {
+        return CardDTO.builder()
+                .id(id)
+                .userId(userId)
+                .cardNumber("**** **** **** 1234")
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal(balance))
+                .build();
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> sentData() throws IOException {
+        ArgumentCaptor<Set<ResponseBodyEmitter.DataWithMediaType>> captor = ArgumentCaptor.forClass(Set.class);
+        verify(emitter, atLeastOnce()).send(captor.capture());
+        return captor.getAllValues().stream()
+                .flatMap(Set::stream)
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .toList();
+    }
+
+    @Test
+    void enqueue_coalescesChangesOfSameCardUntilSent() throws IOException {
+        UUID cardId = UUID.randomUUID();
+        CardDTO latest = card(cardId, "30");
+
+        assertTrue(subscriber.enqueue(List.of(card(cardId, "10"))));
+        assertTrue(subscriber.enqueue(List.of(card(cardId, "20"))));
+        assertTrue(subscriber.enqueue(List.of(latest)));
+        assertEquals(1, tasks.size());
+
+        runTasks();
+
+        verify(emitter, times(1)).send(anySet());
+        List<Object> data = sentData();
+        assertTrue(data.contains(latest));
+        assertEquals(1, data.stream().filter(CardDTO.class::isInstance).count());
+    }
+
+    @Test
+    void enqueue_rejectsWhenTooManyCardsPending() {
+        assertTrue(subscriber.enqueue(List.of(card(UUID.randomUUID(), "1"), card(UUID.randomUUID(), "2"))));
+
+        assertFalse(subscriber.enqueue(List.of(card(UUID.randomUUID(), "3"))));
+    }
+
+    @Test
+    void heartbeat_skippedWhileChangesAreBeingSent() throws IOException {
+        subscriber.enqueue(List.of(card(UUID.randomUUID(), "1")));
+        subscriber.heartbeat();
+        assertEquals(1, tasks.size());
+        runTasks();
+
+        subscriber.heartbeat();
+        runTasks();
+
+        verify(emitter, times(2)).send(anySet());
+    }
+
+    @Test
+    void sendFailure_closesSubscriberOnce() throws IOException {
+        doThrow(new IOException("Broken pipe")).when(emitter).send(anySet());
+
+        subscriber.enqueue(List.of(card(UUID.randomUUID(), "1")));
+        runTasks();
+
+        assertEquals(1, closed.get());
+        assertFalse(subscriber.enqueue(List.of(card(UUID.randomUUID(), "2"))));
+        subscriber.close();
+        assertEquals(1, closed.get());
+        verify(emitter).complete();
+    }
+
+    @Test
+    void isStalled_onlyWhileSendIsBlocked() throws IOException {
+        doAnswer(invocation -> {
+            assertTrue(subscriber.isStalled(Duration.ZERO));
+            return null;
+        }).when(emitter).send(anySet());
+
+        subscriber.enqueue(List.of(card(UUID.randomUUID(), "1")));
+        assertFalse(subscriber.isStalled(Duration.ZERO));
+        runTasks();
+
+        assertFalse(subscriber.isStalled(Duration.ZERO));
+        verify(emitter).send(anySet());
+    }
+
+    @Test
+    void close_doesNotWaitForBlockedSend() throws Exception {
+        // complete() и send() у SseEmitter берут одну блокировку: complete ждёт, пока клиент не примет данные
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch clientBlocked = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            clientBlocked.await();
+            return null;
+        }).when(emitter).send(anySet());
+        doAnswer(invocation -> {
+            clientBlocked.await();
+            completed.countDown();
+            return null;
+        }).when(emitter).complete();
+
+        ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            CardStreamSubscriber blocked =
+                    new CardStreamSubscriber(userId, emitter, sendExecutor, 2, s -> closed.incrementAndGet());
+            blocked.enqueue(List.of(card(UUID.randomUUID(), "1")));
+            assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+            blocked.close();
+
+            assertEquals(1, closed.get());
+            assertFalse(blocked.enqueue(List.of(card(UUID.randomUUID(), "2"))));
+            assertEquals(1, completed.getCount());
+
+            clientBlocked.countDown();
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+        } finally {
+            clientBlocked.countDown();
+            sendExecutor.shutdown();
+        }
+    }
+}
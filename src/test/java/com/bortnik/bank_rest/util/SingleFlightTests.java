@@ -0,0 +1,114 @@
+package com.bortnik.bank_rest.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTests {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_concurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "value";
+            })));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            CountDownLatch followersStarted = new CountDownLatch(CALLERS - 1);
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    followersStarted.countDown();
+                    return singleFlight.execute("key", () -> {
+                        loads.incrementAndGet();
+                        return "other";
+                    });
+                }));
+            }
+            assertTrue(followersStarted.await(5, TimeUnit.SECONDS));
+            // Дожидаемся, пока остальные вызовы присоединятся к загрузке
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void execute_sharesExceptionWithWaitingCallers() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("not found");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                loading.countDown();
+                await(release);
+                throw failure;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> singleFlight.execute("key", () -> "other"));
+
+            // Дожидаемся, пока второй вызов присоединится к загрузке
+            Thread.sleep(100);
+            release.countDown();
+
+            assertSame(failure, assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+            Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertSame(failure, followerFailure.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_loadsAgainAfterPreviousLoadCompleted() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("1", singleFlight.execute("key", () -> String.valueOf(loads.incrementAndGet())));
+        assertEquals("2", singleFlight.execute("key", () -> String.valueOf(loads.incrementAndGet())));
+    }
+
+    @Test
+    void execute_differentKeysLoadIndependently() {
+        assertEquals("a", singleFlight.execute("a", () -> "a"));
+        assertEquals("b", singleFlight.execute("b", () -> "b"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.bortnik.bank_rest.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlidingWindowCounterTests {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+    // Окно 10 минут из 5 интервалов по 2 минуты
+    private final SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(10), Duration.ofMinutes(2));
+
+    @Test
+    void tryAdd_rejectsAmountAboveLimit() {
+        assertTrue(counter.tryAdd(0, BigDecimal.valueOf(60), BigDecimal.valueOf(100)));
+        assertTrue(counter.tryAdd(MINUTE, BigDecimal.valueOf(40), BigDecimal.valueOf(100)));
+
+        assertFalse(counter.tryAdd(3 * MINUTE, BigDecimal.ONE, BigDecimal.valueOf(100)));
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(counter.total(3 * MINUTE)));
+    }
+
+    @Test
+    void tryAdd_withoutLimitAlwaysAdds() {
+        assertTrue(counter.tryAdd(0, BigDecimal.valueOf(1_000_000), null));
+
+        assertEquals(0, BigDecimal.valueOf(1_000_000).compareTo(counter.total(0)));
+    }
+
+    @Test
+    void total_dropsBucketsOutsideWindow() {
+        counter.add(0, BigDecimal.valueOf(10));
+        counter.add(4 * MINUTE, BigDecimal.valueOf(20));
+
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(counter.total(9 * MINUTE)));
+        // Интервал [0, 2) выходит из окна, когда начинается интервал [10, 12)
+        assertEquals(0, BigDecimal.valueOf(20).compareTo(counter.total(10 * MINUTE)));
+        assertTrue(counter.isEmpty(20 * MINUTE));
+    }
+
+    @Test
+    void tryAdd_reusesSlotOfExpiredBucket() {
+        counter.add(0, BigDecimal.valueOf(10));
+
+        assertTrue(counter.tryAdd(10 * MINUTE, BigDecimal.valueOf(100), BigDecimal.valueOf(100)));
+
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(counter.total(10 * MINUTE)));
+    }
+
+    @Test
+    void add_negativeAmountCompensatesReservation() {
+        counter.tryAdd(MINUTE, BigDecimal.valueOf(50), null);
+
+        counter.add(MINUTE, BigDecimal.valueOf(-50));
+
+        assertTrue(counter.isEmpty(MINUTE));
+    }
+
+    @Test
+    void add_ignoresBucketAlreadyReplacedByNewerOne() {
+        counter.add(10 * MINUTE, BigDecimal.valueOf(10));
+
+        counter.add(0, BigDecimal.valueOf(-5));
+
+        assertEquals(0, BigDecimal.valueOf(10).compareTo(counter.total(10 * MINUTE)));
+    }
+
+    @Test
+    void bucketStart_roundsDownToBucket() {
+        assertEquals(2 * MINUTE, counter.bucketStart(3 * MINUTE + 59_999));
+        assertEquals(-2 * MINUTE, counter.bucketStart(-1));
+    }
+
+    @Test
+    void constructor_rejectsWindowShorterThanBucket() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SlidingWindowCounter(Duration.ofMinutes(1), Duration.ofMinutes(2)));
+    }
+}
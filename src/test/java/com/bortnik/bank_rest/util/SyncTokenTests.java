@@ -0,0 +1,46 @@
+package com.bortnik.bank_rest.util;
+
+import com.bortnik.bank_rest.exception.BadRequest;
+import com.bortnik.bank_rest.exception.card.SyncTokenExpired;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SyncTokenTests {
+
+    @Test
+    void decode_returnsEncodedPositionWithMicrosecondPrecision() {
+        LocalDateTime time = LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_789);
+
+        assertEquals(new SyncToken(2, 5_000_000_123L, LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000)),
+                SyncToken.decode(new SyncToken(2, 5_000_000_123L, time).encode()));
+    }
+
+    @Test
+    void encode_isUrlSafe() {
+        String token = new SyncToken(0, 42L, LocalDateTime.now()).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void decode_rejectsMalformedToken() {
+        assertThrows(BadRequest.class, () -> SyncToken.decode("not a token"));
+        assertThrows(BadRequest.class, () -> SyncToken.decode(new SyncToken(0, 42L, LocalDateTime.now()).encode() + "!"));
+        assertThrows(BadRequest.class, () -> SyncToken.decode("YWJj"));
+        assertThrows(BadRequest.class, () -> SyncToken.decode(encodeRaw("1.2")));
+    }
+
+    @Test
+    void decode_rejectsTimeBasedTokenAsExpired() {
+        assertThrows(SyncTokenExpired.class, () -> SyncToken.decode(encodeRaw("1740824130123456")));
+    }
+
+    private static String encodeRaw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
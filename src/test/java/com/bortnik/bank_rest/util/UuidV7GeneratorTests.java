@@ -0,0 +1,47 @@
+package com.bortnik.bank_rest.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidV7GeneratorTests {
+
+    @Test
+    void generate_setsVersionAndVariant() {
+        UUID uuid = UuidV7Generator.generate();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void generate_embedsCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.generate();
+        long after = System.currentTimeMillis();
+
+        long timestamp = UuidV7Generator.extractTimestamp(uuid);
+
+        // Метка может уйти вперёд только при переполнении счётчика в пределах одной миллисекунды
+        assertTrue(timestamp >= before);
+        assertTrue(timestamp - after < 1_000);
+    }
+
+    @Test
+    void generate_isStrictlyIncreasing() {
+        UUID previous = UuidV7Generator.generate();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7Generator.generate();
+            assertTrue(next.compareTo(previous) > 0, "UUIDv7 must be monotonic: " + previous + " -> " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void extractTimestamp_rejectsRandomUuid() {
+        assertThrows(IllegalArgumentException.class, () ->
+                UuidV7Generator.extractTimestamp(UUID.randomUUID()));
+    }
+}